@@ -0,0 +1,45 @@
+package tetris.puzzles.engine;
+
+import org.openjdk.jmh.annotations.*;
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for simulating a whole game on the {@link tetris.puzzles.time.VirtualClock} of the {@link GameEngine}:
+ * a game of at most 10 minutes game time with increasing velocity, played by the {@link GreedyBotPlayer}.
+ * <br>Every invocation plays a new game with the next seed, so the result is the average over many different games.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+
+    public static final long GAME_TIME_IN_MILLIS = 10 * 60 * 1000;
+
+    @Param({"3", "4", "5"})
+    int k;
+
+    UserPreferences userPreferences;
+    long seed;
+
+    @Setup
+    public void setUp() {
+        userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(k);
+        userPreferences.setVelocity(FallingVelocity.MEDIUM);
+        userPreferences.setVelocityIncreasing(true);
+    }
+
+    /**
+     * Plays one game and returns the number of simulated movement ticks.
+     */
+    @Benchmark
+    public long playTenMinuteGame() {
+        return ThroughputRunner.playGame(userPreferences, GAME_TIME_IN_MILLIS, seed++).ticks;
+    }
+}
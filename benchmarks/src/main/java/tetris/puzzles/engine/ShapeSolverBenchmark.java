@@ -0,0 +1,61 @@
+package tetris.puzzles.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for solving shapes of N tetrominoes with k kacheln as exact cover problem ({@link ShapeSolver#countTilings} and
+ * {@link ShapeSolver#findTiling}), including the creation of the {@link DancingLinks} matrix.
+ * <br>The shapes are generated once with a fixed seed by {@link ShapeFitter#getRandomShapeArray(int, int, Random)},
+ * every invocation solves the next one of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ShapeSolverBenchmark {
+
+    public static final int NUMBER_OF_SHAPES = 256;
+
+    @Param({"2", "3", "4"})
+    int numberOfTetrominoes;
+
+    @Param({"3", "4", "5"})
+    int k;
+
+    int[][][] shapeArrays;
+    int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        shapeArrays = new int[NUMBER_OF_SHAPES][][];
+        for (int i = 0; i < NUMBER_OF_SHAPES; i++) {
+            shapeArrays[i] = ShapeFitter.getRandomShapeArray(k, numberOfTetrominoes, random);
+        }
+    }
+
+    /**
+     * Counts every tiling of the next shape.
+     */
+    @Benchmark
+    public long countTilings() {
+        return ShapeSolver.countTilings(k, nextShapeArray(), 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds one tiling of the next shape, as done when validating a generated shape.
+     */
+    @Benchmark
+    public int[][] findTiling() {
+        return ShapeSolver.findTiling(k, nextShapeArray(), 1);
+    }
+
+    private int[][] nextShapeArray() {
+        return shapeArrays[index++ & (NUMBER_OF_SHAPES - 1)];
+    }
+}
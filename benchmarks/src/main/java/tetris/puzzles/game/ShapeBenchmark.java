@@ -0,0 +1,74 @@
+package tetris.puzzles.game;
+
+import org.openjdk.jmh.annotations.*;
+import tetris.puzzles.datamodels.CoordinateList;
+import tetris.puzzles.datamodels.SessionStatistics;
+import tetris.puzzles.datamodels.SizeSaver;
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.tools.Tetromino;
+import tetris.tools.TetrominoArraylist;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for searching a shape out of two tetrominoes ({@link Shape#combineTwoTetrominosIntoAShape(TetrominoArray, TetrominoArray)})
+ * and for searching the positions of a tetromino in a shape ({@link Shape#getPossibilitiesForAdding(TetrominoArray, int[][], int, boolean, boolean)}).
+ * <br>Every invocation uses the next pair of tetrominoes, so that fitting and not fitting pairs are measured in the same ratio as they appear in the game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ShapeBenchmark {
+
+    @Param({"3", "4", "5"})
+    int k;
+
+    Shape shape;
+    ArrayList<TetrominoArray> tetrominoes;
+    int firstIndex;
+    int secondIndex;
+
+    @Setup
+    public void setUp() {
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(k);
+        userPreferences.setNumberOfShapes(8);
+        userPreferences.setAmountOfColors(4);
+
+        shape = new Shape(null, new SizeSaver(), 1, userPreferences, new SessionStatistics(), (shapeId, shapeArray) -> { });
+
+        tetrominoes = new ArrayList<>();
+        for (Tetromino tetromino : new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(k)) {
+            tetrominoes.add(new TetrominoArray(tetromino));
+        }
+    }
+
+    /**
+     * Moves on to the next pair of tetrominoes.
+     */
+    private void nextPair() {
+        secondIndex++;
+        if (secondIndex == tetrominoes.size()) {
+            secondIndex = 0;
+            firstIndex = (firstIndex + 1) % tetrominoes.size();
+        }
+    }
+
+    @Benchmark
+    public int[][] combineTwoTetrominosIntoAShape() {
+        nextPair();
+        return shape.combineTwoTetrominosIntoAShape(tetrominoes.get(firstIndex), tetrominoes.get(secondIndex));
+    }
+
+    @Benchmark
+    public CoordinateList getPossibilitiesForAdding() {
+        nextPair();
+        //same call as used when the first tetromino is inserted into a shape
+        return shape.getPossibilitiesForAdding(tetrominoes.get(secondIndex), shape.internalShapeArray, 1, true, true);
+    }
+}
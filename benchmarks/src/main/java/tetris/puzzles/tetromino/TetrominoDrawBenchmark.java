@@ -0,0 +1,74 @@
+package tetris.puzzles.tetromino;
+
+import org.openjdk.jmh.annotations.*;
+import tetris.puzzles.datamodels.SizeSaver;
+import tetris.tools.Tetromino;
+import tetris.tools.TetrominoArraylist;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating the geometry of a tetromino ({@link TetrominoGeometry#create(int[][])}), which is done once per form and orientation,
+ * and for the collision check ({@link TetrominoDraw#isCollidingWithOtherTetromino(ArrayList)}), which is done on every move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TetrominoDrawBenchmark {
+
+    public static final int KACHEL_LENGTH = 20;
+    public static final int NUMBER_OF_OTHER_TETROMINOES = 8;
+
+    @Param({"3", "4", "5"})
+    int k;
+
+    /**
+     * If true, the last of the other tetrominoes overlaps with the moved tetromino, so that all other tetrominoes have to be checked.
+     */
+    @Param({"false", "true"})
+    boolean colliding;
+
+    int[][] tetrominoArray;
+    TetrominoDraw movedTetromino;
+    ArrayList<TetrominoDraw> tetrominoesInGrid;
+
+    @Setup
+    public void setUp() {
+        SizeSaver sizeSaver = new SizeSaver();
+        sizeSaver.setGridLengthParkingSpot(KACHEL_LENGTH * k, k);
+        sizeSaver.setGridLengthShape(KACHEL_LENGTH * k, k);
+
+        ArrayList<Tetromino> tetrominoList = new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(k);
+        Tetromino tetromino = tetrominoList.get(tetrominoList.size() / 2);
+
+        movedTetromino = new TetrominoDraw(tetromino.getStein(), new Point(0, 0), null, sizeSaver, null);
+        tetrominoArray = tetromino.getStein();
+
+        //place the other tetrominoes in one row right of the moved tetromino (with enough space in between)
+        tetrominoesInGrid = new ArrayList<>();
+        tetrominoesInGrid.add(movedTetromino);
+        for (int i = 1; i <= NUMBER_OF_OTHER_TETROMINOES; i++) {
+            int x = i * (k + 2) * KACHEL_LENGTH;
+            if (colliding && i == NUMBER_OF_OTHER_TETROMINOES) {
+                x = 0;
+            }
+            TetrominoDraw other = new TetrominoDraw(tetromino.getStein(), new Point(x, 0), null, sizeSaver, null);
+            tetrominoesInGrid.add(other);
+        }
+    }
+
+    @Benchmark
+    public TetrominoGeometry createGeometry() {
+        return TetrominoGeometry.create(tetrominoArray);
+    }
+
+    @Benchmark
+    public boolean isCollidingWithOtherTetromino() {
+        return movedTetromino.isCollidingWithOtherTetromino(tetrominoesInGrid);
+    }
+}
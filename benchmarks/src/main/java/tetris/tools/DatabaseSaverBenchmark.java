@@ -0,0 +1,54 @@
+package tetris.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark for reading the highscore by {@link DatabaseSaver#getPoints(int)}, which is done every time the dashboard is refreshed.
+ * <br>The database is created in a temporary directory and filled with the given number of finished sessions, as the whole database is read on every access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatabaseSaverBenchmark {
+
+    public static final int GAME_ID = 1;
+
+    @Param({"0", "1000"})
+    int numberOfSessions;
+
+    Path directory;
+    DatabaseSaver databaseSaver;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tetris-benchmark");
+        databaseSaver = new DatabaseSaver(new JournaledScoreStore(directory, directory.resolve(JournaledScoreStore.LEGACY_CSV_FILE_NAME)));
+
+        databaseSaver.saveToHighscore(GAME_ID, "Benchmark", 1000);
+        for (int i = 0; i < numberOfSessions; i++) {
+            databaseSaver.saveSession(new SessionRecord(GAME_ID, i, 60000, 20, 5, 100, 4, 4, 8, 4, "MEDIUM", false));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int getPoints() {
+        return databaseSaver.getPoints(GAME_ID);
+    }
+}
@@ -0,0 +1,246 @@
+package tetris.tools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Cross-checks {@link Tetromino#hasEnclosedRegion()} against a breadth-first search of the exterior and against the predicates it replaced
+ * ({@code hasHole()} and {@code hasBigHole()}, kept here as they were before the change).
+ * <ul>
+ *  <li>every 0/1 array up to 4 x 4 and random arrays of 5 x 5 up to 9 x 9 (the sizes of tetrominoes and shapes for k = 5 to 7):
+ *  the bitwise check has to agree with the search, and every array rejected by the old predicates has to be rejected by the new check as well</li>
+ *  <li>the enumeration {@link TetrominoArraylist#alleEinbettungenStandardreihenfolgeRek(int)} for k = 1 to 7 has to return the number of
+ *  fixed polyominoes without holes (OEIS A001168 minus the ones with holes), none of them with an enclosed region</li>
+ * </ul>
+ * Usage (the arguments are optional, shown with their default values):
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar tetris.tools.EnclosedRegionVerifier seed=0 arrays=200000
+ * </pre>
+ * The verifier exits with status 1 if any check fails.
+ */
+public final class EnclosedRegionVerifier {
+
+    //number of fixed polyominoes without holes for k = 1 to 7, the first one with a hole has 7 kacheln
+    private static final int[] EXPECTED_TETROMINOES = {1, 2, 6, 19, 63, 216, 756};
+
+    private static final int MAX_EXHAUSTIVE_SIZE = 4;
+    private static final int MAX_RANDOM_SIZE = 9;
+
+    private int checkedArrays;
+    private int enclosedArrays;
+    private int missedByOldPredicates;
+    private int failures;
+
+    private EnclosedRegionVerifier() {
+        //only used by main
+    }
+
+    public static void main(String[] args) {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+        int randomArrays = Integer.parseInt(arguments.getOrDefault("arrays", "200000"));
+
+        EnclosedRegionVerifier verifier = new EnclosedRegionVerifier();
+        verifier.checkAllArrays();
+        verifier.checkRandomArrays(new Random(seed), randomArrays);
+        System.out.printf("%d arrays checked, %d with an enclosed region, %d of them missed by hasHole() and hasBigHole()%n",
+                verifier.checkedArrays, verifier.enclosedArrays, verifier.missedByOldPredicates);
+        verifier.checkEnumeration();
+
+        if (verifier.failures > 0) {
+            System.out.println(verifier.failures + " checks failed");
+            System.exit(1);
+        }
+        System.out.println("All checks passed");
+    }
+
+    /**
+     * Checks every 0/1 array of 1 x 1 up to MAX_EXHAUSTIVE_SIZE x MAX_EXHAUSTIVE_SIZE cells.
+     */
+    private void checkAllArrays() {
+        for (int size = 1; size <= MAX_EXHAUSTIVE_SIZE; size++) {
+            int cells = size * size;
+            for (int bits = 0; bits < (1 << cells); bits++) {
+                int[][] array = new int[size][size];
+                for (int cell = 0; cell < cells; cell++) {
+                    array[cell / size][cell % size] = (bits >>> cell) & 1;
+                }
+                check(array);
+            }
+        }
+    }
+
+    /**
+     * Checks random arrays of MAX_EXHAUSTIVE_SIZE + 1 up to MAX_RANDOM_SIZE rows and columns. The density of the kacheln varies,
+     * so that sparse arrays as well as arrays with small cavities are tested.
+     */
+    private void checkRandomArrays(Random random, int numberOfArrays) {
+        for (int i = 0; i < numberOfArrays; i++) {
+            int size = MAX_EXHAUSTIVE_SIZE + 1 + random.nextInt(MAX_RANDOM_SIZE - MAX_EXHAUSTIVE_SIZE);
+            double density = 0.3 + 0.6 * random.nextDouble();
+            int[][] array = new int[size][size];
+            for (int[] row : array) {
+                for (int column = 0; column < size; column++) {
+                    row[column] = (random.nextDouble() < density) ? 1 : 0;
+                }
+            }
+            check(array);
+        }
+    }
+
+    private void check(int[][] array) {
+        Tetromino tetromino = new Tetromino(array.length);
+        tetromino.stein = array;
+        boolean isEnclosed = tetromino.hasEnclosedRegion();
+        boolean isEnclosedBySearch = hasEnclosedRegionBySearch(array);
+        boolean isRejectedByOldPredicates = hasHole(array) || hasBigHole(array);
+
+        checkedArrays++;
+        if (isEnclosedBySearch) {
+            enclosedArrays++;
+            if (!isRejectedByOldPredicates) {
+                missedByOldPredicates++;
+            }
+        }
+        if (isEnclosed != isEnclosedBySearch) {
+            fail("hasEnclosedRegion() returned " + isEnclosed + ", the search " + isEnclosedBySearch + " for " + Arrays.deepToString(array));
+        }
+        if (isRejectedByOldPredicates && !isEnclosed) {
+            fail("hasHole() or hasBigHole() rejected, but hasEnclosedRegion() accepted " + Arrays.deepToString(array));
+        }
+    }
+
+    /**
+     * Checks that the enumeration returns the expected number of tetrominoes for every k, none of them with an enclosed region.
+     */
+    private void checkEnumeration() {
+        for (int k = 1; k <= EXPECTED_TETROMINOES.length; k++) {
+            int withEnclosedRegion = 0;
+            int withOldHole = 0;
+            ArrayList<Tetromino> tetrominoes = new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(k);
+            for (Tetromino tetromino : tetrominoes) {
+                if (hasEnclosedRegionBySearch(tetromino.stein)) {
+                    withEnclosedRegion++;
+                }
+                if (hasHole(tetromino.stein)) {
+                    withOldHole++;
+                }
+            }
+            System.out.printf("k=%d: %d tetrominoes (expected %d)%n", k, tetrominoes.size(), EXPECTED_TETROMINOES[k - 1]);
+            if (tetrominoes.size() != EXPECTED_TETROMINOES[k - 1] || withEnclosedRegion > 0 || withOldHole > 0) {
+                fail("k=" + k + ": " + tetrominoes.size() + " tetrominoes, " + withEnclosedRegion + " with an enclosed region, "
+                        + withOldHole + " with a hole");
+            }
+        }
+    }
+
+    private void fail(String message) {
+        failures++;
+        if (failures <= 10) {
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    /**
+     * The reference: searches every empty cell that can be reached from the border over empty cells, any other empty cell is enclosed.
+     */
+    static boolean hasEnclosedRegionBySearch(int[][] array) {
+        int rows = array.length;
+        int columns = array[0].length;
+        boolean[][] isReached = new boolean[rows][columns];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i == 0 || j == 0 || i == rows - 1 || j == columns - 1) && array[i][j] == 0) {
+                    isReached[i][j] = true;
+                    queue.add(new int[]{i, j});
+                }
+            }
+        }
+
+        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        while (!queue.isEmpty()) {
+            int[] cell = queue.poll();
+            for (int[] direction : directions) {
+                int i = cell[0] + direction[0];
+                int j = cell[1] + direction[1];
+                if (i >= 0 && i < rows && j >= 0 && j < columns && array[i][j] == 0 && !isReached[i][j]) {
+                    isReached[i][j] = true;
+                    queue.add(new int[]{i, j});
+                }
+            }
+        }
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (array[i][j] == 0 && !isReached[i][j]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    //the predicates replaced by hasEnclosedRegion(), as they were implemented by Tetromino for a k x k array
+
+    static boolean hasHole(int[][] stein) {
+        int k = stein.length;
+        for (int i = 1; i < k - 1; i++) {
+            for (int j = 1; j < k - 1; j++) {
+                if (stein[i][j] == 0 && numberNeighbours(stein, i, j) == 4) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean hasBigHole(int[][] stein) {
+        int k = stein.length;
+        for (int i = 1; i < k - 1; i++) {
+            for (int j = 1; j < k - 1; j++) {
+                if (stein[i][j] == 0 && numberNeighbours(stein, i, j) == 3 && checkNeighbourhole(stein, i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int numberNeighbours(int[][] stein, int i, int j) {
+        return stein[i - 1][j] + stein[i + 1][j] + stein[i][j - 1] + stein[i][j + 1];
+    }
+
+    private static boolean checkNeighbourhole(int[][] stein, int i, int j) {
+        if (stein[i + 1][j] == 0) {
+            if (checkBounds(stein, i + 1, j)) {
+                return numberNeighbours(stein, i + 1, j) == 3;
+            }
+        } else if (stein[i - 1][j] == 0) {
+            if (checkBounds(stein, i - 1, j)) {
+                return numberNeighbours(stein, i - 1, j) == 3;
+            }
+        } else if (stein[i][j + 1] == 0) {
+            if (checkBounds(stein, i, j + 1)) {
+                return numberNeighbours(stein, i, j + 1) == 3;
+            }
+        } else if (stein[i][j - 1] == 0) {
+            if (checkBounds(stein, i, j - 1)) {
+                return numberNeighbours(stein, i, j - 1) == 3;
+            }
+        }
+        return false;
+    }
+
+    private static boolean checkBounds(int[][] stein, int i, int j) {
+        int k = stein.length;
+        return (i < k - 1 && i > 0 && j < k - 1 && j > 0);
+    }
+}
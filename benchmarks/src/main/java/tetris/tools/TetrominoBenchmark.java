@@ -0,0 +1,62 @@
+package tetris.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the enumeration of all tetrominoes of size k and the basic operations of a {@link Tetromino}.
+ * <br>{@link TetrominoArraylist#alleEinbettungenStandardreihenfolgeRek(int)} is called every time a new shape is created,
+ * turning and mirroring is done on every key press of the user, {@link Tetromino#hasEnclosedRegion()} filters the enumeration and the generated shapes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TetrominoBenchmark {
+
+    @Param({"3", "4", "5", "6", "7"})
+    int k;
+
+    ArrayList<Tetromino> tetrominoes;
+    int index;
+
+    @Setup
+    public void setUp() {
+        tetrominoes = new ArrayList<>(new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(k));
+    }
+
+    /**
+     * Returns the next tetromino, so that every tetromino of size k is used in turn.
+     */
+    private Tetromino nextTetromino() {
+        index = (index + 1) % tetrominoes.size();
+        return tetrominoes.get(index);
+    }
+
+    @Benchmark
+    public ArrayList<Tetromino> alleEinbettungenStandardreihenfolgeRek() {
+        return new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(k);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Tetromino turn() {
+        return nextTetromino().turn();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Tetromino mirror() {
+        return nextTetromino().mirror();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean hasEnclosedRegion() {
+        return nextTetromino().hasEnclosedRegion();
+    }
+}
@@ -1,8 +1,11 @@
 package tetris.main;
 
+import tetris.puzzles.metrics.GameMetrics;
+
 public class Start {
 
 	public static void main(String[] args) {
+		GameMetrics.registerMBeans();
 		new StartFrame();
 	}
 
@@ -4,6 +4,8 @@ import tetris.puzzles.MainPuzzlesPanel;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public class StartFrame extends JFrame {
 
@@ -14,7 +16,16 @@ public class StartFrame extends JFrame {
         setMinimumSize(new Dimension(900, 700));
 
 
-        add(new MainPuzzlesPanel());
+        MainPuzzlesPanel mainPuzzlesPanel = new MainPuzzlesPanel();
+        add(mainPuzzlesPanel);
+
+        //the listeners are notified before EXIT_ON_CLOSE exits the application
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                mainPuzzlesPanel.onWindowClosing();
+            }
+        });
         setVisible(true);
 
 
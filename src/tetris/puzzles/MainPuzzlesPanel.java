@@ -1,13 +1,20 @@
 package tetris.puzzles;
 
 import tetris.puzzles.control.ControlPuzzlesPanel;
+import tetris.puzzles.datamodels.SavedGame;
 import tetris.puzzles.datamodels.UserPreferences;
 import tetris.puzzles.game.GamePuzzlesPanel;
 import tetris.puzzles.interfaces.PauseObserver;
+import tetris.puzzles.metrics.GameMetrics;
+import tetris.tools.AsyncSavedGameWriter;
+import tetris.tools.AsyncScoreWriter;
+import tetris.tools.JournaledScoreStore;
+import tetris.tools.SavedGameStore;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 
 
 /**
@@ -17,14 +24,30 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
 
     public static final int GAME_ID = 1;
 
+    /**
+     * The maximum time the application waits for pending highscore and session writes when exiting.
+     */
+    public static final int SCORE_WRITER_SHUTDOWN_TIMEOUT_IN_MS = 5000;
+
+    /**
+     * The time between two autosaves of the running game, so that the game can be continued after a crash.
+     */
+    public static final int AUTOSAVE_INTERVAL_IN_MS = 5000;
+
     boolean gamePaused;
     JLabel pauseLabel;
 
     GamePuzzlesPanel game;
     ControlPuzzlesPanel control;
 
+    AsyncScoreWriter scoreWriter;
+    AsyncSavedGameWriter savedGameWriter;
+    Timer autoSaveTimer;
+
     Action gameExitPressed;
+    Action gameSaveAndExitPressed;
     Action pauseKeyPressed;
+    Action metricsOverlayKeyPressed;
 
     public MainPuzzlesPanel() {
         setLayout(new GridBagLayout());
@@ -33,8 +56,11 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
         GridBagConstraints game_c = new GridBagConstraints();
         GridBagConstraints control_c = new GridBagConstraints();
 
+        scoreWriter = new AsyncScoreWriter(new JournaledScoreStore(), GAME_ID);
+        savedGameWriter = new AsyncSavedGameWriter(new SavedGameStore());
+
         game = new GamePuzzlesPanel(this);
-        control = new ControlPuzzlesPanel(game, this);
+        control = new ControlPuzzlesPanel(game, this, scoreWriter, savedGameWriter);
 
         game_c.weightx = 1;
         game_c.weighty = 1;
@@ -53,6 +79,22 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
         add(control, control_c);
 
         addKeyBindings();
+
+        autoSaveTimer = new Timer(AUTOSAVE_INTERVAL_IN_MS, e -> autoSave());
+        autoSaveTimer.start();
+    }
+
+    /**
+     * Saves the running game without pausing it. Only the copy of the game is done on the event dispatch thread, it is written by the {@link AsyncSavedGameWriter}.
+     */
+    private void autoSave() {
+        long captureStart = GameMetrics.startTimer();
+        SavedGame savedGame = game.captureRunningGame(control.getCurrentPoints());
+        GameMetrics.stopTimer(GameMetrics.AUTOSAVE_CAPTURE, captureStart);
+
+        if (savedGame != null) {
+            savedGameWriter.save(savedGame);
+        }
     }
 
     /**
@@ -72,7 +114,14 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
         getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("Z"), "Z_pressed");
         getActionMap().put("Z_pressed", gameExitPressed);
 
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("X"), "X_pressed");
+        getActionMap().put("X_pressed", gameSaveAndExitPressed);
+
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "F3_pressed");
+        getActionMap().put("F3_pressed", metricsOverlayKeyPressed);
+
         gameExitPressed.setEnabled(true);
+        gameSaveAndExitPressed.setEnabled(true);
         pauseKeyPressed.setEnabled(true);
     }
 
@@ -88,6 +137,13 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
             }
         };
 
+        metricsOverlayKeyPressed = new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                GameMetrics.setOverlayVisible(!GameMetrics.isOverlayVisible());
+                repaint();
+            }
+        };
+
         gameExitPressed = new AbstractAction() {
             public void actionPerformed(ActionEvent e) {
                 if (gamePaused) {
@@ -96,6 +152,50 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
 
             }
         };
+
+        gameSaveAndExitPressed = new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                if (gamePaused) {
+                    saveGame();
+                    shutdownWriters();
+                    System.exit(0);
+                }
+
+            }
+        };
+    }
+
+    /**
+     * Saves the paused game, so that it can be continued after the next start of the application.
+     * The session is not finished, so neither the session nor the highscore is saved yet. Does nothing if no game is running.
+     */
+    private void saveGame() {
+        autoSaveTimer.stop();
+        SavedGame savedGame = game.createSavedGame(control.getCurrentPoints());
+        if (savedGame != null) {
+            savedGameWriter.save(savedGame);
+        }
+    }
+
+    /**
+     * Waits for the pending writes of the highscore, the session and the saved game, so that they are not lost when the application exits.
+     */
+    private void shutdownWriters() {
+        autoSaveTimer.stop();
+        scoreWriter.shutdown(SCORE_WRITER_SHUTDOWN_TIMEOUT_IN_MS);
+        savedGameWriter.shutdown(SCORE_WRITER_SHUTDOWN_TIMEOUT_IN_MS);
+    }
+
+    /**
+     * Should be called when the window is going to be closed: the running game is paused and saved, so that closing the window does not lose the game,
+     * and the pending writes are waited for.
+     */
+    public void onWindowClosing() {
+        if (!gamePaused) {
+            game.pauseGame();
+        }
+        saveGame();
+        shutdownWriters();
     }
 
     /**
@@ -105,9 +205,11 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
         //handle highscore saving
         UserPreferences userPreferences = game.getUserPreferences();
         if (userPreferences != null) {
-            control.onGameOver(userPreferences);
+            control.onGameExit(userPreferences, game.getSessionStatistics());
         }
 
+        //the highscore, the session and the deletion of the autosave are done in the background, so wait for them before exiting
+        shutdownWriters();
         System.exit(0);
     }
 
@@ -120,7 +222,8 @@ public class MainPuzzlesPanel extends JPanel implements PauseObserver {
 
         String pauseText = "Das Spiel wurde pausiert." +
                 "<br>Drücken Sie erneut P, um weiterzuspielen" +
-                "<br>oder Z, um zu beenden";
+                "<br>oder Z, um zu beenden" +
+                "<br>oder X, um zu speichern und zu beenden";
         pauseLabel = new JLabel("<html><div style='text-align: center;'>" + pauseText + "</div></html>");
         pauseLabel.setFont(new Font("Arial", Font.ITALIC, 20));
         pauseLabel.setHorizontalAlignment(JLabel.CENTER);
@@ -1,12 +1,12 @@
 package tetris.puzzles.actions;
 
+import tetris.puzzles.game.GameCommand;
 import tetris.puzzles.game.GameGrid;
 import tetris.puzzles.game.ParkingSpot;
 import tetris.puzzles.tetromino.TetrominoDraw;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
 
 /**
  * This is an implementation of the {@link AbstractAction} class.
@@ -28,7 +28,6 @@ public class ActionMirror extends AbstractAction {
     @Override
     public void actionPerformed(ActionEvent e) {
         TetrominoDraw tetromino;
-        ArrayList<TetrominoDraw> tetrominoesInGrid;
 
         Object object = e.getSource();
 
@@ -42,13 +41,8 @@ public class ActionMirror extends AbstractAction {
                 return;
             }
 
-            tetrominoesInGrid = gameGrid.getTetrominoObserver().getTetrominoesInGameGrid();
-
-            int[] borders = gameGrid.getBorders();
-
-            tetromino.mirror(horizontally, borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid);
-
-            gameGrid.repaint();
+            //the tetromino is changed by the movement thread of the game grid, so that it does not race with the falling movement
+            gameGrid.submitCommand(GameCommand.mirror(tetromino, horizontally, gameGrid.getClock().nanoTime()));
 
         } else if (object instanceof ParkingSpot) {
             ParkingSpot parkingSpot = (ParkingSpot) object;
@@ -65,7 +59,7 @@ public class ActionMirror extends AbstractAction {
             // So we do not need to provide another list with other tetrominoes which cannot overlap.
             tetromino.mirror(horizontally, borders[0], borders[1], borders[2], borders[3], null);
 
-            parkingSpot.repaint();
+            parkingSpot.publishSnapshot();
         }
 
 
@@ -1,12 +1,13 @@
 package tetris.puzzles.actions;
 
+import tetris.puzzles.game.GameCommand;
 import tetris.puzzles.game.GameGrid;
 import tetris.puzzles.game.ParkingSpot;
+import tetris.puzzles.metrics.GameMetrics;
 import tetris.puzzles.tetromino.TetrominoDraw;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
 
 
 /**
@@ -30,8 +31,9 @@ public class ActionMove extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent e) {
+        GameMetrics.onInput(e.getWhen());
+
         TetrominoDraw tetromino;
-        ArrayList<TetrominoDraw> tetrominoesInGrid;
 
         Object object = e.getSource();
         if (object instanceof GameGrid) {
@@ -43,13 +45,8 @@ public class ActionMove extends AbstractAction {
                 return;
             }
 
-            tetrominoesInGrid = gameGrid.getTetrominoObserver().getTetrominoesInGameGrid();
-
-            int[] borders = gameGrid.getBorders();
-
-            tetromino.translateInKachelUnitWithValidation(dx, dy, borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid, true);
-
-            gameGrid.repaint();
+            //the tetromino is changed by the movement thread of the game grid, so that it does not race with the falling movement
+            gameGrid.submitCommand(GameCommand.move(tetromino, dx, dy, gameGrid.getClock().nanoTime()));
 
         } else if (object instanceof ParkingSpot) {
             ParkingSpot parkingSpot = (ParkingSpot) object;
@@ -66,7 +63,7 @@ public class ActionMove extends AbstractAction {
             // So we do not need to provide another list with other tetrominoes which cannot overlap.
             tetromino.translateInPxWithValidation(dx, dy, borders[0], borders[1], borders[2], borders[3], null, false);
 
-            parkingSpot.repaint();
+            parkingSpot.publishSnapshot();
         }
 
     }
@@ -1,12 +1,13 @@
 package tetris.puzzles.actions;
 
+import tetris.puzzles.game.GameCommand;
 import tetris.puzzles.game.GameGrid;
 import tetris.puzzles.game.ParkingSpot;
+import tetris.puzzles.metrics.GameMetrics;
 import tetris.puzzles.tetromino.TetrominoDraw;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
 
 /**
  * This is an implementation of the {@link AbstractAction} class.
@@ -27,8 +28,9 @@ public class ActionTurn extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent e) {
+        GameMetrics.onInput(e.getWhen());
+
         TetrominoDraw tetromino;
-        ArrayList<TetrominoDraw> tetrominoesInGrid;
 
         Object object = e.getSource();
         if (object instanceof GameGrid) {
@@ -40,12 +42,8 @@ public class ActionTurn extends AbstractAction {
                 return;
             }
 
-            tetrominoesInGrid = gameGrid.getTetrominoObserver().getTetrominoesInGameGrid();
-
-            int[] borders = gameGrid.getBorders();
-
-            tetromino.turn(turnRight, borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid);
-            gameGrid.repaint();
+            //the tetromino is changed by the movement thread of the game grid, so that it does not race with the falling movement
+            gameGrid.submitCommand(GameCommand.turn(tetromino, turnRight, gameGrid.getClock().nanoTime()));
 
         } else if (object instanceof ParkingSpot) {
             ParkingSpot parkingSpot = (ParkingSpot) object;
@@ -62,7 +60,7 @@ public class ActionTurn extends AbstractAction {
             // So we do not need to provide another list with other tetrominoes which cannot overlap.
             tetromino.turn(turnRight, borders[0], borders[1], borders[2], borders[3], null);
 
-            parkingSpot.repaint();
+            parkingSpot.publishSnapshot();
         }
 
     }
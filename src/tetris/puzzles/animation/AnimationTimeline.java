@@ -0,0 +1,109 @@
+package tetris.puzzles.animation;
+
+import tetris.puzzles.time.GameClock;
+
+import javax.swing.*;
+import java.util.ArrayList;
+
+/**
+ * This class runs every {@link Tween} of the game on one shared {@link javax.swing.Timer}, so that no animation needs its own thread.
+ * <br>All tweens are updated together in the same frame on the event dispatch thread. The timer only runs while at least one tween is active.
+ * <br>The progress of the tweens is measured by the {@link GameClock} of the timeline, the timer only triggers the frames.
+ */
+public class AnimationTimeline {
+
+    public static final int FRAME_INTERVAL_IN_MILLIS = 15; //~60 frames per second
+
+    private static AnimationTimeline defaultTimeline;
+
+    private final Timer timer;
+    private final GameClock clock;
+    private final ArrayList<Tween> runningTweens = new ArrayList<>();
+
+    /**
+     * Constructs a new AnimationTimeline that follows the real time. Usually, the shared timeline returned by {@link #getDefault()} should be used.
+     */
+    public AnimationTimeline() {
+        this(GameClock.system());
+    }
+
+    /**
+     * Constructs a new AnimationTimeline.
+     * @param clock The {@link GameClock} that measures the progress of the tweens.
+     */
+    public AnimationTimeline(GameClock clock) {
+        this.clock = clock;
+        timer = new Timer(FRAME_INTERVAL_IN_MILLIS, e -> tick());
+        timer.setCoalesce(true); //if the event dispatch thread is busy, skip frames instead of running them late in a row
+    }
+
+    /**
+     * Returns the timeline shared by every animation of the game.
+     *
+     * @return The shared AnimationTimeline
+     */
+    public static synchronized AnimationTimeline getDefault() {
+        if (defaultTimeline == null) {
+            defaultTimeline = new AnimationTimeline();
+        }
+        return defaultTimeline;
+    }
+
+    /**
+     * Starts the given tween (and afterwards the tweens chained to it). This method can be called from any thread.
+     *
+     * @param tween The {@link Tween} to start
+     * @return The given tween, e. g. to be able to cancel it later.
+     */
+    public Tween start(Tween tween) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            add(tween, clock.nanoTime());
+        } else {
+            SwingUtilities.invokeLater(() -> add(tween, clock.nanoTime()));
+        }
+        return tween;
+    }
+
+    /**
+     * Returns the number of tweens that are currently running (including tweens waiting for their delay).
+     *
+     * @return The number of running tweens
+     */
+    public int getNumberOfRunningTweens() {
+        return runningTweens.size();
+    }
+
+    private void add(Tween tween, long startNanos) {
+        if (tween.isCancelled()) {
+            return;
+        }
+        tween.startNanos = startNanos;
+        runningTweens.add(tween);
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Updates every running tween. Called by the timer on the event dispatch thread.
+     */
+    private void tick() {
+        long now = clock.nanoTime();
+
+        //iterate over a copy, as callbacks could start new tweens
+        for (Tween tween : new ArrayList<>(runningTweens)) {
+            if (tween.update(now)) {
+                runningTweens.remove(tween);
+
+                Tween next = tween.getNext();
+                if (next != null && !tween.isCancelled()) {
+                    add(next, now);
+                }
+            }
+        }
+
+        if (runningTweens.isEmpty()) {
+            timer.stop();
+        }
+    }
+}
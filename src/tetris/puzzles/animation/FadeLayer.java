@@ -0,0 +1,111 @@
+package tetris.puzzles.animation;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * This class holds an offscreen image of content that is faded in or out, e. g. a completed shape or the gotten points.
+ * <br>The content is rendered once, fully opaque, into the image. Every frame of the fade only draws the image with an {@link AlphaComposite},
+ * so a frame costs one image drawing regardless of how much content is faded, and no color with the current alpha needs to be created.
+ * The content is rendered again only if the size of the layer changes or {@link #invalidate()} was called.
+ * <br>Must only be used by the event dispatch thread.
+ */
+public final class FadeLayer {
+
+    private static final AlphaComposite[] COMPOSITES = new AlphaComposite[256]; //alpha -> composite, created once instead of every frame
+
+    static {
+        for (int alpha = 0; alpha < COMPOSITES.length; alpha++) {
+            COMPOSITES[alpha] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f);
+        }
+    }
+
+    /**
+     * Renders the content of a {@link FadeLayer}.
+     */
+    public interface Renderer {
+
+        /**
+         * Renders the content fully opaque, the upper left corner of the layer is (0, 0).
+         * @param g Graphics of the offscreen image
+         * @param width The width of the layer in pixels
+         * @param height The height of the layer in pixels
+         */
+        void render(Graphics2D g, int width, int height);
+    }
+
+    private final Renderer renderer;
+
+    private BufferedImage image;
+    private boolean isValid;
+
+    /**
+     * Constructs a new FadeLayer. The content is rendered when the layer is drawn for the first time.
+     * @param renderer The {@link Renderer} of the content.
+     */
+    public FadeLayer(Renderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Returns the shared composite that draws with the given alpha over the existing pixels.
+     * @param alpha The alpha value, 0 (transparent) to 255 (opaque). Values outside are clamped.
+     * @return An {@link AlphaComposite} with the rule {@link AlphaComposite#SRC_OVER}.
+     */
+    public static AlphaComposite getComposite(int alpha) {
+        return COMPOSITES[Math.max(0, Math.min(255, alpha))];
+    }
+
+    /**
+     * Draws the layer with the given alpha. The composite of the given graphics is restored afterwards.
+     * @param g Graphics object to paint on
+     * @param x The x coordinate of the upper left corner of the layer
+     * @param y The y coordinate of the upper left corner of the layer
+     * @param width The width of the layer in pixels
+     * @param height The height of the layer in pixels
+     * @param alpha The alpha value, 0 (transparent) to 255 (opaque)
+     */
+    public void draw(Graphics g, int x, int y, int width, int height, int alpha) {
+        if (width <= 0 || height <= 0 || alpha <= 0) {
+            return; //nothing visible
+        }
+
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            isValid = false;
+        }
+        Graphics2D g2 = (Graphics2D) g;
+        if (!isValid) {
+            renderContent(g2);
+        }
+
+        Composite previousComposite = g2.getComposite();
+        g2.setComposite(getComposite(alpha));
+        g2.drawImage(image, x, y, null);
+        g2.setComposite(previousComposite);
+    }
+
+    /**
+     * Marks the content as changed, so it is rendered again when the layer is drawn the next time.
+     */
+    public void invalidate() {
+        isValid = false;
+    }
+
+    private void renderContent(Graphics2D target) {
+        Graphics2D imageGraphics = image.createGraphics();
+        try {
+            imageGraphics.setRenderingHints(target.getRenderingHints()); //e. g. antialiased text, as if the content was drawn directly
+
+            //clear the pixels of the previous content
+            imageGraphics.setComposite(AlphaComposite.Clear);
+            imageGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            imageGraphics.setComposite(AlphaComposite.SrcOver);
+
+            renderer.render(imageGraphics, image.getWidth(), image.getHeight());
+        } finally {
+            imageGraphics.dispose();
+        }
+        isValid = true;
+    }
+}
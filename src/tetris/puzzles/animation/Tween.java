@@ -0,0 +1,201 @@
+package tetris.puzzles.animation;
+
+import java.awt.*;
+
+/**
+ * This class describes one animation that changes a value from a start value to an end value in a given time (a "tween").
+ * <br>A tween does not run by itself, it has to be started by an {@link AnimationTimeline} which updates all running tweens together.
+ * Every callback ({@link UpdateListener} and the completion callback) is invoked on the event dispatch thread.
+ * <br>Tweens can be chained by {@link #then(Tween)}, e. g. for a fade in followed by a fade out. Cancelling the first tween of a chain
+ * cancels the whole chain.
+ * <br>Typical usage:
+ * <pre>
+ * Tween fadeOut = new Tween(255, 0, 500, value -&gt; { alpha = (int) value; repaint(); });
+ * fadeOut.setOnFinished(() -&gt; onFadeOutAnimationFinished());
+ * AnimationTimeline.getDefault().start(fadeOut);
+ * </pre>
+ */
+public class Tween {
+
+    /**
+     * Provides an interface for classes that want to receive the current value of a tween.
+     */
+    public interface UpdateListener {
+
+        /**
+         * Is invoked on the event dispatch thread for every frame of the animation.
+         *
+         * @param value The current value, between the start and the end value of the tween.
+         */
+        void onUpdate(float value);
+    }
+
+    /**
+     * Provides an interface for classes that want to receive the current color of a color tween.
+     */
+    public interface ColorListener {
+        void onUpdate(Color color);
+    }
+
+    /**
+     * Provides an interface for classes that want to receive the current position of a position tween.
+     */
+    public interface PositionListener {
+        void onUpdate(Point position);
+    }
+
+    private final float startValue;
+    private final float endValue;
+    private final long durationNanos;
+    private final UpdateListener updateListener;
+
+    private long delayNanos;
+    private Runnable onFinished;
+    private Tween next;
+
+    long startNanos; //set by the AnimationTimeline when the tween is started
+    private volatile boolean isCancelled;
+    private volatile boolean isFinished;
+
+    /**
+     * Constructs a new Tween that changes a value linearly.
+     *
+     * @param startValue     The value at the beginning of the animation
+     * @param endValue       The value at the end of the animation
+     * @param durationMillis The duration of the animation in milliseconds
+     * @param updateListener The {@link UpdateListener} that receives the current value in every frame.
+     */
+    public Tween(float startValue, float endValue, int durationMillis, UpdateListener updateListener) {
+        this.startValue = startValue;
+        this.endValue = endValue;
+        this.durationNanos = durationMillis * 1_000_000L;
+        this.updateListener = updateListener;
+    }
+
+    /**
+     * Creates a tween that changes a color (including its alpha value) linearly.
+     *
+     * @param startColor     The color at the beginning of the animation
+     * @param endColor       The color at the end of the animation
+     * @param durationMillis The duration of the animation in milliseconds
+     * @param colorListener  The {@link ColorListener} that receives the current color in every frame.
+     * @return A new Tween.
+     */
+    public static Tween ofColor(Color startColor, Color endColor, int durationMillis, ColorListener colorListener) {
+        return new Tween(0, 1, durationMillis, fraction -> colorListener.onUpdate(new Color(
+                interpolate(startColor.getRed(), endColor.getRed(), fraction),
+                interpolate(startColor.getGreen(), endColor.getGreen(), fraction),
+                interpolate(startColor.getBlue(), endColor.getBlue(), fraction),
+                interpolate(startColor.getAlpha(), endColor.getAlpha(), fraction))));
+    }
+
+    /**
+     * Creates a tween that moves a point linearly.
+     *
+     * @param startPosition    The position at the beginning of the animation
+     * @param endPosition      The position at the end of the animation
+     * @param durationMillis   The duration of the animation in milliseconds
+     * @param positionListener The {@link PositionListener} that receives the current position in every frame.
+     * @return A new Tween.
+     */
+    public static Tween ofPosition(Point startPosition, Point endPosition, int durationMillis, PositionListener positionListener) {
+        return new Tween(0, 1, durationMillis, fraction -> positionListener.onUpdate(new Point(
+                interpolate(startPosition.x, endPosition.x, fraction),
+                interpolate(startPosition.y, endPosition.y, fraction))));
+    }
+
+    private static int interpolate(int start, int end, float fraction) {
+        return Math.round(start + (end - start) * fraction);
+    }
+
+    /**
+     * Sets a delay, i. e. the time between the start of the tween and the first change of the value.
+     *
+     * @param delayMillis The delay in milliseconds
+     * @return This tween (for chaining calls).
+     */
+    public Tween setDelay(int delayMillis) {
+        this.delayNanos = delayMillis * 1_000_000L;
+        return this;
+    }
+
+    /**
+     * Sets the callback that is invoked on the event dispatch thread when the tween has reached its end value.
+     * The callback is not invoked if the tween was cancelled.
+     *
+     * @param onFinished The callback
+     * @return This tween (for chaining calls).
+     */
+    public Tween setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+        return this;
+    }
+
+    /**
+     * Sets the tween that should be started as soon as this tween has finished.
+     *
+     * @param nextTween The next tween
+     * @return The given next tween, so that further tweens can be added to the chain.
+     */
+    public Tween then(Tween nextTween) {
+        this.next = nextTween;
+        return nextTween;
+    }
+
+    /**
+     * Cancels this tween and every tween chained to it. The value is not changed anymore and no completion callback is invoked.
+     * This method can be called from any thread.
+     */
+    public void cancel() {
+        isCancelled = true;
+        if (next != null) {
+            next.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * Returns whether this tween and every tween chained to it has finished.
+     *
+     * @return True, if the whole chain has finished.
+     */
+    public boolean isFinished() {
+        return isFinished && (next == null || next.isFinished());
+    }
+
+    Tween getNext() {
+        return next;
+    }
+
+    /**
+     * Updates the value for the given point in time. Called by the {@link AnimationTimeline} on the event dispatch thread.
+     *
+     * @param nowNanos The current time as returned by {@link tetris.puzzles.time.GameClock#nanoTime()} of the timeline
+     * @return True, if the tween is finished or cancelled and should not be updated anymore.
+     */
+    boolean update(long nowNanos) {
+        if (isCancelled) {
+            return true;
+        }
+
+        long elapsedNanos = nowNanos - startNanos - delayNanos;
+        if (elapsedNanos < 0) {
+            return false; //still waiting for the delay
+        }
+
+        float fraction = (durationNanos == 0) ? 1 : Math.min(1, elapsedNanos / (float) durationNanos);
+        updateListener.onUpdate(startValue + (endValue - startValue) * fraction);
+
+        if (fraction >= 1) {
+            isFinished = true;
+            if (onFinished != null) {
+                onFinished.run();
+            }
+            return true;
+        }
+        return false;
+    }
+}
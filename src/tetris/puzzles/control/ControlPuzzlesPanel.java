@@ -1,8 +1,12 @@
 package tetris.puzzles.control;
 
-import tetris.tools.DatabaseSaver;
+import tetris.tools.AsyncScoreWriter;
+import tetris.tools.AsyncSavedGameWriter;
 import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.SavedGame;
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.ShapePool;
 import tetris.puzzles.interfaces.ControlInterface;
 import tetris.puzzles.interfaces.GameInterface;
 import tetris.puzzles.interfaces.PauseObserver;
@@ -19,6 +23,8 @@ import static tetris.puzzles.MainPuzzlesPanel.GAME_ID;
 /**
  * This class is responsible for handling the right control screen where the user can choose his preferenches
  * and sees the dashboard.
+ * <br>The number of tetrominoes in a shape is not offered, the Swing game always plays shapes out of two tetrominoes
+ * (see {@link UserPreferences#setNumberOfTetrominoesInShape(int)}).
  */
 public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
 
@@ -34,13 +40,22 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
 
     GameInterface gameInterface;
 
+    AsyncScoreWriter scoreWriter;
+    AsyncSavedGameWriter savedGameWriter;
+
+    JButton resume;
+
     /**
      * Constructs the ControlPuzzlesPanel.
      * @param gameInterface A {@link GameInterface} in order to enable communication with the game panel (e. g. to start the game)
      * @param pauseObserver A {@link PauseObserver} in order to be able to pause the game
+     * @param scoreWriter An {@link AsyncScoreWriter} in order to save the highscore and the session without blocking the UI
+     * @param savedGameWriter An {@link AsyncSavedGameWriter} in order to continue a saved game and to delete the saved game when it is finished
      */
-    public ControlPuzzlesPanel(GameInterface gameInterface, PauseObserver pauseObserver) {
+    public ControlPuzzlesPanel(GameInterface gameInterface, PauseObserver pauseObserver, AsyncScoreWriter scoreWriter, AsyncSavedGameWriter savedGameWriter) {
         this.gameInterface = gameInterface;
+        this.scoreWriter = scoreWriter;
+        this.savedGameWriter = savedGameWriter;
         gameInterface.setControlInterface(this);
 
         createOptionsLayout(pauseObserver);
@@ -57,12 +72,12 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
         Font fontOptionDescription = new Font("Arial", Font.BOLD, 12);
         //Font fontHint = new Font("Arial", Font.ITALIC, 10);
 
-        Integer[] numberOfKachelnInStoneOptions = new Integer[]{3, 4, 5};
-        Integer[] numberOfNewAppearingStonesOptions = new Integer[]{1, 2, 3, 4, 5};
-        Integer[] numberOfShapesOptions = new Integer[]{2, 3, 4, 5, 6, 7, 8, 9};
-        Integer[] amountOfColorsOptions = new Integer[]{1, 2, 3, 4, 5};
+        Integer[] numberOfKachelnInStoneOptions = createOptions(UserPreferences.MIN_KACHELN_IN_STONE, UserPreferences.MAX_KACHELN_IN_STONE);
+        Integer[] numberOfNewAppearingStonesOptions = createOptions(UserPreferences.MIN_NEW_APPEARING_STONES, UserPreferences.MAX_NEW_APPEARING_STONES);
+        Integer[] numberOfShapesOptions = createOptions(UserPreferences.MIN_SHAPES, UserPreferences.MAX_SHAPES);
+        Integer[] amountOfColorsOptions = createOptions(UserPreferences.MIN_COLORS, UserPreferences.MAX_COLORS);
 
-        dashboard = new DashboardPanel();
+        dashboard = new DashboardPanel(scoreWriter);
         add(dashboard, createConstraints(0, 0, 2, 2, 1, 1, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new int[]{10, 0, 0, 5}));
         dashboard.setVisible(false);
 
@@ -106,6 +121,14 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
 
 
         numberOfKachelnInStoneMenu = addDropDownOption("Size of tetrominoes", numberOfKachelnInStoneOptions, 4, 5, fontOptionDescription);
+        //start generating the shapes for the chosen size in the background, so that they are ready when the game starts
+        ShapePool.getPool((Integer) numberOfKachelnInStoneMenu.getSelectedItem());
+        numberOfKachelnInStoneMenu.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                ShapePool.getPool((Integer) numberOfKachelnInStoneMenu.getSelectedItem());
+            }
+        });
 
         numberOfNewAppearingStonesMenu = addDropDownOption("No. of new tetrominoes", numberOfNewAppearingStonesOptions, 4, 6, fontOptionDescription);
 
@@ -164,6 +187,40 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
             }
         });
         add(instructions, createConstraints(9, 1, 1, 1, 0, 1, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new int[]{0, 0, 0, 5}));
+
+
+        resume = new JButton("Continue saved game");
+        resume.setFocusable(false);
+        resume.setEnabled(savedGameWriter.exists());
+        resume.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                resumeSavedGame();
+            }
+        });
+        add(resume, createConstraints(10, 0, 2, 1, 1, 1, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new int[]{0, 0, 0, 5}));
+    }
+
+    /**
+     * Loads the saved game and continues it. The saved game is deleted, so that it cannot be continued twice.
+     */
+    private void resumeSavedGame() {
+        SavedGame savedGame = savedGameWriter.load();
+        savedGameWriter.delete();
+        resume.setEnabled(false);
+        if (savedGame == null) {
+            //the file was damaged or written by another version
+            JOptionPane.showMessageDialog(null, "The saved game could not be loaded.", "Continue saved game", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        dashboard.setVisible(true);
+        dashboard.setCurrentPoints(savedGame.getPoints());
+        gameInterface.onGameResume(savedGame);
+    }
+
+    public int getCurrentPoints() {
+        return dashboard.getCurrentPoints();
     }
 
     /**
@@ -193,6 +250,20 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
         gameInterface.onGameStart(getCurrentUserPreferences());
     }
 
+    /**
+     * Creates the options of a DropDown Menu.
+     * @param min The smallest option
+     * @param max The biggest option
+     * @return Every number from min to max
+     */
+    private static Integer[] createOptions(int min, int max) {
+        Integer[] options = new Integer[max - min + 1];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = min + i;
+        }
+        return options;
+    }
+
     /**
      * Convenience method to add a DropDown Menu to UI.
      * @param description The description of the DropDown Menu
@@ -262,101 +333,73 @@ public class ControlPuzzlesPanel extends JPanel implements ControlInterface {
     public void addPoints(UserPreferences usedPreferences) {
         //NOTE: We cannot use the getCurrentUserPreferences() here, as the user might has changed the preferences without relaunching the game.
         //In this case the user would get points calculated by UserPreferences that are selected, but not active in the game yet.
-        dashboard.addPoints(calculatePoints(usedPreferences));
+        dashboard.addPoints(usedPreferences.calculatePoints());
     }
 
     @Override
-    public void onGameOver(UserPreferences usedPreferences) {
-        if (usedPreferences.isDefaultPreferencesUsed()) {
-            int points = dashboard.getCurrentPoints();
-            new DatabaseSaver(GAME_ID, points);
-        }
-        dashboard.refresh();
+    public void onGameOver(UserPreferences usedPreferences, SessionStatistics sessionStatistics) {
+        //the game over can be reported by a game thread, so ask for the name later on the event dispatch thread
+        saveGameResult(usedPreferences, sessionStatistics, false);
     }
 
-
     /**
-     * Method that calculates that points the user gets by using the current settings.
-     * @param usedPreferences The current settings used in the game.
-     * @return The score the user gets for fitting two tetrominoes into a shape.
+     * Saves the result of the running game before the application exits.
+     * <br>In contrast to {@link #onGameOver(UserPreferences, SessionStatistics)}, the user is asked for his name immediately
+     * (if a new highscore was achieved), as a dialog requested for later would not be shown anymore.
+     * <br>NOTE: This method has to be called on the event dispatch thread and blocks until the user enters his name or cancels the dialog.
+     * @param usedPreferences The {@link UserPreferences} used in the game
+     * @param sessionStatistics The {@link SessionStatistics} of the game
      */
-    private int calculatePoints(UserPreferences usedPreferences) {
-        int sum = 0;
-
-        switch (usedPreferences.getNumberOfKachelnInStone()) {
-            case 3:
-                sum += 5;
-                break;
-            case 4:
-                sum += 10;
-                break;
-            case 5:
-                sum += 20;
-                break;
-        }
-
-        switch (usedPreferences.getNumberOfNewAppearingStones()) {
-            case 1:
-            case 2:
-                sum += 0;
-                break;
-            case 3:
-                sum += 5;
-                break;
-            case 4:
-                sum += 10;
-                break;
-            case 5:
-                sum += 15;
-                break;
-        }
+    public void onGameExit(UserPreferences usedPreferences, SessionStatistics sessionStatistics) {
+        saveGameResult(usedPreferences, sessionStatistics, true);
+    }
 
-        switch (usedPreferences.getNumberOfShapes()) {
-            case 1:
-                sum += 40;
-                break;
-            case 2:
-                sum += 35;
-                break;
-            case 3:
-                sum += 30;
-                break;
-            case 4:
-                sum += 25;
-                break;
-            case 5:
-                sum += 20;
-                break;
-            case 6:
-                sum += 15;
-                break;
-            case 7:
-                sum += 10;
-                break;
-            case 8:
-                sum += 5;
-                break;
-            case 9:
-                sum += 0;
-                break;
+    /**
+     * Requests to save the session and (if a new highscore was achieved) the highscore. The data itself is written by the {@link AsyncScoreWriter},
+     * thus this method does not wait for the database.
+     * @param usedPreferences The {@link UserPreferences} used in the game
+     * @param sessionStatistics The {@link SessionStatistics} of the game
+     * @param askForNameImmediately If true, the name is asked in the calling thread. Otherwise, the dialog is shown later on the event dispatch thread.
+     */
+    private void saveGameResult(UserPreferences usedPreferences, SessionStatistics sessionStatistics, boolean askForNameImmediately) {
+        int points = dashboard.getCurrentPoints();
+
+        if (sessionStatistics != null && sessionStatistics.finish()) {
+            //the session history is saved for every game, no matter which preferences were used
+            scoreWriter.saveSession(sessionStatistics.toSessionRecord(GAME_ID, points, usedPreferences));
+
+            //a finished game must not be continued, so remove its autosave. Autosaves are requested on the event dispatch thread,
+            //so deleting there too ensures that an autosave captured just before the game over is not written afterwards.
+            if (SwingUtilities.isEventDispatchThread()) {
+                savedGameWriter.delete();
+            } else {
+                SwingUtilities.invokeLater(savedGameWriter::delete);
+            }
         }
 
-        switch (usedPreferences.getVelocity()) {
-            case SLOW:
-                sum += 0;
-                break;
-            case MEDIUM:
-                sum += 5;
-                break;
-            case FAST:
-                sum += 15;
-                break;
+        //the highscore known by the writer is used here, as reading the database would block the UI
+        //(if another window saved a higher score meanwhile, the store discards our entry anyway)
+        if (usedPreferences.isDefaultPreferencesUsed() && scoreWriter.isNewHighscoreAchieved(GAME_ID, points)) {
+            if (askForNameImmediately) {
+                askForNameAndSaveHighscore(points);
+            } else {
+                SwingUtilities.invokeLater(() -> askForNameAndSaveHighscore(points));
+            }
         }
+        dashboard.refresh();
+    }
 
-        if (usedPreferences.isVelocityIncreasing()) {
-            sum += 10;
+    /**
+     * Asks the user for his name and requests to save the new highscore.
+     * @param points The points the user achieved
+     */
+    private void askForNameAndSaveHighscore(int points) {
+        String name = JOptionPane.showInputDialog(null, "You achieved a new highscore, please enter your name: ", "Congratulations!", JOptionPane.INFORMATION_MESSAGE);
+        if (name == null) {
+            name = "N/A";
         }
 
-        return sum;
+        scoreWriter.saveToHighscore(GAME_ID, name, points);
+        dashboard.refresh();
     }
 }
@@ -1,6 +1,6 @@
 package tetris.puzzles.control;
 
-import tetris.tools.DatabaseSaver;
+import tetris.tools.AsyncScoreWriter;
 
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -15,14 +15,20 @@ import static tetris.puzzles.MainPuzzlesPanel.GAME_ID;
 public class DashboardPanel extends JPanel {
 
     JLabel currentScoreLabel;
+    JLabel highScoreLabel;
+    JLabel highScoreNameLabel;
     int currentPoints = 0;
 
+    AsyncScoreWriter scoreWriter;
+
     InformationPanel informationPanel;
 
     /**
      * Constructs a {@link DashboardPanel} object and creates the layout.
+     * @param scoreWriter The {@link AsyncScoreWriter} used to load the highscore without blocking the UI
      */
-    DashboardPanel() {
+    DashboardPanel(AsyncScoreWriter scoreWriter) {
+        this.scoreWriter = scoreWriter;
         createLayout();
     }
 
@@ -53,9 +59,10 @@ public class DashboardPanel extends JPanel {
         add(currentScoreLabel, currentScore_c);
 
 
-        JLabel highScore = new JLabel("Current highscore: " + getHighscorePoints());
+        //the highscore is loaded in the background, see loadHighscore()
+        highScoreLabel = new JLabel("Current highscore: ...");
         //highScore.setHorizontalAlignment(SwingConstants.CENTER);
-        highScore.setFont(fontScore);
+        highScoreLabel.setFont(fontScore);
 
         GridBagConstraints highScore_c = new GridBagConstraints();
         highScore_c.gridx = 1;
@@ -64,13 +71,12 @@ public class DashboardPanel extends JPanel {
         highScore_c.weightx = 0;
         highScore_c.fill = GridBagConstraints.BOTH;
 
-        add(highScore, highScore_c);
+        add(highScoreLabel, highScore_c);
 
 
-        JLabel highScoreName = new JLabel("achieved by " + getHighscoreName());
-        highScoreName.setHorizontalAlignment(SwingConstants.RIGHT);
-        highScoreName.setFont(fontScore);
-        highScoreName.setFont(fontScore);
+        highScoreNameLabel = new JLabel("achieved by -");
+        highScoreNameLabel.setHorizontalAlignment(SwingConstants.RIGHT);
+        highScoreNameLabel.setFont(fontScore);
 
         GridBagConstraints highScore_name_c = new GridBagConstraints();
         highScore_name_c.gridx = 1;
@@ -79,7 +85,7 @@ public class DashboardPanel extends JPanel {
         highScore_name_c.weightx = 0;
         highScore_name_c.fill = GridBagConstraints.BOTH;
 
-        add(highScoreName, highScore_name_c);
+        add(highScoreNameLabel, highScore_name_c);
 
         /*
         Alternatively, we could use an ImageIcon but then we are not that flexible with adjusting the size and transparency of picture.
@@ -101,15 +107,31 @@ public class DashboardPanel extends JPanel {
 
         revalidate();
         repaint();
+
+        loadHighscore();
+    }
+
+    /**
+     * Requests the highscore saved in the database. As the database is accessed by the writer thread of the {@link AsyncScoreWriter},
+     * the labels are updated as soon as the highscore was read.
+     */
+    private void loadHighscore() {
+        //remember the labels, as the layout could be refreshed again before the highscore was read
+        JLabel highScore = highScoreLabel;
+        JLabel highScoreName = highScoreNameLabel;
+
+        scoreWriter.readHighscore(GAME_ID, (points, name) -> {
+            highScore.setText("Current highscore: " + formatHighscorePoints(points));
+            highScoreName.setText("achieved by " + formatHighscoreName(name));
+        });
     }
 
     /**
-     * Returns the highscore points saved in the database.
-     * @return Current highscore points saved in the database
+     * Formats the highscore points saved in the database.
+     * @param points Highscore points saved in the database
+     * @return The text to be displayed for the highscore points
      */
-    private String getHighscorePoints() {
-        DatabaseSaver databaseSaver = new DatabaseSaver();
-        int points = databaseSaver.getPoints(GAME_ID);
+    private String formatHighscorePoints(int points) {
         if (points < 0) {
             return "Ø"; //this is a scandinavian letter which simulates the mathematical symbol for empty set
         } else {
@@ -119,12 +141,11 @@ public class DashboardPanel extends JPanel {
     }
 
     /**
-     * Returns the name corresponding to the highscore points returned by {@link #getHighscorePoints()}.
-     * @return Name saved in the database which corresponds to the highscore points
+     * Formats the name corresponding to the highscore points.
+     * @param name Name saved in the database which corresponds to the highscore points
+     * @return The text to be displayed for the name
      */
-    private String getHighscoreName() {
-        DatabaseSaver databaseSaver = new DatabaseSaver();
-        String name = databaseSaver.getName(GAME_ID);
+    private String formatHighscoreName(String name) {
         if (name == null || name.equals("")) {
             return "-";
         } else {
@@ -165,6 +186,16 @@ public class DashboardPanel extends JPanel {
         return currentPoints;
     }
 
+    /**
+     * Sets the current points, e. g. to the points of a saved game that is continued.
+     * @param points The points the user achieved so far
+     */
+    public void setCurrentPoints(int points) {
+        currentPoints = points;
+        currentScoreLabel.setText("Current Points: " + currentPoints);
+        repaint();
+    }
+
     /**
      * Resets the current points back to zero.
      */
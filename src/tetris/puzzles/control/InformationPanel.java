@@ -1,25 +1,37 @@
 package tetris.puzzles.control;
 
+import tetris.puzzles.animation.AnimationTimeline;
+import tetris.puzzles.animation.FadeLayer;
+import tetris.puzzles.animation.Tween;
+import tetris.puzzles.text.TextLayoutCache;
+
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.Random;
 
-import static tetris.puzzles.game.GameGrid.REFRESH_RATE_IN_MILLIS;
-
 /**
  * This class creates the InformationPanel showing warning sign or gotten points to the user.
  */
-public class InformationPanel extends JPanel implements Runnable {
+public class InformationPanel extends JPanel {
+
+    public static final int FADE_DURATION_IN_MILLIS = 400;
+    public static final int DISPLAY_DURATION_IN_MILLIS = 2000;
+    public static final int MIN_FONT_SIZE = 18;
+    public static final int MAX_FONT_SIZE = 35;
 
     Image img;
     float alpha = 0;
     int lastPoints;
+    String pointsString;
     Color lastColor;
 
-    Thread fadeAnimation;
+    Tween fadeAnimation;
+    FadeLayer pointsLayer = new FadeLayer(this::renderPointNotification);
 
     boolean showWarning;
     boolean showPoints;
@@ -29,6 +41,16 @@ public class InformationPanel extends JPanel implements Runnable {
      */
     InformationPanel() {
         img = getLoadedImage();
+
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                super.componentResized(e);
+
+                //the point strings were fitted into the old size
+                TextLayoutCache.getDefault().evictFittedTexts();
+            }
+        });
     }
 
     @Override
@@ -37,7 +59,7 @@ public class InformationPanel extends JPanel implements Runnable {
 
         if (showWarning) {
             Graphics2D g2 = (Graphics2D) g;
-            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            g2.setComposite(FadeLayer.getComposite(getAlphaValue()));
             g2.drawImage(img, 0, 0, getWidth(), getHeight(), null);
         } else if (showPoints) {
             drawPointNotification(g);
@@ -47,60 +69,39 @@ public class InformationPanel extends JPanel implements Runnable {
 
     /**
      * Draws the notification of currently gotten points.
+     * The notification is rendered once into the {@link FadeLayer}, so every frame of the fade animation only draws the layer with the current alpha.
+     * The layer only covers the string, whose font and layout are taken from the shared {@link TextLayoutCache}, so no font is created or measured.
      * @param g Graphics object
      */
     private void drawPointNotification(Graphics g) {
-        String displayString = "+" + lastPoints;
-
-        g.setColor(new Color(lastColor.getRed(), lastColor.getGreen(), lastColor.getBlue(), (int) (alpha * 255)));
-        g.setFont(new Font("Arial", Font.BOLD, determineMaxFontSize(displayString, getWidth(), getHeight(), g)));
-
-        // get the FontMetrics for the current font
-        FontMetrics fm = g.getFontMetrics();
-
-        // get the width and height of string
-        int stringWidth = fm.stringWidth(displayString);
-        int stringHeight = fm.getAscent();
+        TextLayoutCache.CachedText displayText = getPointsText(g);
 
         // calculate the position for the leftmost character
-        int x = (getWidth() / 2) - (stringWidth / 2);
-        int y = (getHeight() / 2) + (stringHeight / 2);
+        int x = (getWidth() / 2) - (displayText.getWidth() / 2);
+        int y = (getHeight() / 2) + (displayText.getAscent() / 2);
 
-        g.drawString(displayString, x, y);
+        pointsLayer.draw(g, x, y - displayText.getAscent(), displayText.getWidth(), displayText.getAscent() + displayText.getDescent(), getAlphaValue());
     }
 
     /**
-     * Determines the maximal possible font size for a given string for a given maxWidth and maxHeight.
-     *
-     * @param s         The string to be drawn on screen
-     * @param maxWidth  The maximum width that should be fitted.
-     * @param maxHeight The maximum height that should be fitted.
-     * @param g         Graphics context
-     * @return The biggest font size that still not exceed the given maximum maxHeight and maxWidth.
-     * <b>NOTE: The font size is always in range: 18 <= fontsize <= 35.</b>
+     * Renders the string of currently gotten points fully opaque into the {@link FadeLayer}.
+     * @param g Graphics object of the layer
+     * @param width The width of the layer
+     * @param height The height of the layer
      */
-    private int determineMaxFontSize(String s, int maxWidth, int maxHeight, Graphics g) {
-        int fontSize = 18;
-
-        for (; fontSize < 35; fontSize++) {
-            g.setFont(new Font("Arial", Font.BOLD, fontSize));
-
-            // get the FontMetrics for the current font
-            FontMetrics fm = g.getFontMetrics();
+    private void renderPointNotification(Graphics2D g, int width, int height) {
+        TextLayoutCache.CachedText displayText = getPointsText(g);
 
-            // get the length and maxHeight of string
-            int stringWidth = fm.stringWidth(s);
-            int stringHeight = fm.getAscent();
-
-            if (stringWidth > maxWidth || stringHeight > maxHeight) {
-                //font got to big, need to reduce again
-                return fontSize - 1;
-            }
-        }
+        g.setColor(lastColor);
+        displayText.draw(g, 0, displayText.getAscent());
+    }
 
-        //fontSize reached 35 and still fits into screen.
-        return fontSize;
+    private TextLayoutCache.CachedText getPointsText(Graphics g) {
+        return TextLayoutCache.getDefault().getFittedText(pointsString, Font.BOLD, MIN_FONT_SIZE, MAX_FONT_SIZE, getWidth(), getHeight(), g);
+    }
 
+    private int getAlphaValue() {
+        return (int) (alpha * 255);
     }
 
     /**
@@ -123,16 +124,24 @@ public class InformationPanel extends JPanel implements Runnable {
     }
 
     /**
-     * Starts a Fade-in and then Fade-out animation.
+     * Starts a Fade-in and then Fade-out animation on the shared {@link AnimationTimeline}.
+     * If the previous animation still did not finish, it is cancelled and the animation starts again.
      */
     public void startFadeAnimation() {
-        if (fadeAnimation != null && fadeAnimation.isAlive()) {
-            fadeAnimation.interrupt();
-        } else {
-            fadeAnimation = new Thread(this);
-            fadeAnimation.start();
+        if (fadeAnimation != null) {
+            fadeAnimation.cancel();
         }
 
+        alpha = 0;
+        fadeAnimation = new Tween(0, 1, FADE_DURATION_IN_MILLIS, this::setAlpha);
+        //show for 2 seconds, then fade out
+        fadeAnimation.then(new Tween(1, 0, FADE_DURATION_IN_MILLIS, this::setAlpha).setDelay(DISPLAY_DURATION_IN_MILLIS));
+        AnimationTimeline.getDefault().start(fadeAnimation);
+    }
+
+    private void setAlpha(float alpha) {
+        this.alpha = alpha;
+        repaint();
     }
 
     /**
@@ -149,38 +158,6 @@ public class InformationPanel extends JPanel implements Runnable {
         return colorPalette[randomIndex];
     }
 
-    @Override
-    public void run() {
-
-        try {
-            //fade in animation
-            while (alpha <= 0.90) {
-                alpha += 0.10;
-                repaint();
-                Thread.sleep(REFRESH_RATE_IN_MILLIS);
-            }
-
-            //show for 2 seconds
-            Thread.sleep(2000);
-
-            //fade out animation
-            while (alpha >= 0.10) {
-                alpha -= 0.10;
-                repaint();
-                Thread.sleep(REFRESH_RATE_IN_MILLIS);
-            }
-        } catch (InterruptedException e) {
-            // Thread was asked to interrupt, most likely the class requested to display another animation
-            // while the first animation still did not finished. In this case, just restart the animation.
-
-            alpha = 0;
-            fadeAnimation = new Thread(this);
-            fadeAnimation.start();
-        }
-
-        //animation finished
-    }
-
     /**
      * Prepares the panel to show the warning sign.
      */
@@ -197,7 +174,9 @@ public class InformationPanel extends JPanel implements Runnable {
         showPoints = true;
         showWarning = false;
         lastPoints = point;
+        pointsString = "+" + point;
         lastColor = getRandomColor();
+        pointsLayer.invalidate();
         startFadeAnimation();
     }
 }
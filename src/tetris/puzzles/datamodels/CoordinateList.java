@@ -0,0 +1,93 @@
+package tetris.puzzles.datamodels;
+
+import java.util.Arrays;
+
+/**
+ * This class holds a list of cells in a matrix grid, i. e. (row, column) pairs.
+ * <br>The pairs are packed into one int array ({@code row0, column0, row1, column1, ...}), so that no object is created per cell.
+ * The list grows when needed, but never shrinks, so it can be cleared and reused.
+ */
+public class CoordinateList {
+
+    private int[] coordinates;
+    private int size;
+
+    public CoordinateList() {
+        this(8);
+    }
+
+    /**
+     * Constructs a new, empty CoordinateList.
+     * @param initialCapacity The number of cells the list can hold before it needs to grow.
+     */
+    public CoordinateList(int initialCapacity) {
+        coordinates = new int[2 * Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Adds a cell to the end of the list.
+     * @param row The row of the cell in a matrix grid
+     * @param column The column of the cell in a matrix grid
+     */
+    public void add(int row, int column) {
+        if (2 * size + 2 > coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, 2 * coordinates.length);
+        }
+        coordinates[2 * size] = row;
+        coordinates[2 * size + 1] = column;
+        size++;
+    }
+
+    public int getRow(int index) {
+        checkIndex(index);
+        return coordinates[2 * index];
+    }
+
+    public int getColumn(int index) {
+        checkIndex(index);
+        return coordinates[2 * index + 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes the cell at the given index, the following cells move one index to the front.
+     * @param index The index of the cell to remove.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        System.arraycopy(coordinates, 2 * index + 2, coordinates, 2 * index, 2 * (size - index - 1));
+        size--;
+    }
+
+    /**
+     * Returns true if the given cell is included in the list.
+     * @param row The row to be checked
+     * @param column The column to be checked
+     * @return True, if cell is already included in the list.
+     */
+    public boolean contains(int row, int column) {
+        for (int i = 0; i < 2 * size; i += 2) {
+            if (coordinates[i] == row && coordinates[i + 1] == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
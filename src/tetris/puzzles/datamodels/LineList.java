@@ -0,0 +1,124 @@
+package tetris.puzzles.datamodels;
+
+import java.util.Arrays;
+
+/**
+ * This class holds a list of lines, each saved by the start and end coordinates (x0, y0, x1, y1).
+ * <br>The coordinates are packed into one int array ({@code x0, y0, x1, y1} of the first line, then of the second line, ...),
+ * so that no object is created per line. The list grows when needed, but never shrinks, so it can be cleared and reused.
+ */
+public class LineList {
+
+    private static final int INTS_PER_LINE = 4;
+
+    private int[] lines;
+    private int size;
+
+    public LineList() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new, empty LineList.
+     * @param initialCapacity The number of lines the list can hold before it needs to grow.
+     */
+    public LineList(int initialCapacity) {
+        lines = new int[INTS_PER_LINE * Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Adds a line to the end of the list.
+     * @param x0 The start coordinate on x axis of the new line
+     * @param y0 The start coordinate on y axis of the new line
+     * @param x1 The end coordinate on x axis of the new line
+     * @param y1 The end coordinate on y axis of the new line
+     */
+    public void add(int x0, int y0, int x1, int y1) {
+        if (INTS_PER_LINE * (size + 1) > lines.length) {
+            lines = Arrays.copyOf(lines, 2 * lines.length);
+        }
+        int offset = INTS_PER_LINE * size;
+        lines[offset] = x0;
+        lines[offset + 1] = y0;
+        lines[offset + 2] = x1;
+        lines[offset + 3] = y1;
+        size++;
+    }
+
+    public int getX0(int index) {
+        return get(index, 0);
+    }
+
+    public int getY0(int index) {
+        return get(index, 1);
+    }
+
+    public int getX1(int index) {
+        return get(index, 2);
+    }
+
+    public int getY1(int index) {
+        return get(index, 3);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the lines by their start coordinates: first by x0, if equal by y0, then by x1 and y1.
+     * Lines with equal start coordinates are thus kept in a fixed order.
+     */
+    public void sort() {
+        //insertion sort on the packed array, the lists of a tetromino or shape only hold a few dozens of lines
+        int[] line = new int[INTS_PER_LINE];
+        for (int i = 1; i < size; i++) {
+            System.arraycopy(lines, INTS_PER_LINE * i, line, 0, INTS_PER_LINE);
+            int j = i - 1;
+            while (j >= 0 && compare(lines, INTS_PER_LINE * j, line, 0) > 0) {
+                System.arraycopy(lines, INTS_PER_LINE * j, lines, INTS_PER_LINE * (j + 1), INTS_PER_LINE);
+                j--;
+            }
+            System.arraycopy(line, 0, lines, INTS_PER_LINE * (j + 1), INTS_PER_LINE);
+        }
+    }
+
+    /**
+     * Removes every line that is included more than once. The list has to be sorted (see {@link #sort()}).
+     */
+    public void removeDuplicates() {
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (newSize == 0 || compare(lines, INTS_PER_LINE * i, lines, INTS_PER_LINE * (newSize - 1)) != 0) {
+                System.arraycopy(lines, INTS_PER_LINE * i, lines, INTS_PER_LINE * newSize, INTS_PER_LINE);
+                newSize++;
+            }
+        }
+        size = newSize;
+    }
+
+    private int get(int index, int coordinate) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return lines[INTS_PER_LINE * index + coordinate];
+    }
+
+    private static int compare(int[] first, int firstOffset, int[] second, int secondOffset) {
+        for (int i = 0; i < INTS_PER_LINE; i++) {
+            int diff = Integer.compare(first[firstOffset + i], second[secondOffset + i]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,205 @@
+package tetris.puzzles.datamodels;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds a data model for a game that was interrupted and can be resumed later (see {@link tetris.tools.SavedGameStore}).
+ * <br>It contains everything needed to continue the game at the same state: the preferences, the tetrominoes in the game grid and in the parking spots,
+ * the shapes, the timers of the game grid, the velocity and the score.
+ * The tetrominoes are saved with their array (i. e. their orientation) and their position in logical units, so the window can have a different size when resuming.
+ */
+public class SavedGame {
+
+    /**
+     * A tetromino of the game grid or of a parking spot.
+     */
+    public static class SavedTetromino {
+        private final int[][] internalArray;
+        private final int logicalX;
+        private final int logicalY;
+        private final int colorRgb;
+
+        /**
+         * Constructs a new SavedTetromino.
+         * @param internalArray The internal array of the tetromino in its current orientation.
+         * @param logicalX The x coordinate of the upper left corner of the matrix in logical units.
+         * @param logicalY The y coordinate of the upper left corner of the matrix in logical units.
+         * @param colorRgb The color of the tetromino as RGB value (see {@link java.awt.Color#getRGB()}).
+         */
+        public SavedTetromino(int[][] internalArray, int logicalX, int logicalY, int colorRgb) {
+            this.internalArray = internalArray;
+            this.logicalX = logicalX;
+            this.logicalY = logicalY;
+            this.colorRgb = colorRgb;
+        }
+
+        public int[][] getInternalArray() {
+            return internalArray;
+        }
+
+        public int getLogicalX() {
+            return logicalX;
+        }
+
+        public int getLogicalY() {
+            return logicalY;
+        }
+
+        public int getColorRgb() {
+            return colorRgb;
+        }
+    }
+
+    /**
+     * A shape with the tetromino that was already fitted into it (if any).
+     */
+    public static class SavedShape {
+        private final int[][] internalShapeArray;
+        private final int[][] originalShapeArray;
+        private final int fittedTetrominoes;
+        private final int fittedColorRgb;
+
+        /**
+         * Constructs a new SavedShape.
+         * @param internalShapeArray The current array of the shape, with the value 2 for the cells of the fitted tetromino.
+         * @param originalShapeArray The array of the empty shape.
+         * @param fittedTetrominoes The number of tetrominoes fitted into the shape, 0 or 1.
+         * @param fittedColorRgb The color of the fitted tetromino as RGB value, not used if no tetromino was fitted.
+         */
+        public SavedShape(int[][] internalShapeArray, int[][] originalShapeArray, int fittedTetrominoes, int fittedColorRgb) {
+            this.internalShapeArray = internalShapeArray;
+            this.originalShapeArray = originalShapeArray;
+            this.fittedTetrominoes = fittedTetrominoes;
+            this.fittedColorRgb = fittedColorRgb;
+        }
+
+        public int[][] getInternalShapeArray() {
+            return internalShapeArray;
+        }
+
+        public int[][] getOriginalShapeArray() {
+            return originalShapeArray;
+        }
+
+        public int getFittedTetrominoes() {
+            return fittedTetrominoes;
+        }
+
+        public int getFittedColorRgb() {
+            return fittedColorRgb;
+        }
+    }
+
+    private UserPreferences userPreferences;
+
+    private final List<SavedTetromino> tetrominoesInGrid = new ArrayList<>();
+    private SavedTetromino[] parkingSpots = new SavedTetromino[0]; //a free parking spot is null
+    private final List<SavedShape> shapes = new ArrayList<>();
+
+    private float timeUntilOneTetrominoGetsToGroundInSek;
+    private long millisUntilNextCreation;
+    private long millisUntilNextMovement;
+
+    private int points;
+    private long sessionStartTimeMillis;
+    private long playedTimeMillis;
+    private int piecesSpawned;
+    private int shapesCompleted;
+
+    public UserPreferences getUserPreferences() {
+        return userPreferences;
+    }
+
+    public void setUserPreferences(UserPreferences userPreferences) {
+        this.userPreferences = userPreferences;
+    }
+
+    /**
+     * Returns the tetrominoes of the game grid in the order they were created.
+     * @return The modifiable list of the tetrominoes.
+     */
+    public List<SavedTetromino> getTetrominoesInGrid() {
+        return tetrominoesInGrid;
+    }
+
+    public SavedTetromino[] getParkingSpots() {
+        return parkingSpots;
+    }
+
+    public void setParkingSpots(SavedTetromino[] parkingSpots) {
+        this.parkingSpots = parkingSpots;
+    }
+
+    /**
+     * Returns the shapes in the order of their IDs.
+     * @return The modifiable list of the shapes.
+     */
+    public List<SavedShape> getShapes() {
+        return shapes;
+    }
+
+    public float getTimeUntilOneTetrominoGetsToGroundInSek() {
+        return timeUntilOneTetrominoGetsToGroundInSek;
+    }
+
+    public void setTimeUntilOneTetrominoGetsToGroundInSek(float timeUntilOneTetrominoGetsToGroundInSek) {
+        this.timeUntilOneTetrominoGetsToGroundInSek = timeUntilOneTetrominoGetsToGroundInSek;
+    }
+
+    public long getMillisUntilNextCreation() {
+        return millisUntilNextCreation;
+    }
+
+    public void setMillisUntilNextCreation(long millisUntilNextCreation) {
+        this.millisUntilNextCreation = millisUntilNextCreation;
+    }
+
+    public long getMillisUntilNextMovement() {
+        return millisUntilNextMovement;
+    }
+
+    public void setMillisUntilNextMovement(long millisUntilNextMovement) {
+        this.millisUntilNextMovement = millisUntilNextMovement;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public long getSessionStartTimeMillis() {
+        return sessionStartTimeMillis;
+    }
+
+    public void setSessionStartTimeMillis(long sessionStartTimeMillis) {
+        this.sessionStartTimeMillis = sessionStartTimeMillis;
+    }
+
+    public long getPlayedTimeMillis() {
+        return playedTimeMillis;
+    }
+
+    public void setPlayedTimeMillis(long playedTimeMillis) {
+        this.playedTimeMillis = playedTimeMillis;
+    }
+
+    public int getPiecesSpawned() {
+        return piecesSpawned;
+    }
+
+    public void setPiecesSpawned(int piecesSpawned) {
+        this.piecesSpawned = piecesSpawned;
+    }
+
+    public int getShapesCompleted() {
+        return shapesCompleted;
+    }
+
+    public void setShapesCompleted(int shapesCompleted) {
+        this.shapesCompleted = shapesCompleted;
+    }
+}
@@ -0,0 +1,140 @@
+package tetris.puzzles.datamodels;
+
+import tetris.tools.SessionRecord;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class holds a data model for collecting statistics of the currently running game session.
+ * The counters can be updated by the game threads as well as by the event dispatch thread.
+ */
+public class SessionStatistics {
+
+    private final long startTimeMillis;
+
+    private final AtomicInteger piecesSpawned = new AtomicInteger();
+    private final AtomicInteger shapesCompleted = new AtomicInteger();
+
+    private long playedTimeMillis;
+    private long lastContinueTimeMillis;
+    private boolean isPaused;
+    private boolean isFinished;
+
+    /**
+     * Constructs a new SessionStatistics object. The session is considered as started when this constructor is called.
+     */
+    public SessionStatistics() {
+        startTimeMillis = System.currentTimeMillis();
+        lastContinueTimeMillis = startTimeMillis;
+    }
+
+    /**
+     * Constructs a SessionStatistics object that continues a saved session (see {@link SavedGame}). The session is considered as continued
+     * when this constructor is called, so the time the game was saved is not counted as played time.
+     * @param savedGame The {@link SavedGame} holding the statistics of the session so far.
+     */
+    public SessionStatistics(SavedGame savedGame) {
+        startTimeMillis = savedGame.getSessionStartTimeMillis();
+        lastContinueTimeMillis = System.currentTimeMillis();
+        playedTimeMillis = savedGame.getPlayedTimeMillis();
+        piecesSpawned.set(savedGame.getPiecesSpawned());
+        shapesCompleted.set(savedGame.getShapesCompleted());
+    }
+
+    /**
+     * Should be called when a new tetromino appeared in the game grid.
+     */
+    public void onPieceSpawned() {
+        piecesSpawned.incrementAndGet();
+    }
+
+    /**
+     * Should be called when a shape was filled completely.
+     */
+    public void onShapeCompleted() {
+        shapesCompleted.incrementAndGet();
+    }
+
+    /**
+     * Should be called when the game was paused, so that the paused time is not counted as played time.
+     */
+    public synchronized void onGamePaused() {
+        if (!isPaused) {
+            playedTimeMillis += System.currentTimeMillis() - lastContinueTimeMillis;
+            isPaused = true;
+        }
+    }
+
+    /**
+     * Should be called when the game was continued after it was paused.
+     */
+    public synchronized void onGameContinued() {
+        if (isPaused) {
+            lastContinueTimeMillis = System.currentTimeMillis();
+            isPaused = false;
+        }
+    }
+
+    /**
+     * Marks the session as finished. As a game over can be reported more than once (e. g. if the user exits the game after the game over screen),
+     * only the first call returns true.
+     *
+     * @return True, if the session was not finished before.
+     */
+    public synchronized boolean finish() {
+        if (isFinished) {
+            return false;
+        }
+        onGamePaused(); //stops counting the played time
+        isFinished = true;
+        return true;
+    }
+
+    /**
+     * Creates a {@link SessionRecord} holding the statistics of this session.
+     *
+     * @param gameId          The ID of the game
+     * @param points          The points the player achieved
+     * @param userPreferences The {@link UserPreferences} the session was played with
+     * @return A {@link SessionRecord} that can be saved in the database.
+     */
+    public synchronized SessionRecord toSessionRecord(int gameId, int points, UserPreferences userPreferences) {
+        long durationMillis = playedTimeMillis;
+        if (!isPaused) {
+            durationMillis += System.currentTimeMillis() - lastContinueTimeMillis;
+        }
+
+        return new SessionRecord(gameId, startTimeMillis, durationMillis, getPiecesSpawned(), getShapesCompleted(), points,
+                userPreferences.getNumberOfKachelnInStone(), userPreferences.getNumberOfNewAppearingStones(),
+                userPreferences.getNumberOfShapes(), userPreferences.getAmountOfColors(),
+                userPreferences.getVelocity().name(), userPreferences.isVelocityIncreasing());
+    }
+
+    /**
+     * Writes the statistics of this session into the given saved game, so that the session can be continued later.
+     * @param savedGame The {@link SavedGame} to fill.
+     */
+    public synchronized void saveTo(SavedGame savedGame) {
+        long durationMillis = playedTimeMillis;
+        if (!isPaused) {
+            durationMillis += System.currentTimeMillis() - lastContinueTimeMillis;
+        }
+
+        savedGame.setSessionStartTimeMillis(startTimeMillis);
+        savedGame.setPlayedTimeMillis(durationMillis);
+        savedGame.setPiecesSpawned(getPiecesSpawned());
+        savedGame.setShapesCompleted(getShapesCompleted());
+    }
+
+    public synchronized boolean isFinished() {
+        return isFinished;
+    }
+
+    public int getPiecesSpawned() {
+        return piecesSpawned.get();
+    }
+
+    public int getShapesCompleted() {
+        return shapesCompleted.get();
+    }
+}
@@ -5,6 +5,19 @@ package tetris.puzzles.datamodels;
  */
 public class UserPreferences {
 
+    //the ranges offered by the settings panel, games opened over the network are checked against them as well
+    public static final int MIN_KACHELN_IN_STONE = 3;
+    public static final int MAX_KACHELN_IN_STONE = 5;
+    public static final int MIN_NEW_APPEARING_STONES = 1;
+    public static final int MAX_NEW_APPEARING_STONES = 5;
+    public static final int MIN_SHAPES = 2;
+    public static final int MAX_SHAPES = 9;
+    public static final int MIN_COLORS = 1;
+    public static final int MAX_COLORS = 5;
+    //not offered by the settings panel, shapes out of more than two tetrominoes are only played by the headless engine
+    public static final int MIN_TETROMINOES_IN_SHAPE = 2;
+    public static final int MAX_TETROMINOES_IN_SHAPE = 4;
+
     private int numberOfKachelnInStone;
     private int numberOfParkingSpots;
 
@@ -18,6 +31,8 @@ public class UserPreferences {
 
     private boolean velocityIncreasing;
 
+    private int numberOfTetrominoesInShape = 2;
+
 
     /**
      * Checks whether the current preferences used are the default preferences.
@@ -29,7 +44,26 @@ public class UserPreferences {
                 && getNumberOfKachelnInStone() == 4
                 && getNumberOfNewAppearingStones() == 4
                 && getNumberOfShapes() == 8
-                && getAmountOfColors() == 4);
+                && getAmountOfColors() == 4
+                && getNumberOfTetrominoesInShape() == 2);
+    }
+
+
+    /**
+     * Checks whether every preference is inside the range offered by the settings panel.
+     * @return True, if every preference is inside its range and a velocity is set
+     */
+    public boolean isInAllowedRanges() {
+        return isInRange(numberOfKachelnInStone, MIN_KACHELN_IN_STONE, MAX_KACHELN_IN_STONE)
+                && isInRange(numberOfNewAppearingStones, MIN_NEW_APPEARING_STONES, MAX_NEW_APPEARING_STONES)
+                && isInRange(numberOfShapes, MIN_SHAPES, MAX_SHAPES)
+                && isInRange(amountOfColors, MIN_COLORS, MAX_COLORS)
+                && isInRange(numberOfTetrominoesInShape, MIN_TETROMINOES_IN_SHAPE, MAX_TETROMINOES_IN_SHAPE)
+                && velocity != null;
+    }
+
+    private static boolean isInRange(int value, int min, int max) {
+        return value >= min && value <= max;
     }
 
 
@@ -61,6 +95,10 @@ public class UserPreferences {
         return numberOfShapes;
     }
 
+    public int getNumberOfTetrominoesInShape() {
+        return numberOfTetrominoesInShape;
+    }
+
 
     public void setAmountOfColors(int amountOfColors) {
         this.amountOfColors = amountOfColors;
@@ -104,4 +142,103 @@ public class UserPreferences {
         this.velocityIncreasing = velocityIncreasing;
     }
 
+    /**
+     * Sets the number of tetrominoes that are needed to complete a shape. The default is 2.
+     * <b>Note that this mode is engine-only: the headless {@link tetris.puzzles.engine.GameEngine} (and thus the ThroughputRunner and the GameServer)
+     * supports shapes out of more than two tetrominoes, the Swing game always plays shapes out of two tetrominoes and does not offer this setting.</b>
+     * @param numberOfTetrominoesInShape The number of tetrominoes of a shape, from {@link #MIN_TETROMINOES_IN_SHAPE} to {@link #MAX_TETROMINOES_IN_SHAPE}.
+     * @throws IllegalArgumentException If the number is out of this range, e. g. 0, for which no shape could ever be generated.
+     */
+    public void setNumberOfTetrominoesInShape(int numberOfTetrominoesInShape) {
+        if (!isInRange(numberOfTetrominoesInShape, MIN_TETROMINOES_IN_SHAPE, MAX_TETROMINOES_IN_SHAPE)) {
+            throw new IllegalArgumentException("The number of tetrominoes in a shape has to be between " + MIN_TETROMINOES_IN_SHAPE
+                    + " and " + MAX_TETROMINOES_IN_SHAPE + ", but was " + numberOfTetrominoesInShape);
+        }
+        this.numberOfTetrominoesInShape = numberOfTetrominoesInShape;
+    }
+
+
+    /**
+     * Method that calculates that points the user gets by using these settings.
+     * @return The score the user gets for fitting two tetrominoes into a shape.
+     */
+    public int calculatePoints() {
+        int sum = 0;
+
+        switch (getNumberOfKachelnInStone()) {
+            case 3:
+                sum += 5;
+                break;
+            case 4:
+                sum += 10;
+                break;
+            case 5:
+                sum += 20;
+                break;
+        }
+
+        switch (getNumberOfNewAppearingStones()) {
+            case 1:
+            case 2:
+                sum += 0;
+                break;
+            case 3:
+                sum += 5;
+                break;
+            case 4:
+                sum += 10;
+                break;
+            case 5:
+                sum += 15;
+                break;
+        }
+
+        switch (getNumberOfShapes()) {
+            case 1:
+                sum += 40;
+                break;
+            case 2:
+                sum += 35;
+                break;
+            case 3:
+                sum += 30;
+                break;
+            case 4:
+                sum += 25;
+                break;
+            case 5:
+                sum += 20;
+                break;
+            case 6:
+                sum += 15;
+                break;
+            case 7:
+                sum += 10;
+                break;
+            case 8:
+                sum += 5;
+                break;
+            case 9:
+                sum += 0;
+                break;
+        }
+
+        switch (getVelocity()) {
+            case SLOW:
+                sum += 0;
+                break;
+            case MEDIUM:
+                sum += 5;
+                break;
+            case FAST:
+                sum += 15;
+                break;
+        }
+
+        if (isVelocityIncreasing()) {
+            sum += 10;
+        }
+
+        return sum;
+    }
 }
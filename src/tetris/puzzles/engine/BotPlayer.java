@@ -0,0 +1,16 @@
+package tetris.puzzles.engine;
+
+/**
+ * Provides an interface for automated players of a {@link GameEngine}.
+ * <br>A bot sees the tetrominoes, shapes and parking spots of the engine and plays by the same actions a user has,
+ * i. e. {@link GameEngine#turn(EnginePiece, boolean)}, {@link GameEngine#mirror(EnginePiece, boolean)}, {@link GameEngine#move(EnginePiece, int, int)},
+ * {@link GameEngine#park(EnginePiece, int)} and {@link GameEngine#tryToFillShape(EnginePiece, int)}.
+ */
+public interface BotPlayer {
+
+    /**
+     * Is invoked before every tick of the engine, so that the bot can react to the current state of the game.
+     * @param engine The {@link GameEngine} to play.
+     */
+    void onTick(GameEngine engine);
+}
@@ -0,0 +1,219 @@
+package tetris.puzzles.engine;
+
+import java.util.Arrays;
+
+/**
+ * This class solves exact cover problems by Knuth's Algorithm X with dancing links (DLX): given a set of rows, each covering some columns,
+ * find the subsets of rows that cover every column exactly once.
+ * <br>The matrix is stored as four-way linked circular lists, where removing a column (together with every row intersecting it) and restoring it
+ * only relinks neighbouring nodes. The links are kept in int arrays instead of node objects, so a matrix with thousands of nodes is
+ * only a few arrays and searching does not create any object.
+ * Node 0 is the root, the nodes 1 to {@code numberOfColumns} are the column headers, followed by the nodes of the rows in the order they were added.
+ * <br>The search always branches on the column with the fewest remaining rows, so dead ends are found as early as possible.
+ * <br>An instance is not thread-safe. After a search, the matrix is restored, so it can be searched again.
+ */
+public class DancingLinks {
+
+    private final int numberOfColumns;
+    private final int[] columnSizes;
+
+    private int[] left;
+    private int[] right;
+    private int[] up;
+    private int[] down;
+    private int[] columnOfNode;
+    private int[] rowOfNode;
+    private int numberOfNodes;
+    private int numberOfRows;
+
+    //state of a search
+    private int[] chosenNodes;
+    private long solutions;
+    private long limit;
+    private int[] firstSolution;
+
+    /**
+     * Constructs a new matrix without rows.
+     * @param numberOfColumns The number of columns that have to be covered.
+     * @param expectedNodes The expected number of cells of all rows, used to size the arrays. The arrays grow if more cells are added.
+     */
+    public DancingLinks(int numberOfColumns, int expectedNodes) {
+        this.numberOfColumns = numberOfColumns;
+        columnSizes = new int[numberOfColumns + 1];
+
+        int capacity = numberOfColumns + 1 + Math.max(expectedNodes, 16);
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        columnOfNode = new int[capacity];
+        rowOfNode = new int[capacity];
+
+        //root and column headers form the header row, every header is an empty column
+        for (int node = 0; node <= numberOfColumns; node++) {
+            left[node] = (node == 0) ? numberOfColumns : node - 1;
+            right[node] = (node == numberOfColumns) ? 0 : node + 1;
+            up[node] = node;
+            down[node] = node;
+            columnOfNode[node] = node;
+            rowOfNode[node] = -1;
+        }
+        numberOfNodes = numberOfColumns + 1;
+    }
+
+    /**
+     * Adds a row to the matrix.
+     * @param columns The indices of the columns (starting with 0) the row covers, each at most once.
+     * @param length The number of columns to use out of the array.
+     * @return The index of the row (starting with 0), as it is returned by {@link #findSolution()}.
+     */
+    public int addRow(int[] columns, int length) {
+        if (numberOfNodes + length > left.length) {
+            grow(Math.max(2 * left.length, numberOfNodes + length));
+        }
+
+        int row = numberOfRows++;
+        int firstNode = numberOfNodes;
+        for (int i = 0; i < length; i++) {
+            int column = columns[i] + 1;
+            int node = numberOfNodes++;
+
+            //append the node at the bottom of its column
+            columnOfNode[node] = column;
+            rowOfNode[node] = row;
+            up[node] = up[column];
+            down[node] = column;
+            down[up[column]] = node;
+            up[column] = node;
+            columnSizes[column]++;
+
+            //append the node at the end of its row
+            left[node] = (i == 0) ? node : node - 1;
+            right[node] = firstNode;
+            right[left[node]] = node;
+            left[firstNode] = node;
+        }
+        return row;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * Counts the solutions, i. e. the subsets of rows covering every column exactly once.
+     * @param limit The search stops as soon as this number of solutions was found, e. g. 1 to only check whether a solution exists.
+     * @return The number of solutions, at most limit.
+     */
+    public long countSolutions(long limit) {
+        searchSolutions(limit);
+        return solutions;
+    }
+
+    /**
+     * Searches one solution.
+     * @return The indices of the rows of the first solution found (in the order they were chosen), or null if there is no solution.
+     */
+    public int[] findSolution() {
+        searchSolutions(1);
+        return firstSolution;
+    }
+
+    private void searchSolutions(long limit) {
+        this.limit = limit;
+        solutions = 0;
+        firstSolution = null;
+        chosenNodes = new int[numberOfColumns];
+        if (limit > 0) {
+            search(0);
+        }
+    }
+
+    /**
+     * Algorithm X: chooses the column with the fewest rows and tries every row of it.
+     * @return True, if the limit of solutions is reached and the search should stop.
+     */
+    private boolean search(int depth) {
+        if (right[0] == 0) {
+            //every column is covered
+            if (solutions++ == 0) {
+                firstSolution = new int[depth];
+                for (int i = 0; i < depth; i++) {
+                    firstSolution[i] = rowOfNode[chosenNodes[i]];
+                }
+            }
+            return solutions >= limit;
+        }
+
+        int column = right[0];
+        for (int candidate = right[column]; candidate != 0; candidate = right[candidate]) {
+            if (columnSizes[candidate] < columnSizes[column]) {
+                column = candidate;
+            }
+        }
+        if (columnSizes[column] == 0) {
+            return false; //this column cannot be covered anymore
+        }
+
+        boolean isLimitReached = false;
+        cover(column);
+        for (int rowNode = down[column]; rowNode != column && !isLimitReached; rowNode = down[rowNode]) {
+            chosenNodes[depth] = rowNode;
+            for (int node = right[rowNode]; node != rowNode; node = right[node]) {
+                cover(columnOfNode[node]);
+            }
+
+            isLimitReached = search(depth + 1);
+
+            //restore in the reverse order
+            for (int node = left[rowNode]; node != rowNode; node = left[node]) {
+                uncover(columnOfNode[node]);
+            }
+        }
+        uncover(column);
+        return isLimitReached;
+    }
+
+    /**
+     * Removes the column from the header row and every row that covers this column from the other columns.
+     */
+    private void cover(int column) {
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+        for (int rowNode = down[column]; rowNode != column; rowNode = down[rowNode]) {
+            for (int node = right[rowNode]; node != rowNode; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                columnSizes[columnOfNode[node]]--;
+            }
+        }
+    }
+
+    /**
+     * Restores a column removed by {@link #cover(int)}, the links of the removed nodes still point to their old neighbours.
+     */
+    private void uncover(int column) {
+        for (int rowNode = up[column]; rowNode != column; rowNode = up[rowNode]) {
+            for (int node = left[rowNode]; node != rowNode; node = left[node]) {
+                columnSizes[columnOfNode[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[column]] = column;
+        left[right[column]] = column;
+    }
+
+    private void grow(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        up = Arrays.copyOf(up, capacity);
+        down = Arrays.copyOf(down, capacity);
+        columnOfNode = Arrays.copyOf(columnOfNode, capacity);
+        rowOfNode = Arrays.copyOf(rowOfNode, capacity);
+    }
+}
@@ -0,0 +1,102 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.puzzles.tetromino.TetrominoDraw;
+
+/**
+ * This class holds one tetromino of a {@link GameEngine}, i. e. the headless counterpart of a {@link TetrominoDraw}.
+ * <br>The position is stored in the same logical units as the {@link TetrominoDraw} ({@link TetrominoDraw#KACHEL_UNIT} units per kachel),
+ * so the movement of the engine equals the movement of the game grid independent of any kachel size in pixels.
+ * <br>A piece is either falling in the game grid, parked in a parking spot or removed (because it was fitted into a shape).
+ */
+public class EnginePiece {
+
+    final int id;
+    final TetrominoArray tetromino;
+
+    int logicalX;
+    int logicalY;
+
+    int parkingSpotIndex = -1; //-1 if the piece is not parked
+    boolean isRemoved;
+
+    EnginePiece(int id, TetrominoArray tetromino, int logicalX, int logicalY) {
+        this.id = id;
+        this.tetromino = tetromino;
+        this.logicalX = logicalX;
+        this.logicalY = logicalY;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the internal array of the tetromino. The array must not be changed, use the actions of the {@link GameEngine} instead.
+     * @return The internal array of the tetromino.
+     */
+    public int[][] getInternalArray() {
+        return tetromino.getInternalArray();
+    }
+
+    /**
+     * Returns a copy of the tetromino, e. g. to try rotations and mirrors without changing this piece.
+     * @return A new {@link TetrominoArray} holding a copy of the internal array.
+     */
+    public TetrominoArray copyTetromino() {
+        return new TetrominoArray(ShapeFitter.deepCopyArray(tetromino.getInternalArray()));
+    }
+
+    public int getLogicalX() {
+        return logicalX;
+    }
+
+    public int getLogicalY() {
+        return logicalY;
+    }
+
+    /**
+     * Returns the y coordinate of the lower edge of the lowest kachel of the tetromino in logical units.
+     * @return The lower edge in logical units.
+     */
+    public int getLogicalBottom() {
+        return logicalY + (getLastOccupiedRow() + 1) * TetrominoDraw.KACHEL_UNIT;
+    }
+
+    public boolean isParked() {
+        return parkingSpotIndex >= 0;
+    }
+
+    public int getParkingSpotIndex() {
+        return parkingSpotIndex;
+    }
+
+    public boolean isRemoved() {
+        return isRemoved;
+    }
+
+    int getLastOccupiedRow() {
+        int[][] internalArray = tetromino.getInternalArray();
+        for (int row = internalArray.length - 1; row >= 0; row--) {
+            for (int kachel : internalArray[row]) {
+                if (kachel > 0) {
+                    return row;
+                }
+            }
+        }
+        return -1;
+    }
+
+    int getLastOccupiedColumn() {
+        int[][] internalArray = tetromino.getInternalArray();
+        int lastColumn = -1;
+        for (int[] row : internalArray) {
+            for (int column = row.length - 1; column > lastColumn; column--) {
+                if (row[column] > 0) {
+                    lastColumn = column;
+                }
+            }
+        }
+        return lastColumn;
+    }
+}
@@ -0,0 +1,104 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.datamodels.CoordinateList;
+import tetris.puzzles.tetromino.TetrominoArray;
+
+import java.util.Random;
+
+/**
+ * This class holds one shape of a {@link GameEngine}, i. e. the headless counterpart of a {@link tetris.puzzles.game.Shape}.
+ * <br>The tetrominoes are fitted in the same way as by the Shape panel: the first tetromino has to leave enough connected place for
+ * a second tetromino, the second tetromino only needs to fit into the remaining cells. When both tetrominoes are fitted, the shape is
+ * completed and starts over with its original array.
+ * <br>A shape out of more than two tetrominoes (see {@link tetris.puzzles.datamodels.UserPreferences#getNumberOfTetrominoesInShape()})
+ * only accepts positions that leave cells which can still be filled completely, see {@link ShapeFitter#getPossibilitiesLeavingTileableShape}.
+ * The last tetromino only needs to fit into the remaining cells.
+ */
+public class EngineShape {
+
+    final int[][] originalShapeArray;
+    final int k;
+    final int numberOfTetrominoes;
+    int[][] shapeArray;
+    int fittedTetrominoes;
+
+    /**
+     * Constructs a new EngineShape.
+     * @param shapeArray The array of the empty shape.
+     * @param k The number of kacheln in a tetromino. Only needed for more than two tetrominoes.
+     * @param numberOfTetrominoes The number of tetrominoes that complete the shape.
+     */
+    EngineShape(int[][] shapeArray, int k, int numberOfTetrominoes) {
+        this.originalShapeArray = shapeArray;
+        this.shapeArray = ShapeFitter.deepCopyArray(shapeArray);
+        this.k = k;
+        this.numberOfTetrominoes = numberOfTetrominoes;
+    }
+
+    /**
+     * Returns the current array of the shape (see {@link ShapeFitter} for the meaning of the values). The array must not be changed.
+     * @return The current array of the shape.
+     */
+    public int[][] getShapeArray() {
+        return shapeArray;
+    }
+
+    /**
+     * Returns the number of tetrominoes that were fitted into the shape since it was (re-)started.
+     * @return 0 up to the number of tetrominoes of the shape - 1.
+     */
+    public int getFittedTetrominoes() {
+        return fittedTetrominoes;
+    }
+
+    public int getNumberOfTetrominoes() {
+        return numberOfTetrominoes;
+    }
+
+    /**
+     * Returns every position in which the given tetromino could be fitted into this shape.
+     * <b>Note that the tetromino is moved to its minimal embedding</b>, so use a copy if the tetromino should not be changed.
+     * @param tetromino The tetromino to fit.
+     * @return A CoordinateList of the possible start cells. Empty, if the tetromino does not fit.
+     */
+    public CoordinateList getPossibilitiesForAdding(TetrominoArray tetromino) {
+        boolean isLastTetromino = fittedTetrominoes == numberOfTetrominoes - 1;
+        if (numberOfTetrominoes > 2 && !isLastTetromino) {
+            return ShapeFitter.getPossibilitiesLeavingTileableShape(tetromino, shapeArray, k);
+        }
+
+        boolean isFirstTetromino = fittedTetrominoes == 0;
+        //same flags as Shape.insertFirstTetromino() and Shape.insertSecondTetromino()
+        return ShapeFitter.getPossibilitiesForAdding(tetromino, shapeArray, 1, isFirstTetromino, isFirstTetromino);
+    }
+
+    /**
+     * Tries to fit the tetromino into the shape. As the Shape panel does, a random possibility is used for every tetromino but the last one.
+     * @param tetromino The tetromino to fit.
+     * @param random The {@link Random} of the engine.
+     * @return True, if the tetromino was fitted.
+     */
+    boolean insert(TetrominoArray tetromino, Random random) {
+        CoordinateList possibilities = getPossibilitiesForAdding(tetromino);
+        if (possibilities.isEmpty()) {
+            return false;
+        }
+
+        int startIndex = (fittedTetrominoes < numberOfTetrominoes - 1) ? random.nextInt(possibilities.size()) : 0;
+        ShapeFitter.fitTetrominoIntoArray(tetromino, possibilities.getRow(startIndex), possibilities.getColumn(startIndex), shapeArray, fittedTetrominoes + 2);
+        fittedTetrominoes++;
+        return true;
+    }
+
+    boolean isCompleted() {
+        return fittedTetrominoes == numberOfTetrominoes;
+    }
+
+    /**
+     * Starts the shape over with its original array.
+     */
+    void reset() {
+        shapeArray = ShapeFitter.deepCopyArray(originalShapeArray);
+        fittedTetrominoes = 0;
+    }
+}
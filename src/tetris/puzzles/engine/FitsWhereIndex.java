@@ -0,0 +1,132 @@
+package tetris.puzzles.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This class indexes, for every tetromino (identified by its canonical id, see {@link ShapeSolver#getPieceId(int[][])}),
+ * the open shapes it can be fitted into and the placements it can be fitted into them.
+ * <br>The index is updated incrementally: every time a shape is generated, filled or reset, only the entries of this shape are replaced
+ * by the solution of its open cells (which is memoized by the {@link ShapeSolver}). Shapes with open cells for more than two tetrominoes have too many
+ * different forms to memoize them, so their entries are searched by {@link ShapeSolver#getTileablePlacements(int, int[][], int)} instead.
+ * Asking for the shapes of the selected tetromino
+ * is a hash lookup, so the UI can highlight the valid shapes without searching every shape in every orientation.
+ * <br>As the canonical id is the same for every rotation and mirroring, the result does not change when the tetromino is turned or mirrored.
+ * <br>This class is not thread-safe, the game uses it on the event dispatch thread only.
+ */
+public class FitsWhereIndex {
+
+    public static final int MAX_SOLVED_TETROMINOES = 2; //shapes with open cells for at most this number of tetrominoes are solved and memoized
+
+    private final int k;
+
+    //piece id -> shape id -> placements (every placement holds 1 for the cells of the tetromino and 0 otherwise)
+    private final HashMap<String, TreeMap<Integer, List<int[][]>>> placementsOfPieces = new HashMap<>();
+    //shape id -> piece ids indexed for the shape, to be able to remove the old entries of a changed shape
+    private final HashMap<Integer, Set<String>> piecesOfShapes = new HashMap<>();
+
+    /**
+     * Constructs a new, empty FitsWhereIndex.
+     * @param k The number of kacheln in a tetromino.
+     */
+    public FitsWhereIndex(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Replaces the entries of the shape. Call this method whenever a shape is generated, a tetromino is fitted into it or it is reset.
+     * @param shapeId The id of the shape.
+     * @param shapeArray The current array of the shape, the open cells hold the value 1. The array is not stored.
+     */
+    public void onShapeHasChanged(int shapeId, int[][] shapeArray) {
+        removeShape(shapeId);
+
+        if (ShapeSolver.getCells(shapeArray, 1).length > MAX_SOLVED_TETROMINOES * k) {
+            Map<String, List<int[][]>> placementsOfPieces = ShapeSolver.getTileablePlacements(k, shapeArray, 1);
+            for (Map.Entry<String, List<int[][]>> entry : placementsOfPieces.entrySet()) {
+                this.placementsOfPieces.computeIfAbsent(entry.getKey(), id -> new TreeMap<>()).put(shapeId, entry.getValue());
+            }
+            piecesOfShapes.put(shapeId, placementsOfPieces.keySet());
+            return;
+        }
+
+        ShapeSolution solution = ShapeSolver.solve(k, shapeArray, 1);
+        for (int tilingIndex = 0; tilingIndex < solution.getNumberOfTilings(); tilingIndex++) {
+            int[][] tiling = solution.getTiling(tilingIndex);
+            String[] pieceIds = solution.getPieceIdsOfTiling(tilingIndex);
+            for (int pieceNumber = 1; pieceNumber <= pieceIds.length; pieceNumber++) {
+                placementsOfPieces.computeIfAbsent(pieceIds[pieceNumber - 1], id -> new TreeMap<>())
+                        .computeIfAbsent(shapeId, id -> new ArrayList<>())
+                        .add(getPlacement(tiling, pieceNumber));
+            }
+        }
+        piecesOfShapes.put(shapeId, solution.getFittingPieceIds());
+    }
+
+    /**
+     * Removes every entry of the shape, e. g. because the shape is not shown anymore.
+     * @param shapeId The id of the shape.
+     */
+    public void removeShape(int shapeId) {
+        Set<String> pieceIds = piecesOfShapes.remove(shapeId);
+        if (pieceIds == null) {
+            return;
+        }
+        for (String pieceId : pieceIds) {
+            Map<Integer, List<int[][]>> placementsOfShapes = placementsOfPieces.get(pieceId);
+            placementsOfShapes.remove(shapeId);
+            if (placementsOfShapes.isEmpty()) {
+                placementsOfPieces.remove(pieceId);
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the shapes the tetromino can be fitted into.
+     * @param tetrominoArray The internal array of the tetromino.
+     * @return An unmodifiable set of the shape ids (in ascending order). Empty, if the tetromino does not fit into any shape.
+     */
+    public Set<Integer> getFittingShapes(int[][] tetrominoArray) {
+        return getFittingShapes(ShapeSolver.getPieceId(tetrominoArray));
+    }
+
+    /**
+     * Returns the ids of the shapes the tetromino can be fitted into.
+     * @param pieceId The canonical id of the tetromino.
+     * @return An unmodifiable set of the shape ids (in ascending order). Empty, if the tetromino does not fit into any shape.
+     */
+    public Set<Integer> getFittingShapes(String pieceId) {
+        TreeMap<Integer, List<int[][]>> placementsOfShapes = placementsOfPieces.get(pieceId);
+        return (placementsOfShapes == null) ? Collections.emptySet() : Collections.unmodifiableSet(placementsOfShapes.keySet());
+    }
+
+    /**
+     * Returns every placement of the tetromino in the shape.
+     * @param pieceId The canonical id of the tetromino.
+     * @param shapeId The id of the shape.
+     * @return An unmodifiable list of placements, each with the size of the shape array holding 1 for the cells of the tetromino. The arrays must not be changed.
+     */
+    public List<int[][]> getPlacements(String pieceId, int shapeId) {
+        TreeMap<Integer, List<int[][]>> placementsOfShapes = placementsOfPieces.get(pieceId);
+        List<int[][]> placements = (placementsOfShapes == null) ? null : placementsOfShapes.get(shapeId);
+        return (placements == null) ? Collections.emptyList() : Collections.unmodifiableList(placements);
+    }
+
+    private static int[][] getPlacement(int[][] tiling, int pieceNumber) {
+        int[][] placement = new int[tiling.length][];
+        for (int row = 0; row < tiling.length; row++) {
+            placement[row] = new int[tiling[row].length];
+            for (int column = 0; column < tiling[row].length; column++) {
+                if (tiling[row][column] == pieceNumber) {
+                    placement[row][column] = 1;
+                }
+            }
+        }
+        return placement;
+    }
+}
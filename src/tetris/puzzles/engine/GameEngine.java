@@ -0,0 +1,482 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.game.GameGrid;
+import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.time.VirtualClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class holds the model of one puzzles game without any UI component, so that games can be played by a {@link BotPlayer}
+ * in a headless JVM (see {@link ThroughputRunner}).
+ * <br>The engine uses the same rules as the {@link GameGrid}:
+ * <ul>
+ *  <li>Every {@link GameGrid#TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED} ms new tetrominoes are distributed over the width of the game grid.</li>
+ *  <li>The tetrominoes fall down so that they reach the ground after the time given by the falling velocity.
+ *  If enabled, they get faster every {@link GameGrid#TIME_IN_MS_BETWEEN_VELOCITY_INCREASE} ms.</li>
+ *  <li>The game is over as soon as one tetromino crosses the bottom of the game grid.</li>
+ *  <li>Tetrominoes can be turned, mirrored and moved as long as they stay inside the game grid and keep a distance of one kachel to the other tetrominoes.</li>
+ *  <li>Tetrominoes can be parked in a free parking spot and fitted into the shapes (from the game grid or from a parking spot).</li>
+ * </ul>
+ * In contrast to the game grid, the time is not real time: the engine runs on a {@link VirtualClock} and every {@link #tick()} advances
+ * the clock by one movement interval. Thus, a game of several minutes is simulated in a few milliseconds.
+ * <br>An engine is not thread-safe, but different engines can be used in different threads at the same time.
+ */
+public class GameEngine {
+
+    public static final int DEFAULT_GRID_WIDTH_IN_KACHELN = 40;
+    public static final int DEFAULT_GRID_HEIGHT_IN_KACHELN = 30;
+
+    private static final int UNIT = TetrominoDraw.KACHEL_UNIT;
+
+    final UserPreferences userPreferences;
+    final int gridWidthInKacheln;
+    final int gridHeightInKacheln;
+    final Random random;
+
+    final ArrayList<EnginePiece> piecesInGrid = new ArrayList<>();
+    final EnginePiece[] parkingSpots;
+    final ArrayList<EngineShape> shapes = new ArrayList<>();
+    final FitsWhereIndex fitsWhereIndex;
+
+    private float timeUntilOneTetrominoGetsToGroundInSek;
+    private final int translatedUnitsPerMovement = UNIT / 16; //a sixteenth of a kachel, i. e. ~1 px for the usual kachel sizes
+
+    final VirtualClock clock;
+    private final long startNanos;
+
+    private long ticks;
+    private long nextCreationNanos;
+    private long nextVelocityIncreaseNanos;
+
+    private int nextPieceId;
+    private int spawnedPieces;
+    private int fittedPieces;
+    private int completedShapes;
+    private int points;
+    private int shapesVersion;
+    private boolean isGameOver;
+
+    /**
+     * Constructs a new GameEngine with the default size of the game grid.
+     * @param userPreferences The {@link UserPreferences} that should be used in the game.
+     * @param seed The seed of the random generator, so that a game can be repeated.
+     */
+    public GameEngine(UserPreferences userPreferences, long seed) {
+        this(userPreferences, DEFAULT_GRID_WIDTH_IN_KACHELN, DEFAULT_GRID_HEIGHT_IN_KACHELN, seed, new VirtualClock());
+    }
+
+    /**
+     * Constructs a new GameEngine.
+     * @param userPreferences The {@link UserPreferences} that should be used in the game.
+     * @param gridWidthInKacheln The width of the game grid in kacheln.
+     * @param gridHeightInKacheln The height of the game grid in kacheln.
+     * @param seed The seed of the random generator, so that a game can be repeated.
+     * @param clock The {@link VirtualClock} the game time is measured by. It is advanced by every {@link #tick()}.
+     */
+    public GameEngine(UserPreferences userPreferences, int gridWidthInKacheln, int gridHeightInKacheln, long seed, VirtualClock clock) {
+        this.userPreferences = userPreferences;
+        this.clock = clock;
+        startNanos = clock.nanoTime();
+        nextCreationNanos = startNanos;
+        nextVelocityIncreaseNanos = startNanos + GameGrid.TIME_IN_MS_BETWEEN_VELOCITY_INCREASE * 1_000_000L;
+        this.gridWidthInKacheln = gridWidthInKacheln;
+        this.gridHeightInKacheln = gridHeightInKacheln;
+        this.random = new Random(seed);
+
+        parkingSpots = new EnginePiece[userPreferences.getNumberOfParkingSpots()];
+
+        fitsWhereIndex = new FitsWhereIndex(userPreferences.getNumberOfKachelnInStone());
+        for (int i = 0; i < userPreferences.getNumberOfShapes(); i++) {
+            int k = userPreferences.getNumberOfKachelnInStone();
+            int numberOfTetrominoes = userPreferences.getNumberOfTetrominoesInShape();
+            EngineShape shape = new EngineShape(ShapeFitter.getRandomShapeArray(k, numberOfTetrominoes, random), k, numberOfTetrominoes);
+            shapes.add(shape);
+            fitsWhereIndex.onShapeHasChanged(i, shape.getShapeArray());
+        }
+
+        switch (userPreferences.getVelocity()) {
+            case FAST:
+                timeUntilOneTetrominoGetsToGroundInSek = 8;
+                break;
+            case MEDIUM:
+                timeUntilOneTetrominoGetsToGroundInSek = 15;
+                break;
+            case SLOW:
+                timeUntilOneTetrominoGetsToGroundInSek = 30;
+                break;
+        }
+    }
+
+    /**
+     * Advances the game by one movement interval: creates new tetrominoes if it is time to, moves every tetromino of the game grid down
+     * and checks whether the game is over.
+     */
+    public void tick() {
+        if (isGameOver) {
+            return;
+        }
+
+        long now = clock.nanoTime();
+        if (now >= nextCreationNanos) {
+            createNewTetrominoes();
+            nextCreationNanos += GameGrid.TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED * 1_000_000L;
+        }
+
+        if (userPreferences.isVelocityIncreasing() && now >= nextVelocityIncreaseNanos) {
+            timeUntilOneTetrominoGetsToGroundInSek = Math.max(timeUntilOneTetrominoGetsToGroundInSek - 2, 3);
+            nextVelocityIncreaseNanos += GameGrid.TIME_IN_MS_BETWEEN_VELOCITY_INCREASE * 1_000_000L;
+        }
+
+        int bottom = gridHeightInKacheln * UNIT;
+        for (EnginePiece piece : piecesInGrid) {
+            piece.logicalY += translatedUnitsPerMovement;
+            if (piece.getLogicalBottom() > bottom) {
+                isGameOver = true;
+            }
+        }
+
+        clock.advance(Math.round(getMovementIntervalInMillis() * 1_000_000));
+        ticks++;
+    }
+
+    /**
+     * Returns the game time between two movements, calculated in the same way as by the game grid.
+     * @return The time between two movements in milliseconds.
+     */
+    public double getMovementIntervalInMillis() {
+        int unitsToTravelTillDeath = (gridHeightInKacheln - userPreferences.getNumberOfKachelnInStone()) * UNIT;
+        int totalCallsTillDeath = Math.max(unitsToTravelTillDeath / translatedUnitsPerMovement, 1);
+        return (timeUntilOneTetrominoGetsToGroundInSek * 1000) / totalCallsTillDeath;
+    }
+
+    private void createNewTetrominoes() {
+        int k = userPreferences.getNumberOfKachelnInStone();
+
+        //FIRST: Create the tetrominoes
+        EnginePiece[] newCreatedPieces = new EnginePiece[userPreferences.getNumberOfNewAppearingStones()];
+        int totalWidthInKacheln = 0;
+        for (int i = 0; i < newCreatedPieces.length; i++) {
+            newCreatedPieces[i] = new EnginePiece(nextPieceId++, ShapeFitter.getRandomTetrominoArray(k, random), 0, 0);
+            totalWidthInKacheln += newCreatedPieces[i].getLastOccupiedColumn() + 1;
+        }
+
+        int spaceInKacheln = Math.max(gridWidthInKacheln - totalWidthInKacheln, 0) / (newCreatedPieces.length + 1);
+
+        //SECOND: Position the tetrominoes distributed over the game grid
+        int xInKacheln = 0;
+        for (EnginePiece piece : newCreatedPieces) {
+            xInKacheln += spaceInKacheln;
+            piece.logicalX = xInKacheln * UNIT;
+            piecesInGrid.add(piece);
+            spawnedPieces++;
+
+            xInKacheln += piece.getLastOccupiedColumn() + 1;
+        }
+    }
+
+    /**
+     * Tries to turn a tetromino of the game grid or of a parking spot (see {@link tetris.puzzles.actions.ActionTurn}).
+     * @param piece The piece to turn.
+     * @param turnRight If true, the tetromino is turned right. Otherwise, it is turned left.
+     * @return True, if the piece was turned.
+     */
+    public boolean turn(EnginePiece piece, boolean turnRight) {
+        if (!isAvailable(piece)) {
+            return false;
+        }
+        turn(piece.tetromino, turnRight);
+        if (isInvalidPosition(piece)) {
+            //reset transaction
+            turn(piece.tetromino, !turnRight);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tries to mirror a tetromino of the game grid or of a parking spot (see {@link tetris.puzzles.actions.ActionMirror}).
+     * @param piece The piece to mirror.
+     * @param horizontally If true, the tetromino is mirrored horizontally. Otherwise, it is mirrored vertically.
+     * @return True, if the piece was mirrored.
+     */
+    public boolean mirror(EnginePiece piece, boolean horizontally) {
+        if (!isAvailable(piece)) {
+            return false;
+        }
+        mirror(piece.tetromino, horizontally);
+        if (isInvalidPosition(piece)) {
+            //reset transaction, mirroring twice results in the original tetromino
+            mirror(piece.tetromino, horizontally);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tries to move a tetromino of the game grid by whole kacheln (see {@link tetris.puzzles.actions.ActionMove}).
+     * @param piece The piece to move.
+     * @param dxInKacheln Kacheln to move on the x axis.
+     * @param dyInKacheln Kacheln to move on the y axis.
+     * @return True, if the piece was moved.
+     */
+    public boolean move(EnginePiece piece, int dxInKacheln, int dyInKacheln) {
+        if (!isAvailable(piece) || piece.isParked()) {
+            return false;
+        }
+        piece.logicalX += dxInKacheln * UNIT;
+        piece.logicalY += dyInKacheln * UNIT;
+        if (isInvalidPosition(piece)) {
+            //reset transaction
+            piece.logicalX -= dxInKacheln * UNIT;
+            piece.logicalY -= dyInKacheln * UNIT;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tries to move a tetromino of the game grid into a free parking spot.
+     * @param piece The piece to park.
+     * @param parkingSpotIndex The index of the parking spot.
+     * @return True, if the piece was parked.
+     */
+    public boolean park(EnginePiece piece, int parkingSpotIndex) {
+        if (!isAvailable(piece) || piece.isParked() || parkingSpotIndex < 0 || parkingSpotIndex >= parkingSpots.length
+                || parkingSpots[parkingSpotIndex] != null) {
+            return false;
+        }
+        piecesInGrid.remove(piece);
+        parkingSpots[parkingSpotIndex] = piece;
+        piece.parkingSpotIndex = parkingSpotIndex;
+        return true;
+    }
+
+    /**
+     * Tries to fit a tetromino of the game grid or of a parking spot into a shape (see {@link tetris.puzzles.game.ShapeHolder}).
+     * If the shape is completed by the tetromino, the points for the used preferences are added and the shape starts over.
+     * @param piece The piece to fit.
+     * @param shapeIndex The index of the shape.
+     * @return True, if the tetromino was fitted into the shape.
+     */
+    public boolean tryToFillShape(EnginePiece piece, int shapeIndex) {
+        if (!isAvailable(piece) || shapeIndex < 0 || shapeIndex >= shapes.size()) {
+            return false;
+        }
+        EngineShape shape = shapes.get(shapeIndex);
+        if (!shape.insert(piece.tetromino, random)) {
+            return false;
+        }
+
+        if (piece.isParked()) {
+            parkingSpots[piece.parkingSpotIndex] = null;
+            piece.parkingSpotIndex = -1;
+        } else {
+            piecesInGrid.remove(piece);
+        }
+        piece.isRemoved = true;
+        fittedPieces++;
+        shapesVersion++;
+
+        if (shape.isCompleted()) {
+            shape.reset();
+            completedShapes++;
+            points += userPreferences.calculatePoints();
+        }
+        fitsWhereIndex.onShapeHasChanged(shapeIndex, shape.getShapeArray());
+        return true;
+    }
+
+    private boolean isAvailable(EnginePiece piece) {
+        return !isGameOver && !piece.isRemoved;
+    }
+
+    /**
+     * Returns true, if the piece is in the game grid and crosses the borders of the game grid or collides with another tetromino.
+     * In the same way as the {@link TetrominoDraw}, a tetromino collides if any other tetromino is closer than one kachel.
+     */
+    private boolean isInvalidPosition(EnginePiece piece) {
+        if (piece.isParked()) {
+            return false; //a parking spot is big enough for every embedding
+        }
+
+        int[][] internalArray = piece.tetromino.getInternalArray();
+        for (int row = 0; row < internalArray.length; row++) {
+            for (int column = 0; column < internalArray[row].length; column++) {
+                if (internalArray[row][column] == 0) {
+                    continue;
+                }
+                int x = piece.logicalX + column * UNIT;
+                int y = piece.logicalY + row * UNIT;
+                if (x < 0 || y < 0 || x + UNIT > gridWidthInKacheln * UNIT || y + UNIT > gridHeightInKacheln * UNIT) {
+                    return true;
+                }
+                if (isCollidingWithOtherTetromino(piece, x, y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isCollidingWithOtherTetromino(EnginePiece piece, int x, int y) {
+        for (EnginePiece otherPiece : piecesInGrid) {
+            if (otherPiece == piece) {
+                continue;
+            }
+            int[][] otherArray = otherPiece.tetromino.getInternalArray();
+            for (int row = 0; row < otherArray.length; row++) {
+                for (int column = 0; column < otherArray[row].length; column++) {
+                    if (otherArray[row][column] == 0) {
+                        continue;
+                    }
+                    //the kachel grown by one kachel on every side (the bigger area of the tetromino) intersects the other kachel
+                    int otherX = otherPiece.logicalX + column * UNIT;
+                    int otherY = otherPiece.logicalY + row * UNIT;
+                    if (Math.abs(otherX - x) < 2 * UNIT && Math.abs(otherY - y) < 2 * UNIT) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void turn(TetrominoArray tetromino, boolean turnRight) {
+        if (turnRight) {
+            tetromino.turnRight();
+        } else {
+            tetromino.turnLeft();
+        }
+    }
+
+    private static void mirror(TetrominoArray tetromino, boolean horizontally) {
+        if (horizontally) {
+            tetromino.mirrorHorizontally();
+        } else {
+            tetromino.mirrorVertically();
+        }
+    }
+
+    public UserPreferences getUserPreferences() {
+        return userPreferences;
+    }
+
+    public int getGridWidthInKacheln() {
+        return gridWidthInKacheln;
+    }
+
+    public int getGridHeightInKacheln() {
+        return gridHeightInKacheln;
+    }
+
+    /**
+     * Returns the tetrominoes falling in the game grid.
+     * @return An unmodifiable view of the tetrominoes in the game grid.
+     */
+    public List<EnginePiece> getPiecesInGrid() {
+        return Collections.unmodifiableList(piecesInGrid);
+    }
+
+    /**
+     * Returns the tetromino with the given id, if it is in the game grid or in a parking spot.
+     * @param id The id of the piece (see {@link EnginePiece#getId()}).
+     * @return The piece or null, if there is no such piece (anymore).
+     */
+    public EnginePiece getPiece(int id) {
+        for (EnginePiece piece : piecesInGrid) {
+            if (piece.id == id) {
+                return piece;
+            }
+        }
+        for (EnginePiece piece : parkingSpots) {
+            if (piece != null && piece.id == id) {
+                return piece;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the tetrominoes in the parking spots.
+     * @return A copy of the parking spots, a free parking spot is null.
+     */
+    public EnginePiece[] getParkingSpots() {
+        return parkingSpots.clone();
+    }
+
+    /**
+     * Returns the shapes.
+     * @return An unmodifiable view of the shapes.
+     */
+    public List<EngineShape> getShapes() {
+        return Collections.unmodifiableList(shapes);
+    }
+
+    /**
+     * Returns the index of the shapes (by the index of the shape) every tetromino fits into.
+     * @return The {@link FitsWhereIndex} of the shapes, it must not be changed.
+     */
+    public FitsWhereIndex getFitsWhereIndex() {
+        return fitsWhereIndex;
+    }
+
+    /**
+     * Returns a number that changes every time a tetromino was fitted into a shape, so that a {@link BotPlayer} does not need to check
+     * a tetromino again as long as the shapes have not changed.
+     * @return The version of the shapes.
+     */
+    public int getShapesVersion() {
+        return shapesVersion;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns how far every tetromino of the game grid falls per tick. The distance does not change when the velocity increases,
+     * only the interval between the ticks gets shorter.
+     * @return The distance in logical units ({@link TetrominoDraw#KACHEL_UNIT} units are one kachel).
+     */
+    public int getTranslatedUnitsPerMovement() {
+        return translatedUnitsPerMovement;
+    }
+
+    /**
+     * Returns the game time that has passed on the clock since the engine was created.
+     * @return The game time in milliseconds.
+     */
+    public double getGameTimeInMillis() {
+        return (clock.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    public int getSpawnedPieces() {
+        return spawnedPieces;
+    }
+
+    public int getFittedPieces() {
+        return fittedPieces;
+    }
+
+    public int getCompletedShapes() {
+        return completedShapes;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+}
@@ -0,0 +1,146 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.puzzles.tetromino.TetrominoDraw;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A simple {@link BotPlayer} that fits every tetromino as soon as possible:
+ * <ol>
+ *  <li>The parked tetrominoes and afterwards the tetrominoes of the game grid (lowest first) are tried in each of their 8 orientations
+ *  (4 rotations, mirrored or not) against every shape. Shapes that already hold more tetrominoes are preferred, as they are completed sooner.</li>
+ *  <li>If a tetromino fits, the orientation is applied by turning and mirroring the tetromino and the tetromino is fitted into the shape.</li>
+ *  <li>If a tetromino of the game grid does not fit and is about to reach the ground, it is parked in a free parking spot.</li>
+ * </ol>
+ * A tetromino that did not fit is only checked again after the shapes have changed. A tetromino that fits but cannot be turned yet
+ * (e. g. because of another tetromino next to it) is checked again in the next tick.
+ */
+public class GreedyBotPlayer implements BotPlayer {
+
+    public static final int PARKING_DISTANCE_IN_KACHELN = 2; //park tetrominoes that are closer to the ground than this
+
+    private final HashMap<EnginePiece, Integer> shapesVersionOfLastCheck = new HashMap<>();
+
+    @Override
+    public void onTick(GameEngine engine) {
+        for (EnginePiece parkedPiece : engine.getParkingSpots()) {
+            if (parkedPiece != null) {
+                tryToFitIntoAnyShape(engine, parkedPiece);
+            }
+        }
+
+        ArrayList<EnginePiece> piecesInGrid = new ArrayList<>(engine.getPiecesInGrid());
+        piecesInGrid.sort(Comparator.comparingInt(EnginePiece::getLogicalBottom).reversed());
+
+        int groundInUnits = engine.getGridHeightInKacheln() * TetrominoDraw.KACHEL_UNIT;
+        for (EnginePiece piece : piecesInGrid) {
+            if (tryToFitIntoAnyShape(engine, piece)) {
+                continue;
+            }
+            if (groundInUnits - piece.getLogicalBottom() < PARKING_DISTANCE_IN_KACHELN * TetrominoDraw.KACHEL_UNIT) {
+                parkInFreeSpot(engine, piece);
+            }
+        }
+
+        shapesVersionOfLastCheck.keySet().removeIf(EnginePiece::isRemoved);
+    }
+
+    private boolean tryToFitIntoAnyShape(GameEngine engine, EnginePiece piece) {
+        Integer lastCheckedVersion = shapesVersionOfLastCheck.get(piece);
+        if (lastCheckedVersion != null && lastCheckedVersion == engine.getShapesVersion()) {
+            return false; //nothing has changed since the last check
+        }
+
+        List<EngineShape> shapes = engine.getShapes();
+        Set<Integer> fittingShapes = engine.getFitsWhereIndex().getFittingShapes(piece.getInternalArray());
+        boolean isBlocked = false; //the tetromino fits, but cannot be turned or mirrored because of the borders or other tetrominoes
+        //prefer shapes that already hold the most tetrominoes, so that they are completed
+        for (int fittedTetrominoes = engine.getUserPreferences().getNumberOfTetrominoesInShape() - 1; fittedTetrominoes >= 0; fittedTetrominoes--) {
+            //the index tells without searching into which shapes the tetromino fits in any orientation
+            for (int shapeIndex : fittingShapes) {
+                EngineShape shape = shapes.get(shapeIndex);
+                if (shape.getFittedTetrominoes() != fittedTetrominoes) {
+                    continue;
+                }
+                for (int orientation = 0; orientation < 8; orientation++) {
+                    TetrominoArray orientedCopy = piece.copyTetromino();
+                    orientate(orientedCopy, orientation);
+                    if (shape.getPossibilitiesForAdding(orientedCopy).isEmpty()) {
+                        continue;
+                    }
+                    if (applyOrientation(engine, piece, orientation) && engine.tryToFillShape(piece, shapeIndex)) {
+                        shapesVersionOfLastCheck.remove(piece);
+                        return true;
+                    }
+                    isBlocked = true;
+                }
+            }
+        }
+
+        if (!isBlocked) {
+            shapesVersionOfLastCheck.put(piece, engine.getShapesVersion());
+        }
+        return false;
+    }
+
+    private void parkInFreeSpot(GameEngine engine, EnginePiece piece) {
+        EnginePiece[] parkingSpots = engine.getParkingSpots();
+        for (int i = 0; i < parkingSpots.length; i++) {
+            if (parkingSpots[i] == null) {
+                engine.park(piece, i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Orientation 0 to 3: turned right 0 to 3 times. Orientation 4 to 7: mirrored horizontally and afterwards turned right 0 to 3 times.
+     */
+    private static void orientate(TetrominoArray tetromino, int orientation) {
+        if (orientation >= 4) {
+            tetromino.mirrorHorizontally();
+        }
+        for (int i = 0; i < orientation % 4; i++) {
+            tetromino.turnRight();
+        }
+    }
+
+    /**
+     * Applies the orientation to the piece by the actions of the engine. If one action is not possible, the actions done so far are undone.
+     * @return True, if the orientation was applied.
+     */
+    private static boolean applyOrientation(GameEngine engine, EnginePiece piece, int orientation) {
+        boolean isMirrored = false;
+        if (orientation >= 4) {
+            if (!engine.mirror(piece, true)) {
+                return false;
+            }
+            isMirrored = true;
+        }
+
+        int turns = 0;
+        while (turns < orientation % 4) {
+            if (!engine.turn(piece, true)) {
+                break;
+            }
+            turns++;
+        }
+        if (turns == orientation % 4) {
+            return true;
+        }
+
+        //undo the applied actions
+        for (int i = 0; i < turns; i++) {
+            engine.turn(piece, false);
+        }
+        if (isMirrored) {
+            engine.mirror(piece, true);
+        }
+        return false;
+    }
+}
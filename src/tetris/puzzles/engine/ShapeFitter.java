@@ -0,0 +1,507 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.datamodels.CoordinateList;
+import tetris.puzzles.metrics.ShapeFitSearchEvent;
+import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.tools.Tetromino;
+import tetris.tools.TetrominoArraylist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class contains the logic to create shapes out of two tetrominoes and to fit tetrominoes into shapes.
+ * It does not depend on any UI component, so that it can be used by the {@link tetris.puzzles.game.Shape} panel as well as by the headless {@link GameEngine}.
+ * <br>The arrays of the shapes use the following values:
+ * <ul>
+ *  <li> Value 0 --> the cell is not used by the shape nor the tetrominoes.</li>
+ *  <li> Value 1 --> the cell is used by the shape and is reserved for one tetromino to be fitted into this cell.</li>
+ *  <li> Value 2 --> this cell was used by the shape and is currently assigned to the first tetromino added to the shape</li>
+ *  <li> Value 3 --> this cell was used by the shape and is currently assigned to the second tetromino added to the shape</li>
+ *  </ul>
+ *  <br>In order to determine whether a tetromino T fits into a shape S, the following algorithm is used:
+ *  <ol>
+ *  <li>Extract the relative coordinates of T by using {@link #calculateRelativeArray(TetrominoArray)}</li>
+ *  <li>For the shape's array go through every cell and check whether the relative coordinates can be applied (i. e. if the shape's array has enough 1's at the places the tetromino need).
+ *  If {@code true}, save the found possibility. The second step is done by {@link #getPossibilitiesForAdding(TetrominoArray, int[][], int, boolean, boolean)} method.</li>
+ *  <li>For every found possibility, check whether using it would still leave a shape array that can be used to fit another tetromino into it by using {@link #isShapeStillConnected(int[][], int, int, CoordinateList)}.</li>
+ *  </ol>
+ *  <br>Cells are passed around as packed (row, column) pairs in a {@link CoordinateList}, so that searching does not create an object per cell.
+ *  <br>Shapes can also be combined out of more than two tetrominoes (see {@link #getRandomShapeArray(int, int, Random)}); then the value of the
+ *  n-th fitted tetromino is n + 1. For them, the connection check is not enough, so the possibilities of every tetromino but the last one
+ *  are checked by the {@link ShapeSolver} whether the remaining cells can still be filled (see {@link #getPossibilitiesLeavingTileableShape}).
+ */
+public final class ShapeFitter {
+
+    //every embedding of every tetromino per k, calculated only once as the calculation is expensive. The arrays must not be changed.
+    private static final ConcurrentHashMap<Integer, List<int[][]>> TETROMINO_CATALOG = new ConcurrentHashMap<>();
+
+    private ShapeFitter() {
+        //only static methods
+    }
+
+    /**
+     * Returns every embedding of every tetromino with k kacheln (in the order of {@link TetrominoArraylist#alleEinbettungenStandardreihenfolgeRek(int)}).
+     * The list is calculated once per k and shared, so the returned arrays must not be changed. Use {@link #deepCopyArray(int[][])} to get an array that can be changed.
+     * @param k The number of kacheln in a tetromino.
+     * @return An unmodifiable list of the internal arrays of the tetrominoes.
+     */
+    public static List<int[][]> getTetrominoCatalog(int k) {
+        return TETROMINO_CATALOG.computeIfAbsent(k, key -> {
+            ArrayList<int[][]> catalog = new ArrayList<>();
+            for (Tetromino tetromino : new TetrominoArraylist().alleEinbettungenStandardreihenfolgeRek(key)) {
+                catalog.add(tetromino.stein);
+            }
+            return Collections.unmodifiableList(catalog);
+        });
+    }
+
+    /**
+     * Returns a random Shape array, i. e. the combination of two random tetrominoes without holes.
+     * Every returned shape is verified by the {@link ShapeSolver}, so it can be filled completely.
+     * @param k The number of kacheln in a tetromino.
+     * @param random The {@link Random} to use.
+     * @return The int[][] array containing the random Shape array.
+     */
+    public static int[][] getRandomShapeArray(int k, Random random) {
+        TetrominoArray firstTetromino = getRandomTetrominoArray(k, random);
+        TetrominoArray secondTetromino = getRandomTetrominoArray(k, random);
+
+        int[][] resultArray;
+
+        //search for two compatible tetrominoes
+        while (true) {
+            resultArray = combineTwoTetrominosIntoAShape(firstTetromino, secondTetromino);
+            if (resultArray != null && ShapeSolver.solve(k, resultArray, 1).isSolvable()) {
+                //found one valid solution
+                break;
+            }
+            //no valid solution, need to use other tetromino
+            secondTetromino = getRandomTetrominoArray(k, random);
+        }
+
+        return resultArray;
+    }
+
+    /**
+     * Returns a random Shape array out of the given number of random tetrominoes without holes.
+     * The tetrominoes are put next to each other into a square grid of {@link #getShapeGridSize(int, int)} cells, and every returned shape
+     * is verified by the {@link ShapeSolver}, so it can be filled completely.
+     * @param k The number of kacheln in a tetromino.
+     * @param numberOfTetrominoes The number of tetrominoes of the shape, at least 2. For 2, {@link #getRandomShapeArray(int, Random)} is used.
+     * @param random The {@link Random} to use.
+     * @return The int[][] array containing the random Shape array.
+     * @throws IllegalArgumentException If the number of tetrominoes is less than 2, as no tileable shape would ever be found.
+     */
+    public static int[][] getRandomShapeArray(int k, int numberOfTetrominoes, Random random) {
+        if (numberOfTetrominoes < 2) {
+            throw new IllegalArgumentException("A shape needs at least two tetrominoes, but was " + numberOfTetrominoes);
+        }
+        if (numberOfTetrominoes == 2) {
+            return getRandomShapeArray(k, random);
+        }
+
+        int[][] resultArray;
+
+        //search for compatible tetrominoes
+        do {
+            resultArray = combineTetrominoesIntoAShape(k, numberOfTetrominoes, random);
+        } while (resultArray == null || !ShapeSolver.isTileable(k, resultArray, 1));
+
+        return resultArray;
+    }
+
+    /**
+     * Returns the length of the square grid of a shape. Shapes out of two tetrominoes use the k x k grid of a tetromino,
+     * every further tetromino adds one row and column.
+     * @param k The number of kacheln in a tetromino.
+     * @param numberOfTetrominoes The number of tetrominoes of the shape.
+     * @return The number of rows (and columns) of a shape array.
+     */
+    public static int getShapeGridSize(int k, int numberOfTetrominoes) {
+        return k + Math.max(numberOfTetrominoes - 2, 0);
+    }
+
+    /**
+     * Puts the given number of random tetrominoes next to each other, each at a random position that touches the tetrominoes put before.
+     * @return The shape array in its minimal embedding, or null if a tetromino did not fit anymore or the shape has a hole.
+     */
+    private static int[][] combineTetrominoesIntoAShape(int k, int numberOfTetrominoes, Random random) {
+        int gridSize = getShapeGridSize(k, numberOfTetrominoes);
+        int[][] shapeArray = new int[gridSize][gridSize];
+
+        for (int i = 0; i < numberOfTetrominoes; i++) {
+            TetrominoArray tetromino = getRandomTetrominoArray(k, random);
+            CoordinateList possibilities = getPossibilitiesForAdding(tetromino, shapeArray, 0, true, false);
+            CoordinateList relativeCoordinates = calculateRelativeArray(tetromino);
+
+            CoordinateList touchingPossibilities = new CoordinateList();
+            for (int j = 0; j < possibilities.size(); j++) {
+                if (i == 0 || isTouchingShape(shapeArray, possibilities.getRow(j), possibilities.getColumn(j), relativeCoordinates)) {
+                    touchingPossibilities.add(possibilities.getRow(j), possibilities.getColumn(j));
+                }
+            }
+            if (touchingPossibilities.isEmpty()) {
+                return null;
+            }
+
+            int index = random.nextInt(touchingPossibilities.size());
+            fitTetrominoIntoArray(tetromino, touchingPossibilities.getRow(index), touchingPossibilities.getColumn(index), shapeArray, 1);
+        }
+
+        TetrominoArray testShape = new TetrominoArray(shapeArray);
+        if (testShape.hasEnclosedRegion()) {
+            return null;
+        }
+        testShape.moveToMinimalEmbedding();
+        return testShape.getInternalArray();
+    }
+
+    /**
+     * Checks whether a tetromino put at the start cell would have a kachel next to a cell of the shape.
+     */
+    private static boolean isTouchingShape(int[][] shapeArray, int startRow, int startColumn, CoordinateList relativeCoordinates) {
+        for (int i = -1; i < relativeCoordinates.size(); i++) {
+            int row = startRow + ((i < 0) ? 0 : relativeCoordinates.getRow(i));
+            int column = startColumn + ((i < 0) ? 0 : relativeCoordinates.getColumn(i));
+            if ((row > 0 && shapeArray[row - 1][column] != 0)
+                    || (row < shapeArray.length - 1 && shapeArray[row + 1][column] != 0)
+                    || (column > 0 && shapeArray[row][column - 1] != 0)
+                    || (column < shapeArray[row].length - 1 && shapeArray[row][column + 1] != 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns every possibility to add the tetromino into the open cells (value 1) of a shape, so that the remaining open cells can still be
+     * filled completely with tetrominoes (checked by {@link ShapeSolver#isTileable(int, int[][], int)}).
+     * Used for every tetromino but the last one of shapes out of more than two tetrominoes.
+     * @param tetromino The tetromino to fit. <b>Note that the tetromino is moved to its minimal embedding.</b>
+     * @param shapeArray The current array of the shape. It is not changed.
+     * @param k The number of kacheln in a tetromino.
+     * @return A CoordinateList that contains the start cells of valid solutions.
+     */
+    public static CoordinateList getPossibilitiesLeavingTileableShape(TetrominoArray tetromino, int[][] shapeArray, int k) {
+        CoordinateList possibilities = getPossibilitiesForAdding(tetromino, shapeArray, 1, true, false);
+
+        CoordinateList tileablePossibilities = new CoordinateList();
+        int[][] testArray = deepCopyArray(shapeArray);
+        for (int i = 0; i < possibilities.size(); i++) {
+            fitTetrominoIntoArray(tetromino, possibilities.getRow(i), possibilities.getColumn(i), testArray, 0);
+            if (ShapeSolver.isTileable(k, testArray, 1)) {
+                tileablePossibilities.add(possibilities.getRow(i), possibilities.getColumn(i));
+            }
+            fitTetrominoIntoArray(tetromino, possibilities.getRow(i), possibilities.getColumn(i), testArray, 1); //undo
+        }
+        return tileablePossibilities;
+    }
+
+    /**
+     * Returns a random {@link TetrominoArray}.
+     * @param k The number of kacheln in a tetromino.
+     * @param random The {@link Random} to use.
+     * @return A random {@link TetrominoArray}
+     */
+    public static TetrominoArray getRandomTetrominoArray(int k, Random random) {
+        List<int[][]> tetrominoList = getTetrominoCatalog(k);
+
+        int randomIndex = random.nextInt(tetrominoList.size());
+
+        //copy the array, as the tetromino array is changed when it is turned, mirrored or moved to its minimal embedding
+        return new TetrominoArray(deepCopyArray(tetrominoList.get(randomIndex)));
+    }
+
+    /**
+     * Handles the insertion of a second tetromino into a other tetromino in order to create a new shape array.
+     * @param firstTetromino The {@link TetrominoArray} of the first tetromino.
+     * @param secondTetromino The {@link TetrominoArray} of the second tetromino.
+     * @return int[][] array of a possible shape if combination of both tetrominoes was possible or null otherwise.
+     */
+    public static int[][] combineTwoTetrominosIntoAShape(TetrominoArray firstTetromino, TetrominoArray secondTetromino) {
+
+        //check if second tetromino can be fitted into k x k grid
+        CoordinateList possibilitiesToAddTetromino = getPossibilitiesForAdding(secondTetromino, firstTetromino.getInternalArray(), 0, false, false);
+
+        if (possibilitiesToAddTetromino.size() > 0) {
+            //found one possibility to add tetromino into grid
+            int[][] testArray = deepCopyArray(firstTetromino.getInternalArray());
+            //fill second tetromino into the grid of the first tetromino
+            fitTetrominoIntoArray(secondTetromino, possibilitiesToAddTetromino.getRow(0), possibilitiesToAddTetromino.getColumn(0), testArray, 1);
+
+            //check for holes
+            TetrominoArray testShape = new TetrominoArray(testArray);
+            if (testShape.hasEnclosedRegion()) {
+                return null;
+            } else {
+                //no holes, we can use our testArray
+                return testArray;
+            }
+
+        }
+
+        return null;
+    }
+
+    /**
+     * Fits a tetromino into the given array at that given start cell in the array with the given fill value.
+     * @param tetromino The tetromino to be fitted into the array.
+     * @param startRow The row of the start cell where the the first kachel of the tetromino should be added.
+     * @param startColumn The column of the start cell where the the first kachel of the tetromino should be added.
+     * @param shapeArray The array in which the tetromino should be fitted into.
+     * @param fillValue The fill value that should used to fit the tetromino.
+     */
+    public static void fitTetrominoIntoArray(TetrominoArray tetromino, int startRow, int startColumn, int[][] shapeArray, int fillValue) {
+        CoordinateList relativeCoordinatesOfTetromino = calculateRelativeArray(tetromino);
+
+        shapeArray[startRow][startColumn] = fillValue;
+        for (int i = 0; i < relativeCoordinatesOfTetromino.size(); i++) {
+            shapeArray[startRow + relativeCoordinatesOfTetromino.getRow(i)][startColumn + relativeCoordinatesOfTetromino.getColumn(i)] = fillValue;
+        }
+    }
+
+    /**
+     * Returns every possibility to add an tetromino into the given array so that it fills out only grids with the specified kachelValue.
+     * The possibilities are returned as a {@link CoordinateList} which holds the absolute cell for the first kachel of the given tetromino.
+     *
+     * @param tetrominoArray     The array of the tetromino that should be fitted into the arrayToChange
+     * @param arrayToChange      The array that contains the matrix that should be check for a possible insertion of the tetromino.
+     * @param kachelValue        The kachelValue that the new inserted Tetromino is allowed to overwrite.
+     *                           E. g. if adding a new tetromino into a shape, the kachelValue should be 1, as the new tetromino should only fill cells in the array that
+     *                           are placeholders (i. e. contain the value 1). If searching for a possible shape, the kachelValue should be 0 as the tetromino should be only
+     *                           added where the other tetromino is not added yet.
+     * @param getAllSolutions    If false, this method returns directly if a first solution is found. Thus, if false, the list has a size between 0 and 1.
+     *                           E. g. if this is the second tetromino added, there is only one valid solution, so can directly break this procedure after finding the first solution.
+     * @param checkForConnection If true, for every found solution, there is a check included that tests whether the after inserting the tetromino every kachel can still be traveled by a connected path.
+     *                           E. g. this should be true, if adding first tetromino but false if adding a shape (as for shapes there is automatically a hasEnclosedRegion() check) or the second tetromino.
+     * @return A CoordinateList that contains the start cells of valid solutions.
+     */
+    public static CoordinateList getPossibilitiesForAdding(TetrominoArray tetrominoArray, int[][] arrayToChange, int kachelValue, boolean getAllSolutions, boolean checkForConnection) {
+        ShapeFitSearchEvent searchEvent = new ShapeFitSearchEvent();
+        searchEvent.begin();
+        int candidates = 0;
+
+        CoordinateList possibilitiesToAddTetromino = new CoordinateList();
+
+        CoordinateList relativeCoordinatesForInsertingTetromino = calculateRelativeArray(tetrominoArray);
+
+        search:
+        for (int shapeRow = 0; shapeRow < arrayToChange.length; shapeRow++) {
+            for (int shapeCol = 0; shapeCol < arrayToChange[shapeRow].length; shapeCol++) {
+
+                if (arrayToChange[shapeRow][shapeCol] == kachelValue) {
+                    //found cell that contains the kachelValue we are allowed to overwrite
+                    candidates++;
+                    boolean tetrominoCanBeFitted = true;
+
+                    //check if from this first cell all relative coordinates ("connected path") of the tetromino could be applied.
+                    for (int i = 0; i < relativeCoordinatesForInsertingTetromino.size(); i++) {
+                        int row = shapeRow + relativeCoordinatesForInsertingTetromino.getRow(i);
+                        int col = shapeCol + relativeCoordinatesForInsertingTetromino.getColumn(i);
+
+                        if (row < 0
+                                || row >= arrayToChange.length
+                                || col < 0
+                                || col >= arrayToChange[shapeRow].length
+                                || arrayToChange[row][col] != kachelValue) {
+                            tetrominoCanBeFitted = false;
+                            break;
+                        }
+                    }
+
+                    if (tetrominoCanBeFitted) {
+                        if (checkForConnection) {
+                            if (isShapeStillConnected(arrayToChange, shapeRow, shapeCol, relativeCoordinatesForInsertingTetromino)) {
+                                // Found one possibility!
+                                possibilitiesToAddTetromino.add(shapeRow, shapeCol);
+                            }
+                        } else {
+                            //do not check for connection and directly add to list.
+                            possibilitiesToAddTetromino.add(shapeRow, shapeCol);
+                        }
+
+                        if (!getAllSolutions) {
+                            break search; //just directly return the first possibility found, as only one possibility can be left.
+                        }
+                    }
+                }
+            }
+        }
+
+        searchEvent.gridSize = arrayToChange.length;
+        searchEvent.candidates = candidates;
+        searchEvent.solutions = possibilitiesToAddTetromino.size();
+        searchEvent.allSolutionsRequested = getAllSolutions;
+        searchEvent.connectionChecked = checkForConnection;
+        searchEvent.commit();
+        return possibilitiesToAddTetromino;
+    }
+
+    /**
+     * Checks if the shape is still connected after inserting a tetromino into it.
+     * @param shapeArray The array of the shape the tetromino is inserted into.
+     * @param startRow The row of the start cell where the tetromino was fitted into.
+     * @param startColumn The column of the start cell where the tetromino was fitted into.
+     * @param relativeCoordinatesList The relative coordinates of all cells starting from the start cell.
+     * @return True, if shape is still connected, i. e. a connect path exists.
+     */
+    private static boolean isShapeStillConnected(int[][] shapeArray, int startRow, int startColumn, CoordinateList relativeCoordinatesList) {
+
+        //Create a new array, simulate the insertion of tetromino and check if the reminding places to be filled are still connected.
+        //FIRST: Remove the cells that the current tetromino would fill (i. e. simulate that tetromino was inserted).
+        int[][] arrayCopy = deepCopyArray(shapeArray);
+        arrayCopy[startRow][startColumn] = 0;
+        for (int i = 0; i < relativeCoordinatesList.size(); i++) {
+            arrayCopy[startRow + relativeCoordinatesList.getRow(i)][startColumn + relativeCoordinatesList.getColumn(i)] = 0;
+        }
+
+        //SECOND: Transform the arrayCopy into an array which holds the minimal embedding
+        TetrominoArray tetrominoArray = new TetrominoArray(arrayCopy);
+        tetrominoArray.moveToMinimalEmbedding();
+
+        //THIRD: Check if every cell with a 1 is part of an connected path.
+        return isEnoughPlaceForOtherTetromino(tetrominoArray);
+    }
+
+    /**
+     * As 2D-array are containing references to other arrays, usual cloning would only copy the references to the array but NOT
+     * the actual values. Use this method to perform a deep cloning of the array.
+     *
+     * @param arrayToCopy The array that should be cloned
+     * @return The cloned array. It is absolute identical to the template.
+     */
+    public static int[][] deepCopyArray(int[][] arrayToCopy) {
+        int[][] clone = new int[arrayToCopy.length][];
+        for (int i = 0; i < arrayToCopy.length; i++) {
+            clone[i] = arrayToCopy[i].clone();
+        }
+        return clone;
+    }
+
+    /**
+     * Returns a {@link CoordinateList} holding the relative row and column index of all
+     * kacheln that are connected to the first kachel found in the first row.
+     * <i>This can be used as a shortcut method in order to avoid needing to process the whole array of the spielstein in order
+     * to check if the tetromino would fit into shape.</i>
+     *
+     * @param tetrominoArray The tetromino that should be processed.
+     * @return A CoordinateList holding the cells relative to the first kachel found in the first row.
+     */
+    private static CoordinateList calculateRelativeArray(TetrominoArray tetrominoArray) {
+        tetrominoArray.moveToMinimalEmbedding();
+
+        //As tetromino is in his minimal embedding, the first kachel HAS TO be in any column in the first row.
+        int firstColIndex = tetrominoArray.getRowIndexOfFirstActiveKachel();
+
+        CoordinateList relativeCoordinates = new CoordinateList(tetrominoArray.getInternalArrayLength());
+        getRelativePositionOfKacheln(tetrominoArray.getInternalArray(), 0, firstColIndex, 0, 0, relativeCoordinates);
+
+        relativeCoordinates.remove(0); //remove first index as it is always our starting point at (0,0)
+
+        return relativeCoordinates;
+    }
+
+    /**
+     * Determines the relative positions of all kacheln that are connected to the start kachel by using a recursive approach.
+     *
+     * @param internalArray            Array holding the kxk-Grid
+     * @param start_row                The absolute row of the start kachel.
+     * @param start_col                The absolute column of the start kachel.
+     * @param relative_row             The relative row that should be checked. Initialization value should be 0.
+     * @param relative_col             The relative column that should be checked. Initialization value should be 0.
+     * @param relativeCoordinates      Holding a list of all found relativeCoordinates. Do provide an empty {@link CoordinateList} at initialization.
+     */
+    private static void getRelativePositionOfKacheln(int[][] internalArray, int start_row, int start_col, int relative_row, int relative_col, CoordinateList relativeCoordinates) {
+
+        int row = start_row + relative_row;
+        int col = start_col + relative_col;
+
+        //break condition: We went outside the field, have found a cell with value 0 or have already counted that cell.
+        if (row >= internalArray.length || row < 0
+                || col >= internalArray[row].length || col < 0
+                || internalArray[row][col] <= 0
+                || relativeCoordinates.contains(relative_row, relative_col)) {
+            return;
+        }
+
+        //if got here, we've found a new cell which is a neighbour of our previous cell.
+        //Adding this cell to the list
+        relativeCoordinates.add(relative_row, relative_col);
+
+
+        //At every cell in the matrix we could go potentially in four different directions.
+
+        //goRight
+        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row, relative_col + 1, relativeCoordinates);
+
+        //goLeft
+        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row, relative_col - 1, relativeCoordinates);
+
+        //goTop
+        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row - 1, relative_col, relativeCoordinates);
+
+        //goBottom
+        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row + 1, relative_col, relativeCoordinates);
+
+
+    }
+
+    /**
+     * Determines the amount of kacheln that are connected to each other without any holes.
+     *
+     * @param internalArray            Array holding the kxk-Grid
+     * @param row                      The absolute row that should be checked. Initialization value should be the first row with an active kachel.
+     * @param col                      The absolute row that should be checked. Initialization value should be the first column with an active kachel.
+     * @param visitedMatrixCoordiantes Holding a list of all visited kacheln. Do provide an empty {@link CoordinateList} at initialization.
+     * @return The amount of kacheln that are connected to each other starting with the kachel set by {@code row and col}.
+     */
+    private static int getTotalNumberOfConnectedKacheln(int[][] internalArray, int row, int col, CoordinateList visitedMatrixCoordiantes) {
+
+
+        //break condition: We went outside the field, have found a cell with value 0 or have already counted that cell.
+        if (row >= internalArray.length || row < 0
+                || col >= internalArray[row].length || col < 0
+                || internalArray[row][col] == 0
+                || visitedMatrixCoordiantes.contains(row, col)) {
+            return 0;
+        }
+
+        //if got here, we've found a new cell which is a neighbour of our start cell.
+        //Adding this cell to the list of visited cells and adding +1 to the return statement below.
+        visitedMatrixCoordiantes.add(row, col);
+
+
+        //At every cell in the matrix we could go potentially in four different directions.
+
+        //goRight
+        int right = getTotalNumberOfConnectedKacheln(internalArray, row, col + 1, visitedMatrixCoordiantes);
+
+        //goLeft
+        int left = getTotalNumberOfConnectedKacheln(internalArray, row, col - 1, visitedMatrixCoordiantes);
+
+        //goTop
+        int top = getTotalNumberOfConnectedKacheln(internalArray, row - 1, col, visitedMatrixCoordiantes);
+
+        //goBottom
+        int bottom = getTotalNumberOfConnectedKacheln(internalArray, row + 1, col, visitedMatrixCoordiantes);
+
+        //return number of neighbours found in right, left, top and bottom directions + 1 as the current cell is also a valid cell that counts.
+        return right + left + top + bottom + 1;
+    }
+
+    /**
+     * Checks whether the provided shape still has enough free place to hold another tetromino.
+     *
+     * @param tetrominoArray The tetrominoArray to be checked.
+     * @return true, if another tetromino still can be fitted into that array
+     */
+    private static boolean isEnoughPlaceForOtherTetromino(TetrominoArray tetrominoArray) {
+        int index = tetrominoArray.getRowIndexOfFirstActiveKachel();
+        int connectedKacheln = getTotalNumberOfConnectedKacheln(tetrominoArray.getInternalArray(), 0, index, new CoordinateList(tetrominoArray.getInternalArrayLength()));
+        return connectedKacheln == tetrominoArray.getInternalArrayLength();
+    }
+}
@@ -0,0 +1,125 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.metrics.GameMetrics;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class pre-generates shape arrays on a background thread, so that the event dispatch thread only needs to take a ready shape
+ * instead of running {@link ShapeFitter#getRandomShapeArray(int, Random)} with its random retries.
+ * <br>There is one pool per k (see {@link #getPool(int)}). Each pool holds at most {@link #CAPACITY} ready shapes and refills itself
+ * in the background whenever a shape was taken. If the pool is empty (e. g. right after its creation), {@link #take()} generates the shape
+ * on the calling thread, so a shape is always returned.
+ * <br>The number of ready shapes and the generation latency are recorded by the {@link GameMetrics} (JMX and overlay).
+ */
+public class ShapePool {
+
+    public static final int CAPACITY = 16; //enough for two games with the maximum number of shapes
+
+    private static final ConcurrentHashMap<Integer, ShapePool> POOLS = new ConcurrentHashMap<>();
+
+    private final int k;
+    private final ArrayBlockingQueue<int[][]> readyShapes = new ArrayBlockingQueue<>(CAPACITY);
+    private final ExecutorService executor;
+    private final AtomicBoolean isRefilling = new AtomicBoolean();
+    private final Random random = new Random(); //only used by the background thread
+
+    private final AtomicLong takenShapes = new AtomicLong();
+    private final AtomicLong missedShapes = new AtomicLong();
+
+    private ShapePool(int k) {
+        this.k = k;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shape-pool-k" + k);
+            thread.setDaemon(true); //the pool should never prevent the JVM from exiting
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * Returns the pool for the given k. The pool is created (and starts to generate shapes) when it is requested for the first time,
+     * so calling this method early, e. g. when the user chooses the size of the tetrominoes, avoids generating shapes when the game starts.
+     * @param k The number of kacheln in a tetromino.
+     * @return The shared ShapePool for k.
+     */
+    public static ShapePool getPool(int k) {
+        return POOLS.computeIfAbsent(k, ShapePool::new);
+    }
+
+    /**
+     * Takes a ready shape out of the pool. If no shape is ready, the shape is generated on the calling thread.
+     * @return A new shape array (see {@link ShapeFitter}) that is owned by the caller.
+     */
+    public int[][] take() {
+        int[][] shapeArray = readyShapes.poll();
+        takenShapes.incrementAndGet();
+        if (shapeArray == null) {
+            missedShapes.incrementAndGet();
+            shapeArray = generate(ThreadLocalRandom.current());
+        }
+        GameMetrics.setShapePoolDepth(k, readyShapes.size());
+        refill();
+        return shapeArray;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getNumberOfReadyShapes() {
+        return readyShapes.size();
+    }
+
+    public long getNumberOfTakenShapes() {
+        return takenShapes.get();
+    }
+
+    /**
+     * Returns how many shapes had to be generated by the calling thread because the pool was empty.
+     * @return The number of missed shapes.
+     */
+    public long getNumberOfMissedShapes() {
+        return missedShapes.get();
+    }
+
+    /**
+     * Starts refilling the pool in the background, unless a refill is already running.
+     */
+    private void refill() {
+        if (readyShapes.remainingCapacity() > 0 && isRefilling.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                boolean hasFailed = false;
+                try {
+                    while (readyShapes.remainingCapacity() > 0) {
+                        readyShapes.offer(generate(random));
+                        GameMetrics.setShapePoolDepth(k, readyShapes.size());
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    hasFailed = true;
+                } finally {
+                    isRefilling.set(false);
+                }
+                if (!hasFailed && readyShapes.remainingCapacity() > 0) {
+                    refill(); //a shape was taken after the loop had finished, but before the refill was marked as finished
+                }
+            });
+        }
+    }
+
+    private int[][] generate(Random random) {
+        long generationStart = GameMetrics.startTimer();
+        int[][] shapeArray = ShapeFitter.getRandomShapeArray(k, random);
+        GameMetrics.stopTimer(GameMetrics.SHAPE_GENERATION, generationStart);
+        return shapeArray;
+    }
+}
@@ -0,0 +1,108 @@
+package tetris.puzzles.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class holds the solution of one shape as returned by {@link ShapeSolver#solve(int, int[][], int)}.
+ * <br>The solution itself is memoized for the canonical form of the shape and shared between all shapes of the same form.
+ * This class only maps the tilings back into the coordinates of the solved shape array.
+ */
+public class ShapeSolution {
+
+    private final ShapeSolver.CachedSolution cachedSolution;
+    private final int rows;
+    private final int columns;
+    private final int[][] cells;
+    private final int[][] canonicalCoordinatesOfCells;
+
+    ShapeSolution(ShapeSolver.CachedSolution cachedSolution, int[][] shapeArray, int[][] cells, int canonicalOrientation) {
+        this.cachedSolution = cachedSolution;
+        this.rows = shapeArray.length;
+        this.columns = (shapeArray.length > 0) ? shapeArray[0].length : 0;
+        this.cells = cells;
+
+        //the transformation into the canonical form, without sorting, so that the cells keep their order
+        int[][] transformedCells = ShapeSolver.transform(cells, canonicalOrientation);
+        int minRow = Integer.MAX_VALUE;
+        int minColumn = Integer.MAX_VALUE;
+        for (int[] cell : transformedCells) {
+            minRow = Math.min(minRow, cell[0]);
+            minColumn = Math.min(minColumn, cell[1]);
+        }
+        canonicalCoordinatesOfCells = new int[transformedCells.length][];
+        for (int i = 0; i < transformedCells.length; i++) {
+            canonicalCoordinatesOfCells[i] = new int[]{transformedCells[i][0] - minRow, transformedCells[i][1] - minColumn};
+        }
+    }
+
+    /**
+     * Returns whether the shape can be filled completely with tetrominoes.
+     * @return True, if at least one tiling exists.
+     */
+    public boolean isSolvable() {
+        return !cachedSolution.tilings.isEmpty();
+    }
+
+    /**
+     * Returns whether the tetromino is part of at least one tiling, i. e. whether fitting it into the shape still allows to fill the shape completely.
+     * This is a hash lookup, independent of the size of the shape.
+     * @param pieceId The canonical id of the tetromino as returned by {@link ShapeSolver#getPieceId(int[][])}.
+     * @return True, if the tetromino can be fitted into the shape.
+     */
+    public boolean canBeFilledBy(String pieceId) {
+        return cachedSolution.fittingPieceIds.contains(pieceId);
+    }
+
+    /**
+     * Returns the canonical ids of every tetromino that can be fitted into the shape.
+     * @return An unmodifiable set of the canonical ids.
+     */
+    public Set<String> getFittingPieceIds() {
+        return cachedSolution.fittingPieceIds;
+    }
+
+    public int getNumberOfTilings() {
+        return cachedSolution.tilings.size();
+    }
+
+    public String getCanonicalMask() {
+        return cachedSolution.canonicalMask;
+    }
+
+    /**
+     * Returns the canonical ids of the tetrominoes of one tiling.
+     * @param tilingIndex The index of the tiling.
+     * @return The ids, in the order of the numbers used by {@link #getTiling(int)}.
+     */
+    public String[] getPieceIdsOfTiling(int tilingIndex) {
+        return cachedSolution.pieceIdsOfTilings.get(tilingIndex).clone();
+    }
+
+    /**
+     * Returns one tiling in the coordinates of the solved shape array.
+     * @param tilingIndex The index of the tiling.
+     * @return An array with the size of the shape array that holds the number of the tetromino (starting with 1) for every solved cell and 0 otherwise.
+     */
+    public int[][] getTiling(int tilingIndex) {
+        int[][] canonicalTiling = cachedSolution.tilings.get(tilingIndex);
+        int[][] tiling = new int[rows][columns];
+        for (int i = 0; i < cells.length; i++) {
+            tiling[cells[i][0]][cells[i][1]] = canonicalTiling[canonicalCoordinatesOfCells[i][0]][canonicalCoordinatesOfCells[i][1]];
+        }
+        return tiling;
+    }
+
+    /**
+     * Returns every tiling in the coordinates of the solved shape array (see {@link #getTiling(int)}).
+     * @return A list of all tilings.
+     */
+    public List<int[][]> getTilings() {
+        ArrayList<int[][]> tilings = new ArrayList<>();
+        for (int i = 0; i < getNumberOfTilings(); i++) {
+            tilings.add(getTiling(i));
+        }
+        return tilings;
+    }
+}
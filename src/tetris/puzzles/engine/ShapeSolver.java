@@ -0,0 +1,472 @@
+package tetris.puzzles.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class solves shapes exhaustively, i. e. it enumerates every way to tile the open cells of a shape with tetrominoes of the catalog
+ * (in every rotation and mirroring). In contrast to {@link ShapeFitter#getPossibilitiesForAdding}, which only checks one tetromino at a time,
+ * a solution guarantees that the whole shape can be filled.
+ * <br>Shapes and tetrominoes are identified by their canonical form: the cells are transformed by each of the 8 rotations and mirrorings,
+ * moved to their minimal embedding and written as a string (e. g. {@code "##./.##"}); the smallest of these strings is the canonical form.
+ * Two shapes that only differ by rotation, mirroring or position therefore have the same canonical form and are solved only once:
+ * the solutions are memoized per k and canonical form, so after the first time, solving a shape only costs its canonicalization.
+ * <br>With a {@link ShapeSolution}, the question whether a tetromino can be fitted into a shape is answered by a hash lookup of the
+ * tetromino's canonical id ({@link #getPieceId(int[][])}).
+ * <br>Shapes out of more than two tetrominoes have too many different forms to memoize them, and only need to know how many tilings exist
+ * or one of them. For them, {@link #countTilings(int, int[][], int, long)} and {@link #findTiling(int, int[][], int)} solve the shape as
+ * exact cover problem with {@link DancingLinks}: every open cell is a column, and every placement of an oriented tetromino on open cells is a row.
+ * {@link #getTileablePlacements(int, int[][], int)} answers which tetromino can be fitted where into such a shape without enumerating its tilings.
+ */
+public final class ShapeSolver {
+
+    private static final int ORIENTATIONS = 8; //4 rotations, each mirrored or not
+
+    //canonical mask -> solution, per k. Only shapes out of at most two tetrominoes may be solved: their number of different forms is small,
+    //so the cache is not bounded. Larger shapes have to use the uncached methods below, see FitsWhereIndex.
+    private static final ConcurrentHashMap<Integer, ConcurrentHashMap<String, CachedSolution>> SOLUTION_CACHE = new ConcurrentHashMap<>();
+
+    //the cells of every oriented tetromino per k, each in its minimal embedding
+    private static final ConcurrentHashMap<Integer, List<int[][]>> ORIENTED_PIECES = new ConcurrentHashMap<>();
+
+    private ShapeSolver() {
+        //only static methods
+    }
+
+    /**
+     * The memoized solution of a canonical shape. The tilings are stored in the coordinates of the canonical form.
+     */
+    static class CachedSolution {
+        final String canonicalMask;
+        final int rows;
+        final int columns;
+        final List<int[][]> tilings; //every tiling holds the number of the tetromino (starting with 1) for every open cell
+        final List<String[]> pieceIdsOfTilings;
+        final Set<String> fittingPieceIds;
+
+        CachedSolution(String canonicalMask, int rows, int columns, List<int[][]> tilings, List<String[]> pieceIdsOfTilings) {
+            this.canonicalMask = canonicalMask;
+            this.rows = rows;
+            this.columns = columns;
+            this.tilings = Collections.unmodifiableList(tilings);
+            this.pieceIdsOfTilings = Collections.unmodifiableList(pieceIdsOfTilings);
+
+            HashSet<String> pieceIds = new HashSet<>();
+            for (String[] ids : pieceIdsOfTilings) {
+                pieceIds.addAll(Arrays.asList(ids));
+            }
+            this.fittingPieceIds = Collections.unmodifiableSet(pieceIds);
+        }
+    }
+
+    /**
+     * Solves the shape, i. e. returns every way to fill the cells of the shape array that hold the kachel value with tetrominoes of k kacheln.
+     * @param k The number of kacheln in a tetromino.
+     * @param shapeArray The array of the shape. It is not changed.
+     * @param kachelValue The value of the cells that have to be filled, e. g. 1 for the open cells of a shape.
+     * @return The {@link ShapeSolution} of the shape.
+     * <br>The solution is memoized without a bound, so the shape must not have more open cells than two tetrominoes.
+     */
+    public static ShapeSolution solve(int k, int[][] shapeArray, int kachelValue) {
+        int[][] cells = getCells(shapeArray, kachelValue);
+
+        //find the orientation that leads to the canonical form
+        String canonicalMask = null;
+        int[][] canonicalCells = null;
+        int canonicalOrientation = 0;
+        for (int orientation = 0; orientation < ORIENTATIONS; orientation++) {
+            int[][] transformedCells = normalize(transform(cells, orientation));
+            String mask = toMask(transformedCells);
+            if (canonicalMask == null || mask.compareTo(canonicalMask) < 0) {
+                canonicalMask = mask;
+                canonicalCells = transformedCells;
+                canonicalOrientation = orientation;
+            }
+        }
+
+        ConcurrentHashMap<String, CachedSolution> cache = SOLUTION_CACHE.computeIfAbsent(k, key -> new ConcurrentHashMap<>());
+        CachedSolution cachedSolution = cache.get(canonicalMask);
+        if (cachedSolution == null) {
+            int[][] cellsToSolve = canonicalCells;
+            cachedSolution = cache.computeIfAbsent(canonicalMask, mask -> solveCanonical(k, cellsToSolve, mask));
+        }
+
+        return new ShapeSolution(cachedSolution, shapeArray, cells, canonicalOrientation);
+    }
+
+    /**
+     * Returns the canonical id of a tetromino, which is the same for every rotation, mirroring and position of the tetromino.
+     * @param tetrominoArray The internal array of the tetromino.
+     * @return The canonical id.
+     */
+    public static String getPieceId(int[][] tetrominoArray) {
+        return getCanonicalMask(getCells(tetrominoArray, -1));
+    }
+
+    /**
+     * Returns the number of different shapes that were solved for k.
+     * @param k The number of kacheln in a tetromino.
+     * @return The number of cached solutions.
+     */
+    public static int getCacheSize(int k) {
+        ConcurrentHashMap<String, CachedSolution> cache = SOLUTION_CACHE.get(k);
+        return (cache == null) ? 0 : cache.size();
+    }
+
+    /**
+     * Counts the ways to fill the cells of the shape array that hold the kachel value with tetrominoes of k kacheln (in every rotation and mirroring).
+     * In contrast to {@link #solve(int, int[][], int)}, the result is not memoized and the tilings are not stored, so this method can be used for
+     * shapes out of any number of tetrominoes.
+     * @param k The number of kacheln in a tetromino.
+     * @param shapeArray The array of the shape. It is not changed.
+     * @param kachelValue The value of the cells that have to be filled, e. g. 1 for the open cells of a shape.
+     * @param limit The counting stops as soon as this number of tilings was found.
+     * @return The number of tilings, at most limit. 0, if there are no cells to fill.
+     */
+    public static long countTilings(int k, int[][] shapeArray, int kachelValue, long limit) {
+        int[][] cells = getCells(shapeArray, kachelValue);
+        if (cells.length == 0 || cells.length % k != 0) {
+            return 0;
+        }
+        return createExactCover(k, shapeArray, kachelValue, cells, null).countSolutions(limit);
+    }
+
+    /**
+     * Returns whether the cells of the shape array that hold the kachel value can be filled completely with tetrominoes of k kacheln.
+     * @param k The number of kacheln in a tetromino.
+     * @param shapeArray The array of the shape. It is not changed.
+     * @param kachelValue The value of the cells that have to be filled.
+     * @return True, if at least one tiling exists.
+     */
+    public static boolean isTileable(int k, int[][] shapeArray, int kachelValue) {
+        return countTilings(k, shapeArray, kachelValue, 1) > 0;
+    }
+
+    /**
+     * Finds one way to fill the cells of the shape array that hold the kachel value with tetrominoes of k kacheln.
+     * @param k The number of kacheln in a tetromino.
+     * @param shapeArray The array of the shape. It is not changed.
+     * @param kachelValue The value of the cells that have to be filled.
+     * @return An array of the size of the shape array that holds the number of the tetromino (starting with 1) for every filled cell and 0 for the other cells,
+     * or null if the cells cannot be filled.
+     */
+    public static int[][] findTiling(int k, int[][] shapeArray, int kachelValue) {
+        int[][] cells = getCells(shapeArray, kachelValue);
+        if (cells.length == 0 || cells.length % k != 0) {
+            return null;
+        }
+
+        ArrayList<int[]> placements = new ArrayList<>();
+        int[] solution = createExactCover(k, shapeArray, kachelValue, cells, placements).findSolution();
+        if (solution == null) {
+            return null;
+        }
+
+        int[][] tiling = new int[shapeArray.length][];
+        for (int row = 0; row < shapeArray.length; row++) {
+            tiling[row] = new int[shapeArray[row].length];
+        }
+        for (int pieceNumber = 1; pieceNumber <= solution.length; pieceNumber++) {
+            for (int cellIndex : placements.get(solution[pieceNumber - 1])) {
+                tiling[cells[cellIndex][0]][cells[cellIndex][1]] = pieceNumber;
+            }
+        }
+        return tiling;
+    }
+
+    /**
+     * Returns every placement of a tetromino of k kacheln on the cells of the shape array that hold the kachel value, which leaves cells
+     * that can still be filled completely (checked by {@link #isTileable(int, int[][], int)}), i. e. every placement that is part of at least one tiling.
+     * In contrast to {@link #solve(int, int[][], int)}, the result is not memoized and the tilings are not enumerated, so this method can be used for
+     * shapes out of any number of tetrominoes.
+     * @param k The number of kacheln in a tetromino.
+     * @param shapeArray The array of the shape. It is not changed.
+     * @param kachelValue The value of the cells that have to be filled.
+     * @return The placements per canonical id of the tetromino, each with the size of the shape array holding 1 for the cells of the tetromino.
+     * Empty, if the cells cannot be filled.
+     */
+    public static Map<String, List<int[][]>> getTileablePlacements(int k, int[][] shapeArray, int kachelValue) {
+        HashMap<String, List<int[][]>> placementsOfPieces = new HashMap<>();
+        int[][] cells = getCells(shapeArray, kachelValue);
+        if (cells.length == 0 || cells.length % k != 0) {
+            return placementsOfPieces;
+        }
+
+        int[][] testArray = ShapeFitter.deepCopyArray(shapeArray);
+        for (int[] cell : cells) {
+            for (int[][] piece : getOrientedPieces(k)) {
+                //as in createExactCover, the first kachel of the oriented piece is put onto the cell, so every placement is checked once
+                int rowOffset = cell[0] - piece[0][0];
+                int columnOffset = cell[1] - piece[0][1];
+                if (!canBePlaced(testArray, piece, rowOffset, columnOffset, kachelValue)) {
+                    continue;
+                }
+
+                setCells(testArray, piece, rowOffset, columnOffset, 0);
+                if (cells.length == k || isTileable(k, testArray, kachelValue)) {
+                    int[][] placement = new int[shapeArray.length][];
+                    for (int row = 0; row < shapeArray.length; row++) {
+                        placement[row] = new int[shapeArray[row].length];
+                    }
+                    setCells(placement, piece, rowOffset, columnOffset, 1);
+                    placementsOfPieces.computeIfAbsent(getCanonicalMask(piece), id -> new ArrayList<>()).add(placement);
+                }
+                setCells(testArray, piece, rowOffset, columnOffset, kachelValue); //undo
+            }
+        }
+        return placementsOfPieces;
+    }
+
+    private static void setCells(int[][] array, int[][] piece, int rowOffset, int columnOffset, int value) {
+        for (int[] cell : piece) {
+            array[cell[0] + rowOffset][cell[1] + columnOffset] = value;
+        }
+    }
+
+    /**
+     * Creates the exact cover matrix of the shape: a column for every cell to fill and a row for every placement of an oriented tetromino
+     * that only covers cells to fill. As in {@link #fillTiling}, the first kachel of the oriented tetromino is put onto each cell, so every
+     * placement is added exactly once.
+     * @param placements If not null, the cell indices of every row are added, so that a solution can be translated back into cells.
+     */
+    private static DancingLinks createExactCover(int k, int[][] shapeArray, int kachelValue, int[][] cells, List<int[]> placements) {
+        int[][] cellIndices = new int[shapeArray.length][];
+        for (int row = 0; row < shapeArray.length; row++) {
+            cellIndices[row] = new int[shapeArray[row].length];
+            Arrays.fill(cellIndices[row], -1);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cellIndices[cells[i][0]][cells[i][1]] = i;
+        }
+
+        List<int[][]> orientedPieces = getOrientedPieces(k);
+        DancingLinks dancingLinks = new DancingLinks(cells.length, cells.length * k * 8);
+        int[] placement = new int[k];
+        for (int[] cell : cells) {
+            nextPiece:
+            for (int[][] piece : orientedPieces) {
+                int rowOffset = cell[0] - piece[0][0];
+                int columnOffset = cell[1] - piece[0][1];
+                for (int i = 0; i < piece.length; i++) {
+                    int row = piece[i][0] + rowOffset;
+                    int column = piece[i][1] + columnOffset;
+                    if (row < 0 || row >= cellIndices.length || column < 0 || column >= cellIndices[row].length || cellIndices[row][column] < 0) {
+                        continue nextPiece;
+                    }
+                    placement[i] = cellIndices[row][column];
+                }
+
+                dancingLinks.addRow(placement, k);
+                if (placements != null) {
+                    placements.add(placement.clone());
+                }
+            }
+        }
+        return dancingLinks;
+    }
+
+    /**
+     * Enumerates every tiling of the cells of the canonical form. The first open cell (row by row) has to be the first kachel of one tetromino,
+     * so every tiling is found exactly once.
+     */
+    private static CachedSolution solveCanonical(int k, int[][] canonicalCells, String canonicalMask) {
+        int rows = 0;
+        int columns = 0;
+        for (int[] cell : canonicalCells) {
+            rows = Math.max(rows, cell[0] + 1);
+            columns = Math.max(columns, cell[1] + 1);
+        }
+
+        ArrayList<int[][]> tilings = new ArrayList<>();
+        ArrayList<String[]> pieceIdsOfTilings = new ArrayList<>();
+        if (canonicalCells.length > 0 && canonicalCells.length % k == 0) {
+            int[][] tiling = new int[rows][columns];
+            for (int[] cell : canonicalCells) {
+                tiling[cell[0]][cell[1]] = -1; //open cell
+            }
+            fillTiling(k, tiling, 1, canonicalCells.length / k, new String[canonicalCells.length / k], tilings, pieceIdsOfTilings);
+        }
+
+        return new CachedSolution(canonicalMask, rows, columns, tilings, pieceIdsOfTilings);
+    }
+
+    private static void fillTiling(int k, int[][] tiling, int pieceNumber, int numberOfPieces, String[] pieceIds,
+                                   ArrayList<int[][]> tilings, ArrayList<String[]> pieceIdsOfTilings) {
+        if (pieceNumber > numberOfPieces) {
+            tilings.add(ShapeFitter.deepCopyArray(tiling));
+            pieceIdsOfTilings.add(pieceIds.clone());
+            return;
+        }
+
+        //find the first open cell
+        int firstRow = -1;
+        int firstColumn = -1;
+        search:
+        for (int row = 0; row < tiling.length; row++) {
+            for (int column = 0; column < tiling[row].length; column++) {
+                if (tiling[row][column] == -1) {
+                    firstRow = row;
+                    firstColumn = column;
+                    break search;
+                }
+            }
+        }
+
+        for (int[][] piece : getOrientedPieces(k)) {
+            //the first cell of the oriented piece is its first kachel in the first row, so it has to cover the first open cell
+            int rowOffset = firstRow - piece[0][0];
+            int columnOffset = firstColumn - piece[0][1];
+            if (!canBePlaced(tiling, piece, rowOffset, columnOffset, -1)) {
+                continue;
+            }
+
+            for (int[] cell : piece) {
+                tiling[cell[0] + rowOffset][cell[1] + columnOffset] = pieceNumber;
+            }
+            pieceIds[pieceNumber - 1] = getCanonicalMask(piece);
+
+            fillTiling(k, tiling, pieceNumber + 1, numberOfPieces, pieceIds, tilings, pieceIdsOfTilings);
+
+            for (int[] cell : piece) {
+                tiling[cell[0] + rowOffset][cell[1] + columnOffset] = -1;
+            }
+        }
+    }
+
+    /**
+     * Returns whether every cell of the moved piece is inside the array and holds the kachel value.
+     */
+    private static boolean canBePlaced(int[][] array, int[][] piece, int rowOffset, int columnOffset, int kachelValue) {
+        for (int[] cell : piece) {
+            int row = cell[0] + rowOffset;
+            int column = cell[1] + columnOffset;
+            if (row < 0 || row >= array.length || column < 0 || column >= array[row].length || array[row][column] != kachelValue) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the cells of every oriented tetromino of k kacheln (every tetromino of the catalog in every rotation and mirroring, without duplicates).
+     * The cells are sorted row by row, so the first cell is the first kachel in the first row.
+     */
+    static List<int[][]> getOrientedPieces(int k) {
+        return ORIENTED_PIECES.computeIfAbsent(k, key -> {
+            LinkedHashSet<String> knownMasks = new LinkedHashSet<>();
+            ArrayList<int[][]> orientedPieces = new ArrayList<>();
+            for (int[][] tetrominoArray : ShapeFitter.getTetrominoCatalog(key)) {
+                int[][] cells = getCells(tetrominoArray, -1);
+                for (int orientation = 0; orientation < ORIENTATIONS; orientation++) {
+                    int[][] orientedCells = normalize(transform(cells, orientation));
+                    if (knownMasks.add(toMask(orientedCells))) {
+                        orientedPieces.add(orientedCells);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(orientedPieces);
+        });
+    }
+
+    /**
+     * Returns the cells of the array as {row, column} pairs, row by row.
+     * @param kachelValue The value of the cells to return, or -1 for every cell with a value greater than 0.
+     */
+    static int[][] getCells(int[][] array, int kachelValue) {
+        ArrayList<int[]> cells = new ArrayList<>();
+        for (int row = 0; row < array.length; row++) {
+            for (int column = 0; column < array[row].length; column++) {
+                if ((kachelValue == -1) ? array[row][column] > 0 : array[row][column] == kachelValue) {
+                    cells.add(new int[]{row, column});
+                }
+            }
+        }
+        return cells.toArray(new int[0][]);
+    }
+
+    private static String getCanonicalMask(int[][] cells) {
+        String canonicalMask = null;
+        for (int orientation = 0; orientation < ORIENTATIONS; orientation++) {
+            String mask = toMask(normalize(transform(cells, orientation)));
+            if (canonicalMask == null || mask.compareTo(canonicalMask) < 0) {
+                canonicalMask = mask;
+            }
+        }
+        return canonicalMask;
+    }
+
+    /**
+     * Mirrors the cells (orientation 4 to 7) and turns them (orientation modulo 4) times by 90 degrees.
+     * The result is not normalized, i. e. it can contain negative coordinates.
+     */
+    static int[][] transform(int[][] cells, int orientation) {
+        int[][] transformedCells = new int[cells.length][];
+        for (int i = 0; i < cells.length; i++) {
+            int row = cells[i][0];
+            int column = (orientation >= 4) ? -cells[i][1] : cells[i][1];
+            for (int turn = 0; turn < orientation % 4; turn++) {
+                int turnedRow = column;
+                column = -row;
+                row = turnedRow;
+            }
+            transformedCells[i] = new int[]{row, column};
+        }
+        return transformedCells;
+    }
+
+    /**
+     * Moves the cells to their minimal embedding and sorts them row by row.
+     */
+    static int[][] normalize(int[][] cells) {
+        int minRow = Integer.MAX_VALUE;
+        int minColumn = Integer.MAX_VALUE;
+        for (int[] cell : cells) {
+            minRow = Math.min(minRow, cell[0]);
+            minColumn = Math.min(minColumn, cell[1]);
+        }
+
+        int[][] normalizedCells = new int[cells.length][];
+        for (int i = 0; i < cells.length; i++) {
+            normalizedCells[i] = new int[]{cells[i][0] - minRow, cells[i][1] - minColumn};
+        }
+        Arrays.sort(normalizedCells, (a, b) -> (a[0] != b[0]) ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        return normalizedCells;
+    }
+
+    /**
+     * Writes normalized cells as rows of '#' (cell) and '.' (no cell), separated by '/'.
+     */
+    static String toMask(int[][] normalizedCells) {
+        int rows = 0;
+        int columns = 0;
+        for (int[] cell : normalizedCells) {
+            rows = Math.max(rows, cell[0] + 1);
+            columns = Math.max(columns, cell[1] + 1);
+        }
+
+        char[][] mask = new char[rows][columns];
+        for (char[] row : mask) {
+            Arrays.fill(row, '.');
+        }
+        for (int[] cell : normalizedCells) {
+            mask[cell[0]][cell[1]] = '#';
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                builder.append('/');
+            }
+            builder.append(mask[row]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package tetris.puzzles.engine;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class plays many games by a {@link GreedyBotPlayer} in parallel without any UI, in order to measure the throughput of the
+ * {@link GameEngine} (ticks per second and games per second) and to find combinations of preferences that cannot be won.
+ * <br>Usage (the arguments are optional, shown with their default values):
+ * <pre>
+ * java -Djava.awt.headless=true -cp game/target/classes tetris.puzzles.engine.ThroughputRunner \
+ *      games=1000 threads=&lt;cores&gt; minutes=10 seed=0 k=4 stones=4 shapes=4 pieces=2 velocity=MEDIUM increasing=false
+ * </pre>
+ * {@code pieces} is the number of tetrominoes of a shape (2 to 4), a mode that only the engine supports, not the Swing game.
+ * <br>With {@code sweep=true} every combination of preferences is played {@code games} times (default 10) and every combination in which
+ * the bot could not complete a single shape is listed.
+ */
+public final class ThroughputRunner {
+
+    /**
+     * The result of one game.
+     */
+    static class GameResult {
+        long ticks;
+        double gameTimeInMillis;
+        int spawnedPieces;
+        int completedShapes;
+        int points;
+        boolean isGameOver;
+    }
+
+    private ThroughputRunner() {
+        //only static methods
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+
+        int threads = Integer.parseInt(arguments.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long maxGameTimeInMillis = Long.parseLong(arguments.getOrDefault("minutes", "10")) * 60 * 1000;
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            if (Boolean.parseBoolean(arguments.getOrDefault("sweep", "false"))) {
+                int gamesPerCombination = Integer.parseInt(arguments.getOrDefault("games", "10"));
+                sweep(executor, gamesPerCombination, maxGameTimeInMillis, seed);
+            } else {
+                UserPreferences userPreferences = createUserPreferences(
+                        Integer.parseInt(arguments.getOrDefault("k", "4")),
+                        Integer.parseInt(arguments.getOrDefault("stones", "4")),
+                        Integer.parseInt(arguments.getOrDefault("shapes", "4")),
+                        FallingVelocity.valueOf(arguments.getOrDefault("velocity", "MEDIUM").toUpperCase(Locale.ROOT)),
+                        Boolean.parseBoolean(arguments.getOrDefault("increasing", "false")));
+                int pieces = Integer.parseInt(arguments.getOrDefault("pieces", "2"));
+                if (pieces < UserPreferences.MIN_TETROMINOES_IN_SHAPE || pieces > UserPreferences.MAX_TETROMINOES_IN_SHAPE) {
+                    System.err.printf(Locale.ROOT, "pieces has to be between %d and %d, but was %d%n",
+                            UserPreferences.MIN_TETROMINOES_IN_SHAPE, UserPreferences.MAX_TETROMINOES_IN_SHAPE, pieces);
+                    return;
+                }
+                userPreferences.setNumberOfTetrominoesInShape(pieces);
+                int games = Integer.parseInt(arguments.getOrDefault("games", "1000"));
+
+                System.out.printf(Locale.ROOT, "Playing %d games on %d threads (%s)%n", games, threads, describe(userPreferences));
+                long start = System.nanoTime();
+                List<GameResult> results = playGames(executor, userPreferences, games, maxGameTimeInMillis, seed);
+                printSummary(results, System.nanoTime() - start);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Plays every combination of preferences and lists the combinations in which the bot never completed a shape.
+     */
+    private static void sweep(ExecutorService executor, int gamesPerCombination, long maxGameTimeInMillis, long seed)
+            throws InterruptedException, ExecutionException {
+        ArrayList<UserPreferences> unwinnablePreferences = new ArrayList<>();
+        ArrayList<GameResult> allResults = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int k = 3; k <= 5; k++) {
+            for (int stones = 1; stones <= 5; stones++) {
+                for (int shapes = 1; shapes <= 9; shapes++) {
+                    for (FallingVelocity velocity : FallingVelocity.values()) {
+                        for (boolean increasing : new boolean[]{false, true}) {
+                            UserPreferences userPreferences = createUserPreferences(k, stones, shapes, velocity, increasing);
+                            List<GameResult> results = playGames(executor, userPreferences, gamesPerCombination, maxGameTimeInMillis, seed);
+                            allResults.addAll(results);
+
+                            if (results.stream().allMatch(result -> result.completedShapes == 0)) {
+                                unwinnablePreferences.add(userPreferences);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        printSummary(allResults, System.nanoTime() - start);
+        System.out.printf(Locale.ROOT, "%d combinations without any completed shape:%n", unwinnablePreferences.size());
+        for (UserPreferences userPreferences : unwinnablePreferences) {
+            System.out.println("  " + describe(userPreferences));
+        }
+    }
+
+    private static List<GameResult> playGames(ExecutorService executor, UserPreferences userPreferences, int games, long maxGameTimeInMillis, long seed)
+            throws InterruptedException, ExecutionException {
+        ArrayList<Future<GameResult>> futures = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            long gameSeed = seed + i;
+            futures.add(executor.submit(() -> playGame(userPreferences, maxGameTimeInMillis, gameSeed)));
+        }
+
+        ArrayList<GameResult> results = new ArrayList<>();
+        for (Future<GameResult> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * Plays one game until it is over or the maximum game time has passed.
+     */
+    static GameResult playGame(UserPreferences userPreferences, long maxGameTimeInMillis, long seed) {
+        GameEngine engine = new GameEngine(userPreferences, seed);
+        BotPlayer bot = new GreedyBotPlayer();
+
+        while (!engine.isGameOver() && engine.getGameTimeInMillis() < maxGameTimeInMillis) {
+            bot.onTick(engine);
+            engine.tick();
+        }
+
+        GameResult result = new GameResult();
+        result.ticks = engine.getTicks();
+        result.gameTimeInMillis = engine.getGameTimeInMillis();
+        result.spawnedPieces = engine.getSpawnedPieces();
+        result.completedShapes = engine.getCompletedShapes();
+        result.points = engine.getPoints();
+        result.isGameOver = engine.isGameOver();
+        return result;
+    }
+
+    private static void printSummary(List<GameResult> results, long elapsedNanos) {
+        long ticks = 0;
+        long completedShapes = 0;
+        long spawnedPieces = 0;
+        long points = 0;
+        int lostGames = 0;
+        double gameTimeInMillis = 0;
+        for (GameResult result : results) {
+            ticks += result.ticks;
+            completedShapes += result.completedShapes;
+            spawnedPieces += result.spawnedPieces;
+            points += result.points;
+            gameTimeInMillis += result.gameTimeInMillis;
+            if (result.isGameOver) {
+                lostGames++;
+            }
+        }
+
+        double elapsedSeconds = elapsedNanos / 1e9;
+        int games = Math.max(results.size(), 1);
+        System.out.printf(Locale.ROOT, "%d games in %.2f s: %.0f ticks/sec, %.1f games/sec%n",
+                results.size(), elapsedSeconds, ticks / elapsedSeconds, results.size() / elapsedSeconds);
+        System.out.printf(Locale.ROOT, "per game: %.1f s game time, %.1f spawned tetrominoes, %.2f completed shapes, %.1f points, %d of %d games lost%n",
+                gameTimeInMillis / games / 1000, spawnedPieces / (double) games, completedShapes / (double) games, points / (double) games,
+                lostGames, results.size());
+    }
+
+    private static UserPreferences createUserPreferences(int k, int stones, int shapes, FallingVelocity velocity, boolean increasing) {
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(k);
+        userPreferences.setNumberOfNewAppearingStones(stones);
+        userPreferences.setNumberOfShapes(shapes);
+        userPreferences.setVelocity(velocity);
+        userPreferences.setVelocityIncreasing(increasing);
+        return userPreferences;
+    }
+
+    private static String describe(UserPreferences userPreferences) {
+        return String.format(Locale.ROOT, "k=%d stones=%d shapes=%d pieces=%d velocity=%s increasing=%b",
+                userPreferences.getNumberOfKachelnInStone(), userPreferences.getNumberOfNewAppearingStones(), userPreferences.getNumberOfShapes(),
+                userPreferences.getNumberOfTetrominoesInShape(), userPreferences.getVelocity(), userPreferences.isVelocityIncreasing());
+    }
+}
@@ -0,0 +1,135 @@
+package tetris.puzzles.game;
+
+import tetris.puzzles.tetromino.TetrominoDraw;
+
+/**
+ * This class holds one change of the game grid that was requested by another thread than the movement thread,
+ * e. g. a key press or a click of the user on the event dispatch thread or the release of new tetrominoes.
+ * <br>The commands are submitted by {@link GameGrid#submitCommand(GameCommand)} and applied by the movement thread of the game grid,
+ * so that the movement thread is the only thread that changes the tetrominoes of the game grid. Every command remembers when it was
+ * submitted, so that the time until it was applied can be measured.
+ * <br>Instances are immutable.
+ */
+public final class GameCommand {
+
+    /**
+     * The kind of change of a command.
+     */
+    public enum Type {
+        MOVE, TURN, MIRROR, SELECT, SPAWN
+    }
+
+    private final Type type;
+    private final TetrominoDraw tetromino;
+    private final int dx;
+    private final int dy;
+    private final boolean flag; //turn right resp. mirror horizontally resp. select
+    private final long submittedNanos;
+
+    private GameCommand(Type type, TetrominoDraw tetromino, int dx, int dy, boolean flag, long submittedNanos) {
+        this.type = type;
+        this.tetromino = tetromino;
+        this.dx = dx;
+        this.dy = dy;
+        this.flag = flag;
+        this.submittedNanos = submittedNanos;
+    }
+
+    /**
+     * Creates a command that moves a tetromino by whole kacheln (see {@link TetrominoDraw#translateInKachelUnitWithValidation}).
+     * @param tetromino The tetromino to move.
+     * @param dx relative movement on x-axis in kacheln
+     * @param dy relative movement on y-axis in kacheln
+     * @param submittedNanos The time of the submission as returned by {@link tetris.puzzles.time.GameClock#nanoTime()}.
+     * @return The new command.
+     */
+    public static GameCommand move(TetrominoDraw tetromino, int dx, int dy, long submittedNanos) {
+        return new GameCommand(Type.MOVE, tetromino, dx, dy, false, submittedNanos);
+    }
+
+    /**
+     * Creates a command that turns a tetromino (see {@link TetrominoDraw#turn}).
+     * @param tetromino The tetromino to turn.
+     * @param turnRight If true, the tetromino is turned right. Otherwise, it is turned left.
+     * @param submittedNanos The time of the submission as returned by {@link tetris.puzzles.time.GameClock#nanoTime()}.
+     * @return The new command.
+     */
+    public static GameCommand turn(TetrominoDraw tetromino, boolean turnRight, long submittedNanos) {
+        return new GameCommand(Type.TURN, tetromino, 0, 0, turnRight, submittedNanos);
+    }
+
+    /**
+     * Creates a command that mirrors a tetromino (see {@link TetrominoDraw#mirror}).
+     * @param tetromino The tetromino to mirror.
+     * @param horizontally If true, the tetromino is mirrored horizontally. Otherwise, it is mirrored vertically.
+     * @param submittedNanos The time of the submission as returned by {@link tetris.puzzles.time.GameClock#nanoTime()}.
+     * @return The new command.
+     */
+    public static GameCommand mirror(TetrominoDraw tetromino, boolean horizontally, long submittedNanos) {
+        return new GameCommand(Type.MIRROR, tetromino, 0, 0, horizontally, submittedNanos);
+    }
+
+    /**
+     * Creates a command that selects or deselects a tetromino of the game grid (see {@link TetrominoDraw#setSelected(boolean)}).
+     * @param tetromino The tetromino whose selection changes.
+     * @param isSelected If true, the tetromino is selected. Otherwise, it is deselected.
+     * @param submittedNanos The time of the submission as returned by {@link tetris.puzzles.time.GameClock#nanoTime()}.
+     * @return The new command.
+     */
+    public static GameCommand select(TetrominoDraw tetromino, boolean isSelected, long submittedNanos) {
+        return new GameCommand(Type.SELECT, tetromino, 0, 0, isSelected, submittedNanos);
+    }
+
+    /**
+     * Creates a command that releases new tetrominoes at the top of the game grid.
+     * @param submittedNanos The time of the submission as returned by {@link tetris.puzzles.time.GameClock#nanoTime()}.
+     * @return The new command.
+     */
+    public static GameCommand spawn(long submittedNanos) {
+        return new GameCommand(Type.SPAWN, null, 0, 0, false, submittedNanos);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the tetromino that should be changed.
+     * @return The tetromino or null for {@link Type#SPAWN}.
+     */
+    public TetrominoDraw getTetromino() {
+        return tetromino;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public boolean isTurnRight() {
+        return flag;
+    }
+
+    public boolean isHorizontally() {
+        return flag;
+    }
+
+    public boolean isSelected() {
+        return flag;
+    }
+
+    public long getSubmittedNanos() {
+        return submittedNanos;
+    }
+
+    /**
+     * Returns if the command was requested by the user, i. e. if its latency counts as input latency.
+     * @return True for every type except {@link Type#SPAWN}.
+     */
+    public boolean isUserInput() {
+        return type != Type.SPAWN;
+    }
+}
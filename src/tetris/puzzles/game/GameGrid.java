@@ -1,30 +1,49 @@
 package tetris.puzzles.game;
 
-import tetris.tools.Tetromino;
-import tetris.tools.TetrominoArraylist;
 import tetris.puzzles.actions.ActionMirror;
 import tetris.puzzles.actions.ActionMove;
 import tetris.puzzles.actions.ActionTurn;
+import tetris.puzzles.datamodels.SavedGame;
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.ShapeFitter;
 import tetris.puzzles.interfaces.SizeObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
-import tetris.puzzles.tetromino.TetrominoArray;
+import tetris.puzzles.metrics.GameMetrics;
+import tetris.puzzles.metrics.MetricsOverlay;
+import tetris.puzzles.metrics.MovementTickEvent;
+import tetris.puzzles.metrics.PieceSpawnEvent;
+import tetris.puzzles.metrics.RelayoutEvent;
 import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoPool;
+import tetris.puzzles.tetromino.TetrominoSnapshot;
+import tetris.puzzles.time.GameClock;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class is responsible for handling the game grid where the tetrominoes appear and are falling down.
+ * <br>Every waiting and time measurement of the game threads is done by the {@link GameClock} of the game grid.
+ * <br>The tetrominoes of the game grid are only changed by the movement thread: key presses, the selection by a click and the release
+ * of new tetrominoes are submitted as {@link GameCommand}s and applied by the movement thread before its next tick (see {@link #submitCommand(GameCommand)}).
+ * <br>The grid is never painted from the tetrominoes themselves, but from the frame of {@link TetrominoSnapshot}s that is published
+ * after every change (see {@link #publishFrame()}), so painting needs no lock and never shows a half moved tetromino.
+ * Clicks are hit-tested against the same frame, so the event dispatch thread never reads the positions of the tetrominoes.
  */
 public class GameGrid extends JPanel {
 
     public static final int TIME_IN_MS_BETWEEN_VELOCITY_INCREASE = 30000; //30 sek
     public static final int TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED = 10000; //10 sek
     public static final int REFRESH_RATE_IN_MILLIS = 40; //human eye is able to capture ~25 frame per second, so producing every 40ms a new frame.
+    public static final int START_DELAY_IN_MILLIS = 500; //time before the first tetrominoes appear, so that the user can orientate himself
+    public static final int STOP_THREADS_TIMEOUT_IN_MILLIS = 1000; //maximum time to wait for the game threads to save their timers when the game is saved
+    public static final int COMMAND_POLL_INTERVAL_IN_MILLIS = 5; //the movement thread applies submitted commands at least this often, even between two ticks
+    public static final Color BACKGROUND_COLOR = new Color(215, 215, 215); //light gray
 
     UserPreferences userPreferences;
 
@@ -35,10 +54,23 @@ public class GameGrid extends JPanel {
 
     int oldHeight;
     int newHeight;
+    int laidOutWidth;
+
+    final Object layoutLock = new Object(); //guards the positions of the tetrominoes against the movement thread during a relayout
+
+    //lock-free queue of the changes requested by other threads, only drained by the movement thread
+    final ConcurrentLinkedQueue<GameCommand> pendingCommands = new ConcurrentLinkedQueue<>();
+
+    //the tetrominoes to paint and to hit-test, replaced as a whole by publishFrame() and never changed afterwards
+    volatile Frame frame = new Frame(new TetrominoSnapshot[0], new TetrominoDraw[0]);
 
     long missingTimeDifferenceTillNextCreation;
     long missingTimeDifferenceTillNextMovement;
 
+    //the planned times (by the clock) of the next creation and movement, so that a running game can be saved without pausing it
+    volatile long nextCreationMillis;
+    volatile long nextMovementMillis;
+
     int alpha = 0;
 
     private float timeUntilOneTetrominoGetsToGroundInSek;
@@ -46,19 +78,33 @@ public class GameGrid extends JPanel {
 
     SizeObserver sizeObserver;
     TetrominoObserver tetrominoObserver;
+    SessionStatistics sessionStatistics;
+    RelayoutScheduler relayoutScheduler;
+    TetrominoPool tetrominoPool;
+    GameClock clock;
 
     /**
      * Constructs a GameGrid object.
      * @param tetrominoObserver A {@link TetrominoObserver} that can be used to get selected tetrominoes
      * @param sizeObserver A {@link SizeObserver} that can be used to get the current size of tetrominoes
      * @param userPreferences A {@link UserPreferences} object that holds the user preferences that should be used in the game.
+     * @param sessionStatistics A {@link SessionStatistics} object that counts the tetrominoes appearing in the game grid.
+     * @param relayoutScheduler A {@link RelayoutScheduler} that coalesces the size changes of the game grid into one relayout per frame.
+     * @param tetrominoPool A {@link TetrominoPool} that provides the new tetrominoes, reusing the tetrominoes that were fitted into shapes.
+     * @param clock The {@link GameClock} that is used to wait between the movements, the creations of new tetrominoes and the velocity increases.
+     * @param savedGame A {@link SavedGame} whose timers and velocity should be continued, or null to start a new game.
      */
-    GameGrid(TetrominoObserver tetrominoObserver, SizeObserver sizeObserver, UserPreferences userPreferences) {
+    GameGrid(TetrominoObserver tetrominoObserver, SizeObserver sizeObserver, UserPreferences userPreferences, SessionStatistics sessionStatistics,
+             RelayoutScheduler relayoutScheduler, TetrominoPool tetrominoPool, GameClock clock, SavedGame savedGame) {
         this.tetrominoObserver = tetrominoObserver;
         this.sizeObserver = sizeObserver;
         this.userPreferences = userPreferences;
+        this.sessionStatistics = sessionStatistics;
+        this.relayoutScheduler = relayoutScheduler;
+        this.tetrominoPool = tetrominoPool;
+        this.clock = clock;
 
-        setBackground(new Color(215, 215, 215)); //light gray
+        setBackground(BACKGROUND_COLOR);
 
         switch (userPreferences.getVelocity()) {
             case FAST:
@@ -82,7 +128,11 @@ public class GameGrid extends JPanel {
 
         addKeyBindings();
 
-        startGame();
+        if (savedGame == null) {
+            startGame();
+        } else {
+            resumeGame(savedGame);
+        }
     }
 
     public UserPreferences getUserPreferences() {
@@ -91,7 +141,9 @@ public class GameGrid extends JPanel {
 
     /**
      * Adds a size listener to the panel that is triggered when window resizes.
-     * Note: Everytime the windows resizes and the tetrominoes have to be replaced in the grid, the check for a game over is temporarily disabled.
+     * The relayout itself is coalesced by the {@link RelayoutScheduler}, so that dragging the window only relayouts once per frame.
+     * Note: Everytime the windows resizes and the tetrominoes have to be replaced in the grid, the check for a game over is disabled
+     * until the relayout took place.
      */
     private void addPanelSizeListener() {
         addComponentListener(new ComponentAdapter() {
@@ -99,13 +151,9 @@ public class GameGrid extends JPanel {
             public void componentResized(ComponentEvent e) {
                 super.componentResized(e);
 
-                if (getHeight() != newHeight) {
+                if (getHeight() != newHeight || getWidth() != laidOutWidth) {
                     tetrominoObserver.disableGameOver(); //disable GameOver check until layout has redrawn and tetrominoes re-sized
-
-                    oldHeight = newHeight;
-                    newHeight = getHeight();
-
-                    onGridSizeHasChanged();
+                    relayoutScheduler.onGridSizeHasChanged();
                 }
 
             }
@@ -127,18 +175,18 @@ public class GameGrid extends JPanel {
                 if (tetromino != null) {
 
                     if (activeTetromino != null) {
-                        activeTetromino.setSelected(false);
+                        submitCommand(GameCommand.select(activeTetromino, false, clock.nanoTime()));
                         if (activeTetromino == tetromino) {
                             //user tapped on the same tetromino, so need to deselect and nothing more
                             activeTetromino = null;
+                            setEnableStateKeyListener(false);
                             tetrominoObserver.setSelectedTetromino(null, true);
                             return;
                         }
                     }
 
-                    tetromino.setSelected(true);
+                    submitCommand(GameCommand.select(tetromino, true, clock.nanoTime()));
                     setEnableStateKeyListener(true);
-                    repaint();
                     tetrominoObserver.setSelectedTetromino(tetromino, true);
                     activeTetromino = tetromino;
                 }
@@ -160,10 +208,12 @@ public class GameGrid extends JPanel {
 
         // This logic first determines the available height and then calculates how many pixels per second
         // needs to be added in order to move through the whole panel after timeUntilOneTetrominoGetsToGroundInSek has passed.
-        int maxTetrominoHeight = sizeObserver.getTetrominoKachelSize() * userPreferences.getNumberOfKachelnInStone();
-        int pixelsToTravelTillDeath = (getHeight() - maxTetrominoHeight);
+        // The calculation uses logical units, as the tetrominoes are moved by logical units (see getTranslatedUnitsPerMovement()).
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        int maxTetrominoHeight = kachelSize * userPreferences.getNumberOfKachelnInStone();
+        int unitsToTravelTillDeath = TetrominoDraw.pixelToLogical(getHeight() - maxTetrominoHeight, kachelSize);
 
-        int totalCallsTillDeath = pixelsToTravelTillDeath / translatedPixelsPerMovement;
+        int totalCallsTillDeath = Math.max(unitsToTravelTillDeath / getTranslatedUnitsPerMovement(translatedPixelsPerMovement), 1);
 
         int timeBetweenTwoCallsInMillis = Math.round((timeUntilOneTetrominoGetsToGroundInSek * 1000) / totalCallsTillDeath);
 
@@ -171,6 +221,15 @@ public class GameGrid extends JPanel {
     }
 
 
+    /**
+     * Returns the logical units a tetromino travels per movement, so that it moves by the given amount of pixels with the current kachel size.
+     * @param translatedPixelsPerMovement The amount of pixels the tetromino should travel per each movement
+     * @return The logical units per movement, at least 1.
+     */
+    private int getTranslatedUnitsPerMovement(int translatedPixelsPerMovement) {
+        return Math.max(TetrominoDraw.pixelToLogical(translatedPixelsPerMovement, sizeObserver.getTetrominoKachelSize()), 1);
+    }
+
     /**
      * Starts the game.
      */
@@ -181,7 +240,9 @@ public class GameGrid extends JPanel {
             @Override
             public void run() {
                 try {
-                    Thread.sleep(500);
+                    nextCreationMillis = clock.millis() + START_DELAY_IN_MILLIS;
+                    nextMovementMillis = nextCreationMillis;
+                    clock.sleep(START_DELAY_IN_MILLIS);
 
 
                     startConstantTetrominoCreation();
@@ -197,6 +258,66 @@ public class GameGrid extends JPanel {
         delayStart.start();
     }
 
+    /**
+     * Continues a saved game: the velocity is restored and the game threads wait for the saved remaining time of the creation and movement.
+     * Like a new game, the tetrominoes do not move before the start delay, as the game grid has to be laid out first.
+     * @param savedGame The {@link SavedGame} to continue.
+     */
+    private void resumeGame(SavedGame savedGame) {
+        timeUntilOneTetrominoGetsToGroundInSek = savedGame.getTimeUntilOneTetrominoGetsToGroundInSek();
+        missingTimeDifferenceTillNextCreation = Math.max(savedGame.getMillisUntilNextCreation(), START_DELAY_IN_MILLIS);
+        missingTimeDifferenceTillNextMovement = Math.max(savedGame.getMillisUntilNextMovement(), START_DELAY_IN_MILLIS);
+        onGameContinued();
+    }
+
+    /**
+     * Writes the timers and the velocity of the game grid into the given saved game. Must only be called while the game is paused (see {@link #onGamePaused()}),
+     * it waits until the interrupted game threads saved their remaining time.
+     * <br>A release of new tetrominoes that was submitted but not applied yet is saved as creation that is due immediately.
+     * Other submitted commands (the key presses of the user) are not saved.
+     * @param savedGame The {@link SavedGame} to fill.
+     */
+    void saveTo(SavedGame savedGame) {
+        for (Thread thread : new Thread[]{moveTetrominoes, createNewTetrominoes, creationDelay, movementDelay, delayStart}) {
+            if (thread != null) {
+                try {
+                    thread.join(STOP_THREADS_TIMEOUT_IN_MILLIS);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        savedGame.setTimeUntilOneTetrominoGetsToGroundInSek(timeUntilOneTetrominoGetsToGroundInSek);
+        savedGame.setMillisUntilNextCreation(isCreationPending() ? 0 : Math.max(missingTimeDifferenceTillNextCreation, 0));
+        savedGame.setMillisUntilNextMovement(Math.max(missingTimeDifferenceTillNextMovement, 0));
+    }
+
+    /**
+     * Writes the timers and the velocity of the running game into the given saved game without pausing the game.
+     * The caller has to hold the layout lock, so that the movement thread is between two ticks and the tetrominoes can be saved consistently.
+     * @param savedGame The {@link SavedGame} to fill.
+     */
+    void captureTo(SavedGame savedGame) {
+        long now = clock.millis();
+        savedGame.setTimeUntilOneTetrominoGetsToGroundInSek(timeUntilOneTetrominoGetsToGroundInSek);
+        savedGame.setMillisUntilNextCreation(isCreationPending() ? 0 : Math.max(nextCreationMillis - now, 0));
+        savedGame.setMillisUntilNextMovement(Math.max(nextMovementMillis - now, 0));
+    }
+
+    /**
+     * Returns whether a release of new tetrominoes was submitted but not applied yet.
+     * @return True, if a {@link GameCommand.Type#SPAWN} command is pending.
+     */
+    private boolean isCreationPending() {
+        for (GameCommand command : pendingCommands) {
+            if (command.getType() == GameCommand.Type.SPAWN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Starts a thread that enables the constant increasing of the velocity.
      */
@@ -209,7 +330,7 @@ public class GameGrid extends JPanel {
                 try {
                     while (!thread.isInterrupted()) {
 
-                        Thread.sleep(TIME_IN_MS_BETWEEN_VELOCITY_INCREASE);
+                        clock.sleep(TIME_IN_MS_BETWEEN_VELOCITY_INCREASE);
 
                         timeUntilOneTetrominoGetsToGroundInSek = Math.max(timeUntilOneTetrominoGetsToGroundInSek - 2, 3); //tetromino get 2 seconds faster to ground, but never less than 3 seconds
                     }
@@ -230,25 +351,26 @@ public class GameGrid extends JPanel {
             public void run() {
                 Thread thread = Thread.currentThread();
 
-                long timeSinceLastCreation = 0;
+                long timeSinceLastCreation = Long.MIN_VALUE; //no creation yet (the clock could start at any value, even at 0)
                 try {
                     while (!thread.isInterrupted()) {
 
-                        timeSinceLastCreation = System.currentTimeMillis();
-                        createNewTetromino();
+                        timeSinceLastCreation = clock.millis();
+                        submitCommand(GameCommand.spawn(clock.nanoTime())); //the tetrominoes are created by the movement thread
+                        nextCreationMillis = timeSinceLastCreation + TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED;
 
-                        Thread.sleep(TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED);
+                        clock.sleep(TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED);
                     }
                 } catch (InterruptedException e) {
                     //Thread was asked to interrupt.
 
                     //We need some logic so that the game really pauses, i. e. the game saves how many time has passed by
                     //and thus, which time difference needs to be waited until new tetrominoes should appear.
-                    if (timeSinceLastCreation == 0) {
+                    if (timeSinceLastCreation == Long.MIN_VALUE) {
                         //thread never could start to create tetrominoes even once. No time difference to wait.
                         missingTimeDifferenceTillNextCreation = 0;
                     } else {
-                        long terminateTime = System.currentTimeMillis();
+                        long terminateTime = clock.millis();
                         long alreadyPassedTime = terminateTime - timeSinceLastCreation;
                         missingTimeDifferenceTillNextCreation = TIME_IN_MS_BETWEEN_NEW_TETROMINOES_RELEASED - alreadyPassedTime;
                     }
@@ -269,34 +391,77 @@ public class GameGrid extends JPanel {
             public void run() {
                 Thread thread = Thread.currentThread();
 
-                long timeSinceLastMovement = 0;
+                long timeSinceLastMovement = Long.MIN_VALUE; //no movement yet
+                long expectedTickStart = Long.MIN_VALUE;
+                int appliedCommands = 0; //since the last tick event
                 try {
                     while (!thread.isInterrupted()) {
+                        long tickStart = clock.nanoTime();
+                        //how far the tick missed the target interval (e. g. because sleep() overslept)
+                        long lateness = (expectedTickStart != Long.MIN_VALUE) ? tickStart - expectedTickStart : 0;
+                        if (expectedTickStart != Long.MIN_VALUE && GameMetrics.isEnabled()) {
+                            GameMetrics.TICK_JITTER.record(Math.abs(lateness));
+                        }
 
-                        for (int i = 0; ; i++) {
-                            TetrominoDraw tetromino = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
-                            if (tetromino == null) {
-                                //reached end of list
-                                break;
-                            } else {
-                                int[] borders = getBorders();
-                                tetromino.translateInPx(0, translatedPixelsPerMovement, borders[3]);
+                        MovementTickEvent tickEvent = new MovementTickEvent();
+                        tickEvent.begin();
+
+                        int movedTetrominoes = 0;
+                        int translatedUnitsPerMovement = getTranslatedUnitsPerMovement(translatedPixelsPerMovement);
+                        synchronized (layoutLock) {
+                            appliedCommands += applyPendingCommands();
+                            for (int i = 0; ; i++) {
+                                TetrominoDraw tetromino = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
+                                if (tetromino == null) {
+                                    //reached end of list
+                                    break;
+                                } else {
+                                    int[] borders = getBorders();
+                                    tetromino.translateInLogicalUnits(0, translatedUnitsPerMovement, borders[3]);
+                                    movedTetrominoes++;
+                                }
                             }
+                            publishFrame();
                         }
 
-                        repaint();
-                        timeSinceLastMovement = System.currentTimeMillis();
-                        Thread.sleep(getRefreshTimeInMillis(timeUntilOneTetrominoGetsToGroundInSek, translatedPixelsPerMovement));
+                        if (GameMetrics.isEnabled()) {
+                            GameMetrics.TICK_TIME.record(clock.nanoTime() - tickStart);
+                        }
+
+                        timeSinceLastMovement = clock.millis();
+                        int refreshTimeInMillis = getRefreshTimeInMillis(timeUntilOneTetrominoGetsToGroundInSek, translatedPixelsPerMovement);
+                        expectedTickStart = tickStart + refreshTimeInMillis * 1_000_000L;
+
+                        tickEvent.movedTetrominoes = movedTetrominoes;
+                        tickEvent.translatedPixels = translatedPixelsPerMovement;
+                        tickEvent.targetInterval = refreshTimeInMillis;
+                        tickEvent.lateness = lateness;
+                        tickEvent.appliedCommands = appliedCommands;
+                        tickEvent.commit();
+                        appliedCommands = 0;
+
+                        //wait for the next tick, but apply the commands in the meantime, so that a key press does not wait for a whole tick
+                        long nextTickMillis = timeSinceLastMovement + refreshTimeInMillis;
+                        nextMovementMillis = nextTickMillis;
+                        for (long remaining = refreshTimeInMillis; remaining > 0; remaining = nextTickMillis - clock.millis()) {
+                            clock.sleep(Math.min(remaining, COMMAND_POLL_INTERVAL_IN_MILLIS));
+                            if (!pendingCommands.isEmpty()) {
+                                synchronized (layoutLock) {
+                                    appliedCommands += applyPendingCommands();
+                                    publishFrame();
+                                }
+                            }
+                        }
 
                     }
                 } catch (InterruptedException e) {
                     //We need some logic so that the game really pauses, i. e. the game saves how many time has passed by
                     //and thus, which time difference needs to be waited until new tetrominoes should appear.
-                    if (timeSinceLastMovement == 0) {
+                    if (timeSinceLastMovement == Long.MIN_VALUE) {
                         //thread never could start to create tetrominoes even once. No time difference to wait.
                         missingTimeDifferenceTillNextMovement = 0;
                     } else {
-                        long terminateTime = System.currentTimeMillis();
+                        long terminateTime = clock.millis();
                         long alreadyPassedTime = terminateTime - timeSinceLastMovement;
                         missingTimeDifferenceTillNextMovement = getRefreshTimeInMillis(timeUntilOneTetrominoGetsToGroundInSek, translatedPixelsPerMovement) - alreadyPassedTime;
                     }
@@ -364,11 +529,12 @@ public class GameGrid extends JPanel {
     }
 
     /**
-     * Removes the selection of the current active tetromino.
+     * Removes the selection of the current active tetromino. The deselection is applied by the movement thread.
+     * If the tetromino has left the game grid in the meantime (e. g. it was parked), its selection is left to its new owner.
      */
     void removeTetrominoSelection() {
         if (activeTetromino != null) {
-            activeTetromino.setSelected(false);
+            submitCommand(GameCommand.select(activeTetromino, false, clock.nanoTime()));
             setEnableStateKeyListener(false);
             activeTetromino = null;
         }
@@ -376,19 +542,16 @@ public class GameGrid extends JPanel {
 
     /**
      * Returns the tetromino at the given points. Could be null if no tetromino is at the given point.
+     * The point is hit-tested against the published frame, i. e. against the tetrominoes as they are painted.
      * @param clicked The given point where to search for a tetromino
      * @return A {@link TetrominoDraw} object which is at the given point. Null if no object found at the given point.
      */
     private TetrominoDraw getTetrominoAtPoint(Point clicked) {
-        for (int i = 0; ; i++) {
-            TetrominoDraw tetrominoDraw = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
-            if (tetrominoDraw == null) {
-                //reached end of list
-                break;
-            } else {
-                if (tetrominoDraw.isPointInTetromino(clicked)) {
-                    return tetrominoDraw;
-                }
+        Frame currentFrame = frame;
+        int kachelLength = sizeObserver.getTetrominoKachelSize();
+        for (int i = 0; i < currentFrame.snapshots.length; i++) {
+            if (currentFrame.snapshots[i].isPointInSnapshot(clicked, kachelLength)) {
+                return currentFrame.tetrominoes[i];
             }
         }
 
@@ -398,17 +561,17 @@ public class GameGrid extends JPanel {
     //as we have no component added to the panel, we need to override the paint method (and not paintComponent)
     @Override
     public void paint(Graphics g) {
+        long paintStart = GameMetrics.startTimer();
         super.paint(g);
 
-        for (int i = 0; ; i++) {
-            TetrominoDraw tetromino = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
-            if (tetromino == null) {
-                //reached end of list
-                break;
-            }
-            tetromino.draw(g);
+        int kachelLength = sizeObserver.getTetrominoKachelSize();
+        for (TetrominoSnapshot tetromino : frame.snapshots) {
+            tetromino.draw(g, kachelLength);
         }
 
+        GameMetrics.stopTimer(GameMetrics.PAINT_TIME, paintStart);
+        GameMetrics.onFrameRendered();
+        MetricsOverlay.drawIfVisible(g, getWidth());
     }
 
 
@@ -422,12 +585,16 @@ public class GameGrid extends JPanel {
             return; //our layout hasn't laid out yet
         }
 
+        PieceSpawnEvent spawnEvent = new PieceSpawnEvent();
+        spawnEvent.begin();
+
         //FIRST: Create the tetrominoes
         TetrominoDraw[] newCreatedTetrominoes = new TetrominoDraw[userPreferences.getNumberOfNewAppearingStones()];
 
         int totalWidthForTetrominoes = 0;
         for (int i = 0; i < newCreatedTetrominoes.length; i++) {
-            newCreatedTetrominoes[i] = new TetrominoDraw(getRandomTetrominoArray(userPreferences), tetrominoObserver, sizeObserver, userPreferences);
+            int[][] tetrominoArray = ShapeFitter.getRandomTetrominoArray(userPreferences.getNumberOfKachelnInStone(), ThreadLocalRandom.current()).getInternalArray();
+            newCreatedTetrominoes[i] = tetrominoPool.obtain(tetrominoArray);
 
             int[] tetrominoBounds = newCreatedTetrominoes[i].getBounds();
             int length = tetrominoBounds[2] - tetrominoBounds[0];
@@ -447,37 +614,108 @@ public class GameGrid extends JPanel {
             newCreatedTetrominoes[i].setStartCoordinates(new Point(xPos, 0));
 
             tetrominoObserver.addTetrominoToGameGridList(newCreatedTetrominoes[i]);
+            sessionStatistics.onPieceSpawned();
 
             int[] tetrominoBounds = newCreatedTetrominoes[i].getBounds();
             int lengthOfAddedTetromino = tetrominoBounds[2] - tetrominoBounds[0];
             xPos += lengthOfAddedTetromino;
         }
 
+        spawnEvent.spawnedTetrominoes = newCreatedTetrominoes.length;
+        spawnEvent.kachelnPerTetromino = userPreferences.getNumberOfKachelnInStone();
+        spawnEvent.tetrominoesInGrid = tetrominoObserver.getTetrominoesInGameGrid().size();
+        spawnEvent.commit();
+
         repaint();
 
     }
 
     /**
-     * Returns a random {@link TetrominoArray}.
-     * @param userPreferences The {@link UserPreferences} in order to determine the grid size.
-     * @return A random {@link TetrominoArray}
+     * Returns the currently selected {@link TetrominoDraw} in the game grid (if any).
+     * @return {@link TetrominoDraw} or null if no tetromino is active
      */
-    private TetrominoArray getRandomTetrominoArray(UserPreferences userPreferences) {
-        TetrominoArraylist spielsteinArraylist = new TetrominoArraylist();
-        ArrayList<Tetromino> tetrominoList = spielsteinArraylist.alleEinbettungenStandardreihenfolgeRek(userPreferences.getNumberOfKachelnInStone());
+    public TetrominoDraw getActiveTetromino() {
+        return activeTetromino;
+    }
 
-        Random random = new Random();
-        int randomIndex = random.nextInt(tetrominoList.size());
+    /**
+     * Submits a change of the game grid. The command is applied by the movement thread within {@link #COMMAND_POLL_INTERVAL_IN_MILLIS},
+     * or when the game continues if the game is paused. This method never blocks and can be called by every thread.
+     * @param command The {@link GameCommand} to apply.
+     */
+    public void submitCommand(GameCommand command) {
+        pendingCommands.offer(command);
+    }
 
-        return new TetrominoArray(tetrominoList.get(randomIndex));
+    /**
+     * Publishes a new frame with a {@link TetrominoSnapshot} of every tetromino of the game grid and repaints the grid.
+     * Must be called after every change of the tetrominoes of the game grid (movement, commands, selection, removal, relayout),
+     * as only the published frame is painted and hit-tested. The snapshots are taken while holding the layout lock, so that they are consistent.
+     */
+    public void publishFrame() {
+        synchronized (layoutLock) {
+            ArrayList<TetrominoDraw> tetrominoesInGrid = tetrominoObserver.getTetrominoesInGameGrid();
+            TetrominoSnapshot[] snapshots = new TetrominoSnapshot[tetrominoesInGrid.size()];
+            for (int i = 0; i < snapshots.length; i++) {
+                snapshots[i] = tetrominoesInGrid.get(i).createSnapshot();
+            }
+            frame = new Frame(snapshots, tetrominoesInGrid.toArray(new TetrominoDraw[0]));
+        }
+        repaint();
     }
 
     /**
-     * Returns the currently selected {@link TetrominoDraw} in the game grid (if any).
-     * @return {@link TetrominoDraw} or null if no tetromino is active
+     * Returns the {@link GameClock} of the game grid, e. g. to get the submission time of a {@link GameCommand}.
+     * @return The GameClock of this game.
      */
-    public TetrominoDraw getActiveTetromino() {
-        return activeTetromino;
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Applies every submitted command in the order of the submission. Must only be called by the movement thread while holding the layout lock.
+     * @return The number of applied commands.
+     */
+    private int applyPendingCommands() {
+        int appliedCommands = 0;
+        GameCommand command;
+        while ((command = pendingCommands.poll()) != null) {
+            applyCommand(command);
+            appliedCommands++;
+            if (command.isUserInput() && GameMetrics.isEnabled()) {
+                GameMetrics.INPUT_TO_APPLY.record(clock.nanoTime() - command.getSubmittedNanos());
+            }
+        }
+        return appliedCommands;
+    }
+
+    private void applyCommand(GameCommand command) {
+        if (command.getType() == GameCommand.Type.SPAWN) {
+            createNewTetromino();
+            return;
+        }
+
+        ArrayList<TetrominoDraw> tetrominoesInGrid = tetrominoObserver.getTetrominoesInGameGrid();
+        TetrominoDraw tetromino = command.getTetromino();
+        if (!tetrominoesInGrid.contains(tetromino)) {
+            return; //the tetromino was fitted into a shape or parked after the command was submitted
+        }
+
+        int[] borders = getBorders();
+        switch (command.getType()) {
+            case MOVE:
+                tetromino.translateInKachelUnitWithValidation(command.getDx(), command.getDy(), borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid, true);
+                break;
+            case TURN:
+                tetromino.turn(command.isTurnRight(), borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid);
+                break;
+            case MIRROR:
+                tetromino.mirror(command.isHorizontally(), borders[0], borders[1], borders[2], borders[3], tetrominoesInGrid);
+                break;
+            case SELECT:
+                tetromino.setSelected(command.isSelected());
+                break;
+        }
     }
 
     /**
@@ -525,16 +763,17 @@ public class GameGrid extends JPanel {
         creationDelay = new Thread(new Runnable() {
             @Override
             public void run() {
-                long startWaitingTime = System.currentTimeMillis();
+                long startWaitingTime = clock.millis();
+                nextCreationMillis = startWaitingTime + Math.max(missingTimeDifferenceTillNextCreation, 0);
                 try {
 
                     if (missingTimeDifferenceTillNextCreation > 0) {
-                        Thread.sleep(missingTimeDifferenceTillNextCreation);
+                        clock.sleep(missingTimeDifferenceTillNextCreation);
                     }
 
                     startConstantTetrominoCreation();
                 } catch (InterruptedException e) {
-                    long interruptTime = System.currentTimeMillis();
+                    long interruptTime = clock.millis();
                     long timeWaited = interruptTime - startWaitingTime;
                     missingTimeDifferenceTillNextCreation -= timeWaited;
                 }
@@ -545,16 +784,17 @@ public class GameGrid extends JPanel {
         movementDelay = new Thread(new Runnable() {
             @Override
             public void run() {
-                long startWaitingTime = System.currentTimeMillis();
+                long startWaitingTime = clock.millis();
+                nextMovementMillis = startWaitingTime + Math.max(missingTimeDifferenceTillNextMovement, 0);
                 try {
 
                     if (missingTimeDifferenceTillNextMovement > 0) {
-                        Thread.sleep(missingTimeDifferenceTillNextMovement);
+                        clock.sleep(missingTimeDifferenceTillNextMovement);
                     }
 
                     startConstantTetrominoMovement();
                 } catch (InterruptedException e) {
-                    long interruptTime = System.currentTimeMillis();
+                    long interruptTime = clock.millis();
                     long timeWaited = interruptTime - startWaitingTime;
                     missingTimeDifferenceTillNextMovement -= timeWaited;
                 }
@@ -568,48 +808,65 @@ public class GameGrid extends JPanel {
         }
     }
 
-    //NOTE: This method could be called multiple times.
-
     /**
-     * Handles the size change of the game grid. It adapts the x position of tetrominoes if they got out of bounds and
-     * also adapts the height of the tetrominoes for the new game grid size. The adaption takes place relatively:
-     * Thus, a tetromino that have already traveled e. g. 70% of the game grid in the old size,
-     * now also has traveled 70% of the new game grid size.
-     * This method could be called multiple times sequentially.
+     * Handles the size change of the game grid. As the tetrominoes are positioned in logical kachel units, their positions
+     * do not need to be adapted: the new kachel size is applied as view transform when drawing. Only tetrominoes that
+     * got outside the grid, because the grid got smaller, are moved back into the grid.
+     * <br>The tetrominoes are moved without checking for a game over, so that a resize never ends the game.
+     * This method is called by the {@link RelayoutScheduler} at most once per frame on the event dispatch thread.
      */
     public void onGridSizeHasChanged() {
-        boolean atLeastOneTetrominoIsOutOfBounds = false;
-
-        for (int i = 0; ; i++) {
-            TetrominoDraw tetrominoDraw = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
-            if (tetrominoDraw == null) {
-                //reached end of list
-                break;
-            }
-
-            int[] bounds = tetrominoDraw.getBounds();
-
-            int[] gridGameBorders = getBorders();
-
-            //reset x position if tetromino now outside the grid
-            if (bounds[2] > gridGameBorders[2]) {
-                tetrominoDraw.translateInPx(-(bounds[2] - gridGameBorders[2]), 0, gridGameBorders[3]);
-            }
-
-            //reset y position to adapt to new screen
-            float traveledWayFraction = bounds[1] / (float) oldHeight;
-            int newTraveledWay = (int) (newHeight * traveledWayFraction);
-            int dy = newTraveledWay - bounds[1];
-            tetrominoDraw.translateInPx(0, dy, gridGameBorders[3]);
+        RelayoutEvent relayoutEvent = new RelayoutEvent();
+        relayoutEvent.begin();
+
+        oldHeight = newHeight;
+        newHeight = getHeight();
+        laidOutWidth = getWidth();
+
+        int[] gridGameBorders = getBorders();
+
+        int movedTetrominoes = 0;
+        synchronized (layoutLock) {
+            for (int i = 0; ; i++) {
+                TetrominoDraw tetrominoDraw = tetrominoObserver.getTetrominoesInGameGridAtIndex(i);
+                if (tetrominoDraw == null) {
+                    //reached end of list
+                    break;
+                }
 
-            if (tetrominoDraw.isGameOver(gridGameBorders[3])) {
-                atLeastOneTetrominoIsOutOfBounds = true;
+                //keep tetromino inside the grid, the resize should not be the reason for a game over
+                if (tetrominoDraw.moveInsideBorders(gridGameBorders[2], gridGameBorders[3])) {
+                    movedTetrominoes++;
+                }
             }
         }
 
-        if (!atLeastOneTetrominoIsOutOfBounds) {
+        if (!relayoutScheduler.isRelayoutPending()) {
             //game layout is completely re-drawn, now we can enable GameOver checker again
             tetrominoObserver.enableGameOver();
         }
+        publishFrame();
+
+        relayoutEvent.trigger = RelayoutEvent.GRID_SIZE_CHANGED;
+        relayoutEvent.tetrominoes = movedTetrominoes;
+        relayoutEvent.oldHeight = oldHeight;
+        relayoutEvent.newHeight = newHeight;
+        relayoutEvent.kachelSize = sizeObserver.getTetrominoKachelSize();
+        relayoutEvent.coalescedRequests = relayoutScheduler.getCoalescedRequests();
+        relayoutEvent.commit();
+    }
+
+    /**
+     * One published frame: the snapshot at the index i shows the tetromino at the index i, so that a click on a snapshot
+     * can be mapped to its tetromino.
+     */
+    static final class Frame {
+        final TetrominoSnapshot[] snapshots;
+        final TetrominoDraw[] tetrominoes;
+
+        Frame(TetrominoSnapshot[] snapshots, TetrominoDraw[] tetrominoes) {
+            this.snapshots = snapshots;
+            this.tetrominoes = tetrominoes;
+        }
     }
 }
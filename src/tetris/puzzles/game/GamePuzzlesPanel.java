@@ -1,12 +1,19 @@
 package tetris.puzzles.game;
 
+import tetris.puzzles.datamodels.SavedGame;
+import tetris.puzzles.datamodels.SavedGame.SavedTetromino;
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.SizeSaver;
 import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.ShapeFitter;
 import tetris.puzzles.interfaces.ControlInterface;
 import tetris.puzzles.interfaces.GameInterface;
 import tetris.puzzles.interfaces.PauseObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
+import tetris.puzzles.metrics.RelayoutEvent;
 import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoPool;
+import tetris.puzzles.time.GameClock;
 
 import javax.swing.*;
 import java.awt.*;
@@ -25,15 +32,21 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
     ParkingSpotHolder parkingSpotHolder;
     ShapeHolder shapeHolder;
     ControlInterface controlInterface;
+    RelayoutScheduler relayoutScheduler;
 
     ArrayList<TetrominoDraw> tetrominoesInGrid;
+    TetrominoPool tetrominoPool;
+
+    int lastLayoutHeight; //only used for the RelayoutEvent
 
     boolean isShapeHolderSelected;
     boolean isGamePaused;
-    boolean isGameOverDisabled;
+    volatile boolean isGameOverDisabled; //also read by the movement thread of the game grid
 
     TetrominoDraw selectedTetromino;
 
+    SessionStatistics sessionStatistics;
+
     PauseObserver pauseObserver;
 
     /**
@@ -55,6 +68,10 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
         return gameGrid == null ? null : gameGrid.getUserPreferences();
     }
 
+    public SessionStatistics getSessionStatistics() {
+        return sessionStatistics;
+    }
+
     /**
      * Adds a size listener to the panel that is triggered when window resizes.
      * Note: Everytime the windows resizes and the tetrominoes have to be replaced in the grid, the check for a game over is temporarily disabled.
@@ -67,7 +84,7 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
 
                 //trigger resizing of components if game is already started
                 if (gameGrid != null) {
-                    onTetrominoSizeHasChanged();
+                    relayoutScheduler.onTetrominoSizeHasChanged();
                 }
             }
         });
@@ -124,14 +141,20 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
     /**
      * Creates a new Game Layout.
      * @param userPreferences The {@link UserPreferences} to be used in the game
+     * @param savedGame A {@link SavedGame} whose tetrominoes, shapes and timers should be restored, or null to start a new game.
      */
-    private void createGameLayout(UserPreferences userPreferences) {
+    private void createGameLayout(UserPreferences userPreferences, SavedGame savedGame) {
         if (gameGrid != null) { //a game is already running
             onGameOver(); //trigger saving of highscore of running game
         }
 
         removeAll();
 
+        if (relayoutScheduler != null) {
+            relayoutScheduler.cancel(); //do not relayout the components of the previous game
+        }
+        relayoutScheduler = new RelayoutScheduler(this::adaptSizeOfComponents, () -> gameGrid.onGridSizeHasChanged());
+
         GridBagLayout layout = new GridBagLayout();
         setLayout(layout);
 
@@ -142,9 +165,26 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
         SizeSaver tetrominoSizeSaver = new SizeSaver();
         tetrominoSizeSaver.addObserver(this);
 
-        gameGrid = new GameGrid(this, tetrominoSizeSaver, userPreferences);
+        sessionStatistics = (savedGame == null) ? new SessionStatistics() : new SessionStatistics(savedGame);
+
+        tetrominoPool = new TetrominoPool(this, tetrominoSizeSaver, userPreferences);
+
+        if (savedGame != null) {
+            //the tetrominoes have to be in the grid before the game threads start
+            for (SavedTetromino savedTetromino : savedGame.getTetrominoesInGrid()) {
+                tetrominoesInGrid.add(restoreTetromino(savedTetromino, tetrominoPool));
+            }
+        }
+
+        gameGrid = new GameGrid(this, tetrominoSizeSaver, userPreferences, sessionStatistics, relayoutScheduler, tetrominoPool, GameClock.system(), savedGame);
         parkingSpotHolder = new ParkingSpotHolder(this, controlInterface, tetrominoSizeSaver, userPreferences);
-        shapeHolder = new ShapeHolder(this, controlInterface, tetrominoSizeSaver, userPreferences);
+        shapeHolder = new ShapeHolder(this, controlInterface, tetrominoSizeSaver, userPreferences, sessionStatistics);
+
+        if (savedGame != null) {
+            parkingSpotHolder.restoreParkingSpots(savedGame.getParkingSpots(), tetrominoPool);
+            shapeHolder.restoreShapes(savedGame.getShapes());
+            gameGrid.publishFrame();
+        }
 
         gameGrid_c.weightx = 1;
         gameGrid_c.weighty = 1;
@@ -181,6 +221,7 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
     public void pauseGame() {
         if (gameGrid != null) {
             gameGrid.onGamePaused();
+            sessionStatistics.onGamePaused();
             isGamePaused = true;
         }
 
@@ -192,16 +233,111 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
     public void continueGame() {
         if (isGamePaused) {
             gameGrid.onGameContinued();
+            sessionStatistics.onGameContinued();
             isGamePaused = false;
         }
     }
 
+    /**
+     * Returns everything that is needed to continue the running game later. Must be called on the event dispatch thread while the game is paused.
+     * <br>The selection of the tetrominoes and the user's key presses that were not applied yet are not saved.
+     * @param points The points the user achieved so far.
+     * @return A {@link SavedGame} or null if no game is running (not started yet or game over).
+     */
+    public SavedGame createSavedGame(int points) {
+        if (gameGrid == null || !isGamePaused || sessionStatistics.isFinished()) {
+            return null;
+        }
+
+        SavedGame savedGame = new SavedGame();
+        gameGrid.saveTo(savedGame); //waits for the game threads, so the grid is not changed anymore afterwards
+        synchronized (gameGrid.layoutLock) {
+            saveTo(savedGame, points);
+        }
+        return savedGame;
+    }
+
+    /**
+     * Returns everything that is needed to continue the running game later, without pausing the game (e. g. for an autosave).
+     * Must be called on the event dispatch thread, which changes the parking spots and the shapes.
+     * <br>The state is copied while holding the layout lock, so that the movement thread is between two ticks. The copy only takes some microseconds,
+     * so the movement thread is not delayed noticeably.
+     * @param points The points the user achieved so far.
+     * @return A {@link SavedGame} or null if no game is running (not started yet, paused or game over).
+     */
+    public SavedGame captureRunningGame(int points) {
+        if (gameGrid == null || isGamePaused || sessionStatistics.isFinished()) {
+            return null;
+        }
+
+        SavedGame savedGame = new SavedGame();
+        synchronized (gameGrid.layoutLock) {
+            gameGrid.captureTo(savedGame);
+            saveTo(savedGame, points);
+        }
+        return savedGame;
+    }
+
+    /**
+     * Copies the tetrominoes, parking spots, shapes and statistics into the given saved game. The caller has to hold the layout lock.
+     * @param savedGame The {@link SavedGame} to fill.
+     * @param points The points the user achieved so far.
+     */
+    private void saveTo(SavedGame savedGame, int points) {
+        savedGame.setUserPreferences(gameGrid.getUserPreferences());
+        savedGame.setPoints(points);
+        sessionStatistics.saveTo(savedGame);
+
+        for (TetrominoDraw tetrominoDraw : tetrominoesInGrid) {
+            savedGame.getTetrominoesInGrid().add(saveTetromino(tetrominoDraw));
+        }
+        savedGame.setParkingSpots(parkingSpotHolder.saveParkingSpots());
+        savedGame.getShapes().addAll(shapeHolder.saveShapes());
+    }
+
+    /**
+     * Returns the state of the given tetromino that is needed to restore it later.
+     * @param tetrominoDraw The {@link TetrominoDraw} to save.
+     * @return A {@link SavedTetromino} holding a copy of the array, the logical position and the color.
+     */
+    static SavedTetromino saveTetromino(TetrominoDraw tetrominoDraw) {
+        return new SavedTetromino(ShapeFitter.deepCopyArray(tetrominoDraw.getInternalArray()), tetrominoDraw.getLogicalX(), tetrominoDraw.getLogicalY(),
+                tetrominoDraw.getTetrominoColor().getRGB());
+    }
+
+    /**
+     * Restores a saved tetromino.
+     * @param savedTetromino The {@link SavedTetromino} to restore.
+     * @param tetrominoPool The {@link TetrominoPool} that provides the tetromino.
+     * @return A new {@link TetrominoDraw} with the saved array, position and color.
+     */
+    static TetrominoDraw restoreTetromino(SavedTetromino savedTetromino, TetrominoPool tetrominoPool) {
+        TetrominoDraw tetrominoDraw = tetrominoPool.obtain(savedTetromino.getInternalArray());
+        tetrominoDraw.setLogicalCoordinates(savedTetromino.getLogicalX(), savedTetromino.getLogicalY());
+        tetrominoDraw.setTetrominoColor(new Color(savedTetromino.getColorRgb()));
+        return tetrominoDraw;
+    }
+
     @Override
     public void onGameStart(UserPreferences userPreferences) {
+        startGame(userPreferences, null);
+    }
+
+    @Override
+    public void onGameResume(SavedGame savedGame) {
+        startGame(savedGame.getUserPreferences(), savedGame);
+    }
+
+    /**
+     * Ends the running game (if any) and starts a new or a saved game.
+     * @param userPreferences The {@link UserPreferences} to be used in the game
+     * @param savedGame A {@link SavedGame} to continue, or null to start a new game.
+     */
+    private void startGame(UserPreferences userPreferences, SavedGame savedGame) {
         //reset previous states as new game started
         isShapeHolderSelected = false;
         isGamePaused = false;
-        tetrominoesInGrid.clear();
+        clearTetrominoesInGrid();
         isGameOverDisabled = false;
         selectedTetromino = null;
 
@@ -211,7 +347,7 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
             pauseObserver.continueGame(); //Reset pause screen
         }
 
-        createGameLayout(userPreferences);
+        createGameLayout(userPreferences, savedGame);
         requestFocus();
     }
 
@@ -231,6 +367,8 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
             //new tetromino was set by parking spot, so notify gameGrid to remove it's selection
             gameGrid.removeTetrominoSelection();
         }
+
+        shapeHolder.updateHighlighting(); //show the shapes the new selected tetromino fits into
     }
 
     @Override
@@ -254,15 +392,40 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
 
     @Override
     public void addTetrominoToGameGridList(TetrominoDraw tetrominoDraw) {
-        tetrominoesInGrid.add(tetrominoDraw);
+        synchronized (gameGrid.layoutLock) {
+            tetrominoesInGrid.add(tetrominoDraw);
+        }
+    }
+
+    /**
+     * Removes every tetromino from the game grid list. The movement thread of a previous game might still be running, so the list is cleared under the layout lock.
+     */
+    private void clearTetrominoesInGrid() {
+        if (gameGrid == null) {
+            tetrominoesInGrid.clear();
+            return;
+        }
+        synchronized (gameGrid.layoutLock) {
+            tetrominoesInGrid.clear();
+        }
     }
 
     @Override
     public void removeTetromino(TetrominoDraw tetrominoDraw) {
-        tetrominoesInGrid.remove(tetrominoDraw);
+        synchronized (gameGrid.layoutLock) {
+            tetrominoesInGrid.remove(tetrominoDraw);
+        }
+        gameGrid.publishFrame(); //the removed tetromino must not be painted in the game grid anymore
         parkingSpotHolder.removeTetrominoFromOtherParkingSpots(tetrominoDraw);
     }
 
+    @Override
+    public void recycleTetromino(TetrominoDraw tetrominoDraw) {
+        if (tetrominoDraw != selectedTetromino && !tetrominoesInGrid.contains(tetrominoDraw) && !parkingSpotHolder.isTetrominoParked(tetrominoDraw)) {
+            tetrominoPool.recycle(tetrominoDraw);
+        }
+    }
+
     @Override
     public void deselectAllTetrominoesInParkingSpot() {
         parkingSpotHolder.removeTetrominoSelection();
@@ -276,12 +439,13 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
                 return;
             }
             gameGrid.onGameOver();
+            relayoutScheduler.cancel();
 
             remove(gameGrid);
             remove(parkingSpotHolder);
             remove(shapeHolder);
 
-            tetrominoesInGrid.clear();
+            clearTetrominoesInGrid();
 
             JLabel label = new JLabel("GAME OVER");
             label.setFont(new Font("Arial", Font.BOLD, 45));
@@ -291,7 +455,7 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
             revalidate();
             repaint();
 
-            controlInterface.onGameOver(gameGrid.userPreferences); //here a popup is created which blocks the thread, so need to call this line last
+            controlInterface.onGameOver(gameGrid.userPreferences, sessionStatistics); //here a popup is created which blocks the thread, so need to call this line last
 
         }
     }
@@ -306,8 +470,24 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
         isGameOverDisabled = false;
     }
 
+    /**
+     * Schedules the relayout of the components for the next frame, so that the many size notifications during a resize
+     * cause only one relayout.
+     */
     @Override
     public void onTetrominoSizeHasChanged() {
+        if (relayoutScheduler != null) {
+            //the tetrominoes in the grid are drawn with the new kachel size immediately and could cross the borders until the grid is laid out
+            disableGameOver();
+            relayoutScheduler.onTetrominoSizeHasChanged();
+            relayoutScheduler.onGridSizeHasChanged();
+        }
+    }
+
+    /**
+     * Adapts the size of the components to the current size of the panel. Called by the {@link RelayoutScheduler}.
+     */
+    private void adaptSizeOfComponents() {
         /* Getting the size of the whole game component and setting the size of the GameGrid (ca. 60% of the screen height),
          * ParkingSlotHolder (20%) and ShapeHolder (20%) here.
          *
@@ -317,6 +497,9 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
          * cannot work. Instead, we have to manually set the size of for the ParkingSlotHolder and ShapeHolder and
          * THEN can apply the weights to determine that GameGrid should take the rest of the available space.
          */
+        RelayoutEvent relayoutEvent = new RelayoutEvent();
+        relayoutEvent.begin();
+
         Dimension size = getSize();
         parkingSpotHolder.setSize(size.width, (int) (size.height * 0.2));
         shapeHolder.setSize(size.width, (int) (size.height * 0.2));
@@ -326,6 +509,14 @@ public class GamePuzzlesPanel extends JPanel implements GameInterface, Tetromino
         parkingSpotHolder.adaptSizeOfParkingSpots();
         shapeHolder.adaptSizeOfShapes();
 
+        relayoutEvent.trigger = RelayoutEvent.TETROMINO_SIZE_CHANGED;
+        relayoutEvent.tetrominoes = tetrominoesInGrid.size();
+        relayoutEvent.oldHeight = lastLayoutHeight;
+        relayoutEvent.newHeight = size.height;
+        lastLayoutHeight = size.height;
+        relayoutEvent.kachelSize = gameGrid.sizeObserver.getTetrominoKachelSize();
+        relayoutEvent.coalescedRequests = relayoutScheduler.getCoalescedRequests();
+        relayoutEvent.commit();
     }
 
 }
@@ -6,7 +6,10 @@ import tetris.puzzles.actions.ActionTurn;
 import tetris.puzzles.datamodels.UserPreferences;
 import tetris.puzzles.interfaces.SizeObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
+import tetris.puzzles.metrics.GameMetrics;
 import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoSnapshot;
+import tetris.puzzles.text.TextLayoutCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,9 +23,11 @@ import static tetris.puzzles.tetromino.TetrominoDraw.TETROMINO_PATH_STORKE;
 public class ParkingSpot extends JPanel {
 
     public static final int STORKE_OF_OUTER_BOARDER = 5;
+    public static final int ID_FONT_SIZE = 20;
     final int ID;
     boolean isSelected;
     TetrominoDraw addedTetromino;
+    volatile TetrominoSnapshot snapshot; //what is painted, null if no tetromino is parked
 
     SizeObserver sizeObserver;
     TetrominoObserver tetrominoObserver;
@@ -76,7 +81,7 @@ public class ParkingSpot extends JPanel {
                             setEnableStateKeyListener(true);
                             tetrominoObserver.setSelectedTetromino(addedTetromino, false);
                         }
-                        repaint();
+                        publishSnapshot();
                     }
                 }
             }
@@ -126,6 +131,15 @@ public class ParkingSpot extends JPanel {
             addedTetromino.setSelected(selectionState);
         }
         setEnableStateKeyListener(selectionState);
+        publishSnapshot();
+    }
+
+    /**
+     * Publishes a new snapshot of the parked tetromino and repaints the parking spot. Must be called after every change of the parked tetromino
+     * (moving, turning, mirroring, selection), as only the published snapshot is painted.
+     */
+    public void publishSnapshot() {
+        snapshot = (addedTetromino == null) ? null : addedTetromino.createSnapshot();
         repaint();
     }
 
@@ -182,10 +196,12 @@ public class ParkingSpot extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        if (addedTetromino != null) {
+        TetrominoSnapshot tetromino = snapshot;
+        if (tetromino != null) {
             //if tetromino is added
-            addedTetromino.draw(g);
+            tetromino.draw(g, sizeObserver.getTetrominoKachelSize());
         }
+        GameMetrics.onFrameRendered();
 
         Color color = (isSelected) ? Color.RED : Color.BLACK;
         g.setColor(color);
@@ -211,21 +227,15 @@ public class ParkingSpot extends JPanel {
      * @param g        The {@link Graphics} object to use.
      */
     private void drawStringRightAligned(Point endPoint, String message, Color color, Graphics g) {
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-
-        // get the FontMetrics for the current font
-        FontMetrics fm = g.getFontMetrics();
-
-        // get the length and height of string
-        int stringWidth = fm.stringWidth(message);
-        int stringHeight = fm.getAscent();
+        //the font and the measured string are cached, as the ID is drawn on every repaint
+        TextLayoutCache.CachedText text = TextLayoutCache.getDefault().getText(message, Font.BOLD, ID_FONT_SIZE, g);
 
         // calculate the position for the leftmost character in the baseline
-        int x = endPoint.x - stringWidth - 5; //5px as margin
-        int y = endPoint.y + stringHeight + 5;
+        int x = endPoint.x - text.getWidth() - 5; //5px as margin
+        int y = endPoint.y + text.getAscent() + 5;
 
         g.setColor(color);
-        g.drawString(message, x, y);
+        text.draw(g, x, y);
     }
 
     /**
@@ -252,7 +262,7 @@ public class ParkingSpot extends JPanel {
     public void freeParkingSpot() {
         addedTetromino = null;
         setEnableStateKeyListener(false);
-        repaint();
+        publishSnapshot();
     }
 
     /**
@@ -274,6 +284,16 @@ public class ParkingSpot extends JPanel {
         }
     }
 
+    /**
+     * Puts a restored tetromino (see {@link tetris.puzzles.datamodels.SavedGame}) into the parking spot. In contrast to {@link #insertNewTetromino(TetrominoDraw)},
+     * the tetromino keeps its saved position and is not selected.
+     * @param tetrominoDraw The restored {@link TetrominoDraw}, positioned in logical units.
+     */
+    void restoreTetromino(TetrominoDraw tetrominoDraw) {
+        addedTetromino = tetrominoDraw;
+        publishSnapshot();
+    }
+
     /**
      * Centers a new inserted tetromino in the parking spot if there is enough space available.
      * @param tetrominoDraw The {@link TetrominoDraw} to be centered in the parking spot.
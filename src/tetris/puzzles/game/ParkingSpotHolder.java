@@ -1,11 +1,13 @@
 package tetris.puzzles.game;
 
 import tetris.puzzles.actions.ActionNextSelect;
+import tetris.puzzles.datamodels.SavedGame.SavedTetromino;
 import tetris.puzzles.datamodels.UserPreferences;
 import tetris.puzzles.interfaces.ControlInterface;
 import tetris.puzzles.interfaces.SizeObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
 import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoPool;
 
 import javax.swing.*;
 import java.awt.*;
@@ -181,6 +183,48 @@ public class ParkingSpotHolder extends JPanel {
         }
     }
 
+    /**
+     * Returns whether the given tetromino is parked in any parking spot.
+     * @param tetrominoDraw The {@link TetrominoDraw} to look for.
+     * @return True, if a parking spot holds the tetromino.
+     */
+    boolean isTetrominoParked(TetrominoDraw tetrominoDraw) {
+        for (ParkingSpot spot : parkingSpots) {
+            if (spot.getTetrominoDraw() == tetrominoDraw) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the parked tetrominoes, so that they can be restored when the game is continued later.
+     * @return One {@link SavedTetromino} per parking spot, null for a free parking spot.
+     */
+    SavedTetromino[] saveParkingSpots() {
+        SavedTetromino[] savedTetrominoes = new SavedTetromino[parkingSpots.length];
+        for (int i = 0; i < parkingSpots.length; i++) {
+            TetrominoDraw tetrominoDraw = parkingSpots[i].getTetrominoDraw();
+            if (tetrominoDraw != null) {
+                savedTetrominoes[i] = GamePuzzlesPanel.saveTetromino(tetrominoDraw);
+            }
+        }
+        return savedTetrominoes;
+    }
+
+    /**
+     * Parks the restored tetrominoes.
+     * @param savedTetrominoes One {@link SavedTetromino} per parking spot, null for a free parking spot.
+     * @param tetrominoPool The {@link TetrominoPool} that provides the restored tetrominoes.
+     */
+    void restoreParkingSpots(SavedTetromino[] savedTetrominoes, TetrominoPool tetrominoPool) {
+        for (int i = 0; i < parkingSpots.length; i++) {
+            if (savedTetrominoes[i] != null) {
+                parkingSpots[i].restoreTetromino(GamePuzzlesPanel.restoreTetromino(savedTetrominoes[i], tetrominoPool));
+            }
+        }
+    }
+
     /**
      * Triggers the resizing of the parking spots. Should be called after the kachel size of a tetromino is not changing anymore.
      */
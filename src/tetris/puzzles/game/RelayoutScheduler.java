@@ -0,0 +1,103 @@
+package tetris.puzzles.game;
+
+import tetris.puzzles.animation.AnimationTimeline;
+
+import javax.swing.*;
+
+/**
+ * This class coalesces the resize notifications of the game layout into at most one relayout per frame.
+ * <br>While the user drags the window, {@code componentResized} is fired by the {@link GameGrid}, every {@link Shape},
+ * every {@link ParkingSpot} and the {@link GamePuzzlesPanel}, and every change of the kachel size notifies the observers again.
+ * Instead of adapting the layout for each of these events, the events only mark the layout as invalid and the
+ * relayout is executed once on the event dispatch thread when the current frame is over.
+ */
+class RelayoutScheduler {
+
+    public static final int FRAME_INTERVAL_IN_MILLIS = AnimationTimeline.FRAME_INTERVAL_IN_MILLIS;
+
+    private final Runnable tetrominoSizeRelayout;
+    private final Runnable gridSizeRelayout;
+    private final Timer timer;
+
+    private boolean isTetrominoSizeInvalid;
+    private boolean isGridSizeInvalid;
+    private int coalescedRequests;
+
+    /**
+     * Constructs a new RelayoutScheduler.
+     * @param tetrominoSizeRelayout The relayout that adapts the components to a new kachel size of the tetrominoes.
+     * @param gridSizeRelayout The relayout that adapts the tetrominoes in the game grid to a new size of the game grid.
+     */
+    RelayoutScheduler(Runnable tetrominoSizeRelayout, Runnable gridSizeRelayout) {
+        this.tetrominoSizeRelayout = tetrominoSizeRelayout;
+        this.gridSizeRelayout = gridSizeRelayout;
+
+        timer = new Timer(FRAME_INTERVAL_IN_MILLIS, e -> relayout());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Marks the kachel size of the tetrominoes as changed. The relayout takes place with the next frame.
+     */
+    void onTetrominoSizeHasChanged() {
+        isTetrominoSizeInvalid = true;
+        schedule();
+    }
+
+    /**
+     * Marks the size of the game grid as changed. The relayout takes place with the next frame.
+     */
+    void onGridSizeHasChanged() {
+        isGridSizeInvalid = true;
+        schedule();
+    }
+
+    /**
+     * Returns whether a relayout is pending, i. e. whether the positions of the tetrominoes might not fit the current size of the game grid.
+     * @return True, if a relayout is scheduled but not executed yet.
+     */
+    boolean isRelayoutPending() {
+        return isTetrominoSizeInvalid || isGridSizeInvalid;
+    }
+
+    /**
+     * Returns the number of resize notifications that were merged into the last relayout.
+     * @return The number of notifications
+     */
+    int getCoalescedRequests() {
+        return coalescedRequests;
+    }
+
+    /**
+     * Cancels a pending relayout, e. g. because the game is over and the components are removed.
+     */
+    void cancel() {
+        timer.stop();
+        isTetrominoSizeInvalid = false;
+        isGridSizeInvalid = false;
+        coalescedRequests = 0;
+    }
+
+    private void schedule() {
+        coalescedRequests++;
+        if (!timer.isRunning()) {
+            //do not restart a running timer, otherwise a continuous drag would postpone the relayout until the drag ends
+            timer.start();
+        }
+    }
+
+    /**
+     * Executes the pending relayouts. The kachel size is adapted first, as the size of the game grid depends on it.
+     */
+    private void relayout() {
+        if (isTetrominoSizeInvalid) {
+            isTetrominoSizeInvalid = false;
+            tetrominoSizeRelayout.run();
+        }
+        if (isGridSizeInvalid) {
+            isGridSizeInvalid = false;
+            gridSizeRelayout.run();
+        }
+        coalescedRequests = 0;
+    }
+}
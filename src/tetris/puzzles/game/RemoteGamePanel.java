@@ -0,0 +1,429 @@
+package tetris.puzzles.game;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.interfaces.RemoteStateObserver;
+import tetris.puzzles.net.GameClient;
+import tetris.puzzles.net.GameProtocol;
+import tetris.puzzles.net.RemoteGameState;
+import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoGeometry;
+import tetris.puzzles.tetromino.TetrominoSnapshot;
+import tetris.puzzles.text.TextLayoutCache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class shows and plays a game that runs on a {@link tetris.puzzles.net.GameServer}, as received by a {@link GameClient}.
+ * <br>Like the {@link GameGrid}, the panel is never painted from the game itself: after every frame of the server, the reader thread of the client
+ * turns the {@link RemoteGameState} into {@link TetrominoSnapshot}s and publishes them as one immutable frame, which the event dispatch thread paints.
+ * The game grid is painted in the same way as by the {@link GameGrid} (the positions of the server are logical units as well),
+ * the shapes and the parking spots are painted in two columns to the right of it.
+ * <br>The input is sent to the server as commands, the panel itself never changes the game: a click selects a tetromino of the published frame,
+ * the keys of the {@link GameGrid} move, turn and mirror it, the number keys or a click on a shape fit it into the shape and a click on a free
+ * parking spot parks it. The result is painted as soon as a tick frame of the server contains it.
+ * <br>The protocol does not send any colors, so a tetromino is colored by its id and a fitted tetromino of a shape by its number.
+ * <br>This is a separate view of the remote game: the {@link GamePuzzlesPanel} and its {@link GameGrid} still play the local game only.
+ */
+public class RemoteGamePanel extends JPanel implements RemoteStateObserver {
+
+    public static final int STATUS_FONT_SIZE = 16;
+    public static final int NO_PIECE = -1;
+
+    private final GameClient client;
+    private final int amountOfColors;
+
+    //the content to paint, replaced as a whole by onStateChanged(...) and never changed afterwards
+    private volatile RemoteFrame frame;
+    //the id of the tetromino the commands are sent for, only changed by the event dispatch thread
+    private volatile int selectedPieceId = NO_PIECE;
+
+    //only used by the reader thread of the client: the geometries of the last frame, recalculated only if an array was replaced
+    private HashMap<Integer, CachedGeometry> pieceGeometries = new HashMap<>();
+    private CachedGeometry[] shapeGeometries = new CachedGeometry[0];
+
+    /**
+     * Constructs a new RemoteGamePanel and registers it at the client. The session has to be opened afterwards.
+     * @param client The {@link GameClient} whose state should be painted and which sends the commands.
+     * @param amountOfColors The number of colors the tetrominoes should be colored with.
+     */
+    public RemoteGamePanel(GameClient client, int amountOfColors) {
+        this.client = client;
+        this.amountOfColors = amountOfColors;
+        setBackground(Color.WHITE);
+        client.setStateObserver(this);
+
+        addClickListener();
+        addKeyBindings();
+    }
+
+    /**
+     * Publishes a new frame of the state and repaints the panel. Is invoked by the reader thread of the client while holding the lock of the state.
+     * @param state The changed state.
+     */
+    @Override
+    public void onStateChanged(RemoteGameState state) {
+        RemoteFrame newFrame = new RemoteFrame();
+        newFrame.gridWidthInKacheln = state.getGridWidthInKacheln();
+        newFrame.gridHeightInKacheln = state.getGridHeightInKacheln();
+        newFrame.numberOfKachelnInStone = state.getNumberOfKachelnInStone();
+        newFrame.statusText = getStatusText(state);
+
+        int selectedId = selectedPieceId;
+        HashMap<Integer, CachedGeometry> newPieceGeometries = new HashMap<>();
+        List<RemoteGameState.Piece> piecesInGrid = state.getPiecesInGrid();
+        newFrame.piecesInGrid = new TetrominoSnapshot[piecesInGrid.size()];
+        newFrame.pieceIdsInGrid = new int[piecesInGrid.size()];
+        for (int i = 0; i < piecesInGrid.size(); i++) {
+            newFrame.piecesInGrid[i] = createSnapshot(piecesInGrid.get(i), newPieceGeometries, selectedId);
+            newFrame.pieceIdsInGrid[i] = piecesInGrid.get(i).getId();
+        }
+        RemoteGameState.Piece[] parkingSpots = state.getParkingSpots();
+        newFrame.parkingSpots = new TetrominoSnapshot[parkingSpots.length];
+        newFrame.parkedPieceIds = new int[parkingSpots.length];
+        for (int i = 0; i < parkingSpots.length; i++) {
+            if (parkingSpots[i] != null) {
+                newFrame.parkingSpots[i] = createSnapshot(parkingSpots[i], newPieceGeometries, selectedId);
+                newFrame.parkedPieceIds[i] = parkingSpots[i].getId();
+            } else {
+                newFrame.parkedPieceIds[i] = NO_PIECE;
+            }
+        }
+        pieceGeometries = newPieceGeometries; //pieces that are gone are forgotten
+
+        List<int[][]> shapes = state.getShapes();
+        if (shapeGeometries.length != shapes.size()) {
+            shapeGeometries = new CachedGeometry[shapes.size()];
+        }
+        newFrame.shapes = new TetrominoSnapshot[shapes.size()];
+        for (int i = 0; i < shapes.size(); i++) {
+            int[][] shapeArray = shapes.get(i);
+            if (shapeArray == null) {
+                continue; //not received yet
+            }
+            if (shapeGeometries[i] == null || shapeGeometries[i].array != shapeArray) {
+                //every record of a shape holds a new array, and the arrays of shapes change too often to cache their geometry for good
+                shapeGeometries[i] = new CachedGeometry(shapeArray, TetrominoGeometry.create(shapeArray));
+            }
+            newFrame.shapes[i] = TetrominoSnapshot.of(shapeGeometries[i].geometry, 0, 0, getShapeColors(shapeArray), true);
+            newFrame.maxShapeLengthInKacheln = Math.max(newFrame.maxShapeLengthInKacheln, Math.max(shapeArray.length, shapeArray[0].length));
+        }
+
+        frame = newFrame;
+        repaint();
+    }
+
+    private TetrominoSnapshot createSnapshot(RemoteGameState.Piece piece, HashMap<Integer, CachedGeometry> newPieceGeometries, int selectedId) {
+        CachedGeometry cachedGeometry = pieceGeometries.get(piece.getId());
+        if (cachedGeometry == null || cachedGeometry.array != piece.getArray()) {
+            cachedGeometry = new CachedGeometry(piece.getArray(), TetrominoGeometry.of(piece.getArray()));
+        }
+        newPieceGeometries.put(piece.getId(), cachedGeometry);
+
+        Color color = (piece.getId() == selectedId) ? TetrominoDraw.activeColor
+                : TetrominoDraw.getPaletteColor(piece.getId() % Math.max(amountOfColors, 1));
+        return TetrominoSnapshot.of(cachedGeometry.geometry, piece.getLogicalX(), piece.getLogicalY(), new Color[]{color}, false);
+    }
+
+    /**
+     * Returns the colors of the values of a shape array: white for the open kacheln, a color of the palette for every fitted tetromino.
+     */
+    private Color[] getShapeColors(int[][] shapeArray) {
+        int maxValue = 1;
+        for (int[] row : shapeArray) {
+            for (int value : row) {
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        Color[] colors = new Color[maxValue];
+        colors[0] = Color.WHITE;
+        for (int value = 2; value <= maxValue; value++) {
+            colors[value - 1] = TetrominoDraw.getPaletteColor(value - 2);
+        }
+        return colors;
+    }
+
+    private String getStatusText(RemoteGameState state) {
+        if (client.isRejected()) {
+            return "Rejected by the server";
+        }
+        String score = "Points: " + state.getPoints() + "   Completed shapes: " + state.getCompletedShapes();
+        return state.isGameOver() ? "Game over!   " + score : score;
+    }
+
+    /**
+     * Adds a MouseListener that selects the clicked tetromino, or sends the selected tetromino into the clicked shape or parking spot.
+     * The click is hit-tested against the published frame, i. e. against what the user sees.
+     */
+    private void addClickListener() {
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                super.mouseClicked(e);
+                RemoteFrame currentFrame = frame;
+                if (currentFrame == null || currentFrame.gridWidthInKacheln == 0) {
+                    return;
+                }
+                requestFocusInWindow();
+
+                Layout layout = new Layout(currentFrame, getWidth(), getHeight());
+                Point clicked = e.getPoint();
+                if (clicked.x < layout.gridWidth && clicked.y < layout.gridHeight) {
+                    for (int i = 0; i < currentFrame.piecesInGrid.length; i++) {
+                        if (currentFrame.piecesInGrid[i].isPointInSnapshot(clicked, layout.kachelLength)) {
+                            toggleSelection(currentFrame.pieceIdsInGrid[i]);
+                            return;
+                        }
+                    }
+                    return;
+                }
+
+                int shapeIndex = layout.getSlotIndex(clicked, layout.shapeColumnX, layout.shapeColumnWidth, currentFrame.shapes.length);
+                if (shapeIndex >= 0) {
+                    sendFill(shapeIndex);
+                    return;
+                }
+                int parkingSpotIndex = layout.getSlotIndex(clicked, layout.parkingColumnX, layout.parkingColumnWidth, currentFrame.parkingSpots.length);
+                if (parkingSpotIndex >= 0) {
+                    int parkedPieceId = currentFrame.parkedPieceIds[parkingSpotIndex];
+                    if (parkedPieceId != NO_PIECE) {
+                        toggleSelection(parkedPieceId);
+                    } else if (selectedPieceId != NO_PIECE) {
+                        sendCommand(pieceId -> client.park(pieceId, parkingSpotIndex));
+                    }
+                }
+            }
+        });
+    }
+
+    private void toggleSelection(int pieceId) {
+        //the selection is painted with the next frame of the server
+        selectedPieceId = (selectedPieceId == pieceId) ? NO_PIECE : pieceId;
+    }
+
+    /**
+     * Adds the key bindings of the {@link GameGrid} and the number keys of the {@link ShapeHolder}, each one sends a command for the selected tetromino.
+     */
+    private void addKeyBindings() {
+        bindKey("move_tetromino_left", pieceId -> client.move(pieceId, -1, 0), "A", KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0));
+        bindKey("move_tetromino_right", pieceId -> client.move(pieceId, 1, 0), "D", KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0));
+        bindKey("move_tetromino_down", pieceId -> client.move(pieceId, 0, 1), "S", KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0));
+
+        bindKey("turn_tetromino_right", pieceId -> client.turn(pieceId, true), "C", null);
+        bindKey("turn_tetromino_left", pieceId -> client.turn(pieceId, false), "Y", null);
+
+        bindKey("mirror_tetromino_horizontal", pieceId -> client.mirror(pieceId, true), "Q", null);
+        bindKey("mirror_tetromino_vertical", pieceId -> client.mirror(pieceId, false), "E", null);
+
+        for (int number = 1; number <= UserPreferences.MAX_SHAPES; number++) {
+            int shapeIndex = number - 1;
+            bindKey("fill_shape_" + number, pieceId -> client.fill(pieceId, shapeIndex), String.valueOf(number), null);
+        }
+    }
+
+    private void bindKey(String actionKey, PieceCommand command, String key, KeyStroke alternativeKeyStroke) {
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(key), actionKey);
+        if (alternativeKeyStroke != null) {
+            getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(alternativeKeyStroke, actionKey);
+        }
+        getActionMap().put(actionKey, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                sendCommand(command);
+            }
+        });
+    }
+
+    private void sendFill(int shapeIndex) {
+        sendCommand(pieceId -> client.fill(pieceId, shapeIndex));
+    }
+
+    /**
+     * Sends the command for the selected tetromino. The server ignores commands for a tetromino that does not exist anymore.
+     */
+    private void sendCommand(PieceCommand command) {
+        int pieceId = selectedPieceId;
+        if (pieceId == NO_PIECE || client.isClosed()) {
+            return;
+        }
+        try {
+            command.send(pieceId);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        RemoteFrame currentFrame = frame;
+        if (currentFrame == null || currentFrame.gridWidthInKacheln == 0) {
+            TextLayoutCache.getDefault().getText(client.isRejected() ? "Rejected by the server" : "Connecting...", Font.BOLD, STATUS_FONT_SIZE, g)
+                    .draw(g, 10, 10 + STATUS_FONT_SIZE);
+            return;
+        }
+
+        Layout layout = new Layout(currentFrame, getWidth(), getHeight());
+        g.setColor(GameGrid.BACKGROUND_COLOR);
+        g.fillRect(0, 0, layout.gridWidth, layout.gridHeight);
+        Graphics gridGraphics = g.create(0, 0, layout.gridWidth, layout.gridHeight);
+        try {
+            for (TetrominoSnapshot piece : currentFrame.piecesInGrid) {
+                piece.draw(gridGraphics, layout.kachelLength);
+            }
+        } finally {
+            gridGraphics.dispose();
+        }
+
+        paintColumn(g, currentFrame.shapes, layout.shapeColumnX, layout.shapeColumnWidth, layout.kachelLength, layout.gridHeight);
+        paintColumn(g, currentFrame.parkingSpots, layout.parkingColumnX, layout.parkingColumnWidth, layout.kachelLength, layout.gridHeight);
+
+        g.setColor(Color.BLACK);
+        TextLayoutCache.getDefault().getText(currentFrame.statusText, Font.BOLD, STATUS_FONT_SIZE, g).draw(g, 10, 10 + STATUS_FONT_SIZE);
+    }
+
+    /**
+     * Paints the snapshots one below the other, each in a slot of the same height. Snapshots that would not fit are painted with smaller kacheln.
+     */
+    private void paintColumn(Graphics g, TetrominoSnapshot[] snapshots, int x, int columnWidth, int kachelLength, int height) {
+        if (snapshots.length == 0) {
+            return;
+        }
+        int slotHeight = height / snapshots.length;
+        int slotKachelLength = Math.max(1, Math.min(kachelLength, slotHeight * kachelLength / columnWidth));
+        for (int i = 0; i < snapshots.length; i++) {
+            int slotY = i * slotHeight;
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawRect(x, slotY, columnWidth - 1, slotHeight - 1);
+            if (snapshots[i] != null) {
+                snapshots[i].draw(g, x + slotKachelLength / 2, slotY + slotKachelLength / 2, slotKachelLength);
+            }
+        }
+    }
+
+    /**
+     * Connects to a server, opens a session and plays it in a window.
+     * <br>Usage: {@code RemoteGamePanel [host=localhost] [port=7460] [k=4] [stones=4] [shapes=8] [colors=4] [velocity=MEDIUM] [increasing=false] [seed=...] [bot=false]}
+     * <br>With {@code bot=true}, the {@link tetris.puzzles.engine.GreedyBotPlayer} of the server plays in addition to the user.
+     * @param args The arguments as key=value pairs.
+     */
+    public static void main(String[] args) throws IOException {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(Integer.parseInt(arguments.getOrDefault("k", "4")));
+        userPreferences.setNumberOfNewAppearingStones(Integer.parseInt(arguments.getOrDefault("stones", "4")));
+        userPreferences.setNumberOfShapes(Integer.parseInt(arguments.getOrDefault("shapes", "8")));
+        userPreferences.setAmountOfColors(Integer.parseInt(arguments.getOrDefault("colors", "4")));
+        userPreferences.setVelocity(FallingVelocity.valueOf(arguments.getOrDefault("velocity", FallingVelocity.MEDIUM.name())));
+        userPreferences.setVelocityIncreasing(Boolean.parseBoolean(arguments.getOrDefault("increasing", "false")));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", String.valueOf(System.nanoTime())));
+
+        GameClient client = new GameClient(arguments.getOrDefault("host", "localhost"),
+                Integer.parseInt(arguments.getOrDefault("port", String.valueOf(GameProtocol.DEFAULT_PORT))));
+        RemoteGamePanel remoteGamePanel = new RemoteGamePanel(client, userPreferences.getAmountOfColors());
+        client.open(userPreferences, seed, Boolean.parseBoolean(arguments.getOrDefault("bot", "false")));
+
+        SwingUtilities.invokeLater(() -> {
+            JFrame window = new JFrame("Puzzles - Remote Game");
+            window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            window.setMinimumSize(new Dimension(900, 600));
+            window.add(remoteGamePanel);
+            window.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    client.close();
+                }
+            });
+            window.setVisible(true);
+            remoteGamePanel.requestFocusInWindow();
+        });
+    }
+
+    /**
+     * A command of the {@link GameClient} for one tetromino.
+     */
+    private interface PieceCommand {
+        void send(int pieceId) throws IOException;
+    }
+
+    /**
+     * Everything needed to paint the panel at one moment.
+     */
+    private static final class RemoteFrame {
+        int gridWidthInKacheln;
+        int gridHeightInKacheln;
+        int numberOfKachelnInStone;
+        int maxShapeLengthInKacheln;
+        TetrominoSnapshot[] piecesInGrid;
+        int[] pieceIdsInGrid;
+        TetrominoSnapshot[] parkingSpots; //a free parking spot is null
+        int[] parkedPieceIds; //NO_PIECE for a free parking spot
+        TetrominoSnapshot[] shapes; //a shape that was not received yet is null
+        String statusText;
+    }
+
+    /**
+     * The position of the grid and the columns of a frame in a panel of the given size, used for painting and for hit-testing the clicks alike:
+     * the grid on the left, a column for the shapes and a column for the parking spots on the right.
+     */
+    private static final class Layout {
+        final int kachelLength;
+        final int gridWidth;
+        final int gridHeight;
+        final int shapeColumnX;
+        final int shapeColumnWidth;
+        final int parkingColumnX;
+        final int parkingColumnWidth;
+
+        Layout(RemoteFrame frame, int width, int height) {
+            int shapeColumnInKacheln = frame.maxShapeLengthInKacheln + 1;
+            int parkingColumnInKacheln = frame.numberOfKachelnInStone + 1;
+            int widthInKacheln = frame.gridWidthInKacheln + shapeColumnInKacheln + parkingColumnInKacheln;
+            kachelLength = Math.max(1, Math.min(width / widthInKacheln, height / frame.gridHeightInKacheln));
+            gridWidth = frame.gridWidthInKacheln * kachelLength;
+            gridHeight = frame.gridHeightInKacheln * kachelLength;
+            shapeColumnX = gridWidth;
+            shapeColumnWidth = shapeColumnInKacheln * kachelLength;
+            parkingColumnX = shapeColumnX + shapeColumnWidth;
+            parkingColumnWidth = parkingColumnInKacheln * kachelLength;
+        }
+
+        /**
+         * Returns the index of the slot of the column the point is in, or -1 if the point is not in the column.
+         */
+        int getSlotIndex(Point point, int columnX, int columnWidth, int numberOfSlots) {
+            if (numberOfSlots == 0 || point.x < columnX || point.x >= columnX + columnWidth || point.y >= gridHeight) {
+                return -1;
+            }
+            return Math.min(point.y / Math.max(1, gridHeight / numberOfSlots), numberOfSlots - 1);
+        }
+    }
+
+    /**
+     * The geometry of an array, as long as the array is not replaced by a new one.
+     */
+    private static final class CachedGeometry {
+        final int[][] array;
+        final TetrominoGeometry geometry;
+
+        CachedGeometry(int[][] array, TetrominoGeometry geometry) {
+            this.array = array;
+            this.geometry = geometry;
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package tetris.puzzles.game;
 
-import tetris.tools.Tetromino;
-import tetris.tools.TetrominoArraylist;
-import tetris.puzzles.datamodels.MatrixCoordinate;
+import tetris.puzzles.datamodels.CoordinateList;
+import tetris.puzzles.datamodels.SavedGame.SavedShape;
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.ShapeFitter;
+import tetris.puzzles.engine.ShapePool;
 import tetris.puzzles.interfaces.ControlInterface;
+import tetris.puzzles.interfaces.ShapeObserver;
 import tetris.puzzles.interfaces.SizeObserver;
+import tetris.puzzles.metrics.GameMetrics;
+import tetris.puzzles.metrics.ShapeCompletedEvent;
 import tetris.puzzles.tetromino.ShapeDraw;
 import tetris.puzzles.tetromino.TetrominoArray;
 import tetris.puzzles.tetromino.TetrominoDraw;
+import tetris.puzzles.tetromino.TetrominoSnapshot;
+import tetris.puzzles.text.TextLayoutCache;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.util.ArrayList;
 import java.util.Random;
 
 import static tetris.puzzles.tetromino.TetrominoDraw.TETROMINO_PATH_STORKE;
@@ -28,36 +34,36 @@ import static tetris.puzzles.tetromino.TetrominoDraw.TETROMINO_PATH_STORKE;
  *  <li> Value 2 --> this cell was used by the shape and is currently assigned to the first tetromino added to the shape</li>
  *  <li> Value 3 --> this cell was used by the shape and is currently assigned to the second tetromino added to the shape</li>
  *  </ul>
- *  <br>In order to determine whether a tetromino T fits into a shape S, the following algorithm is used:
- *  <ol>
- *  <li>Extract the relative coordinates of T by using {@link #calculateRelativeArray(TetrominoArray)}</li>
- *  <li>For the shape's array go through every cell and check whether the relative coordinates can be applied (i. e. if the shape's array has enough 1's at the places the tetromino need).
- *  If {@code true}, save the found possibility. The second step is done by {@link #getPossibilitiesForAdding(TetrominoArray, int[][], int, boolean)} method.</li>
- *  <li>For every found possibility, check whether using it would still leave a shape array that can be used to fit another tetromino into it by using {@link #isShapeStillConnected(MatrixCoordinate, ArrayList)}.</li>
- *  </ol>
+ *  <br>The logic to fit tetrominoes into a shape is implemented by {@link ShapeFitter}, so that it can be shared with the headless game engine.
  */
 public class Shape extends JPanel {
     public static final int MARGIN_AROUND_ID_DESCRIPTION = 2;
     public static final int MARGIN_FROM_ID_DESCRIPTION_TO_SHAPE = 5;
+    public static final int ID_FONT_SIZE = 20;
+    public static final Color HIGHLIGHT_COLOR = new Color(0, 150, 0); //dark green
 
     UserPreferences userPreferences;
     final int ID;
     boolean isSelected;
+    boolean isHighlighted;
 
     int[][] internalShapeArray;
     int[][] originalShapeArray;
 
     ShapeDraw shapeDraw;
+    volatile TetrominoSnapshot snapshot; //what is painted, published after every change of the shapeDraw
 
     int indexOfLastFittedTetromino = 0;
     TetrominoDraw lastFittedTetromino;
 
-    ArrayList<MatrixCoordinate> possibilitiesForLastAddedTetromino;
+    CoordinateList possibilitiesForLastAddedTetromino;
     int lastUsedIndex = -1;
     int stringHeight;
 
     SizeObserver sizeObserver;
     ControlInterface controlInterface;
+    SessionStatistics sessionStatistics;
+    ShapeObserver shapeObserver;
 
     /**
      * Constructs a new Shape object.
@@ -65,11 +71,16 @@ public class Shape extends JPanel {
      * @param sizeObserver A {@link SizeObserver} that can be used to get the current size of tetrominoes
      * @param id  The ID of the shape used so that user can choose by a number on the keyboard.
      * @param userPreferences A {@link UserPreferences} object that holds the user preferences that should be used in the game.
+     * @param sessionStatistics A {@link SessionStatistics} object that counts the completed shapes.
+     * @param shapeObserver A {@link ShapeObserver} that is notified whenever the cells of the shape change.
      */
-    Shape(ControlInterface controlInterface, SizeObserver sizeObserver, int id, UserPreferences userPreferences) {
+    Shape(ControlInterface controlInterface, SizeObserver sizeObserver, int id, UserPreferences userPreferences, SessionStatistics sessionStatistics,
+          ShapeObserver shapeObserver) {
         this.controlInterface = controlInterface;
         this.sizeObserver = sizeObserver;
         this.userPreferences = userPreferences;
+        this.sessionStatistics = sessionStatistics;
+        this.shapeObserver = shapeObserver;
         this.ID = id;
 
         setBorder(BorderFactory.createRaisedBevelBorder());
@@ -78,6 +89,8 @@ public class Shape extends JPanel {
         originalShapeArray = deepCopyArray(internalShapeArray); //create a copy in order to enable resetting more faster
 
         shapeDraw = new ShapeDraw(internalShapeArray, sizeObserver);
+        snapshot = shapeDraw.createSnapshot();
+        shapeObserver.onShapeHasChanged(ID, internalShapeArray);
 
         addResizeListener();
     }
@@ -110,78 +123,25 @@ public class Shape extends JPanel {
 
     /**
      * Returns a random Shape array that can be used for {@link ShapeDraw}.
+     * The shape is taken from the {@link ShapePool}, so it is usually generated in the background before the game starts.
      * @param userPreferences A {@link UserPreferences} object that holds the user preferences that should be used in the game.
      * @return The int[][] array containing the random Shape array.
      */
     private int[][] getRandomShapeArray(UserPreferences userPreferences) {
-        TetrominoArray firstTetromino = getRandomTetrominoArray(userPreferences);
-        TetrominoArray secondTetromino = getRandomTetrominoArray(userPreferences);
-
-        int[][] resultArray;
-
-        //search for two compatible tetrominoes
-        while (true) {
-            resultArray = combineTwoTetrominosIntoAShape(firstTetromino, secondTetromino);
-            if (resultArray != null) {
-                //found one valid solution
-                break;
-            }
-            //no valid solution, need to use other tetromino
-            secondTetromino = getRandomTetrominoArray(userPreferences);
-        }
-
-        return resultArray;
-    }
-
-    /**
-     * Returns a random {@link TetrominoArray}.
-     * @param userPreferences The {@link UserPreferences} in order to determine the grid size.
-     * @return A random {@link TetrominoArray}
-     */
-    private TetrominoArray getRandomTetrominoArray(UserPreferences userPreferences) {
-        TetrominoArraylist spielsteinArraylist = new TetrominoArraylist();
-        ArrayList<Tetromino> tetrominoList = spielsteinArraylist.alleEinbettungenStandardreihenfolgeRek(userPreferences.getNumberOfKachelnInStone());
-
-        Random random = new Random();
-        int randomIndex = random.nextInt(tetrominoList.size());
-
-        return new TetrominoArray(tetrominoList.get(randomIndex));
+        return ShapePool.getPool(userPreferences.getNumberOfKachelnInStone()).take();
     }
 
     /**
      * Handles the insertion of a second tetromino into a other tetromino in order to create a new shape array.
+     * See {@link ShapeFitter#combineTwoTetrominosIntoAShape(TetrominoArray, TetrominoArray)}.
      * @param firstTetromino The {@link TetrominoArray} of the first tetromino.
      * @param secondTetromino The {@link TetrominoArray} of the second tetromino.
      * @return int[][] array of a possible shape if combination of both tetrominoes was possible or null otherwise.
      */
     int[][] combineTwoTetrominosIntoAShape(TetrominoArray firstTetromino, TetrominoArray secondTetromino) {
-
-        //check if second tetromino can be fitted into k x k grid
-        ArrayList<MatrixCoordinate> possibilitiesToAddTetromino = getPossibilitiesForAdding(secondTetromino, firstTetromino.getInternalArray(), 0, false, false);
-
-        if (possibilitiesToAddTetromino.size() > 0) {
-            //found one possibility to add tetromino into grid
-            MatrixCoordinate tetrominosStartCoordinateInGrid = possibilitiesToAddTetromino.get(0);
-
-            int[][] testArray = deepCopyArray(firstTetromino.getInternalArray());
-            //fill second tetromino into the grid of the first tetromino
-            fitTetrominoIntoArray(secondTetromino, tetrominosStartCoordinateInGrid, testArray, 1);
-
-            //check for holes
-            TetrominoArray testShape = new TetrominoArray(testArray);
-            if (testShape.hasHole() || testShape.hasBigHole()) {
-                return null;
-            } else {
-                //no holes, we can use our testArray
-                return testArray;
-            }
-
-        }
-
-        return null;
+        return ShapeFitter.combineTwoTetrominosIntoAShape(firstTetromino, secondTetromino);
     }
 
-
     /**
      * This method should be called when a new Tetromino is inserted into the shape.
      *
@@ -189,12 +149,16 @@ public class Shape extends JPanel {
      * @return True, if tetromino could be inserted. False otherwise.
      */
     boolean insertNewTetromino(TetrominoDraw tetromino) {
+        long insertStart = GameMetrics.startTimer();
+        boolean isInserted;
         if (indexOfLastFittedTetromino == 0 || tetromino == lastFittedTetromino) {
             //there is no tetromino added yet, or the user has pressed enter again, so that we got the same tetromino again
-            return insertFirstTetromino(tetromino);
+            isInserted = insertFirstTetromino(tetromino);
         } else {
-            return insertSecondTetromino(tetromino);
+            isInserted = insertSecondTetromino(tetromino);
         }
+        GameMetrics.stopTimer(GameMetrics.SHAPE_INSERT, insertStart);
+        return isInserted;
     }
 
     /**
@@ -206,12 +170,23 @@ public class Shape extends JPanel {
             //that means that the method is called again for the same selected tetromino, so displaying another possibility.
             resetMatrix();
             int randomIndex = getRandomIndex(possibilitiesForLastAddedTetromino.size(), lastUsedIndex);
-            MatrixCoordinate tetrominosStartCoordinateInGrid = possibilitiesForLastAddedTetromino.get(randomIndex);
-
-            fitTetrominoIntoArray(tetromino, tetrominosStartCoordinateInGrid, internalShapeArray, indexOfLastFittedTetromino + 1);
+            fitTetrominoIntoArray(tetromino, possibilitiesForLastAddedTetromino.getRow(randomIndex), possibilitiesForLastAddedTetromino.getColumn(randomIndex),
+                    internalShapeArray, indexOfLastFittedTetromino + 1);
             lastUsedIndex = randomIndex;
+            shapeObserver.onShapeHasChanged(ID, internalShapeArray);
 
-            repaint();
+            publishSnapshot();
+        }
+    }
+
+    /**
+     * Forgets the given tetromino, if it was the last fitted one, so that the tetromino can be reused (see {@link tetris.puzzles.tetromino.TetrominoPool})
+     * without being mistaken for the last fitted tetromino. Afterwards, the tetromino cannot get another position anymore.
+     * @param tetromino The {@link TetrominoDraw} that is not needed anymore.
+     */
+    void forgetLastFittedTetromino(TetrominoDraw tetromino) {
+        if (lastFittedTetromino == tetromino) {
+            lastFittedTetromino = null;
         }
     }
 
@@ -221,17 +196,17 @@ public class Shape extends JPanel {
      * @return True, if tetromino could be inserted. False otherwise.
      */
     private boolean insertFirstTetromino(TetrominoDraw tetromino) {
-        ArrayList<MatrixCoordinate> possibilitiesToAddTetromino = getPossibilitiesForAdding(tetromino, internalShapeArray, 1, true, true);
+        CoordinateList possibilitiesToAddTetromino = getPossibilitiesForAdding(tetromino, internalShapeArray, 1, true, true);
 
         if (possibilitiesToAddTetromino.size() > 0) {
             int randomIndex = getRandomIndex(possibilitiesToAddTetromino.size(), lastUsedIndex);
-            MatrixCoordinate tetrominosStartCoordinateInGrid = possibilitiesToAddTetromino.get(randomIndex);
 
             indexOfLastFittedTetromino++;
             shapeDraw.setColor(indexOfLastFittedTetromino, tetromino.getTetrominoColor());
 
-            fitTetrominoIntoArray(tetromino, tetrominosStartCoordinateInGrid, internalShapeArray, indexOfLastFittedTetromino + 1);
-            repaint();
+            fitTetrominoIntoArray(tetromino, possibilitiesToAddTetromino.getRow(randomIndex), possibilitiesToAddTetromino.getColumn(randomIndex), internalShapeArray, indexOfLastFittedTetromino + 1);
+            shapeObserver.onShapeHasChanged(ID, internalShapeArray);
+            publishSnapshot();
 
             lastFittedTetromino = tetromino;
             possibilitiesForLastAddedTetromino = possibilitiesToAddTetromino;
@@ -247,15 +222,15 @@ public class Shape extends JPanel {
      * @return True, if tetromino could be inserted. False otherwise.
      */
     private boolean insertSecondTetromino(TetrominoDraw tetromino) {
-        ArrayList<MatrixCoordinate> possibilitiesToAddTetromino = getPossibilitiesForAdding(tetromino, internalShapeArray, 1, false, false);
+        CoordinateList possibilitiesToAddTetromino = getPossibilitiesForAdding(tetromino, internalShapeArray, 1, false, false);
 
         if (possibilitiesToAddTetromino.size() > 0) {
-            MatrixCoordinate tetrominosStartCoordinateInGrid = possibilitiesToAddTetromino.get(0);
             indexOfLastFittedTetromino++;
             shapeDraw.setColor(indexOfLastFittedTetromino, tetromino.getTetrominoColor());
 
-            fitTetrominoIntoArray(tetromino, tetrominosStartCoordinateInGrid, internalShapeArray, indexOfLastFittedTetromino + 1);
-            repaint();
+            fitTetrominoIntoArray(tetromino, possibilitiesToAddTetromino.getRow(0), possibilitiesToAddTetromino.getColumn(0), internalShapeArray, indexOfLastFittedTetromino + 1);
+            shapeObserver.onShapeHasChanged(ID, internalShapeArray);
+            publishSnapshot();
 
             secondTetrominoWasFitted();
             return true;
@@ -268,6 +243,12 @@ public class Shape extends JPanel {
      */
     private void secondTetrominoWasFitted() {
         controlInterface.addPoints(userPreferences);
+        sessionStatistics.onShapeCompleted();
+
+        ShapeCompletedEvent completedEvent = new ShapeCompletedEvent();
+        completedEvent.shapeId = ID;
+        completedEvent.kachelnInShape = 2 * userPreferences.getNumberOfKachelnInStone(); //a shape always consists of two tetrominoes
+        completedEvent.commit();
 
         shapeDraw.startFadeOutAnimation(this);
     }
@@ -284,7 +265,44 @@ public class Shape extends JPanel {
         lastFittedTetromino = null;
         possibilitiesForLastAddedTetromino = null;
         indexOfLastFittedTetromino = 0;
-        repaint();
+        shapeObserver.onShapeHasChanged(ID, internalShapeArray);
+        publishSnapshot();
+    }
+
+    /**
+     * Returns the state of this shape that is needed to continue the game later.
+     * <br>A shape whose second tetromino was fitted is going to be reset by the fade out animation anyway, so it is saved as empty shape.
+     * @return A {@link SavedShape} holding the arrays and the fitted tetromino.
+     */
+    SavedShape save() {
+        if (indexOfLastFittedTetromino >= 2) {
+            return new SavedShape(deepCopyArray(originalShapeArray), deepCopyArray(originalShapeArray), 0, 0);
+        }
+        Color fittedColor = shapeDraw.getColor(1);
+        return new SavedShape(deepCopyArray(internalShapeArray), deepCopyArray(originalShapeArray), indexOfLastFittedTetromino,
+                fittedColor == null ? 0 : fittedColor.getRGB());
+    }
+
+    /**
+     * Restores a saved state of this shape, replacing the shape taken from the {@link ShapePool}.
+     * The restored tetromino cannot get another position anymore, as it cannot be selected.
+     * @param savedShape The {@link SavedShape} to restore.
+     */
+    void restore(SavedShape savedShape) {
+        originalShapeArray = deepCopyArray(savedShape.getOriginalShapeArray());
+        internalShapeArray = deepCopyArray(savedShape.getInternalShapeArray());
+        shapeDraw.updateInternalArray(internalShapeArray);
+
+        indexOfLastFittedTetromino = savedShape.getFittedTetrominoes();
+        if (indexOfLastFittedTetromino > 0) {
+            shapeDraw.setColor(indexOfLastFittedTetromino, new Color(savedShape.getFittedColorRgb()));
+        }
+        lastFittedTetromino = null;
+        possibilitiesForLastAddedTetromino = null;
+        lastUsedIndex = -1;
+
+        shapeObserver.onShapeHasChanged(ID, internalShapeArray);
+        publishSnapshot();
     }
 
     /**
@@ -320,261 +338,32 @@ public class Shape extends JPanel {
     /**
      * Fits a tetromino into the given array at that given start cell in the array with the given fill value.
      * @param tetromino The tetromino to be fitted into the array.
-     * @param tetrominoStartCell The start cell where the the first kachel of the tetromino should be added.
+     * @param startRow The row of the start cell where the the first kachel of the tetromino should be added.
+     * @param startColumn The column of the start cell where the the first kachel of the tetromino should be added.
      * @param internalShapeArray The array in which the tetromino should be fitted into.
      * @param fillValue The fill value that should used to fit the tetromino.
      */
-    private void fitTetrominoIntoArray(TetrominoArray tetromino, MatrixCoordinate tetrominoStartCell, int[][] internalShapeArray, int fillValue) {
-        ArrayList<MatrixCoordinate> relativeCoordinatesOfTetromino = calculateRelativeArray(tetromino);
-
-        internalShapeArray[tetrominoStartCell.row][tetrominoStartCell.column] = fillValue;
-        for (MatrixCoordinate nextCoordinate : relativeCoordinatesOfTetromino) {
-            internalShapeArray[tetrominoStartCell.row + nextCoordinate.row][tetrominoStartCell.column + nextCoordinate.column] = fillValue;
-        }
+    private void fitTetrominoIntoArray(TetrominoArray tetromino, int startRow, int startColumn, int[][] internalShapeArray, int fillValue) {
+        ShapeFitter.fitTetrominoIntoArray(tetromino, startRow, startColumn, internalShapeArray, fillValue);
     }
 
     /**
      * Returns every possibility to add an tetromino into the given array so that it fills out only grids with the specified kachelValue.
-     * The possibilities are returned as an ArrayList which hold the absolute {@link MatrixCoordinate} for the first kachel of the given tetromino.
-     *
-     * @param tetrominoArray     The array of the tetromino that should be fitted into the arrayToChange
-     * @param arrayToChange      The array that contains the matrix that should be check for a possible insertion of the tetromino.
-     * @param kachelValue        The kachelValue that the new inserted Tetromino is allowed to overwrite.
-     *                           E. g. if adding a new tetromino into a shape, the kachelValue should be 1, as the new tetromino should only fill cells in the array that
-     *                           are placeholders (i. e. contain the value 1). If searching for a possible shape, the kachelValue should be 0 as the tetromino should be only
-     *                           added where the other tetromino is not added yet.
-     * @param getAllSolutions    If false, this method returns directly if a first solution is found. Thus, if true, the ArrayList has a size between 0 and 1.
-     *                           E. g. if this is the second tetromino added, there is only one valid solution, so can directly break this procedure after finding the first solution.
-     * @param checkForConnection If true, for every found solution, there is a check included that tests whether the after inserting the tetromino every kachel can still be traveled by a connected path.
-     *                           E. g. this should be true, if adding first tetromino but false if adding a shape (as for shapes there is automatically a hasHole() check) or the second tetromino.
-     * @return An ArrayList that contains valid solutions.
-     */
-    private ArrayList<MatrixCoordinate> getPossibilitiesForAdding(TetrominoArray tetrominoArray, int[][] arrayToChange, int kachelValue, boolean getAllSolutions, boolean checkForConnection) {
-        ArrayList<MatrixCoordinate> possibilitiesToAddTetromino = new ArrayList<>();
-
-        ArrayList<MatrixCoordinate> relativeCoordinatesForInsertingTetromino = calculateRelativeArray(tetrominoArray);
-
-        for (int shapeRow = 0; shapeRow < arrayToChange.length; shapeRow++) {
-            for (int shapeCol = 0; shapeCol < arrayToChange[shapeRow].length; shapeCol++) {
-
-                if (arrayToChange[shapeRow][shapeCol] == kachelValue) {
-                    //found cell that contains the kachelValue we are allowed to overwrite
-                    boolean tetrominoCanBeFitted = true;
-
-                    //check if from this first cell all relative coordinates ("connected path") of the tetromino could be applied.
-                    for (MatrixCoordinate relativeCoordinates : relativeCoordinatesForInsertingTetromino) {
-                        int row = shapeRow + relativeCoordinates.row;
-                        int col = shapeCol + relativeCoordinates.column;
-
-                        if (row < 0
-                                || row >= arrayToChange.length
-                                || col < 0
-                                || col >= arrayToChange[shapeRow].length
-                                || arrayToChange[row][col] != kachelValue) {
-                            tetrominoCanBeFitted = false;
-                            break;
-                        }
-                    }
-
-                    if (tetrominoCanBeFitted) {
-                        MatrixCoordinate testedCoordinate = new MatrixCoordinate(shapeRow, shapeCol);
-                        if (checkForConnection) {
-                            if (isShapeStillConnected(testedCoordinate, relativeCoordinatesForInsertingTetromino)) {
-                                // Found one possibility!
-                                possibilitiesToAddTetromino.add(testedCoordinate);
-                            }
-                        } else {
-                            //do not check for connection and directly add to list.
-                            possibilitiesToAddTetromino.add(testedCoordinate);
-                        }
-
-                        if (!getAllSolutions) {
-                            return possibilitiesToAddTetromino; //just directly return the first possibility found, as only one possibility can be left.
-                        }
-                    }
-                }
-            }
-        }
-        return possibilitiesToAddTetromino;
-    }
-
-    /**
-     * Checks if the shape is still connected after inserting a tetromino into it.
-     * @param startCoordinate The coordinates of the start cell where the tetromino was fitted into.
-     * @param relativeCoordinatesList The relative coordinates of all cells starting from the startCoordiante.
-     * @return True, if shape is still connected, i. e. a connect path exists.
+     * See {@link ShapeFitter#getPossibilitiesForAdding(TetrominoArray, int[][], int, boolean, boolean)} for the meaning of the parameters.
+     * @return A CoordinateList that contains the start cells of valid solutions.
      */
-    private boolean isShapeStillConnected(MatrixCoordinate startCoordinate, ArrayList<MatrixCoordinate> relativeCoordinatesList) {
-
-        //Create a new array, simulate the insertion of tetromino and check if the reminding places to be filled are still connected.
-        //FIRST: Remove the cells that the current tetromino would fill (i. e. simulate that tetromino was inserted).
-        int[][] arrayCopy = deepCopyArray(internalShapeArray);
-        arrayCopy[startCoordinate.row][startCoordinate.column] = 0;
-        for (MatrixCoordinate relativeCoordinates : relativeCoordinatesList) {
-            arrayCopy[startCoordinate.row + relativeCoordinates.row][startCoordinate.column + relativeCoordinates.column] = 0;
-        }
-
-        //SECOND: Transform the arrayCopy into an array which holds the minimal embedding
-        TetrominoArray tetrominoArray = new TetrominoArray(arrayCopy);
-        tetrominoArray.moveToMinimalEmbedding();
-
-        //THIRD: Check if every cell with a 1 is part of an connected path.
-        return isEnoughPlaceForOtherTetromino(tetrominoArray);
+    CoordinateList getPossibilitiesForAdding(TetrominoArray tetrominoArray, int[][] arrayToChange, int kachelValue, boolean getAllSolutions, boolean checkForConnection) {
+        return ShapeFitter.getPossibilitiesForAdding(tetrominoArray, arrayToChange, kachelValue, getAllSolutions, checkForConnection);
     }
 
     /**
-     * As 2D-array are containing references to other arrays, usual cloning would only copy the references to the array but NOT
-     * the actual values. Use this method to perform a deep cloning of the array.
+     * Returns a deep copy of the given array, see {@link ShapeFitter#deepCopyArray(int[][])}.
      *
      * @param arrayToCopy The array that should be cloned
      * @return The cloned array. It is absolute identical to the template.
      */
     int[][] deepCopyArray(int[][] arrayToCopy) {
-        int[][] clone = new int[arrayToCopy.length][];
-        for (int i = 0; i < arrayToCopy.length; i++) {
-            clone[i] = arrayToCopy[i].clone();
-        }
-        return clone;
-    }
-
-    /**
-     * Returns an ArrayList holding {@link MatrixCoordinate} which contain the relative row and column index of all
-     * kacheln that are connected to the first kachel found in the first row.
-     * <i>This can be used as a shortcut method in order to avoid needing to process the whole array of the spielstein in order
-     * to check if the tetromino would fit into shape.</i>
-     *
-     * @param tetrominoArray The tetromino that should be processed.
-     * @return An ArrayList holding {@link MatrixCoordinate} relative to the first kachel found in the first row.
-     */
-    private ArrayList<MatrixCoordinate> calculateRelativeArray(TetrominoArray tetrominoArray) {
-        tetrominoArray.moveToMinimalEmbedding();
-
-        //As tetromino is in his minimal embedding, the first kachel HAS TO be in any column in the first row.
-        int firstColIndex = tetrominoArray.getRowIndexOfFirstActiveKachel();
-
-        ArrayList<MatrixCoordinate> relativeCoordinates = new ArrayList<>();
-        getRelativePositionOfKacheln(tetrominoArray.getInternalArray(), 0, firstColIndex, 0, 0, relativeCoordinates);
-
-        relativeCoordinates.remove(0); //remove first index as it is always our starting point at (0,0)
-
-        return relativeCoordinates;
-    }
-
-
-    //TODO: javadoc
-
-    /**
-     * Determines the amount of kacheln that are connected to each other without any holes by using a recursive approach.
-     *
-     * @param internalArray            Array holding the kxk-Grid
-     * @param start_row                The relative row that should be checked. Initialization value should be 0.
-     * @param start_col                The relative row that should be checked. Initialization value should be 0.
-     * @param relativeCoordinates      Holding a list of all found relativeCoordinates. Do provide an empty {@link ArrayList<>} at initialization.
-     */
-    private void getRelativePositionOfKacheln(int[][] internalArray, int start_row, int start_col, int relative_row, int relative_col, ArrayList<MatrixCoordinate> relativeCoordinates) {
-
-        int row = start_row + relative_row;
-        int col = start_col + relative_col;
-
-        //break condition: We went outside the field, have found a cell with value 0 or have already counted that cell.
-        if (row >= internalArray.length || row < 0
-                || col >= internalArray[row].length || col < 0
-                || internalArray[row][col] <= 0
-                || positionAlreadyVisited(relative_row, relative_col, relativeCoordinates)) {
-            return;
-        }
-
-        //if got here, we've found a new cell which is a neighbour of our previous cell.
-        //Adding this cell to the list
-        relativeCoordinates.add((new MatrixCoordinate(relative_row, relative_col)));
-
-
-        //At every cell in the matrix we could go potentially in four different directions.
-
-        //goRight
-        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row, relative_col + 1, relativeCoordinates);
-
-        //goLeft
-        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row, relative_col - 1, relativeCoordinates);
-
-        //goTop
-        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row - 1, relative_col, relativeCoordinates);
-
-        //goBottom
-        getRelativePositionOfKacheln(internalArray, start_row, start_col, relative_row + 1, relative_col, relativeCoordinates);
-
-
-    }
-
-    /**
-     * Determines the amount of kacheln that are connected to each other without any holes.
-     *
-     * @param internalArray            Array holding the kxk-Grid
-     * @param row                      The absolute row that should be checked. Initialization value should be the first row with an active kachel.
-     * @param col                      The absolute row that should be checked. Initialization value should be the first column with an active kachel.
-     * @param visitedMatrixCoordiantes Holding a list of all visited kacheln. Do provide an empty {@link ArrayList<>} at initialization.
-     * @return The amount of kacheln that are connected to each other starting with the kachel set by {@code row and col}.
-     */
-    private int getTotalNumberOfConnectedKacheln(int[][] internalArray, int row, int col, ArrayList<MatrixCoordinate> visitedMatrixCoordiantes) {
-
-
-        //break condition: We went outside the field, have found a cell with value 0 or have already counted that cell.
-        if (row >= internalArray.length || row < 0
-                || col >= internalArray[row].length || col < 0
-                || internalArray[row][col] == 0
-                || positionAlreadyVisited(row, col, visitedMatrixCoordiantes)) {
-            return 0;
-        }
-
-        //if got here, we've found a new cell which is a neighbour of our start cell.
-        //Adding this cell to the list of visited cells and adding +1 to the return statement below.
-        visitedMatrixCoordiantes.add((new MatrixCoordinate(row, col)));
-
-
-        //At every cell in the matrix we could go potentially in four different directions.
-
-        //goRight
-        int right = getTotalNumberOfConnectedKacheln(internalArray, row, col + 1, visitedMatrixCoordiantes);
-
-        //goLeft
-        int left = getTotalNumberOfConnectedKacheln(internalArray, row, col - 1, visitedMatrixCoordiantes);
-
-        //goTop
-        int top = getTotalNumberOfConnectedKacheln(internalArray, row - 1, col, visitedMatrixCoordiantes);
-
-        //goBottom
-        int bottom = getTotalNumberOfConnectedKacheln(internalArray, row + 1, col, visitedMatrixCoordiantes);
-
-        //return number of neighbours found in right, left, top and bottom directions + 1 as the current cell is also a valid cell that counts.
-        return right + left + top + bottom + 1;
-    }
-
-    /**
-     * Checks whether the provided shape still has enough free place to hold another tetromino.
-     *
-     * @param tetrominoArray The tetrominoArray to be checked.
-     * @return true, if another tetromino still can be fitted into that array
-     */
-    private boolean isEnoughPlaceForOtherTetromino(TetrominoArray tetrominoArray) {
-        int index = tetrominoArray.getRowIndexOfFirstActiveKachel();
-        int connectedKacheln = getTotalNumberOfConnectedKacheln(tetrominoArray.getInternalArray(), 0, index, new ArrayList<>());
-        return connectedKacheln == tetrominoArray.getInternalArrayLength();
-    }
-
-    /**
-     * Returns true if the given row and column were already included as {@link MatrixCoordinate} in the given ArrayList.
-     * @param row The row to be checked
-     * @param col The column to be checked
-     * @param matrixCoordinates The ArrayList containing {@link MatrixCoordinate}s that are used.
-     * @return True, if cell is already included in the ArrayList.
-     */
-    private boolean positionAlreadyVisited(int row, int col, ArrayList<MatrixCoordinate> matrixCoordinates) {
-        for (MatrixCoordinate matrixCoordinate : matrixCoordinates) {
-            if (matrixCoordinate.column == col && matrixCoordinate.row == row) {
-                return true;
-            }
-        }
-        return false;
+        return ShapeFitter.deepCopyArray(arrayToCopy);
     }
 
     /**
@@ -594,20 +383,40 @@ public class Shape extends JPanel {
 
         stringHeight = drawDescriptionID(new Point(getWidth() / 2, 0), "" + ID, g);
 
-        Point startCoordinates = getCenteredStartPoint();
-        shapeDraw.setStartCoordinates(startCoordinates);
-        shapeDraw.draw(g);
+        TetrominoSnapshot shape = snapshot;
+        Point startCoordinates = getCenteredStartPoint(shape);
+        shape.draw(g, startCoordinates.x, startCoordinates.y, sizeObserver.getTetrominoKachelSize());
 
     }
 
+    /**
+     * Publishes a new snapshot of the shapeDraw and repaints the shape. Must be called after every change of the shapeDraw
+     * (fitted tetrominoes, colors, alpha of the fade out animation), as only the published snapshot is painted.
+     */
+    public void publishSnapshot() {
+        snapshot = shapeDraw.createSnapshot();
+        repaint();
+    }
+
+    /**
+     * Publishes the last published snapshot with a new alpha and repaints the shape. Used for the frames of the fade out animation:
+     * the shape is not changed while it fades, so the snapshot is only drawn more transparent, without calculating its geometry again.
+     * @param alpha The alpha value, 0 (transparent) to 255 (opaque).
+     */
+    public void publishFadeFrame(int alpha) {
+        snapshot = snapshot.withAlpha(alpha);
+        repaint();
+    }
+
     /**
      * Returns a start point that centers the shape in the given space.
+     * @param shape The snapshot of the shape to center.
      * @return A Point that holds the coordinates of the upper left point where the shape matrix should start to appear centered on the screen.
      */
-    private Point getCenteredStartPoint() {
-        int[] bounds = shapeDraw.getBounds();
-        int shapeWidth = bounds[2] - bounds[0];
-        int shapeHeight = bounds[3] - bounds[1];
+    private Point getCenteredStartPoint(TetrominoSnapshot shape) {
+        int[] shapeSize = shape.getSize(sizeObserver.getTetrominoKachelSize());
+        int shapeWidth = shapeSize[0];
+        int shapeHeight = shapeSize[1];
 
         Insets insets = getBorder().getBorderInsets(this);
 
@@ -627,8 +436,12 @@ public class Shape extends JPanel {
      * @return An int[4]-array with left, top, bottom, right coordinates of the borders.
      */
     public int[] getBorders() {
-        int[] shapeBounds = shapeDraw.getBounds();
-        return new int[]{shapeBounds[0], shapeBounds[1] - stringHeight, shapeBounds[2], shapeBounds[3]};
+        TetrominoSnapshot shape = snapshot;
+        Point startCoordinates = getCenteredStartPoint(shape);
+        int[] shapeSize = shape.getSize(sizeObserver.getTetrominoKachelSize());
+        int left = startCoordinates.x - TETROMINO_PATH_STORKE;
+        int top = startCoordinates.y - TETROMINO_PATH_STORKE;
+        return new int[]{left, top - stringHeight, left + shapeSize[0], top + shapeSize[1]};
     }
 
     /**
@@ -640,14 +453,12 @@ public class Shape extends JPanel {
      * @return string's display height
      */
     private int drawDescriptionID(Point centerPoint, String message, Graphics g) {
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-
-        // get the FontMetrics for the current font
-        FontMetrics fm = g.getFontMetrics();
+        //the font and the measured string are cached, as the ID is drawn on every repaint
+        TextLayoutCache.CachedText text = TextLayoutCache.getDefault().getText(message, Font.BOLD, ID_FONT_SIZE, g);
 
         // get the length and height of string
-        int stringWidth = fm.stringWidth(message);
-        int stringHeight = fm.getAscent();
+        int stringWidth = text.getWidth();
+        int stringHeight = text.getAscent();
 
         // calculate the position for the first character
         int x = centerPoint.x - (stringWidth / 2);
@@ -663,13 +474,16 @@ public class Shape extends JPanel {
             Graphics2D g2 = (Graphics2D) g;
             g2.setStroke(new BasicStroke(2));
             g2.drawOval(x - diameter / 4, y - stringHeight, diameter, diameter);
+        } else if (isHighlighted) {
+            color = HIGHLIGHT_COLOR;
+            g.setColor(color);
         } else {
             color = Color.BLACK;
             g.setColor(color);
         }
 
 
-        g.drawString(message, x, y);
+        text.draw(g, x, y);
         return stringHeight;
     }
 
@@ -691,4 +505,15 @@ public class Shape extends JPanel {
         repaint();
     }
 
+    /**
+     * Highlights the ID of the shape, e. g. to show that the selected tetromino fits into this shape.
+     * @param isHighlighted If true, the shape is highlighted. Otherwise, the highlighting is removed.
+     */
+    void setHighlighted(boolean isHighlighted) {
+        if (this.isHighlighted != isHighlighted) {
+            this.isHighlighted = isHighlighted;
+            repaint();
+        }
+    }
+
 }
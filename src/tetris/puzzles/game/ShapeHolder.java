@@ -1,8 +1,12 @@
 package tetris.puzzles.game;
 
 import tetris.puzzles.actions.ActionNextSelect;
+import tetris.puzzles.datamodels.SavedGame.SavedShape;
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.FitsWhereIndex;
 import tetris.puzzles.interfaces.ControlInterface;
+import tetris.puzzles.interfaces.ShapeObserver;
 import tetris.puzzles.interfaces.SizeObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
 import tetris.puzzles.tetromino.TetrominoDraw;
@@ -11,11 +15,16 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * This class is responsible for holding each shape.
+ * <br>It keeps a {@link FitsWhereIndex} of the shapes up to date, so that the shapes the selected tetromino fits into can be highlighted
+ * without trying to fit the tetromino into every shape.
  */
-public class ShapeHolder extends JPanel {
+public class ShapeHolder extends JPanel implements ShapeObserver {
 
     static final int MARGIN_BETWEEN_TWO_SHAPES_IN_PIXEL = 10;
     public static final int BORDER_STROKE = 5;
@@ -26,9 +35,12 @@ public class ShapeHolder extends JPanel {
     TetrominoDraw lastFittedTetromino;
     Shape lastFittedShape;
 
+    FitsWhereIndex fitsWhereIndex;
+
     SizeObserver sizeObserver;
     TetrominoObserver tetrominoObserver;
     ControlInterface controlInterface;
+    SessionStatistics sessionStatistics;
 
     /**
      * Constructs a new ShapeHolder.
@@ -36,15 +48,18 @@ public class ShapeHolder extends JPanel {
      * @param controlInterface A {@link ControlInterface} that can be used to display a warning to the user on forbidden operations.
      * @param sizeObserver A {@link SizeObserver} that can be used to get the current size of tetrominoes
      * @param userPreferences A {@link UserPreferences} object that holds the user preferences that should be used in the game.
+     * @param sessionStatistics A {@link SessionStatistics} object that counts the completed shapes.
      */
-    ShapeHolder(TetrominoObserver tetrominoObserver, ControlInterface controlInterface, SizeObserver sizeObserver, UserPreferences userPreferences) {
+    ShapeHolder(TetrominoObserver tetrominoObserver, ControlInterface controlInterface, SizeObserver sizeObserver, UserPreferences userPreferences, SessionStatistics sessionStatistics) {
         this.tetrominoObserver = tetrominoObserver;
         this.sizeObserver = sizeObserver;
         this.controlInterface = controlInterface;
         this.userPreferences = userPreferences;
+        this.sessionStatistics = sessionStatistics;
 
         setBackground(Color.WHITE);
 
+        fitsWhereIndex = new FitsWhereIndex(userPreferences.getNumberOfKachelnInStone());
         addShapes();
 
         addKeyBindings();
@@ -99,6 +114,12 @@ public class ShapeHolder extends JPanel {
 
                     //tetromino cannot be selected anymore, as it is fixed in shape
                     tetrominoObserver.setSelectedTetromino(null, false);
+
+                    //the previous tetromino cannot be re-positioned anymore, so it can be reused for a new tetromino
+                    if (lastFittedTetromino != null) {
+                        lastFittedShape.forgetLastFittedTetromino(lastFittedTetromino);
+                        tetrominoObserver.recycleTetromino(lastFittedTetromino);
+                    }
                     lastFittedTetromino = selectedTetromino;
                     lastFittedShape = selectedShape;
                 } else {
@@ -134,7 +155,7 @@ public class ShapeHolder extends JPanel {
 
 
         for (int i = 0; i < shapes.length; i++) {
-            shapes[i] = new Shape(controlInterface, sizeObserver, i + 1, userPreferences);
+            shapes[i] = new Shape(controlInterface, sizeObserver, i + 1, userPreferences, sessionStatistics, this);
             if (i == 0) {
                 add(shapes[i], gbc_first_shape);
             } else if (i == shapes.length - 1) {
@@ -145,6 +166,52 @@ public class ShapeHolder extends JPanel {
         }
     }
 
+    /**
+     * Returns the state of every shape that is needed to continue the game later.
+     * @return The {@link SavedShape}s in the order of the shape IDs.
+     */
+    List<SavedShape> saveShapes() {
+        List<SavedShape> savedShapes = new ArrayList<>(shapes.length);
+        for (Shape shape : shapes) {
+            savedShapes.add(shape.save());
+        }
+        return savedShapes;
+    }
+
+    /**
+     * Restores the saved shapes.
+     * @param savedShapes The {@link SavedShape}s in the order of the shape IDs, one per shape.
+     */
+    void restoreShapes(List<SavedShape> savedShapes) {
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i].restore(savedShapes.get(i));
+        }
+    }
+
+    @Override
+    public void onShapeHasChanged(int shapeId, int[][] shapeArray) {
+        fitsWhereIndex.onShapeHasChanged(shapeId, shapeArray);
+        updateHighlighting();
+    }
+
+    /**
+     * Highlights every shape the selected tetromino fits into and removes the highlighting of the other shapes.
+     * Should be called whenever the selected tetromino changes.
+     */
+    public void updateHighlighting() {
+        if (shapes == null) {
+            return; //shapes are still created
+        }
+
+        TetrominoDraw selectedTetromino = tetrominoObserver.getSelectedTetromino();
+        Set<Integer> fittingShapes = (selectedTetromino == null) ? Set.of() : fitsWhereIndex.getFittingShapes(selectedTetromino.getInternalArray());
+        for (Shape shape : shapes) {
+            if (shape != null) {
+                shape.setHighlighted(fittingShapes.contains(shape.getID()));
+            }
+        }
+    }
+
     /**
      * Selects a neighbour shape.
      * @param next The position of the neighbour shape relative to the current selected slot.
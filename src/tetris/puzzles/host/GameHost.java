@@ -0,0 +1,235 @@
+package tetris.puzzles.host;
+
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.BotPlayer;
+import tetris.puzzles.engine.GameEngine;
+import tetris.puzzles.engine.ShapeFitter;
+import tetris.puzzles.interfaces.SessionObserver;
+import tetris.puzzles.metrics.LatencyHistogram;
+import tetris.puzzles.time.VirtualClock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * This class runs many independent {@link GameSession}s in one JVM, e. g. to host practice sessions for many users on one machine.
+ * <br>In contrast to the {@link tetris.puzzles.game.GameGrid}, which starts several threads per game, a session has no thread of its own:
+ * every tick of every session is a task on one shared scheduled executor with a fixed number of threads. Thus, the number of sessions
+ * is limited by the CPU time of the ticks and not by the number of threads.
+ * <br>Every session has its own seed, preferences and {@link VirtualClock}. The tetrominoes of all sessions are taken from the shared,
+ * read-only catalog of the {@link ShapeFitter}, which is calculated once per k when the first session with this k is opened.
+ * <br>New sessions are only admitted (see {@link #openSession(UserPreferences, long, BotPlayer)}) as long as the host has less than the
+ * maximum number of sessions and the ticks start on time, so that an overloaded host does not slow down the running sessions even more.
+ * The CPU time of the ticks is accounted per session (see {@link GameSession#getCpuTimeNanos()}).
+ */
+public class GameHost {
+
+    public static final int LATENESS_SMOOTHING_SHIFT = 6; //the average lateness follows the last ~64 ticks
+
+    private final int maxSessions;
+    private final long maxAverageLatenessNanos;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean isCpuTimeSupported;
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger runningSessions = new AtomicInteger();
+    private final AtomicLong nextSessionId = new AtomicLong();
+    private final AtomicLong admittedSessions = new AtomicLong();
+    private final AtomicLong rejectedSessions = new AtomicLong();
+    private final LatencyHistogram tickLateness = new LatencyHistogram("host tick lateness");
+
+    private volatile long averageLatenessNanos; //updated by every tick without synchronization, so it is only approximate
+    private volatile boolean isShutdown;
+
+    /**
+     * Constructs a new GameHost.
+     * @param maxSessions The maximum number of sessions that run at the same time.
+     * @param threads The number of threads that run the ticks of all sessions.
+     * @param maxAverageLatenessInMillis New sessions are rejected while the ticks start later than this on average.
+     */
+    public GameHost(int maxSessions, int threads, long maxAverageLatenessInMillis) {
+        this.maxSessions = maxSessions;
+        this.maxAverageLatenessNanos = maxAverageLatenessInMillis * 1_000_000;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-host-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); //the host should never prevent the JVM from exiting
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true); //closed sessions should not keep their planned tick in the queue
+
+        isCpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+        if (isCpuTimeSupported && !threadBean.isThreadCpuTimeEnabled()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /**
+     * Opens and starts a new session, if the host admits it.
+     * @param userPreferences The {@link UserPreferences} of the game.
+     * @param seed The seed of the game, so that a session can be repeated.
+     * @param botPlayer A {@link BotPlayer} that plays the session, or null if the session is played by {@link GameSession#submit} only.
+     * @return The running session, or null if the session was rejected because the host is shut down, full or overloaded.
+     */
+    public GameSession openSession(UserPreferences userPreferences, long seed, BotPlayer botPlayer) {
+        return openSession(userPreferences, seed, botPlayer, null);
+    }
+
+    /**
+     * Opens and starts a new session that is followed by the given observer, if the host admits it.
+     * @param userPreferences The {@link UserPreferences} of the game.
+     * @param seed The seed of the game, so that a session can be repeated.
+     * @param botPlayer A {@link BotPlayer} that plays the session, or null if the session is played by {@link GameSession#submit} only.
+     * @param sessionObserver A {@link SessionObserver} that is notified after every tick, set before the first tick. Can be null.
+     * @return The running session, or null if the session was rejected because the host is shut down, full or overloaded.
+     */
+    public GameSession openSession(UserPreferences userPreferences, long seed, BotPlayer botPlayer, SessionObserver sessionObserver) {
+        if (isShutdown || averageLatenessNanos > maxAverageLatenessNanos || !tryReserveSession()) {
+            rejectedSessions.incrementAndGet();
+            return null;
+        }
+
+        ShapeFitter.getTetrominoCatalog(userPreferences.getNumberOfKachelnInStone()); //calculate the shared catalog outside of the ticks
+        GameEngine engine = new GameEngine(userPreferences, GameEngine.DEFAULT_GRID_WIDTH_IN_KACHELN, GameEngine.DEFAULT_GRID_HEIGHT_IN_KACHELN,
+                seed, new VirtualClock());
+        GameSession session = new GameSession(nextSessionId.incrementAndGet(), engine, botPlayer, sessionObserver, this);
+        sessions.put(session.id, session);
+        admittedSessions.incrementAndGet();
+
+        //start at a random moment of the first movement interval, so that sessions opened at the same time do not tick at the same time
+        long movementIntervalNanos = Math.round(engine.getMovementIntervalInMillis() * 1_000_000);
+        session.nextTickNanos = System.nanoTime() + ThreadLocalRandom.current().nextLong(Math.max(movementIntervalNanos, 1));
+        session.scheduledTick = scheduleTick(session, session.nextTickNanos);
+        return session;
+    }
+
+    /**
+     * Opens and starts a new session like {@link #openSession(UserPreferences, long, BotPlayer, SessionObserver)}, but on a thread of the host.
+     * Creating a session can take a while (e. g. the catalog of a new k is calculated), so a caller that must not be blocked,
+     * like the selector thread of a server, uses this method instead.
+     * @param userPreferences The {@link UserPreferences} of the game.
+     * @param seed The seed of the game, so that a session can be repeated.
+     * @param botPlayer A {@link BotPlayer} that plays the session, or null if the session is played by {@link GameSession#submit} only.
+     * @param sessionObserver A {@link SessionObserver} that is notified after every tick, set before the first tick. Can be null.
+     * @param onOpened Is called on a thread of the host with the running session, or with null if the session was rejected.
+     */
+    public void openSessionInBackground(UserPreferences userPreferences, long seed, BotPlayer botPlayer, SessionObserver sessionObserver,
+                                        Consumer<GameSession> onOpened) {
+        try {
+            executor.execute(() -> onOpened.accept(openSession(userPreferences, seed, botPlayer, sessionObserver)));
+        } catch (RejectedExecutionException e) {
+            rejectedSessions.incrementAndGet(); //the host was shut down
+            onOpened.accept(null);
+        }
+    }
+
+    private boolean tryReserveSession() {
+        while (true) {
+            int running = runningSessions.get();
+            if (running >= maxSessions) {
+                return false;
+            }
+            if (runningSessions.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Schedules the tick of the session at the given time. If the host is shut down, the session is not scheduled anymore.
+     * @param session The session.
+     * @param tickNanos The planned start of the tick by {@link System#nanoTime()}.
+     * @return The scheduled tick or null if the host is shut down.
+     */
+    ScheduledFuture<?> scheduleTick(GameSession session, long tickNanos) {
+        try {
+            return executor.schedule(session::runTick, tickNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            return null; //the host was shut down in the meantime
+        }
+    }
+
+    void onTickStarted(long latenessNanos) {
+        long lateness = Math.max(latenessNanos, 0);
+        tickLateness.record(lateness);
+        long average = averageLatenessNanos;
+        averageLatenessNanos = average + ((lateness - average) >> LATENESS_SMOOTHING_SHIFT);
+    }
+
+    void onSessionFinished(GameSession session) {
+        sessions.remove(session.id);
+        runningSessions.decrementAndGet();
+    }
+
+    /**
+     * Returns the CPU time of the calling thread, or the wall time if the JVM cannot measure the CPU time of threads.
+     * @return The time in nanoseconds, only differences are meaningful.
+     */
+    long getCurrentThreadCpuTime() {
+        return isCpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Closes every session and stops the threads of the host.
+     */
+    public void shutdown() {
+        isShutdown = true;
+        for (GameSession session : getSessions()) {
+            session.close();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the running sessions.
+     * @return A copy of the running sessions.
+     */
+    public List<GameSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    public int getNumberOfRunningSessions() {
+        return runningSessions.get();
+    }
+
+    public long getNumberOfAdmittedSessions() {
+        return admittedSessions.get();
+    }
+
+    public long getNumberOfRejectedSessions() {
+        return rejectedSessions.get();
+    }
+
+    /**
+     * Returns how much later than planned the ticks of all sessions started.
+     * @return The {@link LatencyHistogram} of the lateness of every tick.
+     */
+    public LatencyHistogram getTickLateness() {
+        return tickLateness;
+    }
+
+    /**
+     * Returns the smoothed lateness of the last ticks, which is used by the admission control.
+     * @return The average lateness in nanoseconds.
+     */
+    public long getAverageLatenessNanos() {
+        return averageLatenessNanos;
+    }
+
+    public boolean isCpuTimeSupported() {
+        return isCpuTimeSupported;
+    }
+}
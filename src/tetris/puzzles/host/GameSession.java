@@ -0,0 +1,171 @@
+package tetris.puzzles.host;
+
+import tetris.puzzles.engine.BotPlayer;
+import tetris.puzzles.engine.GameEngine;
+import tetris.puzzles.interfaces.SessionObserver;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * This class holds one game of a {@link GameHost}: a {@link GameEngine} with its own seed, preferences and clock,
+ * an optional {@link BotPlayer} and the statistics of the session.
+ * <br>A session has no thread of its own. Every tick is a task on the executor of the host, which schedules the next tick
+ * after the movement interval of the engine, so the game runs in real time. The engine must only be changed by the tick,
+ * so other threads (e. g. the connection of a player) {@link #submit(Consumer)} their changes, and they are applied before the next tick.
+ * <br>The statistics can be read by every thread at any time.
+ */
+public class GameSession {
+
+    /**
+     * The state of a session.
+     */
+    public enum State {
+        RUNNING, FINISHED, CLOSED
+    }
+
+    final long id;
+    final GameEngine engine;
+    final BotPlayer botPlayer; //null if the session is played by a user
+    final SessionObserver sessionObserver; //null if nobody follows the session
+    final GameHost host;
+
+    //lock-free queue of the changes requested by other threads, only drained by the tick
+    final ConcurrentLinkedQueue<Consumer<GameEngine>> pendingCommands = new ConcurrentLinkedQueue<>();
+
+    volatile State state = State.RUNNING;
+    volatile long ticks;
+    volatile long cpuTimeNanos;
+    volatile int points;
+    volatile int completedShapes;
+
+    long nextTickNanos; //planned start of the next tick by System.nanoTime(), only used by the tick
+    volatile ScheduledFuture<?> scheduledTick;
+
+    GameSession(long id, GameEngine engine, BotPlayer botPlayer, SessionObserver sessionObserver, GameHost host) {
+        this.id = id;
+        this.engine = engine;
+        this.botPlayer = botPlayer;
+        this.sessionObserver = sessionObserver;
+        this.host = host;
+    }
+
+    /**
+     * Runs one tick: applies the submitted commands, lets the bot play, advances the engine and schedules the next tick.
+     * Is only called by the executor of the host, and never for two ticks of the same session at the same time.
+     */
+    void runTick() {
+        if (state != State.RUNNING) {
+            return;
+        }
+        host.onTickStarted(System.nanoTime() - nextTickNanos);
+
+        long cpuStart = host.getCurrentThreadCpuTime();
+        try {
+            Consumer<GameEngine> command;
+            while ((command = pendingCommands.poll()) != null) {
+                command.accept(engine);
+            }
+            if (botPlayer != null) {
+                botPlayer.onTick(engine);
+            }
+            engine.tick();
+        } catch (RuntimeException e) {
+            //a broken session must not stop the other sessions of the host
+            e.printStackTrace();
+            finish(State.FINISHED);
+            return;
+        } finally {
+            cpuTimeNanos += host.getCurrentThreadCpuTime() - cpuStart;
+        }
+
+        ticks = engine.getTicks();
+        points = engine.getPoints();
+        completedShapes = engine.getCompletedShapes();
+        if (sessionObserver != null) {
+            sessionObserver.onSessionTicked(this);
+        }
+
+        if (engine.isGameOver()) {
+            finish(State.FINISHED);
+            return;
+        }
+
+        nextTickNanos += Math.round(engine.getMovementIntervalInMillis() * 1_000_000);
+        if (state == State.RUNNING) {
+            scheduledTick = host.scheduleTick(this, nextTickNanos);
+        }
+    }
+
+    /**
+     * Submits a change of the game. It is applied by the next tick, before the bot plays and the engine moves the tetrominoes.
+     * This method never blocks and can be called by every thread.
+     * @param command The change, it gets the {@link GameEngine} of this session.
+     */
+    public void submit(Consumer<GameEngine> command) {
+        pendingCommands.offer(command);
+    }
+
+    /**
+     * Stops the session. Does nothing if the session is not running anymore.
+     */
+    public void close() {
+        finish(State.CLOSED);
+    }
+
+    private void finish(State newState) {
+        synchronized (this) {
+            if (state != State.RUNNING) {
+                return;
+            }
+            state = newState;
+        }
+        ScheduledFuture<?> tick = scheduledTick;
+        if (tick != null) {
+            tick.cancel(false);
+        }
+        host.onSessionFinished(this);
+        if (sessionObserver != null) {
+            sessionObserver.onSessionFinished(this);
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the engine of the session. <b>The engine is not thread-safe</b>, so it must only be read or changed
+     * by a command (see {@link #submit(Consumer)}) or after the session has finished.
+     * @return The {@link GameEngine} of the session.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the CPU time the ticks of this session used, measured per thread by the {@link java.lang.management.ThreadMXBean}
+     * (or the wall time of the ticks, if the JVM does not support measuring the CPU time of threads).
+     * @return The used CPU time in nanoseconds.
+     */
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCompletedShapes() {
+        return completedShapes;
+    }
+}
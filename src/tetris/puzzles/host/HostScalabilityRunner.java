@@ -0,0 +1,96 @@
+package tetris.puzzles.host;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.GreedyBotPlayer;
+import tetris.puzzles.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * This class measures how many real time sessions one {@link GameHost} can run: for every number of sessions, a new host is filled with
+ * bot sessions that are played for some seconds, and the achieved ticks, the lateness of the ticks and the CPU time per session are reported.
+ * The first {@code warmup} seconds after opening the sessions are not measured, as opening thousands of sessions at once delays the first ticks.
+ * <br>Usage (the arguments are optional, shown with their default values):
+ * <pre>
+ * java -Djava.awt.headless=true -cp game/target/classes tetris.puzzles.host.HostScalabilityRunner \
+ *      sessions=1,10,100,1000,10000 seconds=10 warmup=2 threads=&lt;cores&gt; maxLateness=1000 seed=0 k=4 stones=4 shapes=4 velocity=MEDIUM
+ * </pre>
+ * A host keeps up as long as the p99 lateness stays below one movement interval (~36 ms for MEDIUM). The admission control
+ * rejects new sessions when the average lateness exceeds {@code maxLateness} milliseconds, use e. g. {@code maxLateness=20} to see
+ * how many sessions a host admits.
+ */
+public final class HostScalabilityRunner {
+
+    private HostScalabilityRunner() {
+        //only static methods
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+
+        int threads = Integer.parseInt(arguments.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seconds = Long.parseLong(arguments.getOrDefault("seconds", "10"));
+        long warmupSeconds = Long.parseLong(arguments.getOrDefault("warmup", "2"));
+        long maxLatenessInMillis = Long.parseLong(arguments.getOrDefault("maxLateness", "1000"));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(Integer.parseInt(arguments.getOrDefault("k", "4")));
+        userPreferences.setNumberOfNewAppearingStones(Integer.parseInt(arguments.getOrDefault("stones", "4")));
+        userPreferences.setNumberOfShapes(Integer.parseInt(arguments.getOrDefault("shapes", "4")));
+        userPreferences.setVelocity(FallingVelocity.valueOf(arguments.getOrDefault("velocity", "MEDIUM").toUpperCase(Locale.ROOT)));
+
+        System.out.printf(Locale.ROOT, "%8s %8s %8s %12s %10s %10s %10s %14s %10s%n",
+                "sessions", "admitted", "rejected", "ticks/sec", "p50 late", "p99 late", "max late", "cpu/session", "heap");
+        for (String sessions : arguments.getOrDefault("sessions", "1,10,100,1000,10000").split(",")) {
+            run(Integer.parseInt(sessions.trim()), threads, seconds, warmupSeconds, maxLatenessInMillis, userPreferences, seed);
+        }
+    }
+
+    private static void run(int numberOfSessions, int threads, long seconds, long warmupSeconds, long maxLatenessInMillis,
+                            UserPreferences userPreferences, long seed) throws InterruptedException {
+        GameHost host = new GameHost(numberOfSessions, threads, maxLatenessInMillis);
+        ArrayList<GameSession> sessions = new ArrayList<>();
+        for (int i = 0; i < numberOfSessions; i++) {
+            GameSession session = host.openSession(userPreferences, seed + i, new GreedyBotPlayer());
+            if (session != null) {
+                sessions.add(session);
+            }
+        }
+
+        Thread.sleep(warmupSeconds * 1000);
+        long ticks = 0;
+        long cpuTimeNanos = 0;
+        for (GameSession session : sessions) {
+            ticks -= session.getTicks();
+            cpuTimeNanos -= session.getCpuTimeNanos();
+        }
+        host.getTickLateness().reset();
+
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000);
+        host.shutdown();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        for (GameSession session : sessions) {
+            ticks += session.getTicks();
+            cpuTimeNanos += session.getCpuTimeNanos();
+        }
+        LatencyHistogram lateness = host.getTickLateness();
+        double cpuPercentPerSession = sessions.isEmpty() ? 0 : 100.0 * cpuTimeNanos / sessions.size() / (elapsedSeconds * 1e9);
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeapInMegabytes = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+
+        System.out.printf(Locale.ROOT, "%8d %8d %8d %12.0f %8.2fms %8.2fms %8.2fms %12.4f%% %8dMB%n",
+                numberOfSessions, host.getNumberOfAdmittedSessions(), host.getNumberOfRejectedSessions(), ticks / elapsedSeconds,
+                lateness.getP50Micros() / 1000, lateness.getP99Micros() / 1000, lateness.getMaxMicros() / 1000,
+                cpuPercentPerSession, usedHeapInMegabytes);
+    }
+}
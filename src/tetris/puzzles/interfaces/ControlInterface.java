@@ -1,5 +1,6 @@
 package tetris.puzzles.interfaces;
 
+import tetris.puzzles.datamodels.SessionStatistics;
 import tetris.puzzles.datamodels.UserPreferences;
 
 /**
@@ -19,8 +20,9 @@ public interface ControlInterface {
     void addPoints(UserPreferences userPreferences);
 
     /**
-     * If this method is invoked, the panel implementing this interface should save the user points into the database.
+     * If this method is invoked, the panel implementing this interface should save the user points and the finished session into the database.
      * @param usedPreferences The userPreferences used in the game when points were achieved
+     * @param sessionStatistics The {@link SessionStatistics} collected during the game
      */
-    void onGameOver(UserPreferences usedPreferences);
+    void onGameOver(UserPreferences usedPreferences, SessionStatistics sessionStatistics);
 }
@@ -1,5 +1,6 @@
 package tetris.puzzles.interfaces;
 
+import tetris.puzzles.datamodels.SavedGame;
 import tetris.puzzles.datamodels.UserPreferences;
 
 /**
@@ -13,6 +14,12 @@ public interface GameInterface {
      */
     void onGameStart(UserPreferences preferences);
 
+    /**
+     * Continues a game that was saved before (see {@link tetris.tools.SavedGameStore}).
+     * @param savedGame The {@link SavedGame} to continue, it holds the preferences of the game.
+     */
+    void onGameResume(SavedGame savedGame);
+
     /**
      * Provides a method to set a link to a {@link ControlInterface}.
      * @param controlInterface The {@link ControlInterface} to be accessed by the implementing class.
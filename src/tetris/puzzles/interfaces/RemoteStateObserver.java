@@ -0,0 +1,16 @@
+package tetris.puzzles.interfaces;
+
+import tetris.puzzles.net.RemoteGameState;
+
+/**
+ * Provides an interface for classes that want to follow the {@link RemoteGameState} of a {@link tetris.puzzles.net.GameClient}, e. g. to paint it.
+ */
+public interface RemoteStateObserver {
+
+    /**
+     * Is invoked on the reader thread of the client after every frame of the server was applied.
+     * The state is locked during the call, so it can be read consistently. The method should return quickly, as it delays reading the next frame.
+     * @param state The changed state.
+     */
+    void onStateChanged(RemoteGameState state);
+}
@@ -0,0 +1,22 @@
+package tetris.puzzles.interfaces;
+
+import tetris.puzzles.host.GameSession;
+
+/**
+ * Provides an interface for classes that want to follow a {@link GameSession} of a {@link tetris.puzzles.host.GameHost}, e. g. to send its state to a client.
+ */
+public interface SessionObserver {
+
+    /**
+     * Is invoked after every tick of the session on the thread that ran the tick, so the engine of the session can be read.
+     * The method should return quickly, as it delays the ticks of the other sessions.
+     * @param session The session that ticked.
+     */
+    void onSessionTicked(GameSession session);
+
+    /**
+     * Is invoked once when the session is over (game over) or was closed. Can be invoked by any thread.
+     * @param session The finished session.
+     */
+    void onSessionFinished(GameSession session);
+}
@@ -0,0 +1,14 @@
+package tetris.puzzles.interfaces;
+
+/**
+ * Provides an interface for classes that want to be notified when the cells of a shape change.
+ */
+public interface ShapeObserver {
+
+    /**
+     * Is invoked when a shape was generated, a tetromino was fitted into it (or got another position) or the shape was reset.
+     * @param shapeId The ID of the shape.
+     * @param shapeArray The current array of the shape. The array must not be changed or stored.
+     */
+    void onShapeHasChanged(int shapeId, int[][] shapeArray);
+}
@@ -48,6 +48,13 @@ public interface TetrominoObserver {
      */
     void removeTetromino(TetrominoDraw tetrominoDraw);
 
+    /**
+     * Hands a tetromino that is not needed anymore (e. g. because it was fitted into a shape and cannot be re-positioned anymore) back for reuse.
+     * The implementing class should only reuse the tetromino if neither the game grid nor a parking spot refers to it.
+     * @param tetrominoDraw {@link TetrominoDraw} to be reused.
+     */
+    void recycleTetromino(TetrominoDraw tetrominoDraw);
+
     /**
      * Deselects all tetrominoes in the parking spots.
      */
@@ -0,0 +1,23 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when a moved, turned or mirrored tetromino is checked against the other tetrominoes in the grid.
+ */
+@Name("tetris.puzzles.CollisionCheck")
+@Label("Collision Check")
+@Category({"Tetris Puzzle", "Game"})
+@Description("A tetromino was checked for collisions with the other tetrominoes")
+public class CollisionCheckEvent extends Event {
+
+    @Label("Tetrominoes in Grid")
+    public int tetrominoesInGrid;
+
+    @Label("Checked Tetrominoes")
+    @Description("Number of tetrominoes checked until a collision was found")
+    public int checkedTetrominoes;
+
+    @Label("Colliding")
+    public boolean colliding;
+}
@@ -0,0 +1,312 @@
+package tetris.puzzles.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class collects the latencies of the hot paths of the game (painting, movement ticks, collision checks, shape inserts and
+ * the time from a key press until it is applied by the movement thread and until the result is painted, the capture and the writing of the autosave)
+ * as well as the allocation rate and the number of pre-generated shapes.
+ * <br>The recording is disabled by default and can be enabled by the system property {@code -Dtetris.metrics=true},
+ * by JMX ({@code tetris.puzzles:type=GameMetrics}) or by showing the overlay (key F3 in the game).
+ * While disabled, every recording method only reads one volatile flag, so the instrumentation can stay in the hot paths.
+ * <br>Typical usage:
+ * <pre>
+ * long start = GameMetrics.startTimer();
+ * ... measured code ...
+ * GameMetrics.stopTimer(GameMetrics.PAINT_TIME, start);
+ * </pre>
+ */
+public final class GameMetrics {
+
+    public static final String ENABLED_PROPERTY = "tetris.metrics";
+    public static final int ALLOCATION_SAMPLE_INTERVAL_IN_MS = 1000;
+
+    public static final LatencyHistogram PAINT_TIME = new LatencyHistogram("paint");
+    public static final LatencyHistogram TICK_TIME = new LatencyHistogram("tick");
+    public static final LatencyHistogram TICK_JITTER = new LatencyHistogram("tick jitter");
+    public static final LatencyHistogram COLLISION_CHECK = new LatencyHistogram("collision");
+    public static final LatencyHistogram SHAPE_INSERT = new LatencyHistogram("shape insert");
+    public static final LatencyHistogram INPUT_TO_APPLY = new LatencyHistogram("input to apply");
+    public static final LatencyHistogram INPUT_TO_RENDER = new LatencyHistogram("input to render");
+    public static final LatencyHistogram SHAPE_GENERATION = new LatencyHistogram("shape generation");
+    public static final LatencyHistogram AUTOSAVE_CAPTURE = new LatencyHistogram("autosave capture");
+    public static final LatencyHistogram AUTOSAVE_WRITE = new LatencyHistogram("autosave write");
+
+    static final LatencyHistogram[] ALL_HISTOGRAMS = {PAINT_TIME, TICK_TIME, TICK_JITTER, COLLISION_CHECK, SHAPE_INSERT, INPUT_TO_APPLY, INPUT_TO_RENDER, SHAPE_GENERATION,
+            AUTOSAVE_CAPTURE, AUTOSAVE_WRITE};
+
+    //k -> number of ready shapes of the shape pool for k. Always recorded, as it is only updated when a shape is generated or taken.
+    private static final ConcurrentHashMap<Integer, Integer> shapePoolDepths = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static volatile boolean overlayVisible;
+
+    private static volatile long pendingInputNanos;
+    private static volatile double allocationRateBytesPerSecond;
+    private static Thread allocationSampler;
+
+    static {
+        if (enabled) {
+            startAllocationSampler();
+        }
+    }
+
+    private GameMetrics() {
+        //only static methods
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the recording. Already recorded values are kept.
+     *
+     * @param enabled True, if the latencies should be recorded.
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        GameMetrics.enabled = enabled;
+        if (enabled) {
+            startAllocationSampler();
+        } else {
+            pendingInputNanos = 0;
+            allocationRateBytesPerSecond = 0;
+        }
+    }
+
+    public static boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Shows or hides the overlay. Showing the overlay also enables the recording, as there would be nothing to show otherwise.
+     *
+     * @param overlayVisible True, if the overlay should be shown.
+     */
+    public static void setOverlayVisible(boolean overlayVisible) {
+        if (overlayVisible) {
+            setEnabled(true);
+        }
+        GameMetrics.overlayVisible = overlayVisible;
+    }
+
+    /**
+     * Returns the start time of a measurement.
+     *
+     * @return The current time in nanoseconds or 0 if the recording is disabled.
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time passed since the given start time. Nothing is recorded if the measurement was started while the recording was disabled.
+     *
+     * @param histogram The {@link LatencyHistogram} to record into
+     * @param startNanos The start time as returned by {@link #startTimer()}
+     */
+    public static void stopTimer(LatencyHistogram histogram, long startNanos) {
+        if (startNanos != 0) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Should be called when the user requested a change of a tetromino (e. g. moving or turning), so that the time until
+     * the change is painted can be measured by {@link #onFrameRendered()}.
+     *
+     * @param eventTimeMillis The time the input event occurred (as returned by {@link java.awt.event.ActionEvent#getWhen()}),
+     *                        so that the time the event waited in the event queue is included.
+     */
+    public static void onInput(long eventTimeMillis) {
+        if (!enabled || pendingInputNanos != 0) {
+            return; //if there is already an input waiting to be painted, measure from the first one
+        }
+        long waitedInQueueMillis = Math.max(0, System.currentTimeMillis() - eventTimeMillis);
+        pendingInputNanos = System.nanoTime() - waitedInQueueMillis * 1_000_000;
+    }
+
+    /**
+     * Should be called after a component holding tetrominoes was painted. Records the input-to-render latency if an input is waiting to be painted.
+     */
+    public static void onFrameRendered() {
+        long inputNanos = pendingInputNanos;
+        if (inputNanos != 0) {
+            pendingInputNanos = 0;
+            INPUT_TO_RENDER.record(System.nanoTime() - inputNanos);
+        }
+    }
+
+    /**
+     * Returns the allocation rate of all threads of the game measured during the last sample interval.
+     *
+     * @return The allocation rate in bytes per second or 0 if the recording is disabled.
+     */
+    public static double getAllocationRateBytesPerSecond() {
+        return allocationRateBytesPerSecond;
+    }
+
+    /**
+     * Saves the number of ready shapes of the shape pool for k.
+     *
+     * @param k The number of kacheln in a tetromino of the pool
+     * @param depth The number of ready shapes
+     */
+    public static void setShapePoolDepth(int k, int depth) {
+        shapePoolDepths.put(k, depth);
+    }
+
+    /**
+     * Returns the number of ready shapes of all shape pools.
+     *
+     * @return The number of pre-generated shapes waiting to be used.
+     */
+    public static int getShapePoolDepth() {
+        int depth = 0;
+        for (int poolDepth : shapePoolDepths.values()) {
+            depth += poolDepth;
+        }
+        return depth;
+    }
+
+    /**
+     * Removes every recorded value of every histogram.
+     */
+    public static void resetAll() {
+        for (LatencyHistogram histogram : ALL_HISTOGRAMS) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Registers the MBeans of the metrics at the platform MBean server, so that they can be read by JConsole or other JMX clients.
+     */
+    public static void registerMBeans() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName metricsName = new ObjectName("tetris.puzzles:type=GameMetrics");
+            if (server.isRegistered(metricsName)) {
+                return;
+            }
+            server.registerMBean(new MBean(), metricsName);
+            for (LatencyHistogram histogram : ALL_HISTOGRAMS) {
+                server.registerMBean(histogram, new ObjectName("tetris.puzzles:type=Latency,name=" + ObjectName.quote(histogram.getName())));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Starts a thread that samples the allocated bytes of every thread while the recording is enabled.
+     * The thread terminates itself as soon as the recording gets disabled.
+     */
+    private static synchronized void startAllocationSampler() {
+        if (allocationSampler != null && allocationSampler.isAlive()) {
+            return;
+        }
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return; //JVM does not support measuring allocations
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+
+        allocationSampler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                //remember the allocated bytes per thread, so that terminated threads do not lower the total amount
+                HashMap<Long, Long> lastAllocatedBytes = new HashMap<>();
+                long lastSampleTime = System.nanoTime();
+                sampleAllocatedBytes(allocationBean, lastAllocatedBytes);
+
+                try {
+                    while (enabled) {
+                        Thread.sleep(ALLOCATION_SAMPLE_INTERVAL_IN_MS);
+
+                        long allocatedBytes = sampleAllocatedBytes(allocationBean, lastAllocatedBytes);
+                        long sampleTime = System.nanoTime();
+                        allocationRateBytesPerSecond = allocatedBytes * 1e9 / (sampleTime - lastSampleTime);
+                        lastSampleTime = sampleTime;
+                    }
+                } catch (InterruptedException e) {
+                    //Thread was asked to interrupt. Just exit while loop and terminate.
+                }
+                allocationRateBytesPerSecond = 0;
+            }
+        }, "metrics-allocation-sampler");
+        allocationSampler.setDaemon(true);
+        allocationSampler.start();
+    }
+
+    /**
+     * Returns the bytes allocated by all threads since the last call and updates the given map.
+     */
+    private static long sampleAllocatedBytes(com.sun.management.ThreadMXBean allocationBean, HashMap<Long, Long> lastAllocatedBytes) {
+        long[] threadIds = allocationBean.getAllThreadIds();
+        long[] allocatedBytes = allocationBean.getThreadAllocatedBytes(threadIds);
+
+        HashMap<Long, Long> currentAllocatedBytes = new HashMap<>();
+        long newlyAllocatedBytes = 0;
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocatedBytes[i] < 0) {
+                continue; //thread terminated meanwhile
+            }
+            newlyAllocatedBytes += allocatedBytes[i] - lastAllocatedBytes.getOrDefault(threadIds[i], 0L);
+            currentAllocatedBytes.put(threadIds[i], allocatedBytes[i]);
+        }
+
+        lastAllocatedBytes.clear();
+        lastAllocatedBytes.putAll(currentAllocatedBytes);
+        return newlyAllocatedBytes;
+    }
+
+    /**
+     * The JMX view of the static methods of {@link GameMetrics}.
+     */
+    private static class MBean implements GameMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return GameMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            GameMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public boolean isOverlayVisible() {
+            return GameMetrics.isOverlayVisible();
+        }
+
+        @Override
+        public void setOverlayVisible(boolean overlayVisible) {
+            GameMetrics.setOverlayVisible(overlayVisible);
+        }
+
+        @Override
+        public double getAllocationRateMegabytesPerSecond() {
+            return GameMetrics.getAllocationRateBytesPerSecond() / (1024 * 1024);
+        }
+
+        @Override
+        public int getShapePoolDepth() {
+            return GameMetrics.getShapePoolDepth();
+        }
+
+        @Override
+        public void resetAll() {
+            GameMetrics.resetAll();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tetris.puzzles.metrics;
+
+/**
+ * Provides the JMX interface of {@link GameMetrics}, so that the recording can be switched on and off at runtime (e. g. by JConsole).
+ */
+public interface GameMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    boolean isOverlayVisible();
+
+    void setOverlayVisible(boolean overlayVisible);
+
+    /**
+     * Returns the allocation rate of all threads of the game measured during the last sample interval.
+     *
+     * @return The allocation rate in MB per second or 0 if the recording is disabled.
+     */
+    double getAllocationRateMegabytesPerSecond();
+
+    /**
+     * Returns the number of pre-generated shapes waiting to be used.
+     *
+     * @return The number of ready shapes of all shape pools.
+     */
+    int getShapePoolDepth();
+
+    /**
+     * Removes every recorded value of every histogram.
+     */
+    void resetAll();
+}
@@ -0,0 +1,173 @@
+package tetris.puzzles.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class records latencies (in nanoseconds) in a histogram with a fixed relative precision, similar to an HdrHistogram.
+ * <br>Values below {@link #SUB_BUCKET_COUNT} are counted exactly, bigger values are counted in buckets whose width doubles
+ * every {@link #SUB_BUCKET_COUNT}/2 buckets. Thus, every recorded value is exact up to ~1.5%, while the histogram needs
+ * only a few thousand counters to cover values up to {@link #MAX_TRACKABLE_VALUE}.
+ * <br>Recording is lock-free and can be done by several threads at the same time. The statistics are read without locking,
+ * so they may miss values recorded at the same time.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+
+    public static final int SUB_BUCKET_BITS = 7;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; //128
+    public static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2; //64
+    public static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1; //~18 minutes in ns, bigger values are counted as this value
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(getIndex(MAX_TRACKABLE_VALUE) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Constructs a new, empty LatencyHistogram.
+     *
+     * @param name The name of the measured latency, e. g. used in the overlay and as JMX name.
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param valueInNanos The measured latency in nanoseconds. Negative values are counted as 0.
+     */
+    public void record(long valueInNanos) {
+        long value = Math.min(Math.max(valueInNanos, 0), MAX_TRACKABLE_VALUE);
+
+        counts.incrementAndGet(getIndex(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this histogram, e. g. to combine the histograms of several threads or clients.
+     *
+     * @param other The histogram whose values are added. It is not changed.
+     */
+    public void add(LatencyHistogram other) {
+        for (int index = 0; index < counts.length(); index++) {
+            long count = other.counts.get(index);
+            if (count > 0) {
+                counts.addAndGet(index, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalSum.addAndGet(other.totalSum.get());
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+    }
+
+    /**
+     * Returns the index of the counter that is responsible for the given value.
+     * <br>Values below {@link #SUB_BUCKET_COUNT} have their own counter. For bigger values, only the highest
+     * {@link #SUB_BUCKET_BITS} bits are kept, i. e. index = exponent * 64 + (value >> exponent).
+     */
+    static int getIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> exponent); //between 64 and 127
+        return exponent * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value that is counted by the counter at the given index (i. e. the inverse of {@link #getIndex(long)}).
+     */
+    static long getHighestValueAtIndex(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - (long) exponent * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    /**
+     * Returns the value that is bigger than or equal to the given percentage of all recorded values.
+     *
+     * @param percentile The percentile between 0 and 100, e. g. 99.9
+     * @return The value at the percentile in nanoseconds or 0 if nothing was recorded yet.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long countSoFar = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            countSoFar += counts.get(index);
+            if (countSoFar >= countAtPercentile) {
+                return Math.min(getHighestValueAtIndex(index), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : totalSum.get() / (double) count;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return getMean() / 1000;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getValueAtPercentile(90) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getValueAtPercentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return getMaxValue() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (int index = 0; index < counts.length(); index++) {
+            counts.set(index, 0);
+        }
+        totalCount.set(0);
+        totalSum.set(0);
+        maxValue.set(0);
+    }
+}
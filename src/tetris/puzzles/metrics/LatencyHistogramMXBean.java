@@ -0,0 +1,26 @@
+package tetris.puzzles.metrics;
+
+/**
+ * Provides the JMX interface of a {@link LatencyHistogram}. Every value is returned in microseconds.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    /**
+     * Removes every recorded value.
+     */
+    void reset();
+}
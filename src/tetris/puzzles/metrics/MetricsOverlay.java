@@ -0,0 +1,59 @@
+package tetris.puzzles.metrics;
+
+import java.awt.*;
+
+/**
+ * This class draws the recorded {@link GameMetrics} as a small table in the upper right corner of a component.
+ * The overlay is toggled by {@link GameMetrics#setOverlayVisible(boolean)}.
+ */
+public final class MetricsOverlay {
+
+    public static final int MARGIN = 6;
+    public static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    public static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 170);
+
+    private MetricsOverlay() {
+        //only static methods
+    }
+
+    /**
+     * Draws the overlay if it is visible.
+     *
+     * @param g The Graphics object of the component
+     * @param componentWidth The width of the component, the overlay is right aligned
+     */
+    public static void drawIfVisible(Graphics g, int componentWidth) {
+        if (!GameMetrics.isOverlayVisible()) {
+            return;
+        }
+
+        String[] lines = new String[GameMetrics.ALL_HISTOGRAMS.length + 3];
+        lines[0] = String.format("%-15s %7s %7s %7s %7s", "[ms]", "p50", "p99", "max", "count");
+        for (int i = 0; i < GameMetrics.ALL_HISTOGRAMS.length; i++) {
+            LatencyHistogram histogram = GameMetrics.ALL_HISTOGRAMS[i];
+            lines[i + 1] = String.format("%-15s %7.2f %7.2f %7.2f %7d", histogram.getName(),
+                    histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getMaxValue() / 1e6, histogram.getCount());
+        }
+        lines[lines.length - 2] = String.format("%-15s %7.1f MB/s", "allocation", GameMetrics.getAllocationRateBytesPerSecond() / (1024 * 1024));
+        lines[lines.length - 1] = String.format("%-15s %7d ready", "shape pool", GameMetrics.getShapePoolDepth());
+
+        g.setFont(OVERLAY_FONT);
+        FontMetrics fontMetrics = g.getFontMetrics();
+        int lineHeight = fontMetrics.getHeight();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, fontMetrics.stringWidth(line));
+        }
+
+        int x = componentWidth - width - 3 * MARGIN;
+        int y = MARGIN;
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(x, y, width + 2 * MARGIN, lines.length * lineHeight + 2 * MARGIN);
+
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], x + MARGIN, y + MARGIN + fontMetrics.getAscent() + i * lineHeight);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every tick of the movement thread of the game grid.
+ */
+@Name("tetris.puzzles.MovementTick")
+@Label("Movement Tick")
+@Category({"Tetris Puzzle", "Game"})
+@Description("All tetrominoes of the game grid were moved down by one step")
+public class MovementTickEvent extends Event {
+
+    @Label("Moved Tetrominoes")
+    public int movedTetrominoes;
+
+    @Label("Translated Pixels")
+    public int translatedPixels;
+
+    @Label("Target Interval")
+    @Timespan(Timespan.MILLISECONDS)
+    public long targetInterval;
+
+    @Label("Lateness")
+    @Description("Time the tick started later than planned by the previous tick")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lateness;
+
+    @Label("Applied Commands")
+    @Description("Commands (key presses, new tetrominoes) applied since the previous tick, including this tick")
+    public int appliedCommands;
+}
@@ -0,0 +1,23 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when new tetrominoes are created and placed in the game grid.
+ */
+@Name("tetris.puzzles.PieceSpawn")
+@Label("Piece Spawn")
+@Category({"Tetris Puzzle", "Game"})
+@Description("New tetrominoes were created and placed in the game grid")
+public class PieceSpawnEvent extends Event {
+
+    @Label("Spawned Tetrominoes")
+    public int spawnedTetrominoes;
+
+    @Label("Kacheln per Tetromino")
+    public int kachelnPerTetromino;
+
+    @Label("Tetrominoes in Grid")
+    @Description("Number of tetrominoes in the game grid after the spawn")
+    public int tetrominoesInGrid;
+}
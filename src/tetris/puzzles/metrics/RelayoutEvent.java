@@ -0,0 +1,37 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when the game layout is adapted to a new size of the window.
+ */
+@Name("tetris.puzzles.Relayout")
+@Label("Relayout")
+@Category({"Tetris Puzzle", "Layout"})
+@Description("The game layout was adapted to a new size")
+public class RelayoutEvent extends Event {
+
+    public static final String GRID_SIZE_CHANGED = "onGridSizeHasChanged";
+    public static final String TETROMINO_SIZE_CHANGED = "onTetrominoSizeHasChanged";
+
+    @Label("Trigger")
+    @Description("The method that adapted the layout")
+    public String trigger;
+
+    @Label("Tetrominoes")
+    @Description("Number of tetrominoes that were repositioned")
+    public int tetrominoes;
+
+    @Label("Old Height")
+    public int oldHeight;
+
+    @Label("New Height")
+    public int newHeight;
+
+    @Label("Kachel Size")
+    public int kachelSize;
+
+    @Label("Coalesced Requests")
+    @Description("Number of resize notifications that were merged into this relayout")
+    public int coalescedRequests;
+}
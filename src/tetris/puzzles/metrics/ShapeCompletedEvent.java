@@ -0,0 +1,19 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when a shape was filled completely by two tetrominoes.
+ */
+@Name("tetris.puzzles.ShapeCompleted")
+@Label("Shape Completed")
+@Category({"Tetris Puzzle", "Game"})
+@Description("A shape was filled completely by two tetrominoes")
+public class ShapeCompletedEvent extends Event {
+
+    @Label("Shape ID")
+    public int shapeId;
+
+    @Label("Kacheln in Shape")
+    public int kachelnInShape;
+}
@@ -0,0 +1,30 @@
+package tetris.puzzles.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted when the possible positions of a tetromino in a shape (or in another tetromino when creating a shape) are searched.
+ */
+@Name("tetris.puzzles.ShapeFitSearch")
+@Label("Shape Fit Search")
+@Category({"Tetris Puzzle", "Game"})
+@Description("The positions where a tetromino fits into a shape were searched")
+public class ShapeFitSearchEvent extends Event {
+
+    @Label("Grid Size")
+    @Description("Number of rows (and columns) of the searched array")
+    public int gridSize;
+
+    @Label("Candidates")
+    @Description("Number of cells that were tested as position of the tetromino")
+    public int candidates;
+
+    @Label("Solutions")
+    public int solutions;
+
+    @Label("All Solutions Requested")
+    public boolean allSolutionsRequested;
+
+    @Label("Connection Checked")
+    public boolean connectionChecked;
+}
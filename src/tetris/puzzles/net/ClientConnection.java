@@ -0,0 +1,303 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.engine.EnginePiece;
+import tetris.puzzles.engine.GameEngine;
+import tetris.puzzles.engine.GreedyBotPlayer;
+import tetris.puzzles.host.GameSession;
+import tetris.puzzles.interfaces.SessionObserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * This class holds one connection of a {@link GameServer} and the session that is played over it.
+ * <br>The selector thread of the server reads the commands of the client and submits them to the session. The session ticks on a thread
+ * of the {@link tetris.puzzles.host.GameHost} and encodes its changes by the {@link StateDeltaEncoder} of this connection. The frames are
+ * queued without any lock and written by the selector thread. A client that does not read its frames fast enough is disconnected,
+ * so that a slow client cannot make the server run out of memory.
+ * <br>In the other direction, at most {@link #MAX_PENDING_COMMANDS} commands of a client wait for the next tick of its session. Further commands
+ * are dropped (and never acknowledged), so that a client sending faster than its session ticks cannot make the session queue grow without limit.
+ */
+class ClientConnection implements SessionObserver {
+
+    static final int MAX_QUEUED_BYTES = 256 * 1024;
+    static final int MAX_PENDING_COMMANDS = 16; //more than a player can type between two ticks
+
+    final GameServer server;
+    final SocketChannel channel;
+    SelectionKey selectionKey;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private ByteBuffer currentWrite;
+    private final ConcurrentLinkedQueue<ByteBuffer> outboundFrames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+    final AtomicBoolean isWriteRequested = new AtomicBoolean();
+    private volatile boolean isClosingAfterFlush;
+    private final AtomicBoolean isDropped = new AtomicBoolean();
+
+    private volatile GameSession session;
+    private boolean isOpenRequested; //only used by the selector thread
+    private volatile boolean isClosed;
+    private final StateDeltaEncoder encoder = new StateDeltaEncoder(); //only used by the tick of the session
+    private boolean isHelloSent; //only used by the tick of the session
+    private int acknowledgedSequence; //only changed by the commands, which run on the tick of the session
+    private final AtomicInteger pendingCommands = new AtomicInteger(); //only increased by the selector thread, decreased by the tick
+
+    ClientConnection(GameServer server, SocketChannel channel) {
+        this.server = server;
+        this.channel = channel;
+    }
+
+    /**
+     * Reads the available bytes and handles every complete frame. Is only called by the selector thread.
+     * @return False, if the client closed the connection.
+     */
+    boolean read() throws IOException {
+        if (!readBuffer.hasRemaining()) {
+            ByteBuffer biggerBuffer = ByteBuffer.allocate(readBuffer.capacity() * 2);
+            readBuffer.flip();
+            biggerBuffer.put(readBuffer);
+            readBuffer = biggerBuffer;
+        }
+        if (channel.read(readBuffer) < 0) {
+            return false;
+        }
+
+        readBuffer.flip();
+        byte[] bytes = readBuffer.array();
+        while (readBuffer.hasRemaining()) {
+            //parse the length prefix without consuming it, as the frame may not be complete yet
+            int position = readBuffer.position();
+            int length = 0;
+            int shift = 0;
+            boolean isLengthComplete = false;
+            while (position < readBuffer.limit() && shift < 35) {
+                int b = bytes[position++] & 0xFF;
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+                if ((b & 0x80) == 0) {
+                    isLengthComplete = true;
+                    break;
+                }
+            }
+            if (!isLengthComplete) {
+                break;
+            }
+            if (length <= 0 || length > GameProtocol.MAX_FRAME_LENGTH) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (readBuffer.limit() - position < length) {
+                break;
+            }
+            handleFrame(new FrameReader(bytes, position, length));
+            readBuffer.position(position + length);
+        }
+        readBuffer.compact();
+        return true;
+    }
+
+    private void handleFrame(FrameReader reader) {
+        int type = reader.readByte();
+        if (type == GameProtocol.CLIENT_OPEN) {
+            openSession(reader);
+            return;
+        }
+
+        GameSession currentSession = session;
+        if (currentSession == null) {
+            return; //commands before the session was opened are ignored
+        }
+        if (pendingCommands.get() >= MAX_PENDING_COMMANDS) {
+            server.onDroppedCommand();
+            return;
+        }
+        int sequence = reader.readVarInt();
+        int pieceId = reader.readVarInt();
+        BiConsumer<GameEngine, EnginePiece> action;
+        switch (type) {
+            case GameProtocol.CLIENT_MOVE: {
+                int dxInKacheln = reader.readZigZag();
+                int dyInKacheln = reader.readZigZag();
+                action = (engine, piece) -> engine.move(piece, dxInKacheln, dyInKacheln);
+                break;
+            }
+            case GameProtocol.CLIENT_TURN: {
+                boolean turnRight = reader.readBoolean();
+                action = (engine, piece) -> engine.turn(piece, turnRight);
+                break;
+            }
+            case GameProtocol.CLIENT_MIRROR: {
+                boolean horizontally = reader.readBoolean();
+                action = (engine, piece) -> engine.mirror(piece, horizontally);
+                break;
+            }
+            case GameProtocol.CLIENT_PARK: {
+                int parkingSpotIndex = reader.readVarInt();
+                action = (engine, piece) -> engine.park(piece, parkingSpotIndex);
+                break;
+            }
+            case GameProtocol.CLIENT_FILL: {
+                int shapeIndex = reader.readVarInt();
+                action = (engine, piece) -> engine.tryToFillShape(piece, shapeIndex);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown frame " + type);
+        }
+
+        pendingCommands.incrementAndGet();
+        currentSession.submit(engine -> {
+            pendingCommands.decrementAndGet();
+            EnginePiece piece = engine.getPiece(pieceId);
+            if (piece != null) { //the piece may have been fitted in the meantime
+                action.accept(engine, piece);
+            }
+            acknowledgedSequence = sequence;
+        });
+    }
+
+    /**
+     * Opens the session requested by the client. The preferences are checked against the ranges of the settings panel, as they
+     * determine how long creating and ticking the session takes. The session is created on a thread of the host,
+     * so that the selector thread keeps serving the other connections meanwhile.
+     */
+    private void openSession(FrameReader reader) {
+        if (isOpenRequested) {
+            return;
+        }
+        isOpenRequested = true;
+
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(reader.readVarInt());
+        userPreferences.setNumberOfNewAppearingStones(reader.readVarInt());
+        userPreferences.setNumberOfShapes(reader.readVarInt());
+        userPreferences.setAmountOfColors(reader.readVarInt());
+        int velocityOrdinal = reader.readVarInt();
+        if (velocityOrdinal >= 0 && velocityOrdinal < FallingVelocity.values().length) {
+            userPreferences.setVelocity(FallingVelocity.values()[velocityOrdinal]);
+        }
+        userPreferences.setVelocityIncreasing(reader.readBoolean());
+        long seed = reader.readZigZagLong();
+        boolean isBotPlaying = reader.readBoolean();
+
+        if (!userPreferences.isInAllowedRanges()) {
+            reject();
+            return;
+        }
+        server.host.openSessionInBackground(userPreferences, seed, isBotPlaying ? new GreedyBotPlayer() : null, this, this::onSessionOpened);
+    }
+
+    /**
+     * Is called on a thread of the host when the session was created.
+     */
+    private void onSessionOpened(GameSession openedSession) {
+        if (openedSession == null) {
+            reject();
+            return;
+        }
+        session = openedSession;
+        if (isClosed) {
+            openedSession.close(); //the connection was closed while the session was created
+        }
+    }
+
+    private void reject() {
+        FrameWriter writer = new FrameWriter();
+        writer.beginFrame(GameProtocol.SERVER_REJECTED);
+        isClosingAfterFlush = true;
+        enqueue(writer.finishFrame());
+    }
+
+    @Override
+    public void onSessionTicked(GameSession session) {
+        if (isClosingAfterFlush) {
+            return;
+        }
+        GameEngine engine = session.getEngine();
+        if (!isHelloSent) {
+            isHelloSent = true;
+            enqueue(encoder.encodeHello(session.getId(), engine));
+        }
+        enqueue(encoder.encodeTick(engine, acknowledgedSequence));
+    }
+
+    @Override
+    public void onSessionFinished(GameSession session) {
+        FrameWriter writer = new FrameWriter();
+        writer.beginFrame(GameProtocol.SERVER_GAME_OVER);
+        writer.writeVarInt(session.getPoints());
+        writer.writeVarInt(session.getCompletedShapes());
+        isClosingAfterFlush = true;
+        enqueue(writer.finishFrame());
+    }
+
+    private void enqueue(byte[] frame) {
+        if (isDropped.get()) {
+            return;
+        }
+        if (queuedBytes.addAndGet(frame.length) > MAX_QUEUED_BYTES) {
+            //the client does not read its frames, drop it instead of buffering without limit
+            if (isDropped.compareAndSet(false, true)) {
+                server.onSlowClient(this);
+            }
+            return;
+        }
+        outboundFrames.offer(ByteBuffer.wrap(frame));
+        if (isWriteRequested.compareAndSet(false, true)) {
+            server.requestWrite(this);
+        }
+    }
+
+    /**
+     * Writes the queued frames as far as the socket accepts them. Is only called by the selector thread.
+     * @return True, if every queued frame was written.
+     */
+    boolean flush() throws IOException {
+        while (true) {
+            if (currentWrite == null) {
+                currentWrite = outboundFrames.poll();
+                if (currentWrite == null) {
+                    return true;
+                }
+            }
+            int written = channel.write(currentWrite);
+            queuedBytes.addAndGet(-written);
+            if (currentWrite.hasRemaining()) {
+                return false;
+            }
+            currentWrite = null;
+        }
+    }
+
+    boolean isClosingAfterFlush() {
+        return isClosingAfterFlush;
+    }
+
+    /**
+     * Closes the session and the socket. Is only called by the selector thread.
+     */
+    void close() {
+        isClosed = true; //a session that is still being created is closed by onSessionOpened(GameSession)
+        GameSession currentSession = session;
+        if (currentSession != null) {
+            currentSession.close();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    int getQueuedBytes() {
+        return queuedBytes.get();
+    }
+}
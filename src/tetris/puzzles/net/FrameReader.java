@@ -0,0 +1,73 @@
+package tetris.puzzles.net;
+
+/**
+ * This class reads the body of one frame of the {@link GameProtocol}, i. e. the counterpart of the {@link FrameWriter}.
+ * <br>Instances are not thread-safe.
+ */
+final class FrameReader {
+
+    private final byte[] buffer;
+    private int position;
+    private final int end;
+
+    /**
+     * Constructs a new FrameReader.
+     * @param buffer The buffer holding the body of the frame.
+     * @param offset The index of the first byte of the body (the type of the frame).
+     * @param length The length of the body.
+     */
+    FrameReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    boolean hasRemaining() {
+        return position < end;
+    }
+
+    int readByte() {
+        if (position >= end) {
+            throw new IllegalStateException("Frame is too short");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint is too long");
+    }
+
+    int readZigZag() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint is too long");
+    }
+
+    long readZigZagLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,105 @@
+package tetris.puzzles.net;
+
+import java.util.Arrays;
+
+/**
+ * This class writes one frame of the {@link GameProtocol} into a reused buffer. A frame is started by {@link #beginFrame(int)}
+ * and finished by {@link #finishFrame()}, which returns the frame including its length prefix.
+ * <br>Instances are not thread-safe.
+ */
+final class FrameWriter {
+
+    private static final int LENGTH_PREFIX_RESERVE = 5; //a varint of an int needs at most 5 bytes
+
+    private byte[] buffer = new byte[256];
+    private int position = LENGTH_PREFIX_RESERVE;
+
+    /**
+     * Discards the current frame and starts a new one.
+     * @param type The type of the frame.
+     */
+    void beginFrame(int type) {
+        position = LENGTH_PREFIX_RESERVE;
+        writeByte(type);
+    }
+
+    /**
+     * Returns the size of the body written since {@link #beginFrame(int)}, including the type.
+     * @return The size in bytes.
+     */
+    int getBodyLength() {
+        return position - LENGTH_PREFIX_RESERVE;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes an int that is not negative in 1 to 5 bytes.
+     * @param value The value.
+     */
+    void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes an int that can be negative, so that small negative values need as few bytes as small positive values.
+     * @param value The value.
+     */
+    void writeZigZag(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeZigZagLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Finishes the current frame.
+     * @return A new array holding the length prefix and the body of the frame.
+     */
+    byte[] finishFrame() {
+        int bodyLength = getBodyLength();
+        int prefixLength = 1;
+        for (int rest = bodyLength >>> 7; rest != 0; rest >>>= 7) {
+            prefixLength++;
+        }
+
+        byte[] frame = new byte[prefixLength + bodyLength];
+        int index = 0;
+        int value = bodyLength;
+        while ((value & ~0x7F) != 0) {
+            frame[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        frame[index++] = (byte) value;
+        System.arraycopy(buffer, LENGTH_PREFIX_RESERVE, frame, index, bodyLength);
+        return frame;
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (position + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additionalBytes));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.interfaces.RemoteStateObserver;
+import tetris.puzzles.metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class plays one session of a {@link GameServer}: it opens the session, sends the input commands and keeps the {@link RemoteGameState}
+ * up to date with the frames of the server, which are read by a thread of the client.
+ * <br>Every command gets a sequence number. When a tick frame acknowledges the sequence number, the time since sending the command is recorded,
+ * so {@link #getCommandLatency()} measures the end-to-end latency from sending a command until its result arrives at the client.
+ * The commands can be sent by every thread.
+ * <br>A {@link RemoteStateObserver} like the {@link tetris.puzzles.game.RemoteGamePanel} can be notified after every frame.
+ */
+public class GameClient implements Closeable {
+
+    private static final int SEQUENCE_WINDOW = 1024; //commands in flight whose latency can be measured
+
+    private final Socket socket;
+    private final OutputStream outputStream;
+    private final FrameWriter writer = new FrameWriter(); //guarded by the output stream
+    private final Thread readerThread;
+
+    private final RemoteGameState state = new RemoteGameState(); //guarded by itself
+    private final LatencyHistogram commandLatency = new LatencyHistogram("command to ack");
+    private final AtomicLongArray sendNanosBySequence = new AtomicLongArray(SEQUENCE_WINDOW);
+    private int nextSequence; //guarded by the output stream
+    private int lastMeasuredSequence; //only used by the reader thread
+
+    private volatile long receivedBytes;
+    private volatile long receivedFrames;
+    private volatile boolean isRejected;
+    private volatile boolean isClosed;
+    private volatile RemoteStateObserver stateObserver;
+
+    /**
+     * Connects to a server and starts reading its frames.
+     * @param host The host name of the server.
+     * @param port The port of the server.
+     * @throws IOException If the connection fails.
+     */
+    public GameClient(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        outputStream = socket.getOutputStream();
+
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readFrames(inputStream);
+            }
+        }, "game-client-" + socket.getLocalPort());
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Opens a new session on the server.
+     * @param userPreferences The {@link UserPreferences} of the game.
+     * @param seed The seed of the game.
+     * @param isBotPlaying If true, the session is played by a {@link tetris.puzzles.engine.GreedyBotPlayer} in addition to the commands of this client.
+     * @throws IOException If the frame cannot be sent.
+     */
+    public void open(UserPreferences userPreferences, long seed, boolean isBotPlaying) throws IOException {
+        synchronized (outputStream) {
+            writer.beginFrame(GameProtocol.CLIENT_OPEN);
+            writer.writeVarInt(userPreferences.getNumberOfKachelnInStone());
+            writer.writeVarInt(userPreferences.getNumberOfNewAppearingStones());
+            writer.writeVarInt(userPreferences.getNumberOfShapes());
+            writer.writeVarInt(userPreferences.getAmountOfColors());
+            writer.writeVarInt(userPreferences.getVelocity().ordinal());
+            writer.writeBoolean(userPreferences.isVelocityIncreasing());
+            writer.writeZigZagLong(seed);
+            writer.writeBoolean(isBotPlaying);
+            outputStream.write(writer.finishFrame());
+        }
+    }
+
+    /**
+     * Moves a tetromino of the game grid by whole kacheln.
+     * @return The sequence number of the command.
+     */
+    public int move(int pieceId, int dxInKacheln, int dyInKacheln) throws IOException {
+        synchronized (outputStream) {
+            int sequence = beginCommand(GameProtocol.CLIENT_MOVE, pieceId);
+            writer.writeZigZag(dxInKacheln);
+            writer.writeZigZag(dyInKacheln);
+            return sendCommand(sequence);
+        }
+    }
+
+    /**
+     * Turns a tetromino of the game grid or of a parking spot.
+     * @return The sequence number of the command.
+     */
+    public int turn(int pieceId, boolean turnRight) throws IOException {
+        synchronized (outputStream) {
+            int sequence = beginCommand(GameProtocol.CLIENT_TURN, pieceId);
+            writer.writeBoolean(turnRight);
+            return sendCommand(sequence);
+        }
+    }
+
+    /**
+     * Mirrors a tetromino of the game grid or of a parking spot.
+     * @return The sequence number of the command.
+     */
+    public int mirror(int pieceId, boolean horizontally) throws IOException {
+        synchronized (outputStream) {
+            int sequence = beginCommand(GameProtocol.CLIENT_MIRROR, pieceId);
+            writer.writeBoolean(horizontally);
+            return sendCommand(sequence);
+        }
+    }
+
+    /**
+     * Moves a tetromino of the game grid into a free parking spot.
+     * @return The sequence number of the command.
+     */
+    public int park(int pieceId, int parkingSpotIndex) throws IOException {
+        synchronized (outputStream) {
+            int sequence = beginCommand(GameProtocol.CLIENT_PARK, pieceId);
+            writer.writeVarInt(parkingSpotIndex);
+            return sendCommand(sequence);
+        }
+    }
+
+    /**
+     * Fits a tetromino of the game grid or of a parking spot into a shape.
+     * @return The sequence number of the command.
+     */
+    public int fill(int pieceId, int shapeIndex) throws IOException {
+        synchronized (outputStream) {
+            int sequence = beginCommand(GameProtocol.CLIENT_FILL, pieceId);
+            writer.writeVarInt(shapeIndex);
+            return sendCommand(sequence);
+        }
+    }
+
+    private int beginCommand(int type, int pieceId) {
+        int sequence = ++nextSequence;
+        writer.beginFrame(type);
+        writer.writeVarInt(sequence);
+        writer.writeVarInt(pieceId);
+        return sequence;
+    }
+
+    private int sendCommand(int sequence) throws IOException {
+        sendNanosBySequence.set(sequence % SEQUENCE_WINDOW, System.nanoTime());
+        outputStream.write(writer.finishFrame());
+        return sequence;
+    }
+
+    private void readFrames(DataInputStream inputStream) {
+        byte[] body = new byte[256];
+        try {
+            while (!isClosed) {
+                int length = readVarInt(inputStream);
+                if (length <= 0 || length > GameProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (body.length < length) {
+                    body = new byte[Math.max(length, body.length * 2)];
+                }
+                inputStream.readFully(body, 0, length);
+                receivedBytes += length + varIntLength(length);
+                receivedFrames++;
+                boolean isConnectionKept = handleFrame(new FrameReader(body, 0, length));
+                notifyStateObserver();
+                if (!isConnectionKept) {
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            //the server closed the connection
+        } catch (IOException e) {
+            if (!isClosed) {
+                e.printStackTrace();
+            }
+        } finally {
+            close();
+        }
+    }
+
+    private boolean handleFrame(FrameReader reader) {
+        int type = reader.readByte();
+        switch (type) {
+            case GameProtocol.SERVER_HELLO:
+                synchronized (state) {
+                    state.applyHello(reader);
+                }
+                return true;
+            case GameProtocol.SERVER_TICK: {
+                int acknowledgedSequence;
+                synchronized (state) {
+                    state.applyTick(reader);
+                    acknowledgedSequence = state.acknowledgedSequence;
+                }
+                long now = System.nanoTime();
+                while (lastMeasuredSequence < acknowledgedSequence) {
+                    lastMeasuredSequence++;
+                    if (acknowledgedSequence - lastMeasuredSequence < SEQUENCE_WINDOW) {
+                        commandLatency.record(now - sendNanosBySequence.get(lastMeasuredSequence % SEQUENCE_WINDOW));
+                    }
+                }
+                return true;
+            }
+            case GameProtocol.SERVER_REJECTED:
+                isRejected = true;
+                return false;
+            case GameProtocol.SERVER_GAME_OVER:
+                synchronized (state) {
+                    state.points = reader.readVarInt();
+                    state.completedShapes = reader.readVarInt();
+                    state.isGameOver = true;
+                }
+                return false;
+            default:
+                throw new IllegalStateException("Unknown frame " + type);
+        }
+    }
+
+    private void notifyStateObserver() {
+        RemoteStateObserver observer = stateObserver;
+        if (observer != null) {
+            synchronized (state) {
+                observer.onStateChanged(state);
+            }
+        }
+    }
+
+    private static int readVarInt(DataInputStream inputStream) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = inputStream.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint is too long");
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        for (int rest = value >>> 7; rest != 0; rest >>>= 7) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the state of the game as received so far. The state is changed by the reader thread,
+     * so it must only be read while holding its lock: {@code synchronized (client.getState()) { ... }}.
+     * @return The {@link RemoteGameState} of the session.
+     */
+    public RemoteGameState getState() {
+        return state;
+    }
+
+    /**
+     * Sets the observer that is notified after every frame of the server, e. g. a view of the game. Should be set before {@link #open}.
+     * @param stateObserver The {@link RemoteStateObserver}, or null to remove it.
+     */
+    public void setStateObserver(RemoteStateObserver stateObserver) {
+        this.stateObserver = stateObserver;
+    }
+
+    /**
+     * Returns the time from sending a command until the first tick frame that acknowledges it was received.
+     * @return The {@link LatencyHistogram} of the command latency.
+     */
+    public LatencyHistogram getCommandLatency() {
+        return commandLatency;
+    }
+
+    /**
+     * Returns the number of bytes received from the server, including the length prefixes (but not the TCP/IP headers).
+     * @return The number of bytes.
+     */
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    public long getReceivedFrames() {
+        return receivedFrames;
+    }
+
+    public boolean isRejected() {
+        return isRejected;
+    }
+
+    /**
+     * Returns true, if the connection was closed by the client or the server (e. g. because the game is over).
+     * @return True, if the connection is closed.
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
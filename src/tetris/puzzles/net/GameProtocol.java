@@ -0,0 +1,116 @@
+package tetris.puzzles.net;
+
+/**
+ * This class defines the binary protocol between a {@link GameServer} and its {@link GameClient}s.
+ * <br>Every message is a frame: the length of the body as varint, followed by the body. The body starts with the type of the frame (one byte).
+ * Numbers are written as varints (7 bits per byte), numbers that can be negative are zigzag encoded first, so that small numbers need one byte
+ * in both directions. Arrays of tetrominoes and shapes are written as their number of rows and columns followed by the values, two per byte.
+ * <br>The client opens a game by {@link #CLIENT_OPEN}. The server answers with {@link #SERVER_HELLO} (or {@link #SERVER_REJECTED}, if a
+ * preference is outside the range of the settings panel or the {@link tetris.puzzles.host.GameHost} does not admit the session) and then sends one {@link #SERVER_TICK} frame per tick of the session.
+ * A tick frame only holds the changes since the last tick frame as a list of records:
+ * <ul>
+ *  <li>Before applying the records, the client moves every tetromino of the game grid down by the gravity of the HELLO frame,
+ *  just as the engine does. Thus, a falling tetromino that was not touched needs no record at all.</li>
+ *  <li>{@link #RECORD_SPAWN}: a new tetromino with its position (in logical units) and its array.</li>
+ *  <li>{@link #RECORD_MOVED}: a tetromino was moved by whole kacheln in addition to the gravity, e. g. by an input command.</li>
+ *  <li>{@link #RECORD_POSITION}: the new absolute position of a tetromino, if the change is not a multiple of a kachel.</li>
+ *  <li>{@link #RECORD_ARRAY}: a tetromino was turned or mirrored.</li>
+ *  <li>{@link #RECORD_PARKED}, {@link #RECORD_REMOVED}: a tetromino was moved into a parking spot or fitted into a shape.</li>
+ *  <li>{@link #RECORD_SHAPE}: the array of a shape changed (also used to send every shape with the first tick).</li>
+ *  <li>{@link #RECORD_SCORE}: the points and the number of completed shapes.</li>
+ *  <li>{@link #RECORD_ACK}: the sequence number of the last command of the client that was applied before this tick.</li>
+ * </ul>
+ * <br>The server keeps a few commands per client until the next tick and drops further ones, so a command that is never acknowledged was dropped.
+ * When the session is over, the server sends {@link #SERVER_GAME_OVER} and closes the connection.
+ * <br>The positions are sent in the same logical units as used by the {@link tetris.puzzles.tetromino.TetrominoDraw}
+ * ({@link tetris.puzzles.tetromino.TetrominoDraw#KACHEL_UNIT} units per kachel), so a client can paint them in any kachel size.
+ */
+public final class GameProtocol {
+
+    public static final int VERSION = 1;
+    public static final int DEFAULT_PORT = 7460;
+    public static final int MAX_FRAME_LENGTH = 1 << 16; //a frame of a usual game is smaller than 1 KB
+
+    //frames sent by the client
+    public static final int CLIENT_OPEN = 1;
+    public static final int CLIENT_MOVE = 2;
+    public static final int CLIENT_TURN = 3;
+    public static final int CLIENT_MIRROR = 4;
+    public static final int CLIENT_PARK = 5;
+    public static final int CLIENT_FILL = 6;
+
+    //frames sent by the server
+    public static final int SERVER_HELLO = 1;
+    public static final int SERVER_TICK = 2;
+    public static final int SERVER_REJECTED = 3;
+    public static final int SERVER_GAME_OVER = 4;
+
+    //records of a tick frame
+    public static final int RECORD_SPAWN = 1;
+    public static final int RECORD_MOVED = 2;
+    public static final int RECORD_POSITION = 3;
+    public static final int RECORD_ARRAY = 4;
+    public static final int RECORD_PARKED = 5;
+    public static final int RECORD_REMOVED = 6;
+    public static final int RECORD_SHAPE = 7;
+    public static final int RECORD_SCORE = 8;
+    public static final int RECORD_ACK = 9;
+
+    private GameProtocol() {
+        //only constants
+    }
+
+    /**
+     * Writes an array of a tetromino or a shape. The values must be between 0 and 15.
+     * @param writer The writer of the frame.
+     * @param array The array to write.
+     */
+    static void writeArray(FrameWriter writer, int[][] array) {
+        int rows = array.length;
+        int columns = rows == 0 ? 0 : array[0].length;
+        writer.writeVarInt(rows);
+        writer.writeVarInt(columns);
+        int pendingNibble = -1;
+        for (int[] row : array) {
+            for (int value : row) {
+                if (value < 0 || value > 15) {
+                    throw new IllegalArgumentException("Value " + value + " does not fit into a nibble");
+                }
+                if (pendingNibble < 0) {
+                    pendingNibble = value;
+                } else {
+                    writer.writeByte(pendingNibble << 4 | value);
+                    pendingNibble = -1;
+                }
+            }
+        }
+        if (pendingNibble >= 0) {
+            writer.writeByte(pendingNibble << 4);
+        }
+    }
+
+    /**
+     * Reads an array written by {@link #writeArray(FrameWriter, int[][])}.
+     * @param reader The reader of the frame.
+     * @return A new array.
+     */
+    static int[][] readArray(FrameReader reader) {
+        int rows = reader.readVarInt();
+        int columns = reader.readVarInt();
+        int[][] array = new int[rows][columns];
+        int currentByte = 0;
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if ((index & 1) == 0) {
+                    currentByte = reader.readByte();
+                    array[row][column] = currentByte >> 4;
+                } else {
+                    array[row][column] = currentByte & 0x0F;
+                }
+                index++;
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,250 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.host.GameHost;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class lets clients play the sessions of a {@link GameHost} over TCP by the {@link GameProtocol}.
+ * <br>All sockets are handled by one selector thread, which reads the commands of the clients and writes the frames that the sessions
+ * queued after their ticks. Thus, the server needs no thread per client and the ticks never wait for a socket.
+ * <br>The server only listens on the loopback address, as the protocol has no authentication.
+ * <br>Usage (the arguments are optional, shown with their default values):
+ * <pre>
+ * java -Djava.awt.headless=true -cp game/target/classes tetris.puzzles.net.GameServer port=7460 maxSessions=1000 threads=&lt;cores&gt; maxLateness=20
+ * </pre>
+ */
+public class GameServer {
+
+    final GameHost host;
+    private final int requestedPort;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean isRunning;
+
+    //connections that queued frames or have to be closed, handed over to the selector thread
+    private final ConcurrentLinkedQueue<ClientConnection> writeRequests = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<ClientConnection> closeRequests = new ConcurrentLinkedQueue<>();
+    private final HashMap<SocketChannel, ClientConnection> connections = new HashMap<>(); //only used by the selector thread
+
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final AtomicLong droppedSlowClients = new AtomicLong();
+    private final AtomicLong droppedCommands = new AtomicLong();
+
+    /**
+     * Constructs a new GameServer. The server does not listen until it is {@link #start() started}.
+     * @param host The host that runs the sessions of the clients.
+     * @param port The port to listen on, 0 to use any free port.
+     */
+    public GameServer(GameHost host, int port) {
+        this.host = host;
+        this.requestedPort = port;
+    }
+
+    /**
+     * Binds the port on the loopback address and starts the selector thread.
+     * @throws IOException If the port cannot be bound.
+     */
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        isRunning = true;
+        selectorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runSelectorLoop();
+            }
+        }, "game-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return The port, e. g. the free port chosen if the server was constructed with port 0.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops the selector thread and closes every connection. The host is not shut down.
+     */
+    public void shutdown() {
+        isRunning = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSelectorLoop() {
+        try {
+            while (isRunning) {
+                selector.select();
+                handleRequests();
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    ClientConnection connection = (ClientConnection) key.attachment();
+                    try {
+                        if (key.isReadable() && !connection.read()) {
+                            closeConnection(connection);
+                            continue;
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        //a broken or misbehaving client must not stop the server
+                        closeConnection(connection);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            for (ClientConnection connection : connections.values().toArray(new ClientConnection[0])) {
+                closeConnection(connection);
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true); //the frames are small and should be sent at once
+        ClientConnection connection = new ClientConnection(this, channel);
+        connection.selectionKey = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.put(channel, connection);
+        acceptedConnections.incrementAndGet();
+    }
+
+    private void handleRequests() {
+        ClientConnection connection;
+        while ((connection = closeRequests.poll()) != null) {
+            closeConnection(connection);
+        }
+        while ((connection = writeRequests.poll()) != null) {
+            //reset the flag before writing, so that a frame queued during the write requests the next write
+            connection.isWriteRequested.set(false);
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                closeConnection(connection);
+            }
+        }
+    }
+
+    private void flush(ClientConnection connection) throws IOException {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        boolean isEverythingWritten = connection.flush();
+        if (isEverythingWritten && connection.isClosingAfterFlush()) {
+            closeConnection(connection);
+        } else {
+            //only wait for the socket to become writable while frames are left
+            connection.selectionKey.interestOps(isEverythingWritten ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void closeConnection(ClientConnection connection) {
+        if (connections.remove(connection.channel) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Hands the connection over to the selector thread to write its queued frames. Can be called by every thread.
+     * @param connection The connection that queued frames.
+     */
+    void requestWrite(ClientConnection connection) {
+        writeRequests.offer(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Closes a connection whose client does not read the frames fast enough. Can be called by every thread.
+     * @param connection The connection.
+     */
+    void onDroppedCommand() {
+        droppedCommands.incrementAndGet();
+    }
+
+    void onSlowClient(ClientConnection connection) {
+        droppedSlowClients.incrementAndGet();
+        closeRequests.offer(connection);
+        selector.wakeup();
+    }
+
+    public long getNumberOfAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    public long getNumberOfDroppedSlowClients() {
+        return droppedSlowClients.get();
+    }
+
+    /**
+     * Returns the number of commands that were dropped, as their client already had {@link ClientConnection#MAX_PENDING_COMMANDS} commands waiting.
+     * @return The number of dropped commands of every client.
+     */
+    public long getNumberOfDroppedCommands() {
+        return droppedCommands.get();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+
+        GameHost host = new GameHost(Integer.parseInt(arguments.getOrDefault("maxSessions", "1000")),
+                Integer.parseInt(arguments.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Long.parseLong(arguments.getOrDefault("maxLateness", "20")));
+        GameServer server = new GameServer(host, Integer.parseInt(arguments.getOrDefault("port", String.valueOf(GameProtocol.DEFAULT_PORT))));
+        server.start();
+        System.out.println("Listening on " + server.serverChannel.getLocalAddress());
+        server.selectorThread.join();
+    }
+}
@@ -0,0 +1,167 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.host.GameHost;
+import tetris.puzzles.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class connects many {@link GameClient}s to a {@link GameServer} and sends random input commands, in order to measure the bandwidth
+ * of the state sync per session and the end-to-end latency of the commands.
+ * <br>Without {@code port}, a {@link GameHost} and a server are started in the same JVM on a free port. With {@code port}, the clients
+ * connect to a server that is already running on the loopback address (see {@link GameServer#main(String[])}).
+ * <br>Usage (the arguments are optional, shown with their default values):
+ * <pre>
+ * java -Djava.awt.headless=true -cp game/target/classes tetris.puzzles.net.LoadGenerator \
+ *      clients=100 seconds=10 commands=5 bot=true threads=&lt;cores&gt; seed=0 k=4 stones=4 shapes=4 colors=4 velocity=MEDIUM
+ * </pre>
+ * {@code commands} is the number of commands per second and client, each one moves, turns or mirrors a random tetromino of the game grid.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+        //only static methods
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        HashMap<String, String> arguments = new HashMap<>();
+        for (String argument : args) {
+            String[] keyAndValue = argument.split("=", 2);
+            arguments.put(keyAndValue[0], keyAndValue.length > 1 ? keyAndValue[1] : "true");
+        }
+
+        int numberOfClients = Integer.parseInt(arguments.getOrDefault("clients", "100"));
+        long seconds = Long.parseLong(arguments.getOrDefault("seconds", "10"));
+        double commandsPerSecond = Double.parseDouble(arguments.getOrDefault("commands", "5"));
+        boolean isBotPlaying = Boolean.parseBoolean(arguments.getOrDefault("bot", "true"));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+
+        UserPreferences userPreferences = new UserPreferences();
+        userPreferences.setNumberOfKachelnInTetromino(Integer.parseInt(arguments.getOrDefault("k", "4")));
+        userPreferences.setNumberOfNewAppearingStones(Integer.parseInt(arguments.getOrDefault("stones", "4")));
+        userPreferences.setNumberOfShapes(Integer.parseInt(arguments.getOrDefault("shapes", "4")));
+        userPreferences.setAmountOfColors(Integer.parseInt(arguments.getOrDefault("colors", "4")));
+        userPreferences.setVelocity(FallingVelocity.valueOf(arguments.getOrDefault("velocity", "MEDIUM").toUpperCase(Locale.ROOT)));
+
+        GameHost host = null;
+        GameServer server = null;
+        int port;
+        if (arguments.containsKey("port")) {
+            port = Integer.parseInt(arguments.get("port"));
+        } else {
+            int threads = Integer.parseInt(arguments.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            host = new GameHost(numberOfClients, threads, 1000);
+            server = new GameServer(host, 0);
+            server.start();
+            port = server.getPort();
+        }
+
+        ArrayList<GameClient> clients = new ArrayList<>();
+        for (int i = 0; i < numberOfClients; i++) {
+            GameClient client = new GameClient("localhost", port);
+            client.open(userPreferences, seed + i, isBotPlaying);
+            clients.add(client);
+        }
+
+        ScheduledExecutorService commandExecutor = Executors.newSingleThreadScheduledExecutor();
+        Random random = new Random(seed);
+        if (commandsPerSecond > 0) {
+            long periodNanos = Math.round(1e9 / (commandsPerSecond * numberOfClients));
+            commandExecutor.scheduleAtFixedRate(new Runnable() {
+                int nextClient;
+
+                @Override
+                public void run() {
+                    GameClient client = clients.get(nextClient);
+                    nextClient = (nextClient + 1) % clients.size();
+                    sendRandomCommand(client, random);
+                }
+            }, 0, Math.max(periodNanos, 1), TimeUnit.NANOSECONDS);
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        commandExecutor.shutdownNow();
+
+        long receivedBytes = 0;
+        long receivedFrames = 0;
+        int rejected = 0;
+        int gamesOver = 0;
+        LatencyHistogram latency = new LatencyHistogram("command to ack");
+        for (GameClient client : clients) {
+            receivedBytes += client.getReceivedBytes();
+            receivedFrames += client.getReceivedFrames();
+            if (client.isRejected()) {
+                rejected++;
+            }
+            synchronized (client.getState()) {
+                if (client.getState().isGameOver()) {
+                    gamesOver++;
+                }
+            }
+            latency.add(client.getCommandLatency());
+            client.close();
+        }
+        long droppedCommands = 0;
+        if (server != null) {
+            droppedCommands = server.getNumberOfDroppedCommands();
+            server.shutdown();
+            host.shutdown();
+        }
+
+        int sessions = Math.max(numberOfClients - rejected, 1);
+        System.out.printf(Locale.ROOT, "%d clients (%d rejected, %d games over) in %.1f s%n", numberOfClients, rejected, gamesOver, elapsedSeconds);
+        System.out.printf(Locale.ROOT, "received   %.0f bytes/sec per session, %.1f frames/sec per session, %.1f bytes per frame%n",
+                receivedBytes / elapsedSeconds / sessions, receivedFrames / elapsedSeconds / sessions,
+                receivedFrames == 0 ? 0.0 : (double) receivedBytes / receivedFrames);
+        System.out.printf(Locale.ROOT, "latency    %d commands, p50 %.2f ms, p99 %.2f ms, max %.2f ms (command sent until acknowledged by a tick frame)%n",
+                latency.getCount(), latency.getP50Micros() / 1000, latency.getP99Micros() / 1000, latency.getMaxMicros() / 1000);
+        if (server != null) {
+            System.out.printf(Locale.ROOT, "dropped    %d commands (more than %d commands of a client waiting for a tick)%n",
+                    droppedCommands, ClientConnection.MAX_PENDING_COMMANDS);
+        }
+    }
+
+    private static void sendRandomCommand(GameClient client, Random random) {
+        int pieceId = -1;
+        synchronized (client.getState()) {
+            List<RemoteGameState.Piece> piecesInGrid = client.getState().getPiecesInGrid();
+            if (!piecesInGrid.isEmpty()) {
+                pieceId = piecesInGrid.get(random.nextInt(piecesInGrid.size())).getId();
+            }
+        }
+        if (pieceId < 0 || client.isClosed()) {
+            return;
+        }
+
+        try {
+            switch (random.nextInt(4)) {
+                case 0:
+                    client.move(pieceId, random.nextBoolean() ? 1 : -1, 0);
+                    break;
+                case 1:
+                    client.move(pieceId, 0, 1);
+                    break;
+                case 2:
+                    client.turn(pieceId, random.nextBoolean());
+                    break;
+                default:
+                    client.mirror(pieceId, random.nextBoolean());
+                    break;
+            }
+        } catch (IOException e) {
+            client.close(); //the server closed the connection, e. g. because the game is over
+        }
+    }
+}
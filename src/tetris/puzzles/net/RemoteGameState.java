@@ -0,0 +1,239 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.tetromino.TetrominoDraw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * This class holds the state of a game as received by a {@link GameClient}, i. e. the client side mirror of the {@link tetris.puzzles.engine.GameEngine}
+ * of the session. It is built from the HELLO frame and changed by every tick frame (see {@link GameProtocol}).
+ * <br>The positions are in logical units, so a view paints the pieces in the same way as the {@link tetris.puzzles.game.GameGrid} paints its tetrominoes,
+ * see {@link tetris.puzzles.game.RemoteGamePanel}.
+ * <br>Instances are not thread-safe, the {@link GameClient} only changes them while holding their lock.
+ */
+public class RemoteGameState {
+
+    /**
+     * A tetromino of the remote game.
+     */
+    public static class Piece {
+        final int id;
+        int logicalX;
+        int logicalY;
+        int[][] array;
+        int parkingSpotIndex = -1;
+
+        Piece(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getLogicalX() {
+            return logicalX;
+        }
+
+        public int getLogicalY() {
+            return logicalY;
+        }
+
+        /**
+         * Returns the array of the tetromino. The array must not be changed.
+         * @return The internal array of the tetromino.
+         */
+        public int[][] getArray() {
+            return array;
+        }
+
+        public int getParkingSpotIndex() {
+            return parkingSpotIndex;
+        }
+
+        public boolean isParked() {
+            return parkingSpotIndex >= 0;
+        }
+    }
+
+    long sessionId;
+    int gridWidthInKacheln;
+    int gridHeightInKacheln;
+    int numberOfKachelnInStone;
+    int translatedUnitsPerMovement;
+    int numberOfParkingSpots;
+    int[][][] shapes = new int[0][][];
+
+    final TreeMap<Integer, Piece> pieces = new TreeMap<>(); //sorted by id, i. e. in the order of creation as in the engine
+    long ticks;
+    int points;
+    int completedShapes;
+    int acknowledgedSequence;
+    boolean isGameOver;
+
+    void applyHello(FrameReader reader) {
+        int version = reader.readVarInt();
+        if (version != GameProtocol.VERSION) {
+            throw new IllegalStateException("Unsupported protocol version " + version);
+        }
+        sessionId = reader.readVarLong();
+        gridWidthInKacheln = reader.readVarInt();
+        gridHeightInKacheln = reader.readVarInt();
+        numberOfKachelnInStone = reader.readVarInt();
+        translatedUnitsPerMovement = reader.readVarInt();
+        numberOfParkingSpots = reader.readVarInt();
+        shapes = new int[reader.readVarInt()][][];
+    }
+
+    void applyTick(FrameReader reader) {
+        ticks = reader.readVarLong();
+        for (Piece piece : pieces.values()) {
+            if (!piece.isParked()) {
+                piece.logicalY += translatedUnitsPerMovement;
+            }
+        }
+
+        while (reader.hasRemaining()) {
+            int record = reader.readByte();
+            switch (record) {
+                case GameProtocol.RECORD_SPAWN: {
+                    Piece piece = new Piece(reader.readVarInt());
+                    piece.logicalX = reader.readZigZag();
+                    piece.logicalY = reader.readZigZag();
+                    piece.array = GameProtocol.readArray(reader);
+                    pieces.put(piece.id, piece);
+                    break;
+                }
+                case GameProtocol.RECORD_MOVED: {
+                    Piece piece = getExistingPiece(reader.readVarInt());
+                    piece.logicalX += reader.readZigZag() * TetrominoDraw.KACHEL_UNIT;
+                    piece.logicalY += reader.readZigZag() * TetrominoDraw.KACHEL_UNIT;
+                    break;
+                }
+                case GameProtocol.RECORD_POSITION: {
+                    Piece piece = getExistingPiece(reader.readVarInt());
+                    piece.logicalX = reader.readZigZag();
+                    piece.logicalY = reader.readZigZag();
+                    break;
+                }
+                case GameProtocol.RECORD_ARRAY:
+                    getExistingPiece(reader.readVarInt()).array = GameProtocol.readArray(reader);
+                    break;
+                case GameProtocol.RECORD_PARKED: {
+                    Piece piece = getExistingPiece(reader.readVarInt());
+                    piece.parkingSpotIndex = reader.readVarInt();
+                    break;
+                }
+                case GameProtocol.RECORD_REMOVED:
+                    pieces.remove(reader.readVarInt());
+                    break;
+                case GameProtocol.RECORD_SHAPE: {
+                    int index = reader.readVarInt();
+                    shapes[index] = GameProtocol.readArray(reader);
+                    break;
+                }
+                case GameProtocol.RECORD_SCORE:
+                    points = reader.readVarInt();
+                    completedShapes = reader.readVarInt();
+                    break;
+                case GameProtocol.RECORD_ACK:
+                    acknowledgedSequence = reader.readVarInt();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown record " + record);
+            }
+        }
+    }
+
+    private Piece getExistingPiece(int id) {
+        Piece piece = pieces.get(id);
+        if (piece == null) {
+            throw new IllegalStateException("Unknown piece " + id);
+        }
+        return piece;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public int getGridWidthInKacheln() {
+        return gridWidthInKacheln;
+    }
+
+    public int getGridHeightInKacheln() {
+        return gridHeightInKacheln;
+    }
+
+    public int getNumberOfKachelnInStone() {
+        return numberOfKachelnInStone;
+    }
+
+    public int getNumberOfParkingSpots() {
+        return numberOfParkingSpots;
+    }
+
+    /**
+     * Returns the tetrominoes falling in the game grid.
+     * @return A new list of the pieces that are not parked, sorted by their id.
+     */
+    public List<Piece> getPiecesInGrid() {
+        ArrayList<Piece> piecesInGrid = new ArrayList<>();
+        for (Piece piece : pieces.values()) {
+            if (!piece.isParked()) {
+                piecesInGrid.add(piece);
+            }
+        }
+        return piecesInGrid;
+    }
+
+    /**
+     * Returns the tetrominoes in the parking spots.
+     * @return A new array, a free parking spot is null.
+     */
+    public Piece[] getParkingSpots() {
+        Piece[] parkingSpots = new Piece[numberOfParkingSpots];
+        for (Piece piece : pieces.values()) {
+            if (piece.isParked()) {
+                parkingSpots[piece.parkingSpotIndex] = piece;
+            }
+        }
+        return parkingSpots;
+    }
+
+    /**
+     * Returns the arrays of the shapes (see {@link tetris.puzzles.engine.ShapeFitter} for the meaning of the values). The arrays must not be changed.
+     * @return An unmodifiable list of the shape arrays.
+     */
+    public List<int[][]> getShapes() {
+        return Collections.unmodifiableList(Arrays.asList(shapes));
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCompletedShapes() {
+        return completedShapes;
+    }
+
+    /**
+     * Returns the sequence number of the last command of the client that the server applied.
+     * @return The sequence number, 0 if no command was applied yet.
+     */
+    public int getAcknowledgedSequence() {
+        return acknowledgedSequence;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+}
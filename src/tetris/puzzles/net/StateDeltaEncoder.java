@@ -0,0 +1,179 @@
+package tetris.puzzles.net;
+
+import tetris.puzzles.engine.EnginePiece;
+import tetris.puzzles.engine.EngineShape;
+import tetris.puzzles.engine.GameEngine;
+import tetris.puzzles.engine.ShapeFitter;
+import tetris.puzzles.tetromino.TetrominoDraw;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class encodes the state of a {@link GameEngine} as frames of the {@link GameProtocol}. It remembers the state it sent last
+ * (i. e. the state of the {@link RemoteGameState} of the client) and only encodes the differences, so a tick in which the tetrominoes only fell
+ * needs a frame of a few bytes.
+ * <br>One encoder belongs to one connection and must only be used by the thread that ticks the session.
+ */
+public class StateDeltaEncoder {
+
+    private static final int UNIT = TetrominoDraw.KACHEL_UNIT;
+
+    /**
+     * The state of a tetromino as known by the client.
+     */
+    private static class SentPiece {
+        int logicalX;
+        int logicalY;
+        int[][] array;
+        int parkingSpotIndex;
+        long seenInFrame;
+    }
+
+    private final FrameWriter writer = new FrameWriter();
+    private final HashMap<Integer, SentPiece> sentPieces = new HashMap<>();
+    private int[][][] sentShapes;
+    private int sentPoints;
+    private int sentCompletedShapes;
+    private int sentAcknowledgedSequence;
+    private long frames;
+
+    /**
+     * Encodes the HELLO frame, which must be sent before the first tick frame.
+     * @param sessionId The id of the session.
+     * @param engine The engine of the session.
+     * @return The frame.
+     */
+    public byte[] encodeHello(long sessionId, GameEngine engine) {
+        sentShapes = new int[engine.getShapes().size()][][];
+        writer.beginFrame(GameProtocol.SERVER_HELLO);
+        writer.writeVarInt(GameProtocol.VERSION);
+        writer.writeVarLong(sessionId);
+        writer.writeVarInt(engine.getGridWidthInKacheln());
+        writer.writeVarInt(engine.getGridHeightInKacheln());
+        writer.writeVarInt(engine.getUserPreferences().getNumberOfKachelnInStone());
+        writer.writeVarInt(engine.getTranslatedUnitsPerMovement());
+        writer.writeVarInt(engine.getParkingSpots().length);
+        writer.writeVarInt(sentShapes.length);
+        return writer.finishFrame();
+    }
+
+    /**
+     * Encodes the changes of the engine since the last tick frame.
+     * @param engine The engine of the session, after its tick.
+     * @param acknowledgedSequence The sequence number of the last command of the client that was applied.
+     * @return The frame.
+     */
+    public byte[] encodeTick(GameEngine engine, int acknowledgedSequence) {
+        frames++;
+        writer.beginFrame(GameProtocol.SERVER_TICK);
+        writer.writeVarLong(engine.getTicks());
+
+        int gravity = engine.getTranslatedUnitsPerMovement();
+        List<EnginePiece> piecesInGrid = engine.getPiecesInGrid();
+        for (int i = 0; i < piecesInGrid.size(); i++) {
+            encodePiece(piecesInGrid.get(i), gravity);
+        }
+        EnginePiece[] parkingSpots = engine.getParkingSpots();
+        for (EnginePiece piece : parkingSpots) {
+            if (piece != null) {
+                encodePiece(piece, gravity);
+            }
+        }
+
+        //every piece that was not seen in this frame was fitted into a shape
+        Iterator<Map.Entry<Integer, SentPiece>> iterator = sentPieces.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, SentPiece> entry = iterator.next();
+            if (entry.getValue().seenInFrame != frames) {
+                iterator.remove();
+                writer.writeByte(GameProtocol.RECORD_REMOVED);
+                writer.writeVarInt(entry.getKey());
+            }
+        }
+
+        List<EngineShape> shapes = engine.getShapes();
+        for (int i = 0; i < shapes.size(); i++) {
+            int[][] shapeArray = shapes.get(i).getShapeArray();
+            if (!Arrays.deepEquals(sentShapes[i], shapeArray)) {
+                sentShapes[i] = ShapeFitter.deepCopyArray(shapeArray);
+                writer.writeByte(GameProtocol.RECORD_SHAPE);
+                writer.writeVarInt(i);
+                GameProtocol.writeArray(writer, shapeArray);
+            }
+        }
+
+        if (engine.getPoints() != sentPoints || engine.getCompletedShapes() != sentCompletedShapes) {
+            sentPoints = engine.getPoints();
+            sentCompletedShapes = engine.getCompletedShapes();
+            writer.writeByte(GameProtocol.RECORD_SCORE);
+            writer.writeVarInt(sentPoints);
+            writer.writeVarInt(sentCompletedShapes);
+        }
+
+        if (acknowledgedSequence != sentAcknowledgedSequence) {
+            sentAcknowledgedSequence = acknowledgedSequence;
+            writer.writeByte(GameProtocol.RECORD_ACK);
+            writer.writeVarInt(acknowledgedSequence);
+        }
+        return writer.finishFrame();
+    }
+
+    private void encodePiece(EnginePiece piece, int gravity) {
+        int id = piece.getId();
+        int[][] array = piece.getInternalArray();
+        SentPiece sentPiece = sentPieces.get(id);
+        if (sentPiece == null) {
+            sentPiece = new SentPiece();
+            sentPiece.logicalX = piece.getLogicalX();
+            sentPiece.logicalY = piece.getLogicalY();
+            sentPiece.array = ShapeFitter.deepCopyArray(array);
+            sentPiece.parkingSpotIndex = -1;
+            sentPieces.put(id, sentPiece);
+
+            writer.writeByte(GameProtocol.RECORD_SPAWN);
+            writer.writeVarInt(id);
+            writer.writeZigZag(sentPiece.logicalX);
+            writer.writeZigZag(sentPiece.logicalY);
+            GameProtocol.writeArray(writer, array);
+        } else {
+            //the client already moved the piece by the gravity, so only the difference to the predicted position is sent
+            int predictedY = sentPiece.parkingSpotIndex < 0 ? sentPiece.logicalY + gravity : sentPiece.logicalY;
+            int dx = piece.getLogicalX() - sentPiece.logicalX;
+            int dy = piece.getLogicalY() - predictedY;
+            if (dx != 0 || dy != 0) {
+                if (dx % UNIT == 0 && dy % UNIT == 0) {
+                    writer.writeByte(GameProtocol.RECORD_MOVED);
+                    writer.writeVarInt(id);
+                    writer.writeZigZag(dx / UNIT);
+                    writer.writeZigZag(dy / UNIT);
+                } else {
+                    writer.writeByte(GameProtocol.RECORD_POSITION);
+                    writer.writeVarInt(id);
+                    writer.writeZigZag(piece.getLogicalX());
+                    writer.writeZigZag(piece.getLogicalY());
+                }
+            }
+            sentPiece.logicalX = piece.getLogicalX();
+            sentPiece.logicalY = piece.getLogicalY();
+
+            if (!Arrays.deepEquals(sentPiece.array, array)) {
+                sentPiece.array = ShapeFitter.deepCopyArray(array);
+                writer.writeByte(GameProtocol.RECORD_ARRAY);
+                writer.writeVarInt(id);
+                GameProtocol.writeArray(writer, array);
+            }
+        }
+
+        if (piece.getParkingSpotIndex() != sentPiece.parkingSpotIndex) {
+            sentPiece.parkingSpotIndex = piece.getParkingSpotIndex();
+            writer.writeByte(GameProtocol.RECORD_PARKED);
+            writer.writeVarInt(id);
+            writer.writeVarInt(sentPiece.parkingSpotIndex);
+        }
+        sentPiece.seenInFrame = frames;
+    }
+}
@@ -1,12 +1,11 @@
 package tetris.puzzles.tetromino;
 
-import tetris.puzzles.datamodels.Line;
+import tetris.puzzles.animation.AnimationTimeline;
+import tetris.puzzles.animation.Tween;
 import tetris.puzzles.game.Shape;
 import tetris.puzzles.interfaces.SizeObserver;
 
 import java.awt.*;
-import java.awt.geom.GeneralPath;
-import java.util.ArrayList;
 
 /**
  * This class extends {@link TetrominoDraw} and adds more functionality.
@@ -15,6 +14,10 @@ import java.util.ArrayList;
  */
 public class ShapeDraw extends TetrominoDraw {
 
+    public static final int FADE_OUT_DURATION_IN_MILLIS = 510;
+
+    Tween fadeOutAnimation;
+
     public ShapeDraw(int[][] internalArray, Point startCoordinates, SizeObserver sizeObserver) {
         super(internalArray, startCoordinates, null, sizeObserver, null);
         setColor(0, Color.WHITE); //set white color for outer shape
@@ -25,32 +28,23 @@ public class ShapeDraw extends TetrominoDraw {
     }
 
     /**
-     * Starts the FadeOutAnimation of the shape.
+     * Starts the FadeOutAnimation of the shape on the shared {@link AnimationTimeline}.
+     * Only the alpha changes during the fade, so the frames do not create new snapshots but fade the last published one (see {@link Shape#publishFadeFrame(int)}).
+     * A fade out that is still running is cancelled without notifying its shape.
      * @param shape A {@link Shape} object that should be notified, if the animation finished.
      */
     public void startFadeOutAnimation(Shape shape) {
-        Thread alphaAnimation = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (alpha > 0) {
-                    alpha -= 5;
-                    shape.repaint();
-
-                    try {
-                        Thread.sleep(10);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-
-                }
-
-                //if fade out is complete, notify Shape
-                shape.onFadeOutAnimationFinished();
+        if (fadeOutAnimation != null) {
+            fadeOutAnimation.cancel();
+        }
 
-            }
+        fadeOutAnimation = new Tween(alpha, 0, FADE_OUT_DURATION_IN_MILLIS, value -> {
+            alpha = Math.round(value);
+            shape.publishFadeFrame(alpha);
         });
-        alphaAnimation.start();
-
+        //if fade out is complete, notify Shape (on the event dispatch thread)
+        fadeOutAnimation.setOnFinished(shape::onFadeOutAnimationFinished);
+        AnimationTimeline.getDefault().start(fadeOutAnimation);
     }
 
     public void resetAlpha() {
@@ -67,24 +61,29 @@ public class ShapeDraw extends TetrominoDraw {
         colorArray[index] = color;
     }
 
-    // Need to override this method, as shape needs to draw a intersecting path that confuse the path creating.
-    // This could happen if one tetromino is already fitted into the shape and cuts the path of the outer shape, so that two forms are created and thus, the path ignores some lines.
-    @Override
-    public GeneralPath getPathOutOfLines(ArrayList<Line> shapeLines) {
-        GeneralPath path = new GeneralPath();
-
-        for (Line line : shapeLines) {
-            path.moveTo(line.x0, line.y0);
-            path.lineTo(line.x1, line.y1);
-        }
-
-        return path;
+    /**
+     * Returns tetromino's color.
+     *
+     * @param index The index of the added tetromino, starting with 1.
+     * @return The color of the tetromino at the specified index, null if no tetromino was added at this index yet.
+     */
+    public Color getColor(int index) {
+        return colorArray[index];
     }
 
+    /**
+     * The array of a shape is changed in place whenever a tetromino is fitted into it, so the geometry is calculated on every call instead of being cached.
+     */
     @Override
-    public Color getAnimationColor(Color color) {
-        return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+    TetrominoGeometry getGeometry() {
+        return TetrominoGeometry.create(internalArray);
     }
 
+    // A shape needs to draw an intersecting path that confuses the polygons.
+    // This could happen if one tetromino is already fitted into the shape and cuts the path of the outer shape, so that two forms are created and thus, the polygons ignore some lines.
+    @Override
+    boolean isOutlineDrawnAsLines() {
+        return true;
+    }
 
 }
@@ -1,37 +1,45 @@
 package tetris.puzzles.tetromino;
 
-import tetris.puzzles.datamodels.Line;
 import tetris.puzzles.datamodels.UserPreferences;
 import tetris.puzzles.interfaces.SizeObserver;
 import tetris.puzzles.interfaces.TetrominoObserver;
+import tetris.puzzles.metrics.CollisionCheckEvent;
+import tetris.puzzles.metrics.GameMetrics;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 /**
  * This class extends {@link TetrominoArray} and adds more functionality.
  * While {@link TetrominoArray} only handles the internal array manipulation,
  * this class is also responsible for drawing and positioning the tetromino on the screen.
+ * <br>The position of the tetromino is saved in logical coordinates, i. e. in fixed-point kachel units
+ * ({@link #KACHEL_UNIT} units are one kachel). Only when drawing or comparing with pixel borders, the position is transformed
+ * into pixels by the current kachel size of the {@link SizeObserver}. Thus, a change of the kachel size does not need
+ * to touch the position and repeated resizes do not let the position drift.
+ * <br>The kacheln and the outline are not calculated by every tetromino, but taken from the shared {@link TetrominoGeometry} of its
+ * current orientation. Thus, a tetromino only holds its position, color and selection and can be reused by a {@link TetrominoPool}.
  */
 public class TetrominoDraw extends TetrominoArray {
 
     public static final int TETROMINO_PATH_STORKE = 2;
-    Point startCoordinates;
-    Point endCoordinates;
+    public static final int KACHEL_UNIT = 1 << 8; //logical units per kachel, fine enough to move a kachel of up to 256 px by single pixels
+
+    static final Color[] COLOR_PALETTE = new Color[]{Color.RED, Color.GREEN, Color.ORANGE, Color.BLUE, Color.CYAN};
+    static final Stroke OUTLINE_STROKE = new BasicStroke(TETROMINO_PATH_STORKE);
+
+    int logicalX; //upper left corner of the matrix in logical units
+    int logicalY;
     Color[] colorArray = new Color[3];
 
     int alpha = 255;
 
     boolean isSelected;
 
-    GeneralPath path;
-
-    ArrayList<Point> shapePoints;
+    TetrominoGeometry geometry;
+    int[][] arrayOfGeometry; //the internal array the geometry was taken for, turning and mirroring replace the internal array
 
     SizeObserver sizeObserver;
     TetrominoObserver tetrominoObserver;
@@ -46,17 +54,13 @@ public class TetrominoDraw extends TetrominoArray {
      */
     public TetrominoDraw(int[][] internalArray, Point startCoordinates, TetrominoObserver tetrominoObserver, SizeObserver sizeObserver, UserPreferences userPreferences) {
         super(internalArray);
-        this.startCoordinates = startCoordinates;
         this.tetrominoObserver = tetrominoObserver;
         this.sizeObserver = sizeObserver;
+        setStartCoordinates(startCoordinates);
 
         if (userPreferences != null) {
             colorArray[0] = getRandomColor(userPreferences.getAmountOfColors());
         }
-
-
-        shapePoints = new ArrayList<>();
-
     }
 
     public TetrominoDraw(int[][] internalArray, TetrominoObserver tetrominoObserver, SizeObserver sizeObserver, UserPreferences userPreferences) {
@@ -67,17 +71,59 @@ public class TetrominoDraw extends TetrominoArray {
         this(tetrominoArray.getInternalArray(), new Point(0, 0), tetrominoObserver, sizeObserver, userPreferences);
     }
 
-    private Color getRandomColor(int colorAmount) {
-        Color[] colorPalette = new Color[]{Color.RED, Color.GREEN, Color.ORANGE, Color.BLUE, Color.CYAN};
+    /**
+     * Returns a color of the palette the tetrominoes are colored with.
+     * @param index Any number, it is wrapped around the size of the palette.
+     * @return The color of the palette at the index.
+     */
+    public static Color getPaletteColor(int index) {
+        return COLOR_PALETTE[Math.floorMod(index, COLOR_PALETTE.length)];
+    }
 
-        Random random = new Random();
-        int randomIndex = random.nextInt(colorAmount);
+    private Color getRandomColor(int colorAmount) {
+        int randomIndex = ThreadLocalRandom.current().nextInt(colorAmount);
+        return COLOR_PALETTE[randomIndex];
+    }
 
-        return colorPalette[randomIndex];
+    /**
+     * Resets this tetromino, so that it can be used as a new tetromino with the given array. Used by the {@link TetrominoPool}.
+     * The observers are kept, the position is set to (0, 0) and the tetromino gets a new random color.
+     * @param internalArray The internal array of the new tetromino, with the same k as before.
+     * @param userPreferences The {@link UserPreferences} in order to determine how many colors should be used.
+     */
+    void reset(int[][] internalArray, UserPreferences userPreferences) {
+        updateInternalArray(internalArray);
+        logicalX = 0;
+        logicalY = 0;
+        alpha = 255;
+        isSelected = false;
+        colorArray[0] = getRandomColor(userPreferences.getAmountOfColors());
     }
 
     public void updateInternalArray(int[][] newArray) {
         this.internalArray = newArray;
+        super.stein = newArray;
+    }
+
+    /**
+     * Moves the tetromino array to the minimal embedding. As the array is changed in place, the geometry has to be looked up again.
+     */
+    @Override
+    public void moveToMinimalEmbedding() {
+        super.moveToMinimalEmbedding();
+        arrayOfGeometry = null;
+    }
+
+    /**
+     * Returns the geometry of the current orientation. It is only looked up again if the internal array was replaced (e. g. by turning or mirroring).
+     * @return The shared {@link TetrominoGeometry} of the internal array.
+     */
+    TetrominoGeometry getGeometry() {
+        if (internalArray != arrayOfGeometry) {
+            geometry = TetrominoGeometry.of(internalArray);
+            arrayOfGeometry = internalArray;
+        }
+        return geometry;
     }
 
     public void setSelected(boolean isSelected) {
@@ -88,12 +134,61 @@ public class TetrominoDraw extends TetrominoArray {
         return isSelected;
     }
 
+    /**
+     * Converts a length in pixels into logical units for the given kachel size.
+     * @param px The length in pixels
+     * @param kachelSize The length of a kachel in pixels
+     * @return The (rounded) length in logical units
+     */
+    public static int pixelToLogical(float px, int kachelSize) {
+        return Math.round(px * KACHEL_UNIT / Math.max(kachelSize, 1));
+    }
+
+    /**
+     * Converts a length in logical units into pixels for the given kachel size. This is the view transform applied at render time.
+     * @param logical The length in logical units
+     * @param kachelSize The length of a kachel in pixels
+     * @return The (rounded) length in pixels
+     */
+    public static int logicalToPixel(int logical, int kachelSize) {
+        return Math.floorDiv(logical * kachelSize + KACHEL_UNIT / 2, KACHEL_UNIT);
+    }
+
+    /**
+     * Sets the upper left point of the tetromino's matrix.
+     * @param newCoordinates The new coordinates in pixels, they are converted into logical units using the current kachel size.
+     */
     public void setStartCoordinates(Point newCoordinates) {
-        startCoordinates = newCoordinates;
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        logicalX = pixelToLogical(newCoordinates.x, kachelSize);
+        logicalY = pixelToLogical(newCoordinates.y, kachelSize);
     }
 
+    /**
+     * Returns the upper left point of the tetromino's matrix for the current kachel size.
+     * @return A new Point with the coordinates in pixels.
+     */
     public Point getStartCoordinates() {
-        return startCoordinates;
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        return new Point(logicalToPixel(logicalX, kachelSize), logicalToPixel(logicalY, kachelSize));
+    }
+
+    /**
+     * Sets the upper left point of the tetromino's matrix in logical units, e. g. to restore a saved tetromino independent of the current kachel size.
+     * @param logicalX The x coordinate in logical units.
+     * @param logicalY The y coordinate in logical units.
+     */
+    public void setLogicalCoordinates(int logicalX, int logicalY) {
+        this.logicalX = logicalX;
+        this.logicalY = logicalY;
+    }
+
+    public int getLogicalX() {
+        return logicalX;
+    }
+
+    public int getLogicalY() {
+        return logicalY;
     }
 
     /**
@@ -157,13 +252,43 @@ public class TetrominoDraw extends TetrominoArray {
      * @param bottom The bottom border of the panel where the tetromino is embedded.
      */
     public void translateInPx(float dx, float dy, int bottom) {
-        startCoordinates.setLocation(startCoordinates.x + dx, startCoordinates.y + dy);
+        translateInPx(dx, dy);
+        checkForGameOver(bottom);
+    }
+
+    /**
+     * Moves the tetromino without any validation and without checking for a game over, e. g. to adapt the position to a new layout.
+     * @param dx Relative coordinates to move on the x axis.
+     * @param dy Relative coordinates to move on the y axis.
+     */
+    public void translateInPx(float dx, float dy) {
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        translateInLogicalUnits(pixelToLogical(dx, kachelSize), pixelToLogical(dy, kachelSize));
+    }
+
+    /**
+     * Moves the tetromino by logical units without any validation and without checking for a game over.
+     * @param dx Relative logical units to move on the x axis ({@link #KACHEL_UNIT} units are one kachel).
+     * @param dy Relative logical units to move on the y axis.
+     */
+    public void translateInLogicalUnits(int dx, int dy) {
+        logicalX += dx;
+        logicalY += dy;
+    }
+
+    /**
+     * Moves the tetromino by logical units without any validation (i. e. no borders are crossed), but checks for a game over.
+     * @param dx Relative logical units to move on the x axis ({@link #KACHEL_UNIT} units are one kachel).
+     * @param dy Relative logical units to move on the y axis.
+     * @param bottom The bottom border of the panel where the tetromino is embedded.
+     */
+    public void translateInLogicalUnits(int dx, int dy, int bottom) {
+        translateInLogicalUnits(dx, dy);
         checkForGameOver(bottom);
     }
 
     public void translateInKachelUnitWithValidation(int dx, int dy, int left, int top, int right, int bottom, ArrayList<TetrominoDraw> otherTetrominosInGrid, boolean checkForGameOver) {
-        int kachelLength = sizeObserver.getTetrominoKachelSize();
-        translateInPxWithValidation(dx * kachelLength, dy * kachelLength, left, top, right, bottom, otherTetrominosInGrid, checkForGameOver);
+        translateInLogicalUnitsWithValidation(dx * KACHEL_UNIT, dy * KACHEL_UNIT, left, top, right, bottom, otherTetrominosInGrid, checkForGameOver);
     }
 
     /**
@@ -177,11 +302,16 @@ public class TetrominoDraw extends TetrominoArray {
      * @param otherTetrominosInGrid An ArrayList of other {@link TetrominoDraw} objects that are embedded in the same panel.
      */
     public void translateInPxWithValidation(int dx, int dy, int left, int top, int right, int bottom, ArrayList<TetrominoDraw> otherTetrominosInGrid, boolean checkForGameOver) {
-        startCoordinates.setLocation(startCoordinates.x + dx, startCoordinates.y + dy);
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        translateInLogicalUnitsWithValidation(pixelToLogical(dx, kachelSize), pixelToLogical(dy, kachelSize), left, top, right, bottom, otherTetrominosInGrid, checkForGameOver);
+    }
+
+    private void translateInLogicalUnitsWithValidation(int dx, int dy, int left, int top, int right, int bottom, ArrayList<TetrominoDraw> otherTetrominosInGrid, boolean checkForGameOver) {
+        translateInLogicalUnits(dx, dy);
 
         if (isInvalidTransaction(left, top, right, bottom, otherTetrominosInGrid)) {
             //reset transaction
-            startCoordinates.setLocation(startCoordinates.x - dx, startCoordinates.y - dy);
+            translateInLogicalUnits(-dx, -dy);
         }
 
         if (checkForGameOver) {
@@ -205,7 +335,38 @@ public class TetrominoDraw extends TetrominoArray {
      * @return True, if tetromino hit the ground. False otherwise.
      */
     public boolean isGameOver(int bottomBorder) {
-        return endCoordinates.y > bottomBorder && bottomBorder > 0;
+        //use the logical position, as the rendered endCoordinates could be outdated since the last movement or kachel size change
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        int bottom = logicalToPixel(logicalY + (getGeometry().getLastOccupiedRow() + 1) * KACHEL_UNIT, kachelSize);
+        return bottom > bottomBorder && bottomBorder > 0;
+    }
+
+    /**
+     * Moves the tetromino into the given borders if it crosses the right or the bottom border, e. g. after the panel got smaller.
+     * No validation against other tetrominoes and no check for a game over takes place.
+     * Only the logical position is used, so the internal rendering is not updated.
+     * @param right The right border of the panel where the tetromino is embedded.
+     * @param bottom The bottom border of the panel where the tetromino is embedded.
+     * @return True, if the tetromino was moved.
+     */
+    public boolean moveInsideBorders(int right, int bottom) {
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        if (kachelSize <= 0) {
+            return false; //layout not ready yet
+        }
+
+        TetrominoGeometry geometry = getGeometry();
+        int rightInPx = logicalToPixel(logicalX + (geometry.getLastOccupiedColumn() + 1) * KACHEL_UNIT, kachelSize) + TETROMINO_PATH_STORKE;
+        int bottomInPx = logicalToPixel(logicalY + (geometry.getLastOccupiedRow() + 1) * KACHEL_UNIT, kachelSize) + TETROMINO_PATH_STORKE;
+
+        //never move the matrix above the top or left of the panel, there it would be hidden
+        int dx = Math.min(Math.max(rightInPx - right, 0), Math.max(logicalToPixel(logicalX, kachelSize), 0));
+        int dy = Math.min(Math.max(bottomInPx - bottom, 0), Math.max(logicalToPixel(logicalY, kachelSize), 0));
+        if (dx == 0 && dy == 0) {
+            return false;
+        }
+        translateInLogicalUnits(-pixelToLogical(dx, kachelSize), -pixelToLogical(dy, kachelSize));
+        return true;
     }
 
     /**
@@ -218,274 +379,134 @@ public class TetrominoDraw extends TetrominoArray {
      * @return True, if transaction was invalid, i. e. borders are crossed.
      */
     private boolean isInvalidTransaction(int left, int top, int right, int bottom, ArrayList<TetrominoDraw> otherTetrominosInGrid) {
-        draw(null); //update internal rendering (endCoordinates and path)
-        return (isOutOfBorder(left, top, right, bottom, endCoordinates) || isCollidingWithOtherTetromino(otherTetrominosInGrid));
+        return (isOutOfBorder(left, top, right, bottom) || isCollidingWithOtherTetromino(otherTetrominosInGrid));
+    }
+
+    private boolean isOutOfBorder(int left, int top, int right, int bottom) {
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        int startX = logicalToPixel(logicalX, kachelSize);
+        int startY = logicalToPixel(logicalY, kachelSize);
+        return (startX < left || getEndX(startX, kachelSize) + TETROMINO_PATH_STORKE > right
+                || startY < top || getEndY(startY, kachelSize) + TETROMINO_PATH_STORKE > bottom);
+    }
+
+    private int getEndX(int startX, int kachelSize) {
+        return startX + (getGeometry().getLastOccupiedColumn() + 1) * kachelSize;
     }
 
-    private boolean isOutOfBorder(int left, int top, int right, int bottom, Point endCoordinates) {
-        return (startCoordinates.x < left || endCoordinates.x + TETROMINO_PATH_STORKE > right
-                || startCoordinates.y < top || endCoordinates.y + TETROMINO_PATH_STORKE > bottom);
+    private int getEndY(int startY, int kachelSize) {
+        return startY + (getGeometry().getLastOccupiedRow() + 1) * kachelSize;
     }
 
     /**
-     * Returns true, if tetromino collides with another tetromino in grid.
+     * Returns true, if tetromino collides with another tetromino in grid, i. e. if a kachel of another tetromino lies within
+     * one kachel length space around a kachel of this tetromino. The kacheln are compared directly, so no areas are created.
      * @param otherTetrominosInGrid An ArrayList of other {@link TetrominoDraw} objects that are embedded in the same panel.
      * @return True, if tetromino collides with another tetromino in grid.
      */
-    private boolean isCollidingWithOtherTetromino(ArrayList<TetrominoDraw> otherTetrominosInGrid) {
+    boolean isCollidingWithOtherTetromino(ArrayList<TetrominoDraw> otherTetrominosInGrid) {
         if (otherTetrominosInGrid == null) {
             return false; //Skip validation if no other tetrominoes in grid
         }
 
+        long collisionCheckStart = GameMetrics.startTimer();
+        CollisionCheckEvent collisionEvent = new CollisionCheckEvent();
+        collisionEvent.begin();
+
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        int startX = logicalToPixel(logicalX, kachelSize);
+        int startY = logicalToPixel(logicalY, kachelSize);
+        int[][] myCells = getGeometry().getCells();
 
-        Area myArea = this.getBiggerTetrominoArea();
         boolean invalidTransaction = false;
-        for (TetrominoDraw tetrominoDraw : otherTetrominosInGrid) {
+        int checkedTetrominoes = 0;
+        for (int i = 0; i < otherTetrominosInGrid.size() && !invalidTransaction; i++) {
+            TetrominoDraw tetrominoDraw = otherTetrominosInGrid.get(i);
             if (tetrominoDraw == this) {
                 continue;
             }
-            Area tetrominoArea = tetrominoDraw.getTetrominoArea();
-            tetrominoArea.intersect(myArea);
-            if (!tetrominoArea.isEmpty()) {
-                //our tetrominoes would crash as their areas intersect - reset transaction
-                invalidTransaction = true;
-                break;
+            checkedTetrominoes++;
+            int otherStartX = logicalToPixel(tetrominoDraw.logicalX, kachelSize);
+            int otherStartY = logicalToPixel(tetrominoDraw.logicalY, kachelSize);
+            int[][] otherCells = tetrominoDraw.getGeometry().getCells();
+            for (int[] myCell : myCells) {
+                int myX = startX + myCell[1] * kachelSize;
+                int myY = startY + myCell[0] * kachelSize;
+                for (int[] otherCell : otherCells) {
+                    int dx = otherStartX + otherCell[1] * kachelSize - myX;
+                    int dy = otherStartY + otherCell[0] * kachelSize - myY;
+                    if (Math.abs(dx) < 2 * kachelSize && Math.abs(dy) < 2 * kachelSize) {
+                        //our tetrominoes would crash as the other kachel is next to (or on) our kachel - reset transaction
+                        invalidTransaction = true;
+                        break;
+                    }
+                }
+                if (invalidTransaction) {
+                    break;
+                }
             }
         }
 
+        GameMetrics.stopTimer(GameMetrics.COLLISION_CHECK, collisionCheckStart);
+        collisionEvent.tetrominoesInGrid = otherTetrominosInGrid.size();
+        collisionEvent.checkedTetrominoes = checkedTetrominoes;
+        collisionEvent.colliding = invalidTransaction;
+        collisionEvent.commit();
         return invalidTransaction;
     }
 
     /**
      * This method draws the tetromino using the provided Graphics object.
-     * <br>NOTE: This method can also be called with a null Graphics object
-     * causing the internal rendering of the tetromino to update, but not displaying in onto the screen. This can be used
-     * to get the potential new coordinates of the tetromino and check the new coordinates BEFORE drawing the new rendering on the screen.
-     * @param g Graphics object to use in order to paint Tetromino on screen or null if only updating the internal rendering.
+     * <br>The tetromino is drawn by a {@link TetrominoSnapshot} of its current state. Components that are painted while
+     * another thread changes the tetromino should paint a published snapshot instead, see {@link #createSnapshot()}.
+     * @param g Graphics object to use in order to paint Tetromino on screen.
      */
     public void draw(Graphics g) {
-        ArrayList<Line> shapeLines = new ArrayList<>();
-
-        int kachelLength = sizeObserver.getTetrominoKachelSize();
-
-        int maxPositionX = 0;
-        int maxPositionY = 0;
-
-        // go through the tetromino's matrix and paint a square if the value is bigger than 0
-        for (int row = 0; row < internalArray.length; row++) {
-            for (int column = 0; column < internalArray[row].length; column++) {
-                int xCoordinate = startCoordinates.x + column * kachelLength;
-                int yCoordinate = startCoordinates.y + row * kachelLength;
-
-                int kachelValue = internalArray[row][column];
-                if (kachelValue > 0) {
-                    if (g != null) {
-                        if (isSelected) {
-                            g.setColor(getAnimationColor(activeColor));
-                        } else {
-                            g.setColor(getAnimationColor(colorArray[kachelValue - 1]));
-                        }
-                        g.fillRect(xCoordinate, yCoordinate, kachelLength, kachelLength);
-                    }
-
-
-                    shapeLines.addAll(calculateShapeLines(internalArray, row, column, xCoordinate, yCoordinate, kachelValue, kachelLength));
-
-                    //Update position
-                    maxPositionX = Math.max(maxPositionX, xCoordinate + kachelLength);
-                    maxPositionY = Math.max(maxPositionY, yCoordinate + kachelLength);
-                }
-            }
-        }
-
-        path = getPathOutOfLines(shapeLines);
-        if (g != null) {
-            //Draw shape of tetromino
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setStroke(new BasicStroke(TETROMINO_PATH_STORKE));
-            g2.setColor(Color.BLACK);
-            g2.draw(path);
-        }
-
-
-        endCoordinates = new Point(maxPositionX, maxPositionY);
-    }
-
-    public Color getAnimationColor(Color color) {
-        return color; //animation is not used in TetrominoDraw, only in it subclass ShapeDraw.
-    }
-
-    public Color getTetrominoColor() {
-        return colorArray[0];
-    }
-
-    public int[] getBounds() {
-        draw(null); //update internal rendering first
-        return new int[]{startCoordinates.x - TETROMINO_PATH_STORKE, startCoordinates.y - TETROMINO_PATH_STORKE, endCoordinates.x + TETROMINO_PATH_STORKE, endCoordinates.y + TETROMINO_PATH_STORKE};
-    }
-
-    /**
-     * Returns a {@link GeneralPath} that contains an CLOSED path of a polygon, that can be used to draw the outer shape of a tetromino and create an area object.
-     * @param shapeLines An ArrayList to use to obtain the right path.
-     * @return A {@link GeneralPath} that contains an CLOSED path of a polygon containing all provided lines.
-     */
-    public GeneralPath getPathOutOfLines(ArrayList<Line> shapeLines) {
-        Collections.sort(shapeLines);
-
-        GeneralPath path = new GeneralPath();
-
-        Line startLine = shapeLines.get(0);
-
-        path.moveTo(startLine.x0, startLine.y0);
-        path.lineTo(startLine.x1, startLine.y1);
-        recursivePathFinder(path, shapeLines, startLine.x1, startLine.y1);
-
-        //need to close path at the end, so that this path can be recognized as closed shape.
-        //It does not change anything on the outer appearance of the shape as the recursivePathFinder algorithms automatically connects all points.
-        path.closePath();
-        return path;
+        createSnapshot().draw(g, sizeObserver.getTetrominoKachelSize());
     }
 
     /**
-     * This method uses a recursive approach to find a CLOSED path with the given ArrayList of lines.
-     * @param path GeneralPath that should be added to. The path needs to be already started by at least {@link GeneralPath#moveTo(float, float)}
-     * @param shapeLines An ArrayList to use to obtain the right path.
-     * @param lastX The coordinate on the x axis where the last line ended. Should be at initialization the current coordinates as set in {@link GeneralPath#moveTo(float, float)}
-     * @param lastY The coordinate on the y axis where the last line ended. Should be at initialization the current coordinates as set in {@link GeneralPath#moveTo(float, float)}
+     * Creates an immutable snapshot of the current geometry, position, colors and selection of the tetromino.
+     * The geometry is shared (see {@link TetrominoGeometry}), so a snapshot only copies the position and the colors.
+     * <br>Must be called by the thread that changes the tetromino (or while holding the lock that guards its changes).
+     * @return A new {@link TetrominoSnapshot} that can be painted by any thread at any time.
      */
-    private void recursivePathFinder(GeneralPath path, ArrayList<Line> shapeLines, int lastX, int lastY) {
-
-        if (shapeLines.size() == 0) {
-            return;
-        }
-
-        for (Line line : shapeLines) {
-            if (line.x0 == lastX && line.y0 == lastY) {
-                //in case the new line starts where the previous line ends
-                path.lineTo(line.x1, line.y1);
-                ArrayList<Line> reducedShapeLinesSet = new ArrayList<>(shapeLines);
-                reducedShapeLinesSet.remove(line);
-                recursivePathFinder(path, reducedShapeLinesSet, line.x1, line.y1);
-                break;
-            } else if (line.x1 == lastX && line.y1 == lastY) {
-                //in case the line ends where the previous line ends
-                path.lineTo(line.x0, line.y0);
-                ArrayList<Line> reducedShapeLinesSet = new ArrayList<>(shapeLines);
-                reducedShapeLinesSet.remove(line);
-                recursivePathFinder(path, reducedShapeLinesSet, line.x0, line.y0);
-                break;
-            }
+    public TetrominoSnapshot createSnapshot() {
+        Color[] kachelColors = new Color[colorArray.length];
+        for (int i = 0; i < kachelColors.length; i++) {
+            kachelColors[i] = isSelected ? activeColor : colorArray[i];
         }
+        TetrominoSnapshot snapshot = new TetrominoSnapshot(getGeometry(), logicalX, logicalY, kachelColors, isOutlineDrawnAsLines());
+        //the alpha is applied when the snapshot is drawn, not to every color
+        return (alpha < 255) ? snapshot.withAlpha(alpha) : snapshot;
     }
 
     /**
-     * Returns an ArrayList with Lines that cover the outer shape of the Tetromino.
-     * @param array The internal array of the tetromino.
-     * @param row The row to be checked.
-     * @param column The column to be checked.
-     * @param xCoordinate The upper left coordinate on x axis of the current cell.
-     * @param yCoordinate The upper left coordinate on y axis of the current cell.
-     * @param kachelValue The value of the cell of the checked cell.
-     * @param kachelLength The length of a kachel
-     * @return An ArrayList with Lines that cover the outer shape of the Tetromino.
+     * Returns whether the outline has to be drawn line by line instead of as closed polygons.
+     * @return False, as the outline of a tetromino is always one closed polygon.
      */
-    private ArrayList<Line> calculateShapeLines(int[][] array, int row, int column, int xCoordinate, int yCoordinate, int kachelValue, int kachelLength) {
-        ArrayList<Line> lines = new ArrayList<>();
-
-        // Draw left lines indicating the start of the tetromino if
-        // and only if the kachel has no other active kachel in the same color (i. e. with the same kachelValue) to its left
-        if (column - 1 < 0 || array[row][column - 1] != kachelValue) {
-            lines.add(new Line(xCoordinate, yCoordinate, xCoordinate, yCoordinate + kachelLength));
-        }
-
-        //draw right lines
-        if (column + 1 >= array[row].length || array[row][column + 1] != kachelValue) {
-            lines.add(new Line(xCoordinate + kachelLength, yCoordinate, xCoordinate + kachelLength, yCoordinate + kachelLength));
-        }
-
-        //draw top lines
-        if (row - 1 < 0 || array[row - 1][column] != kachelValue) {
-            lines.add(new Line(xCoordinate, yCoordinate, xCoordinate + kachelLength, yCoordinate));
-        }
-
-        //draw bottom lines
-        if (row + 1 >= array.length || array[row + 1][column] != kachelValue) {
-            lines.add(new Line(xCoordinate, yCoordinate + kachelLength, xCoordinate + kachelLength, yCoordinate + kachelLength));
-        }
-
-        return lines;
+    boolean isOutlineDrawnAsLines() {
+        return false;
     }
 
-    /**
-     * Returns an Area object that contains the area of this tetromino.
-     * @return Tetrominoes area
-     */
-    public Area getTetrominoArea() {
-        return new Area(path);
+    public int getAlpha() {
+        return alpha; //animation is not used in TetrominoDraw, only in it subclass ShapeDraw.
     }
 
-    /**
-     * Returns an Area object that contains the area of this tetromino and additionally one kachel length space to each side of the area.
-     * @return Tetrominoes area with respect to one kachel space to each side of the area.
-     */
-    public Area getBiggerTetrominoArea() {
-        int[][] biggerInternalArray = getBiggerInternalArray();
-
-        ArrayList<Line> shapeLines = getShapeLinesForBiggerArray(biggerInternalArray);
-
-        GeneralPath path = getPathOutOfLines(shapeLines);
-
-        return new Area(path);
+    public Color getTetrominoColor() {
+        return colorArray[0];
     }
 
-
-    /**
-     * Creates a bigger internal array that contains next to each positive value in the matrix another cell with the value 1.
-     * This is useful for determine an array that holds the tetromino itself and plus one kachel size space to each side of the tetromino.
-     * @return bigger int[][] array
-     */
-    private int[][] getBiggerInternalArray() {
-        int[][] biggerInternalArray = new int[internalArray.length + 2][internalArray.length + 2]; //need a matrix that is bigger on both sides (left and right / top and down) (so +2)
-
-        for (int row = 0; row < internalArray.length; row++) {
-            for (int column = 0; column < internalArray[row].length; column++) {
-                if (internalArray[row][column] > 0) {
-                    int newArrayRow = row + 1;
-                    int newArrayColumn = column + 1;
-                    biggerInternalArray[newArrayRow][newArrayColumn] = 1;
-                    biggerInternalArray[newArrayRow - 1][newArrayColumn] = 1;
-                    biggerInternalArray[newArrayRow + 1][newArrayColumn] = 1;
-                    biggerInternalArray[newArrayRow][newArrayColumn + 1] = 1;
-                    biggerInternalArray[newArrayRow][newArrayColumn - 1] = 1;
-                    biggerInternalArray[newArrayRow - 1][newArrayColumn - 1] = 1;
-                    biggerInternalArray[newArrayRow + 1][newArrayColumn - 1] = 1;
-                    biggerInternalArray[newArrayRow - 1][newArrayColumn + 1] = 1;
-                    biggerInternalArray[newArrayRow + 1][newArrayColumn + 1] = 1;
-                }
-            }
-        }
-        return biggerInternalArray;
+    public void setTetrominoColor(Color color) {
+        colorArray[0] = color;
     }
 
-
-    private ArrayList<Line> getShapeLinesForBiggerArray(int[][] biggerInternalArray) {
-        int kachelLength = sizeObserver.getTetrominoKachelSize();
-        Point startForNewBiggerArray = new Point(startCoordinates.x - kachelLength, startCoordinates.y - kachelLength);
-
-        ArrayList<Line> shapeLines = new ArrayList<>();
-        for (int row = 0; row < biggerInternalArray.length; row++) {
-            for (int col = 0; col < biggerInternalArray[row].length; col++) {
-                int xCoordinate = startForNewBiggerArray.x + col * kachelLength;
-                int yCoordinate = startForNewBiggerArray.y + row * kachelLength;
-
-                int kachelValue = biggerInternalArray[row][col];
-                if (kachelValue > 0) {
-                    shapeLines.addAll(calculateShapeLines(biggerInternalArray, row, col, xCoordinate, yCoordinate, kachelValue, kachelLength));
-                }
-
-            }
-        }
-        return shapeLines;
+    public int[] getBounds() {
+        int kachelSize = sizeObserver.getTetrominoKachelSize();
+        int startX = logicalToPixel(logicalX, kachelSize);
+        int startY = logicalToPixel(logicalY, kachelSize);
+        return new int[]{startX - TETROMINO_PATH_STORKE, startY - TETROMINO_PATH_STORKE,
+                getEndX(startX, kachelSize) + TETROMINO_PATH_STORKE, getEndY(startY, kachelSize) + TETROMINO_PATH_STORKE};
     }
 
     /**
@@ -494,6 +515,7 @@ public class TetrominoDraw extends TetrominoArray {
      * @return True, if the given point is in the Tetromino.
      */
     public boolean isPointInTetromino(Point p) {
+        Point startCoordinates = getStartCoordinates();
         int relativeX = p.x - startCoordinates.x;
         int relativeY = p.y - startCoordinates.y;
 
@@ -0,0 +1,207 @@
+package tetris.puzzles.tetromino;
+
+import tetris.puzzles.datamodels.CoordinateList;
+import tetris.puzzles.datamodels.LineList;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the geometry of a tetromino in one orientation, i. e. its kacheln and its outline, in kachel units.
+ * <br>The geometry is the same for every tetromino of the same form and orientation, so it is a flyweight: it is calculated once,
+ * cached by {@link #of(int[][])} and shared by every {@link TetrominoDraw} in this orientation. Only the position, the color and the selection
+ * are stored per tetromino. To get pixels, the kachel units are multiplied by the kachel size and moved to the start coordinates of the tetromino.
+ * <br>Instances are immutable.
+ */
+public final class TetrominoGeometry {
+
+    private static final ConcurrentHashMap<String, TetrominoGeometry> CACHE = new ConcurrentHashMap<>();
+
+    private final int[][] cells; //{row, column, kachelValue} of every active kachel, row by row
+    private final LineList outlineLines; //every border between a kachel and another kachel value (or nothing), sorted
+    private final int[][] outlinePolygons; //closed polygons out of the outline lines, every polygon as {x0, y0, x1, y1, ...}
+    private final int lastOccupiedRow;
+    private final int lastOccupiedColumn;
+
+    private TetrominoGeometry(int[][] array) {
+        ArrayList<int[]> cellList = new ArrayList<>();
+        LineList lines = new LineList();
+        int lastRow = -1;
+        int lastColumn = -1;
+
+        for (int row = 0; row < array.length; row++) {
+            for (int column = 0; column < array[row].length; column++) {
+                int kachelValue = array[row][column];
+                if (kachelValue > 0) {
+                    cellList.add(new int[]{row, column, kachelValue});
+                    addShapeLines(array, row, column, kachelValue, lines);
+                    lastRow = Math.max(lastRow, row);
+                    lastColumn = Math.max(lastColumn, column);
+                }
+            }
+        }
+        lines.sort();
+
+        cells = cellList.toArray(new int[0][]);
+        outlineLines = lines;
+        outlinePolygons = getPolygonsOutOfLines(lines);
+        lastOccupiedRow = lastRow;
+        lastOccupiedColumn = lastColumn;
+    }
+
+    /**
+     * Returns the shared geometry of the given array. The geometry is calculated only when an array of this form and orientation is requested for the first time.
+     * @param array The internal array of the tetromino. The array is not stored.
+     * @return The cached TetrominoGeometry.
+     */
+    public static TetrominoGeometry of(int[][] array) {
+        String key = getKey(array);
+        TetrominoGeometry geometry = CACHE.get(key);
+        if (geometry == null) {
+            geometry = CACHE.computeIfAbsent(key, k -> new TetrominoGeometry(array));
+        }
+        return geometry;
+    }
+
+    /**
+     * Calculates the geometry of the given array without caching it. Use this method for arrays that change often, e. g. the arrays of shapes.
+     * @param array The internal array. The array is not stored.
+     * @return A new TetrominoGeometry.
+     */
+    public static TetrominoGeometry create(int[][] array) {
+        return new TetrominoGeometry(array);
+    }
+
+    public static int getCacheSize() {
+        return CACHE.size();
+    }
+
+    /**
+     * Returns the active kacheln.
+     * @return The kacheln as {row, column, kachelValue}. The arrays must not be changed.
+     */
+    public int[][] getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the lines of the outline in kachel units. A line is added for every side of a kachel that has no neighbour with the same kachel value.
+     * @return The sorted list of the lines. The list must not be changed.
+     */
+    public LineList getOutlineLines() {
+        return outlineLines;
+    }
+
+    /**
+     * Returns the outline as closed polygons in kachel units. A usual tetromino has exactly one polygon.
+     * @return The polygons as {x0, y0, x1, y1, ...}. The arrays must not be changed.
+     */
+    public int[][] getOutlinePolygons() {
+        return outlinePolygons;
+    }
+
+    public int getLastOccupiedRow() {
+        return lastOccupiedRow;
+    }
+
+    public int getLastOccupiedColumn() {
+        return lastOccupiedColumn;
+    }
+
+    private static String getKey(int[][] array) {
+        StringBuilder key = new StringBuilder(array.length * (array.length + 1));
+        for (int[] row : array) {
+            for (int kachelValue : row) {
+                key.append((char) ('0' + kachelValue));
+            }
+            key.append('/');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Adds the lines in kachel units that cover the outer shape of the kachel.
+     * @param array The internal array of the tetromino.
+     * @param row The row to be checked.
+     * @param column The column to be checked.
+     * @param kachelValue The value of the cell of the checked cell.
+     * @param lines The list the lines are added to.
+     */
+    private static void addShapeLines(int[][] array, int row, int column, int kachelValue, LineList lines) {
+        // Draw left lines indicating the start of the tetromino if
+        // and only if the kachel has no other active kachel in the same color (i. e. with the same kachelValue) to its left
+        if (column - 1 < 0 || array[row][column - 1] != kachelValue) {
+            lines.add(column, row, column, row + 1);
+        }
+
+        //draw right lines
+        if (column + 1 >= array[row].length || array[row][column + 1] != kachelValue) {
+            lines.add(column + 1, row, column + 1, row + 1);
+        }
+
+        //draw top lines
+        if (row - 1 < 0 || array[row - 1][column] != kachelValue) {
+            lines.add(column, row, column + 1, row);
+        }
+
+        //draw bottom lines
+        if (row + 1 >= array.length || array[row + 1][column] != kachelValue) {
+            lines.add(column, row + 1, column + 1, row + 1);
+        }
+    }
+
+    /**
+     * Connects the lines to closed polygons. Every polygon starts with the smallest remaining line and follows the lines
+     * that start or end where the previous line ended, until no connected line is left.
+     * @param sortedLines The sorted lines of the outline.
+     * @return The polygons as {x0, y0, x1, y1, ...}.
+     */
+    private static int[][] getPolygonsOutOfLines(LineList sortedLines) {
+        boolean[] isLineUsed = new boolean[sortedLines.size()];
+        ArrayList<int[]> polygons = new ArrayList<>();
+
+        for (int startLine = 0; startLine < sortedLines.size(); startLine++) {
+            if (isLineUsed[startLine]) {
+                continue;
+            }
+            isLineUsed[startLine] = true;
+            CoordinateList points = new CoordinateList(sortedLines.size() + 1); //the points are saved as (x, y)
+            points.add(sortedLines.getX0(startLine), sortedLines.getY0(startLine));
+            int lastX = sortedLines.getX1(startLine);
+            int lastY = sortedLines.getY1(startLine);
+
+            boolean isLineFound = true;
+            while (isLineFound) {
+                points.add(lastX, lastY);
+                isLineFound = false;
+                for (int i = startLine + 1; i < sortedLines.size(); i++) {
+                    if (isLineUsed[i]) {
+                        continue;
+                    }
+                    if (sortedLines.getX0(i) == lastX && sortedLines.getY0(i) == lastY) {
+                        //in case the new line starts where the previous line ends
+                        lastX = sortedLines.getX1(i);
+                        lastY = sortedLines.getY1(i);
+                    } else if (sortedLines.getX1(i) == lastX && sortedLines.getY1(i) == lastY) {
+                        //in case the line ends where the previous line ends
+                        lastX = sortedLines.getX0(i);
+                        lastY = sortedLines.getY0(i);
+                    } else {
+                        continue;
+                    }
+                    isLineUsed[i] = true;
+                    isLineFound = true;
+                    break;
+                }
+            }
+
+            int[] polygon = new int[2 * points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                polygon[2 * i] = points.getRow(i);
+                polygon[2 * i + 1] = points.getColumn(i);
+            }
+            polygons.add(polygon);
+        }
+        return polygons.toArray(new int[0][]);
+    }
+}
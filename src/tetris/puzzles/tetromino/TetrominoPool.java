@@ -0,0 +1,78 @@
+package tetris.puzzles.tetromino;
+
+import tetris.puzzles.datamodels.UserPreferences;
+import tetris.puzzles.interfaces.SizeObserver;
+import tetris.puzzles.interfaces.TetrominoObserver;
+
+import java.util.ArrayDeque;
+
+/**
+ * This class recycles the {@link TetrominoDraw} objects of one game. A tetromino that was fitted into a shape is not needed anymore,
+ * so it is handed back by {@link #recycle(TetrominoDraw)} and reused by {@link #obtain(int[][])} for the next spawned tetromino.
+ * As the geometry is shared (see {@link TetrominoGeometry}), a recycled tetromino only needs a new array, position and color.
+ * <br>A tetromino must only be recycled if nothing refers to it anymore (neither the game grid, a parking spot nor a shape).
+ * <br>This class is thread-safe, as the tetrominoes are recycled on the event dispatch thread and obtained by the movement thread of the game grid.
+ */
+public class TetrominoPool {
+
+    public static final int CAPACITY = 32;
+
+    private final ArrayDeque<TetrominoDraw> freeTetrominoes = new ArrayDeque<>(CAPACITY);
+
+    private final TetrominoObserver tetrominoObserver;
+    private final SizeObserver sizeObserver;
+    private final UserPreferences userPreferences;
+
+    private long createdTetrominoes;
+    private long reusedTetrominoes;
+
+    /**
+     * Constructs a new, empty TetrominoPool. Every tetromino of the pool uses the given observers and preferences.
+     * @param tetrominoObserver A {@link TetrominoObserver} that is notified about a game over.
+     * @param sizeObserver A {@link SizeObserver} that can be used to get the current size of tetrominoes
+     * @param userPreferences The {@link UserPreferences} in order to determine how many colors should be used.
+     */
+    public TetrominoPool(TetrominoObserver tetrominoObserver, SizeObserver sizeObserver, UserPreferences userPreferences) {
+        this.tetrominoObserver = tetrominoObserver;
+        this.sizeObserver = sizeObserver;
+        this.userPreferences = userPreferences;
+    }
+
+    /**
+     * Returns a tetromino with the given array at the position (0, 0) and with a random color. A recycled tetromino is reused if available.
+     * @param internalArray The internal array of the tetromino. The array is owned by the tetromino afterwards.
+     * @return A TetrominoDraw that is not used anywhere else.
+     */
+    public synchronized TetrominoDraw obtain(int[][] internalArray) {
+        TetrominoDraw tetrominoDraw = freeTetrominoes.poll();
+        if (tetrominoDraw == null) {
+            createdTetrominoes++;
+            return new TetrominoDraw(internalArray, tetrominoObserver, sizeObserver, userPreferences);
+        }
+        reusedTetrominoes++;
+        tetrominoDraw.reset(internalArray, userPreferences);
+        return tetrominoDraw;
+    }
+
+    /**
+     * Hands a tetromino back to the pool. If the pool is full, the tetromino is left to the garbage collector.
+     * @param tetrominoDraw A tetromino that is not referred to anymore.
+     */
+    public synchronized void recycle(TetrominoDraw tetrominoDraw) {
+        if (tetrominoDraw != null && freeTetrominoes.size() < CAPACITY && !freeTetrominoes.contains(tetrominoDraw)) {
+            freeTetrominoes.push(tetrominoDraw);
+        }
+    }
+
+    public synchronized int getNumberOfFreeTetrominoes() {
+        return freeTetrominoes.size();
+    }
+
+    public synchronized long getNumberOfCreatedTetrominoes() {
+        return createdTetrominoes;
+    }
+
+    public synchronized long getNumberOfReusedTetrominoes() {
+        return reusedTetrominoes;
+    }
+}
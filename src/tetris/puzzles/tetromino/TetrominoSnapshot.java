@@ -0,0 +1,188 @@
+package tetris.puzzles.tetromino;
+
+import tetris.puzzles.animation.FadeLayer;
+import tetris.puzzles.datamodels.LineList;
+
+import java.awt.*;
+
+/**
+ * This class holds everything that is needed to paint a {@link TetrominoDraw} at one moment: its geometry, its logical position and its colors.
+ * <br>The game threads change the tetrominoes while the event dispatch thread paints them. So the owner of a tetromino creates a snapshot
+ * by {@link TetrominoDraw#createSnapshot()} after every change and publishes it through a volatile field, and the components only paint
+ * the published snapshots. Thus, a frame never shows a half changed tetromino and painting does not need any lock.
+ * <br>A snapshot that is faded (alpha below 255) is drawn by a {@link FadeLayer}: the tetromino is rendered once into an offscreen image,
+ * and every frame of the fade only draws this image with the alpha of the snapshot. The snapshots of one fade share their layer, see {@link #withAlpha(int)}.
+ * <br>Instances are immutable (except for the rendered image of the fade layer, which is only used by the event dispatch thread).
+ */
+public final class TetrominoSnapshot {
+
+    //reused for drawing the outline, only used by the event dispatch thread
+    private static int[] polygonX = new int[0];
+    private static int[] polygonY = new int[0];
+
+    private final TetrominoGeometry geometry;
+    private final int logicalX;
+    private final int logicalY;
+    private final Color[] kachelColors; //kachelValue - 1 -> color to fill the kachel, with the selection already applied
+    private final boolean isOutlineDrawnAsLines;
+    private final int alpha;
+    private final FadeLayer fadeLayer; //null if the snapshot is opaque
+
+    TetrominoSnapshot(TetrominoGeometry geometry, int logicalX, int logicalY, Color[] kachelColors, boolean isOutlineDrawnAsLines) {
+        this(geometry, logicalX, logicalY, kachelColors, isOutlineDrawnAsLines, 255, null);
+    }
+
+    private TetrominoSnapshot(TetrominoGeometry geometry, int logicalX, int logicalY, Color[] kachelColors, boolean isOutlineDrawnAsLines,
+                              int alpha, FadeLayer fadeLayer) {
+        this.geometry = geometry;
+        this.logicalX = logicalX;
+        this.logicalY = logicalY;
+        this.kachelColors = kachelColors;
+        this.isOutlineDrawnAsLines = isOutlineDrawnAsLines;
+        this.alpha = alpha;
+        this.fadeLayer = fadeLayer;
+    }
+
+    /**
+     * Creates a snapshot of a tetromino that is not held by a {@link TetrominoDraw}, e. g. a tetromino of a game received from a server.
+     * @param geometry The geometry of the tetromino, see {@link TetrominoGeometry#of(int[][])} and {@link TetrominoGeometry#create(int[][])}.
+     * @param logicalX The upper left corner of the matrix on the x axis in logical units.
+     * @param logicalY The upper left corner of the matrix on the y axis in logical units.
+     * @param kachelColors The color of every kachel value: the kachel value n is filled with the color at the index n - 1.
+     * @param isOutlineDrawnAsLines True for shapes, whose outline is drawn line by line instead of as closed polygons.
+     * @return A new opaque TetrominoSnapshot.
+     */
+    public static TetrominoSnapshot of(TetrominoGeometry geometry, int logicalX, int logicalY, Color[] kachelColors, boolean isOutlineDrawnAsLines) {
+        return new TetrominoSnapshot(geometry, logicalX, logicalY, kachelColors, isOutlineDrawnAsLines);
+    }
+
+    /**
+     * Returns a snapshot with the same content, drawn with the given alpha. Used by fade animations, as only the alpha changes from frame to frame:
+     * the geometry and the colors are not copied, and all snapshots derived from the same snapshot share the image of their {@link FadeLayer}.
+     * @param alpha The alpha value, 0 (transparent) to 255 (opaque).
+     * @return A new TetrominoSnapshot.
+     */
+    public TetrominoSnapshot withAlpha(int alpha) {
+        //the size of the layer is given by getSize(kachelLength), so the kachel length is calculated back out of the width
+        FadeLayer sharedFadeLayer = (fadeLayer != null) ? fadeLayer
+                : new FadeLayer((g, width, height) -> drawOpaque(g, TetrominoDraw.TETROMINO_PATH_STORKE, TetrominoDraw.TETROMINO_PATH_STORKE,
+                (width - 2 * TetrominoDraw.TETROMINO_PATH_STORKE) / (geometry.getLastOccupiedColumn() + 1)));
+        return new TetrominoSnapshot(geometry, logicalX, logicalY, kachelColors, isOutlineDrawnAsLines, alpha, sharedFadeLayer);
+    }
+
+    public int getAlpha() {
+        return alpha;
+    }
+
+    public TetrominoGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getLogicalX() {
+        return logicalX;
+    }
+
+    public int getLogicalY() {
+        return logicalY;
+    }
+
+    /**
+     * Returns the size of the snapshot's matrix up to the last occupied kachel plus the outline.
+     * @param kachelLength The length of a kachel in pixels.
+     * @return An int[2]-array with the width and the height in pixels.
+     */
+    public int[] getSize(int kachelLength) {
+        return new int[]{(geometry.getLastOccupiedColumn() + 1) * kachelLength + 2 * TetrominoDraw.TETROMINO_PATH_STORKE,
+                (geometry.getLastOccupiedRow() + 1) * kachelLength + 2 * TetrominoDraw.TETROMINO_PATH_STORKE};
+    }
+
+    /**
+     * Returns if the given point is on a kachel of the snapshot at its logical position. As the snapshot is immutable, a click can be
+     * hit-tested against the published frame without reading the tetromino, which might be changed by a game thread at the same time.
+     * @param p The point in pixels, e. g. the point the user clicked.
+     * @param kachelLength The length of a kachel in pixels, used as view transform of the logical position.
+     * @return True, if the point is on a kachel of the snapshot.
+     */
+    public boolean isPointInSnapshot(Point p, int kachelLength) {
+        int relativeX = p.x - TetrominoDraw.logicalToPixel(logicalX, kachelLength);
+        int relativeY = p.y - TetrominoDraw.logicalToPixel(logicalY, kachelLength);
+        if (relativeX < 0 || relativeY < 0) {
+            return false;
+        }
+
+        int row = relativeY / kachelLength;
+        int column = relativeX / kachelLength;
+        for (int[] cell : geometry.getCells()) {
+            if (cell[0] == row && cell[1] == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws the snapshot at its logical position. Must be called on the event dispatch thread.
+     * @param g Graphics object to paint on.
+     * @param kachelLength The length of a kachel in pixels, used as view transform of the logical position.
+     */
+    public void draw(Graphics g, int kachelLength) {
+        draw(g, TetrominoDraw.logicalToPixel(logicalX, kachelLength), TetrominoDraw.logicalToPixel(logicalY, kachelLength), kachelLength);
+    }
+
+    /**
+     * Draws the snapshot at the given position instead of its logical position, e. g. centered in a panel. Must be called on the event dispatch thread.
+     * @param g Graphics object to paint on.
+     * @param startX The upper left coordinate of the matrix on the x axis in pixels.
+     * @param startY The upper left coordinate of the matrix on the y axis in pixels.
+     * @param kachelLength The length of a kachel in pixels.
+     */
+    public void draw(Graphics g, int startX, int startY, int kachelLength) {
+        if (alpha < 255) {
+            //the layer includes the outline around the matrix
+            int[] size = getSize(kachelLength);
+            fadeLayer.draw(g, startX - TetrominoDraw.TETROMINO_PATH_STORKE, startY - TetrominoDraw.TETROMINO_PATH_STORKE, size[0], size[1], alpha);
+        } else {
+            drawOpaque(g, startX, startY, kachelLength);
+        }
+    }
+
+    private void drawOpaque(Graphics g, int startX, int startY, int kachelLength) {
+        for (int[] cell : geometry.getCells()) {
+            g.setColor(kachelColors[cell[2] - 1]);
+            g.fillRect(startX + cell[1] * kachelLength, startY + cell[0] * kachelLength, kachelLength, kachelLength);
+        }
+
+        //Draw shape of tetromino
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setStroke(TetrominoDraw.OUTLINE_STROKE);
+        g2.setColor(Color.BLACK);
+        if (isOutlineDrawnAsLines) {
+            drawOutlineLines(g2, startX, startY, kachelLength);
+        } else {
+            drawOutlinePolygons(g2, startX, startY, kachelLength);
+        }
+    }
+
+    private void drawOutlinePolygons(Graphics2D g2, int startX, int startY, int kachelLength) {
+        for (int[] polygon : geometry.getOutlinePolygons()) {
+            int numberOfPoints = polygon.length / 2;
+            if (polygonX.length < numberOfPoints) {
+                polygonX = new int[numberOfPoints];
+                polygonY = new int[numberOfPoints];
+            }
+            for (int i = 0; i < numberOfPoints; i++) {
+                polygonX[i] = startX + polygon[2 * i] * kachelLength;
+                polygonY[i] = startY + polygon[2 * i + 1] * kachelLength;
+            }
+            g2.drawPolygon(polygonX, polygonY, numberOfPoints);
+        }
+    }
+
+    private void drawOutlineLines(Graphics2D g2, int startX, int startY, int kachelLength) {
+        LineList lines = geometry.getOutlineLines();
+        for (int i = 0; i < lines.size(); i++) {
+            g2.drawLine(startX + lines.getX0(i) * kachelLength, startY + lines.getY0(i) * kachelLength,
+                    startX + lines.getX1(i) * kachelLength, startY + lines.getY1(i) * kachelLength);
+        }
+    }
+}
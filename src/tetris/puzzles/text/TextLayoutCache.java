@@ -0,0 +1,243 @@
+package tetris.puzzles.text;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches the fonts and the measured layouts of the short strings drawn on every repaint, e. g. the IDs of the shapes and
+ * parking spots or the gotten points. Creating a {@link Font}, laying out its glyphs and measuring them is done only when a string is drawn
+ * for the first time in a given style (and, for strings fitted into bounds, for the first time in these bounds). Every following repaint
+ * just draws the cached {@link TextLayout}.
+ * <br>Entries are keyed by the string, the font style and size (or the bounds it is fitted into) and the {@link FontRenderContext}
+ * of the graphics, so a changed scaling or antialiasing gets its own entry. Entries depending on bounds become useless when a component
+ * is resized, so components drawing fitted strings call {@link #evictFittedTexts()} when they are resized.
+ * The cache is bounded; the least recently used entries are removed first.
+ * <br>The cache is shared by every component, see {@link #getDefault()}.
+ */
+public final class TextLayoutCache {
+
+    public static final String FONT_NAME = "Arial";
+    public static final int MAX_ENTRIES = 256;
+
+    private static final TextLayoutCache DEFAULT = new TextLayoutCache(MAX_ENTRIES);
+
+    private final LinkedHashMap<Key, CachedText> entries;
+
+    private int misses;
+
+    /**
+     * Constructs a new empty cache.
+     *
+     * @param maxEntries The maximum number of cached strings.
+     */
+    public TextLayoutCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedText> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all components of the game.
+     *
+     * @return The shared TextLayoutCache.
+     */
+    public static TextLayoutCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the layout of the given string in the given font style and size.
+     *
+     * @param text     The string to be drawn
+     * @param style    The font style, e. g. {@link Font#BOLD}
+     * @param fontSize The font size
+     * @param g        Graphics context, its {@link FontRenderContext} is used for measuring
+     * @return The cached text.
+     */
+    public synchronized CachedText getText(String text, int style, int fontSize, Graphics g) {
+        FontRenderContext fontRenderContext = ((Graphics2D) g).getFontRenderContext();
+        Key key = new Key(text, style, fontSize, 0, 0, fontRenderContext);
+        CachedText cachedText = entries.get(key);
+        if (cachedText == null) {
+            misses++;
+            cachedText = new CachedText(new Font(FONT_NAME, style, fontSize), text, fontRenderContext);
+            entries.put(key, cachedText);
+        }
+        return cachedText;
+    }
+
+    /**
+     * Returns the layout of the given string in the biggest font size that still not exceed the given maximum width and height.
+     *
+     * @param text        The string to be drawn
+     * @param style       The font style, e. g. {@link Font#BOLD}
+     * @param minFontSize The smallest font size tried
+     * @param maxFontSize The biggest font size possible
+     * @param maxWidth    The maximum width that should be fitted.
+     * @param maxHeight   The maximum height (of the ascent) that should be fitted.
+     * @param g           Graphics context, its {@link FontRenderContext} is used for measuring
+     * @return The cached text. <b>NOTE: If even the smallest font size does not fit, the font size is minFontSize - 1.</b>
+     */
+    public synchronized CachedText getFittedText(String text, int style, int minFontSize, int maxFontSize, int maxWidth, int maxHeight, Graphics g) {
+        FontRenderContext fontRenderContext = ((Graphics2D) g).getFontRenderContext();
+        //the font size range is part of the key, as the bounds are only meaningful together with it
+        Key key = new Key(text, style, -(minFontSize << 16 | maxFontSize), maxWidth, maxHeight, fontRenderContext);
+        CachedText cachedText = entries.get(key);
+        if (cachedText == null) {
+            misses++;
+            cachedText = fitText(text, style, minFontSize, maxFontSize, maxWidth, maxHeight, fontRenderContext);
+            entries.put(key, cachedText);
+        }
+        return cachedText;
+    }
+
+    /**
+     * Removes every entry that was fitted into bounds, as the bounds are outdated after a resize. Entries of a fixed font size are kept.
+     */
+    public synchronized void evictFittedTexts() {
+        entries.keySet().removeIf(Key::isFitted);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns how often a string had to be laid out and measured because it was not cached.
+     *
+     * @return The number of cache misses since the start.
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Finds the biggest fitting font size. Every size tried is laid out once, so this is only done on a cache miss.
+     */
+    private static CachedText fitText(String text, int style, int minFontSize, int maxFontSize, int maxWidth, int maxHeight, FontRenderContext fontRenderContext) {
+        CachedText fittingText = null;
+
+        for (int fontSize = minFontSize; fontSize <= maxFontSize; fontSize++) {
+            CachedText candidate = new CachedText(new Font(FONT_NAME, style, fontSize), text, fontRenderContext);
+
+            if (candidate.getWidth() > maxWidth || candidate.getAscent() > maxHeight) {
+                //font got to big, need to reduce again
+                break;
+            }
+            fittingText = candidate;
+        }
+
+        if (fittingText == null) {
+            //not even the smallest font size fits
+            fittingText = new CachedText(new Font(FONT_NAME, style, minFontSize - 1), text, fontRenderContext);
+        }
+        return fittingText;
+    }
+
+    /**
+     * A string laid out in a font. Instances are immutable and can be drawn as often as needed.
+     */
+    public static final class CachedText {
+
+        private final Font font;
+        private final TextLayout textLayout;
+        private final int width;
+        private final int ascent;
+        private final int descent;
+
+        CachedText(Font font, String text, FontRenderContext fontRenderContext) {
+            this.font = font;
+            this.textLayout = new TextLayout(text, font, fontRenderContext);
+            //rounded like FontMetrics.stringWidth(String) and FontMetrics.getAscent()
+            this.width = (int) (0.5f + textLayout.getAdvance());
+            this.ascent = (int) (0.95f + textLayout.getAscent());
+            this.descent = (int) (0.95f + textLayout.getDescent());
+        }
+
+        /**
+         * Draws the text with the current color and composite of the graphics.
+         *
+         * @param g Graphics context
+         * @param x The x coordinate of the leftmost character
+         * @param y The y coordinate of the baseline
+         */
+        public void draw(Graphics g, int x, int y) {
+            textLayout.draw((Graphics2D) g, x, y);
+        }
+
+        public Font getFont() {
+            return font;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getAscent() {
+            return ascent;
+        }
+
+        public int getDescent() {
+            return descent;
+        }
+    }
+
+    /**
+     * The key of a cached text. For fitted texts, the font size holds the (negative) font size range and the bounds are set.
+     */
+    private static final class Key {
+
+        private final String text;
+        private final int style;
+        private final int fontSize;
+        private final int maxWidth;
+        private final int maxHeight;
+        private final FontRenderContext fontRenderContext;
+
+        Key(String text, int style, int fontSize, int maxWidth, int maxHeight, FontRenderContext fontRenderContext) {
+            this.text = text;
+            this.style = style;
+            this.fontSize = fontSize;
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+            this.fontRenderContext = fontRenderContext;
+        }
+
+        boolean isFitted() {
+            return fontSize < 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return style == key.style && fontSize == key.fontSize && maxWidth == key.maxWidth && maxHeight == key.maxHeight
+                    && text.equals(key.text) && fontRenderContext.equals(key.fontRenderContext);
+        }
+
+        @Override
+        public int hashCode() {
+            //calculated by hand instead of Objects.hash(...), which would box every int on every lookup
+            int result = text.hashCode();
+            result = 31 * result + style;
+            result = 31 * result + fontSize;
+            result = 31 * result + maxWidth;
+            result = 31 * result + maxHeight;
+            return 31 * result + fontRenderContext.hashCode();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package tetris.puzzles.time;
+
+/**
+ * Provides the time source of the game. Everything that waits for or measures game time (the falling tetrominoes, the creation of new tetrominoes,
+ * the velocity increase and the animations) asks the GameClock instead of the system, so that a game can also run on a {@link VirtualClock}.
+ * <br>The game itself uses the monotonic {@link SystemClock} returned by {@link #system()}.
+ */
+public interface GameClock {
+
+    /**
+     * Returns the current time of the clock. Only the difference between two values is meaningful, like for {@link System#nanoTime()}.
+     * @return The current time in nanoseconds.
+     */
+    long nanoTime();
+
+    /**
+     * Returns the current time of the clock in milliseconds. Only the difference between two values is meaningful.
+     * @return The current time in milliseconds.
+     */
+    default long millis() {
+        return nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Lets the calling thread wait until the given time has passed on this clock.
+     * @param millis The time to wait in milliseconds.
+     * @throws InterruptedException If the thread was interrupted while waiting (e. g. because the game was paused).
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Returns the clock that follows the real time.
+     * @return The shared {@link SystemClock}.
+     */
+    static GameClock system() {
+        return SystemClock.INSTANCE;
+    }
+}
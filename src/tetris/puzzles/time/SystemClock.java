@@ -0,0 +1,23 @@
+package tetris.puzzles.time;
+
+/**
+ * This class implements the {@link GameClock} by the monotonic {@link System#nanoTime()}, so that the game time is not affected
+ * if the wall clock of the system is changed. Waiting is done by {@link Thread#sleep(long)}.
+ */
+public final class SystemClock implements GameClock {
+
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
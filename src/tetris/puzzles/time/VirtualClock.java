@@ -0,0 +1,56 @@
+package tetris.puzzles.time;
+
+/**
+ * This class implements a {@link GameClock} whose time only passes when it is told to, so that a game can be simulated faster than real time.
+ * <br>The time is advanced explicitly by {@link #advance(long)} or implicitly by {@link #sleep(long)}: as nothing else happens
+ * while the simulated game waits, waiting just moves the clock forward and returns at once. Thus, a virtual clock should only be
+ * used by one simulating thread (e. g. by one {@link tetris.puzzles.engine.GameEngine}).
+ */
+public class VirtualClock implements GameClock {
+
+    private volatile long nanos;
+
+    /**
+     * Constructs a new VirtualClock starting at the time 0.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new VirtualClock.
+     * @param startNanos The time the clock starts at, in nanoseconds.
+     */
+    public VirtualClock(long startNanos) {
+        nanos = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    /**
+     * Moves the clock forward.
+     * @param durationNanos The time that should pass, in nanoseconds. Must not be negative.
+     */
+    public synchronized void advance(long durationNanos) {
+        if (durationNanos < 0) {
+            throw new IllegalArgumentException("A clock cannot go back in time: " + durationNanos);
+        }
+        nanos += durationNanos;
+    }
+
+    /**
+     * Moves the clock forward by the given time instead of waiting.
+     * @param millis The time to wait in milliseconds.
+     * @throws InterruptedException If the calling thread was interrupted before, so that interruptible loops still terminate.
+     */
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        advance(Math.max(millis, 0) * 1_000_000);
+    }
+}
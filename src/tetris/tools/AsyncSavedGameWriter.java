@@ -0,0 +1,124 @@
+package tetris.tools;
+
+import tetris.puzzles.datamodels.SavedGame;
+import tetris.puzzles.metrics.GameMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class moves the writing of saved games (see {@link SavedGameStore}) away from the calling thread (usually the event dispatch thread),
+ * so that the running game can be saved every few seconds without delaying a frame.
+ * <br>All writes and deletions are executed by one single writer thread in the order they were requested. Saves are coalesced:
+ * if a game is requested to be saved while the previous save is still pending, only the newer game is written.
+ * <br>Before the application exits, {@link #shutdown(long)} should be called, so that the last requested save is not lost.
+ */
+public class AsyncSavedGameWriter {
+
+    public static final int QUEUE_CAPACITY = 16;
+
+    private final SavedGameStore savedGameStore;
+    private final ThreadPoolExecutor executor;
+
+    private final Object pendingLock = new Object();
+    private SavedGame pendingSavedGame;
+    private boolean isWriteScheduled;
+
+    /**
+     * Constructs a new AsyncSavedGameWriter and starts its writer thread.
+     *
+     * @param savedGameStore The {@link SavedGameStore} that should be written.
+     */
+    public AsyncSavedGameWriter(SavedGameStore savedGameStore) {
+        this.savedGameStore = savedGameStore;
+
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "savegame-writer");
+            thread.setDaemon(true); //the application should not be kept alive by this thread, use shutdown() instead
+            return thread;
+        }, (runnable, threadPoolExecutor) -> {
+            // The queue is full or the writer was already shut down (e. g. the window is closed after exiting by a key).
+            // Instead of losing the request, execute it in the calling thread.
+            runnable.run();
+        });
+    }
+
+    /**
+     * Requests to save the given game, replacing a save that was requested before but not written yet. This method returns immediately.
+     *
+     * @param savedGame The {@link SavedGame} to be saved. It must not be changed afterwards.
+     */
+    public void save(SavedGame savedGame) {
+        synchronized (pendingLock) {
+            pendingSavedGame = savedGame;
+            if (!isWriteScheduled) {
+                isWriteScheduled = true;
+                executor.execute(this::write);
+            }
+        }
+    }
+
+    /**
+     * Requests to delete the saved game, e. g. because the saved game was finished. A save that was requested before but not written yet is dropped.
+     * This method returns immediately.
+     */
+    public void delete() {
+        synchronized (pendingLock) {
+            pendingSavedGame = null;
+        }
+        executor.execute(savedGameStore::delete);
+    }
+
+    /**
+     * Loads the saved game in the calling thread, as loading takes less than a millisecond. Pending saves are not waited for.
+     *
+     * @return The {@link SavedGame} or null if no valid game was saved.
+     */
+    public SavedGame load() {
+        return savedGameStore.load();
+    }
+
+    /**
+     * Returns whether a saved game exists.
+     *
+     * @return True, if the file of a saved game exists.
+     */
+    public boolean exists() {
+        return savedGameStore.exists();
+    }
+
+    /**
+     * Writes the pending save and stops the writer thread. Requests made after this call are executed directly in the calling thread.
+     *
+     * @param timeoutMillis The maximum time to wait for the pending save.
+     * @return True, if the pending save was written in time.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes the pending save into the store. Executed by the writer thread.
+     */
+    private void write() {
+        SavedGame savedGameToWrite;
+        synchronized (pendingLock) {
+            savedGameToWrite = pendingSavedGame;
+            pendingSavedGame = null;
+            isWriteScheduled = false; //requests arriving from now on need another write
+        }
+
+        if (savedGameToWrite != null) {
+            long writeStart = GameMetrics.startTimer();
+            savedGameStore.save(savedGameToWrite);
+            GameMetrics.stopTimer(GameMetrics.AUTOSAVE_WRITE, writeStart);
+        }
+    }
+}
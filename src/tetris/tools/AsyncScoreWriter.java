@@ -0,0 +1,246 @@
+package tetris.tools;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class moves every access of a {@link ScoreStore} away from the calling thread (usually the event dispatch thread).
+ * <br>All accesses are executed by one single writer thread. Requests are coalesced: requests arriving while a drain of the store
+ * is still pending are merged into it, so that only the best highscore per game is written, all pending sessions are written together
+ * and every pending read is done afterwards. Thus, at most one drain is queued and the calling thread never has to access the store itself.
+ * <br>The highscores of the games given to the constructor are read in the background right away, so that
+ * {@link #isNewHighscoreAchieved(int, int)} knows them without accessing the store.
+ * <br>Before the application exits, {@link #shutdown(long)} should be called, so that queued writes are not lost.
+ */
+public class AsyncScoreWriter {
+
+    private final ScoreStore scoreStore;
+    private final ThreadPoolExecutor executor;
+
+    private final Object pendingLock = new Object();
+    private final HashMap<Integer, PendingHighscore> pendingHighscores = new HashMap<>();
+    private final ArrayList<SessionRecord> pendingSessions = new ArrayList<>();
+    private final LinkedHashMap<Integer, ArrayList<HighscoreListener>> pendingReads = new LinkedHashMap<>(); //game ID -> listeners to notify
+    private boolean isDrainScheduled;
+
+    private final HashMap<Integer, Integer> knownHighscorePoints = new HashMap<>();
+    private final HashSet<Integer> loadedGameIds = new HashSet<>(); //games whose highscore was read from the store at least once
+
+    /**
+     * Constructs a new AsyncScoreWriter, starts its writer thread and requests to read the highscores of the given games.
+     *
+     * @param scoreStore The {@link ScoreStore} that should be accessed.
+     * @param gameIds    The IDs of the games whose highscores should be known as soon as possible.
+     */
+    public AsyncScoreWriter(ScoreStore scoreStore, int... gameIds) {
+        this.scoreStore = scoreStore;
+
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "score-writer");
+            thread.setDaemon(true); //the application should not be kept alive by this thread, use shutdown() instead
+            return thread;
+        }, (runnable, threadPoolExecutor) -> {
+            // The writer was already shut down, i. e. the application exits. Instead of losing the request, execute it in the calling thread.
+            runnable.run();
+        });
+
+        synchronized (pendingLock) {
+            for (int gameId : gameIds) {
+                pendingReads.computeIfAbsent(gameId, key -> new ArrayList<>());
+            }
+        }
+        if (gameIds.length > 0) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Requests to save a new entry to the highscore. The entry is only saved if the points are higher than the points currently saved.
+     * <br>This method returns immediately.
+     *
+     * @param gameId The ID of the corresponding game
+     * @param name   The name of the player to be saved
+     * @param points The points of the player to be saved
+     */
+    public void saveToHighscore(int gameId, String name, int points) {
+        synchronized (pendingLock) {
+            PendingHighscore pending = pendingHighscores.get(gameId);
+            if (pending == null || pending.points < points) {
+                pendingHighscores.put(gameId, new PendingHighscore(name, points));
+            }
+            rememberHighscorePoints(gameId, points);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Requests to save a finished game session. This method returns immediately.
+     *
+     * @param sessionRecord The {@link SessionRecord} to be saved.
+     */
+    public void saveSession(SessionRecord sessionRecord) {
+        synchronized (pendingLock) {
+            pendingSessions.add(sessionRecord);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Requests to read the current highscore of a game. The given listener is notified on the event dispatch thread
+     * after every write requested before this call was done.
+     *
+     * @param gameId   The ID of the corresponding game
+     * @param listener The {@link HighscoreListener} to be notified.
+     */
+    public void readHighscore(int gameId, HighscoreListener listener) {
+        synchronized (pendingLock) {
+            pendingReads.computeIfAbsent(gameId, key -> new ArrayList<>()).add(listener);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Returns whether the given points are higher than the highscore known so far.
+     * The known highscore consists of the last read highscore and every highscore requested to be saved.
+     * <br>Usually, the highscore was already read in the background (see {@link #AsyncScoreWriter(ScoreStore, int...)}), so the store
+     * is not accessed. Only if it was not read yet, it is read in the calling thread, as otherwise every score would count as a highscore.
+     * <br>As other game windows could have saved a higher score in the meantime, the store checks the points again while saving.
+     *
+     * @param gameId    The ID of the corresponding game
+     * @param newPoints The points of the player
+     * @return True, if the points are higher than the known highscore.
+     */
+    public boolean isNewHighscoreAchieved(int gameId, int newPoints) {
+        boolean isLoaded;
+        synchronized (pendingLock) {
+            isLoaded = loadedGameIds.contains(gameId);
+        }
+        if (!isLoaded) {
+            int points = scoreStore.getPoints(gameId); //read outside of the lock, so the writer thread is not blocked meanwhile
+            synchronized (pendingLock) {
+                rememberHighscorePoints(gameId, points);
+                loadedGameIds.add(gameId);
+            }
+        }
+
+        synchronized (pendingLock) {
+            Integer knownPoints = knownHighscorePoints.get(gameId);
+            return (knownPoints == null || knownPoints < newPoints) && newPoints > 0;
+        }
+    }
+
+    /**
+     * Writes every pending request and stops the writer thread. Requests made after this call are executed directly in the calling thread.
+     *
+     * @param timeoutMillis The maximum time to wait for the pending writes.
+     * @return True, if every pending write was done in time.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Schedules the drain of the pending requests if it is not scheduled yet.
+     * <br><b>NOTE:</b> The caller must not hold the {@code pendingLock}, as the drain is executed in the calling thread after a shutdown.
+     */
+    private void scheduleDrain() {
+        synchronized (pendingLock) {
+            if (isDrainScheduled) {
+                return; //the pending drain will handle the new request as well
+            }
+            isDrainScheduled = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Writes every pending request into the store and does the pending reads afterwards. Executed by the writer thread.
+     */
+    private void drain() {
+        HashMap<Integer, PendingHighscore> highscoresToWrite;
+        ArrayList<SessionRecord> sessionsToWrite;
+        LinkedHashMap<Integer, ArrayList<HighscoreListener>> readsToDo;
+
+        synchronized (pendingLock) {
+            highscoresToWrite = new HashMap<>(pendingHighscores);
+            sessionsToWrite = new ArrayList<>(pendingSessions);
+            readsToDo = new LinkedHashMap<>(pendingReads);
+            pendingHighscores.clear();
+            pendingSessions.clear();
+            pendingReads.clear();
+            isDrainScheduled = false; //requests arriving from now on need another drain
+        }
+
+        for (Integer gameId : highscoresToWrite.keySet()) {
+            PendingHighscore pending = highscoresToWrite.get(gameId);
+            scoreStore.saveToHighscore(gameId, pending.name, pending.points);
+        }
+
+        for (SessionRecord sessionRecord : sessionsToWrite) {
+            scoreStore.addSessionRecord(sessionRecord);
+        }
+
+        for (Integer gameId : readsToDo.keySet()) {
+            int points = scoreStore.getPoints(gameId);
+            String name = scoreStore.getName(gameId);
+
+            synchronized (pendingLock) {
+                rememberHighscorePoints(gameId, points);
+                loadedGameIds.add(gameId);
+            }
+            for (HighscoreListener listener : readsToDo.get(gameId)) {
+                SwingUtilities.invokeLater(() -> listener.onHighscoreLoaded(points, name));
+            }
+        }
+    }
+
+    /**
+     * Remembers the given points if they are higher than the known highscore.
+     * <br><b>NOTE:</b> The caller has to hold the {@code pendingLock}.
+     */
+    private void rememberHighscorePoints(int gameId, int points) {
+        Integer knownPoints = knownHighscorePoints.get(gameId);
+        if (knownPoints == null || knownPoints < points) {
+            knownHighscorePoints.put(gameId, points);
+        }
+    }
+
+    /**
+     * Provides an interface for classes that want to be notified when a highscore was read.
+     */
+    public interface HighscoreListener {
+
+        /**
+         * Is invoked on the event dispatch thread when the highscore was read.
+         *
+         * @param points The points saved in the highscore (0 if no entry was saved yet)
+         * @param name   The name saved in the highscore ("N/A" if no entry was saved yet)
+         */
+        void onHighscoreLoaded(int points, String name);
+    }
+
+    /**
+     * Holds a highscore entry that was requested to be saved but was not written yet.
+     */
+    private static class PendingHighscore {
+        final String name;
+        final int points;
+
+        PendingHighscore(String name, int points) {
+            this.name = name;
+            this.points = points;
+        }
+    }
+}
@@ -1,29 +1,24 @@
 package tetris.tools;
 
 import javax.swing.*;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 
 /**
- * This class is responsible for storing the data for the highscore in a separated database.
- * The database is realized by using a comma-separated-value (csv) file which is stored in the resources folder of this project.
+ * This class is responsible for storing the data for the highscore and the finished game sessions in a separated database.
+ * The database itself is accessed by a {@link ScoreStore}. If no other store is given, a {@link JournaledScoreStore} is used
+ * which is stored in the temp directory and can safely be used by multiple game windows at the same time.
  */
 public class DatabaseSaver {
 
     /*
     Internal implementation note:
     With regard to a three-layer architecture (UI - Business logic - Database separation),
-    it would be better to separate the internal logic like "if newPoints > previousPoints, write a new entry" into another class
-    so that this class is only responsible for writing and reading data, without implementing additional business logic.
-    However, as this project is likely to not be continued and scalability and maintainability is not in the focus,
-    we just did not separate it.
+    the reading and writing of the data is done by the ScoreStore, while this class only decides whether the user has to be asked for his name.
+    The check "if newPoints > previousPoints, write a new entry" is still part of the store, as it has to be done
+    in the same transaction as the writing. Otherwise, two windows finishing at the same time could overwrite each other.
      */
 
-    String highscorePath;
+    ScoreStore scoreStore;
 
     /**
      * Initialises a new DatabaseSaver which can be used to save and receive entries in database.
@@ -32,22 +27,16 @@ public class DatabaseSaver {
         //Previously we used the project directory to store the highscore.csv file, but this causes problems with JAR files
         //Thus, use the temp directory now (file should survive long enough, although it is a temp directory)
         //In production-ready environment we would use a server and backend anyway.
+        this(new JournaledScoreStore());
+    }
 
-        //String resourcePath = "/resources";
-
-        String resourcePath = System.getProperty("java.io.tmpdir");
-
-        String highscoreFileName = "highscores.csv";
-        highscorePath = resourcePath + highscoreFileName;
-
-        //highscorePath = resourceURL.toURI().getPath() + highscoreFileName;
-        //highscorePath = resourceURL.toURI().getPath() + highscoreFileName;
-        /*URL resourceURL = this.getClass().getResource(resourcePath);
-        try {
-            highscorePath = resourceURL.toURI().getPath() + highscoreFileName;
-        } catch (URISyntaxException e) {
-            e.printStackTrace();
-        }*/
+    /**
+     * Initialises a new DatabaseSaver which uses the given {@link ScoreStore} to save and receive entries.
+     *
+     * @param scoreStore The {@link ScoreStore} to be used.
+     */
+    public DatabaseSaver(ScoreStore scoreStore) {
+        this.scoreStore = scoreStore;
     }
 
     /**
@@ -107,20 +96,7 @@ public class DatabaseSaver {
      * Otherwise it discards the points and returns {@code false}.
      */
     public boolean saveToHighscore(int gameId, String name, int newPoints) {
-        if (name.contains(";")) {
-            //name not allowed to contain ";" as it is used as separator. Just replace with ","
-            name = name.replace(";", ",");
-        }
-
-        if (isNewHighscoreAchieved(gameId, newPoints)) {
-            try {
-                updateHighscoreEntry(gameId, name, newPoints);
-                return true;
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        return false;
+        return scoreStore.saveToHighscore(gameId, name, newPoints);
     }
 
     /**
@@ -137,38 +113,12 @@ public class DatabaseSaver {
     }
 
     /**
-     * Updates the corresponding entry in the database.
+     * Saves a finished game session to the session history.
      *
-     * @param gameId    The ID of the corresponding game
-     * @param name      The name of the player to be saved
-     * @param newPoints The points of the player to be saved
-     * @throws IOException Thrown if some problems occur while accessing the database
+     * @param sessionRecord The {@link SessionRecord} to be saved.
      */
-    private void updateHighscoreEntry(int gameId, String name, int newPoints) throws IOException {
-        String[] lines = readFile(highscorePath);
-        resetDatabase();
-
-        StringBuilder stringBuilder = new StringBuilder();
-
-        if (lines != null) {
-            for (String line : lines) {
-                String[] splitData = splitLineInToData(line);
-                if (!splitData[0].equals(gameId + "")) {
-                    //skip this entry as we write the entry for the updated gameID below
-                    stringBuilder.append(line);
-                    stringBuilder.append(System.lineSeparator());
-                }
-            }
-        }
-
-        //write updated entry
-        stringBuilder.append(gameId);
-        stringBuilder.append(";");
-        stringBuilder.append(name);
-        stringBuilder.append(";");
-        stringBuilder.append(newPoints);
-
-        writeFile(highscorePath, stringBuilder.toString());
+    public void saveSession(SessionRecord sessionRecord) {
+        scoreStore.addSessionRecord(sessionRecord);
     }
 
     /**
@@ -178,9 +128,7 @@ public class DatabaseSaver {
      * @throws IOException Thrown if some problems occur while accessing the database
      */
     public void resetDatabase() throws IOException {
-        File file = new File(highscorePath);
-        file.delete();
-        createNewFile(highscorePath);
+        scoreStore.resetDatabase();
     }
 
     /**
@@ -191,17 +139,7 @@ public class DatabaseSaver {
      * <br><b>NOTE:</b>If no entry for the game was set yet, this method returns 0.
      */
     public int getPoints(int gameId) {
-        String[] lines = readFile(highscorePath);
-        if (lines != null) {
-            for (String line : lines) {
-                String[] splitData = splitLineInToData(line);
-                if (splitData[0].equals(gameId + "")) {
-                    return Integer.parseInt(splitData[2]);
-                }
-            }
-        }
-
-        return 0;
+        return scoreStore.getPoints(gameId);
     }
 
     /**
@@ -209,134 +147,10 @@ public class DatabaseSaver {
      *
      * @param gameId The ID of the corresponding game
      * @return Returns the current player's name as saved in the highscore.
-     * <br><b>NOTE:</b>If no entry for the game was set yet, this method returns "keine Angabe".
+     * <br><b>NOTE:</b>If no entry for the game was set yet, this method returns "N/A".
      */
     public String getName(int gameId) {
-        String[] lines = readFile(highscorePath);
-        if (lines != null) {
-            for (String line : lines) {
-                String[] splitData = splitLineInToData(line);
-                if (splitData[0].equals(gameId + "")) {
-                    return splitData[1];
-                }
-            }
-        }
-        return "N/A";
-    }
-
-    /**
-     * Returns a String array which contains every line in the database file. If database file is not found, a new file is created and null is returned.
-     *
-     * @param highscorePath The path to database file
-     * @return An array of strings that start in a new line or null if no database file does not exist.
-     */
-    private String[] readFile(String highscorePath) {
-        try {
-            if (checkFileExists(highscorePath)) {
-                return readLinesInFile(highscorePath);
-
-            } else {
-                createNewFile(highscorePath);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    /**
-     * Works just like {@link #readLinesInFile(File)} except that a string is taken as argument.
-     *
-     * @param path The path to database file that should be read.
-     * @see #readLinesInFile(File)
-     */
-    private String[] readLinesInFile(String path) throws IOException {
-        return readLinesInFile(new File(path));
-    }
-
-    /**
-     * Returns a String array which contains every line in the database file.
-     * <br>As the file is quite small, it is faster to do only one reading operation on the drive and then process the stored data in RAM,
-     * instead of do multiple reading operations until the right line was found.
-     *
-     * @param highscoreFile The database file that should be read.
-     * @return An array of strings that start in a new line
-     */
-    private String[] readLinesInFile(File highscoreFile) throws IOException {
-        /*Scanner sc = new Scanner(highscoreFile, StandardCharsets.UTF_8);
-        sc.useDelimiter("\\Z");
-        String input = sc.next();
-        sc.close();*/
-
-        String input = Files.readString(highscoreFile.toPath(), StandardCharsets.UTF_8);
-        return splitInputByNewLine(input);
-    }
-
-    /**
-     * Returns a string array that is split by line break.
-     *
-     * @param stringToSplit The string that should be split.
-     * @return String array that is split by line break.
-     */
-    private String[] splitInputByNewLine(String stringToSplit) {
-        return stringToSplit.split("\\r?\\n"); //need to use this regex in order to work on Windows and Unix.
-    }
-
-    /**
-     * Returns a string array that contains the string split by the {@code ;} separator.
-     *
-     * @param string The string that should be split (e. g. a line in the csv-file).
-     * @return String array that contains the string split by the {@code ;} separator.
-     */
-    private String[] splitLineInToData(String string) {
-        return string.split(";");
-    }
-
-    /**
-     * Initialises the database by creating a new file with the corresponding database scheme.
-     *
-     * @param path The path to database file
-     * @throws IOException Thrown if some problems occur while accessing the database
-     */
-    private void createNewFile(String path) throws IOException {
-        String header = "game_ID;name;points";
-        writeFile(path, header);
-    }
-
-    /**
-     * Checks if the file exists.
-     *
-     * @param path The path to file that should be checked.
-     * @return True, if the file exists and false otherwise.
-     */
-    private boolean checkFileExists(String path) {
-        return new File(path).exists();
-    }
-
-    /**
-     * Works just like {@link #writeFile(File, String)} except that a string is taken as argument.
-     *
-     * @param path          The path to database file that should be read.
-     * @param stringToWrite The string that should be appended in a new line
-     * @see #writeFile(File, String)
-     */
-    private void writeFile(String path, String stringToWrite) throws IOException {
-        writeFile(new File(path), stringToWrite);
-    }
-
-    /**
-     * Writes the given string into the given file.
-     *
-     * @param file          The path to file that should be written to
-     * @param stringToWrite The string that should be appended in a new line
-     * @throws FileNotFoundException Thrown if some problems occur while accessing the file
-     */
-    private void writeFile(File file, String stringToWrite) throws IOException {
-        file.createNewFile();
-        PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8);
-        writer.println(stringToWrite);
-        writer.flush();
-        writer.close();
+        return scoreStore.getName(gameId);
     }
 
 }
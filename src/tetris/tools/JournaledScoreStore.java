@@ -0,0 +1,481 @@
+package tetris.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * This class is an implementation of the {@link ScoreStore} which can safely be used by multiple game windows at the same time,
+ * even if they are running in different JVMs on the same machine.
+ * <br>The store consists of three files in the same directory:
+ * <ul>
+ *     <li>The database file holding the highscores and the session history as semicolon separated lines.</li>
+ *     <li>A write-ahead log (journal). Every change is appended to the journal and forced to the disk first.
+ *     Only afterwards, the database file is rewritten (by writing a temporary file and renaming it atomically) and the journal is removed.</li>
+ *     <li>A lock file. Every access is done while holding a {@link FileLock} on it (shared for reading, exclusive for writing).</li>
+ * </ul>
+ * If the application crashes while writing, the changes found in the journal are applied again the next time the store is accessed.
+ * Every journal entry carries a sequence number and a checksum, so that entries that were already applied or were not written completely are skipped.
+ * <br>If the database file does not exist yet, the highscores of the old {@code highscores.csv} file are taken over automatically.
+ */
+public class JournaledScoreStore implements ScoreStore {
+
+    public static final String DATABASE_FILE_NAME = "puzzles-scores.db";
+    public static final String JOURNAL_FILE_NAME = "puzzles-scores.wal";
+    public static final String LOCK_FILE_NAME = "puzzles-scores.lock";
+    public static final String LEGACY_CSV_FILE_NAME = "highscores.csv";
+
+    static final String SEPARATOR = ";";
+    static final String TYPE_HIGHSCORE = "H";
+    static final String TYPE_SESSION = "S";
+
+    private static final String DATABASE_HEADER = "puzzles-scores";
+    private static final int FORMAT_VERSION = 1;
+
+    // A FileLock is held on behalf of the whole JVM. Threads of the same JVM are not excluded by it
+    // (they would get an OverlappingFileLockException instead), so they need to be serialized separately.
+    private static final ReentrantLock JVM_LOCK = new ReentrantLock();
+
+    private final Path databasePath;
+    private final Path temporaryDatabasePath;
+    private final Path journalPath;
+    private final Path lockPath;
+    private final Path legacyCsvPath;
+
+    /**
+     * Initialises a new store in the temp directory, i. e. the same directory where the old {@code highscores.csv} was saved.
+     */
+    public JournaledScoreStore() {
+        //older versions just appended the file name to the temp directory (without adding a separator), so we need to look for the old file in exactly that place
+        this(Paths.get(System.getProperty("java.io.tmpdir")), Paths.get(System.getProperty("java.io.tmpdir") + LEGACY_CSV_FILE_NAME));
+    }
+
+    /**
+     * Initialises a new store in the given directory.
+     *
+     * @param directory     The directory where the database, journal and lock files are stored.
+     * @param legacyCsvPath The path to the {@code highscores.csv} file whose entries should be taken over if the store does not exist yet.
+     */
+    public JournaledScoreStore(Path directory, Path legacyCsvPath) {
+        this.databasePath = directory.resolve(DATABASE_FILE_NAME);
+        this.temporaryDatabasePath = directory.resolve(DATABASE_FILE_NAME + ".tmp");
+        this.journalPath = directory.resolve(JOURNAL_FILE_NAME);
+        this.lockPath = directory.resolve(LOCK_FILE_NAME);
+        this.legacyCsvPath = legacyCsvPath;
+    }
+
+    @Override
+    public int getPoints(int gameId) {
+        HighscoreEntry entry = read().highscores.get(gameId);
+        return entry == null ? 0 : entry.points;
+    }
+
+    @Override
+    public String getName(int gameId) {
+        HighscoreEntry entry = read().highscores.get(gameId);
+        return entry == null ? "N/A" : entry.name;
+    }
+
+    @Override
+    public boolean saveToHighscore(int gameId, String name, int newPoints) {
+        String sanitizedName = sanitize(name);
+
+        // The check whether the points are a new highscore is done while holding the exclusive lock,
+        // so that two windows finishing at the same time cannot overwrite the higher score of each other.
+        return commit(database -> {
+            HighscoreEntry entry = database.highscores.get(gameId);
+            int previousPoints = entry == null ? 0 : entry.points;
+
+            ArrayList<String> records = new ArrayList<>();
+            if (previousPoints < newPoints && newPoints > 0) {
+                records.add(TYPE_HIGHSCORE + SEPARATOR + gameId + SEPARATOR + sanitizedName + SEPARATOR + newPoints);
+            }
+            return records;
+        });
+    }
+
+    @Override
+    public void addSessionRecord(SessionRecord sessionRecord) {
+        commit(database -> {
+            ArrayList<String> records = new ArrayList<>();
+            records.add(toRecordString(sessionRecord));
+            return records;
+        });
+    }
+
+    @Override
+    public ArrayList<SessionRecord> getSessionRecords(int gameId) {
+        ArrayList<SessionRecord> sessionRecords = new ArrayList<>();
+        for (SessionRecord sessionRecord : read().sessions) {
+            if (sessionRecord.getGameId() == gameId) {
+                sessionRecords.add(sessionRecord);
+            }
+        }
+        return sessionRecords;
+    }
+
+    @Override
+    public void resetDatabase() throws IOException {
+        ScoreStoreEvent event = new ScoreStoreEvent();
+        event.begin();
+        event.operation = ScoreStoreEvent.RESET;
+
+        JVM_LOCK.lock();
+        try (FileChannel lockChannel = openLockChannel()) {
+            lockChannel.lock(); //released by closing the channel
+            Database database = loadDatabase();
+            event.bytesRead = database.bytesRead;
+
+            Database emptyDatabase = new Database();
+            emptyDatabase.appliedSequence = database.appliedSequence; //keep the sequence, so that old journal entries are never applied again
+            event.bytesWritten = checkpoint(emptyDatabase);
+            event.successful = true;
+        } finally {
+            JVM_LOCK.unlock();
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads the current state of the store while holding a shared lock.
+     * Entries of the journal that were not applied to the database file yet are only applied in memory.
+     *
+     * @return The current {@link Database}. If the store cannot be accessed, an empty database is returned.
+     */
+    private Database read() {
+        ScoreStoreEvent event = new ScoreStoreEvent();
+        event.begin();
+        event.operation = ScoreStoreEvent.READ;
+
+        JVM_LOCK.lock();
+        try (FileChannel lockChannel = openLockChannel()) {
+            lockChannel.lock(0, Long.MAX_VALUE, true); //released by closing the channel
+            Database database = loadDatabase();
+            event.bytesRead = database.bytesRead;
+            event.successful = true;
+            return database;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new Database();
+        } finally {
+            JVM_LOCK.unlock();
+            event.commit();
+        }
+    }
+
+    /**
+     * Executes the given transaction while holding the exclusive lock.
+     * The records created by the transaction are first written to the journal and then applied to the database file.
+     *
+     * @param transaction The {@link Transaction} that decides which records should be written.
+     * @return True, if the transaction has written at least one record. False otherwise.
+     */
+    private boolean commit(Transaction transaction) {
+        ScoreStoreEvent event = new ScoreStoreEvent();
+        event.begin();
+        event.operation = ScoreStoreEvent.COMMIT;
+
+        JVM_LOCK.lock();
+        try (FileChannel lockChannel = openLockChannel()) {
+            lockChannel.lock(); //released by closing the channel
+            Database database = loadDatabase();
+            event.bytesRead = database.bytesRead;
+
+            ArrayList<String> records = transaction.createRecords(database);
+            if (records.isEmpty()) {
+                event.successful = true;
+                return false;
+            }
+            event.recordsWritten = records.size();
+
+            //FIRST: Make the records durable in the journal. As soon as this has succeeded, the transaction is committed.
+            long sequence = database.appliedSequence;
+            StringBuilder journalEntries = new StringBuilder();
+            for (String record : records) {
+                sequence++;
+                journalEntries.append(toJournalLine(sequence, record));
+            }
+            event.bytesWritten = appendToJournal(journalEntries.toString());
+
+            //SECOND: Apply the records and write the new database file.
+            sequence = database.appliedSequence;
+            for (String record : records) {
+                sequence++;
+                database.apply(record.split(SEPARATOR, -1));
+            }
+            database.appliedSequence = sequence;
+            event.bytesWritten += checkpoint(database);
+            event.successful = true;
+            return true;
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            JVM_LOCK.unlock();
+            event.commit();
+        }
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Loads the database file and applies every valid journal entry that is newer than the database file.
+     * If neither a database file nor a journal exists, the entries of the old csv file are taken over.
+     * <br><b>NOTE:</b> The caller has to hold the lock.
+     *
+     * @return The current {@link Database}.
+     * @throws IOException Thrown if some problems occur while accessing the files
+     */
+    private Database loadDatabase() throws IOException {
+        Database database = new Database();
+
+        if (Files.exists(databasePath)) {
+            database.bytesRead += Files.size(databasePath);
+            String[] lines = splitInputByNewLine(Files.readString(databasePath, StandardCharsets.UTF_8));
+            String[] header = lines[0].split(SEPARATOR, -1);
+            if (header.length == 3 && header[0].equals(DATABASE_HEADER)) {
+                database.appliedSequence = Long.parseLong(header[2]);
+            }
+            for (int i = 1; i < lines.length; i++) {
+                if (!lines[i].isEmpty()) {
+                    database.apply(lines[i].split(SEPARATOR, -1));
+                }
+            }
+        } else if (!Files.exists(journalPath)) {
+            importLegacyCsv(database);
+        }
+
+        replayJournal(database);
+        return database;
+    }
+
+    /**
+     * Takes over the highscores of the old {@code highscores.csv} file (if available).
+     * The old file is left untouched, so that older versions of the game still find their highscores.
+     *
+     * @param database The {@link Database} where the highscores should be added to.
+     */
+    private void importLegacyCsv(Database database) {
+        if (legacyCsvPath == null || !Files.exists(legacyCsvPath)) {
+            return;
+        }
+
+        try {
+            String[] lines = splitInputByNewLine(Files.readString(legacyCsvPath, StandardCharsets.UTF_8));
+            for (String line : lines) {
+                //the old scheme is "game_ID;name;points"
+                String[] splitData = line.split(SEPARATOR, -1);
+                if (splitData.length == 3) {
+                    try {
+                        database.apply(new String[]{TYPE_HIGHSCORE, "" + Integer.parseInt(splitData[0]), splitData[1], "" + Integer.parseInt(splitData[2])});
+                    } catch (NumberFormatException e) {
+                        //header line or damaged entry, just skip it
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies every journal entry to the given database that was not applied to the database file yet.
+     * The journal is read until the first entry that was not written completely (i. e. the application crashed while appending it).
+     *
+     * @param database The {@link Database} where the journal entries should be applied to.
+     * @throws IOException Thrown if some problems occur while accessing the journal
+     */
+    private void replayJournal(Database database) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        database.bytesRead += Files.size(journalPath);
+        String journal = Files.readString(journalPath, StandardCharsets.UTF_8);
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = journal.indexOf('\n', lineStart)) >= 0) {
+            String line = journal.substring(lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+
+            int checksumSeparator = line.lastIndexOf(SEPARATOR);
+            int sequenceSeparator = line.indexOf(SEPARATOR);
+            if (checksumSeparator <= sequenceSeparator
+                    || !Long.toHexString(checksum(line.substring(0, checksumSeparator))).equals(line.substring(checksumSeparator + 1))) {
+                break; //damaged entry, nothing behind it can be trusted
+            }
+
+            long sequence = Long.parseLong(line.substring(0, sequenceSeparator));
+            if (sequence > database.appliedSequence) {
+                database.apply(line.substring(sequenceSeparator + 1, checksumSeparator).split(SEPARATOR, -1));
+                database.appliedSequence = sequence;
+            }
+        }
+    }
+
+    /**
+     * Appends the given entries to the journal and forces them to the disk.
+     *
+     * @param journalEntries The entries to append, every entry terminated by a line break.
+     * @return The number of bytes written.
+     * @throws IOException Thrown if some problems occur while accessing the journal
+     */
+    private long appendToJournal(String journalEntries) throws IOException {
+        try (FileChannel journalChannel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long bytesWritten = writeFully(journalChannel, journalEntries);
+            journalChannel.force(false);
+            return bytesWritten;
+        }
+    }
+
+    /**
+     * Writes the complete database into the database file and removes the journal afterwards.
+     * The file is written to a temporary file first which then replaces the database file, so that the database file is never left half written.
+     *
+     * @param database The {@link Database} to write.
+     * @return The number of bytes written.
+     * @throws IOException Thrown if some problems occur while accessing the files
+     */
+    private long checkpoint(Database database) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(DATABASE_HEADER).append(SEPARATOR).append(FORMAT_VERSION).append(SEPARATOR).append(database.appliedSequence).append('\n');
+
+        for (Integer gameId : database.highscores.keySet()) {
+            HighscoreEntry entry = database.highscores.get(gameId);
+            stringBuilder.append(TYPE_HIGHSCORE).append(SEPARATOR).append(gameId).append(SEPARATOR).append(entry.name).append(SEPARATOR).append(entry.points).append('\n');
+        }
+        for (SessionRecord sessionRecord : database.sessions) {
+            stringBuilder.append(toRecordString(sessionRecord)).append('\n');
+        }
+
+        long bytesWritten;
+        try (FileChannel temporaryChannel = FileChannel.open(temporaryDatabasePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            bytesWritten = writeFully(temporaryChannel, stringBuilder.toString());
+            temporaryChannel.force(true);
+        }
+
+        try {
+            Files.move(temporaryDatabasePath, databasePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryDatabasePath, databasePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        //every journal entry is contained in the database file now
+        Files.deleteIfExists(journalPath);
+        return bytesWritten;
+    }
+
+    private int writeFully(FileChannel channel, String string) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return buffer.capacity();
+    }
+
+    private String toJournalLine(long sequence, String record) {
+        String content = sequence + SEPARATOR + record;
+        return content + SEPARATOR + Long.toHexString(checksum(content)) + '\n';
+    }
+
+    private long checksum(String string) {
+        CRC32 crc = new CRC32();
+        crc.update(string.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Replaces every character that would break the file format.
+     *
+     * @param name The name that should be saved.
+     * @return The name without separators and line breaks.
+     */
+    private String sanitize(String name) {
+        //name not allowed to contain ";" as it is used as separator. Just replace with ","
+        return name.replace(SEPARATOR, ",").replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private String[] splitInputByNewLine(String stringToSplit) {
+        return stringToSplit.split("\\r?\\n"); //need to use this regex in order to work on Windows and Unix.
+    }
+
+    static String toRecordString(SessionRecord sessionRecord) {
+        return TYPE_SESSION + SEPARATOR + sessionRecord.getGameId()
+                + SEPARATOR + sessionRecord.getStartTimeMillis()
+                + SEPARATOR + sessionRecord.getDurationMillis()
+                + SEPARATOR + sessionRecord.getPiecesSpawned()
+                + SEPARATOR + sessionRecord.getShapesCompleted()
+                + SEPARATOR + sessionRecord.getPoints()
+                + SEPARATOR + sessionRecord.getNumberOfKachelnInStone()
+                + SEPARATOR + sessionRecord.getNumberOfNewAppearingStones()
+                + SEPARATOR + sessionRecord.getNumberOfShapes()
+                + SEPARATOR + sessionRecord.getAmountOfColors()
+                + SEPARATOR + sessionRecord.getVelocity()
+                + SEPARATOR + sessionRecord.isVelocityIncreasing();
+    }
+
+    static SessionRecord fromRecordFields(String[] fields) {
+        return new SessionRecord(Integer.parseInt(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]),
+                Integer.parseInt(fields[4]), Integer.parseInt(fields[5]), Integer.parseInt(fields[6]),
+                Integer.parseInt(fields[7]), Integer.parseInt(fields[8]), Integer.parseInt(fields[9]), Integer.parseInt(fields[10]),
+                fields[11], Boolean.parseBoolean(fields[12]));
+    }
+
+    /**
+     * A transaction decides, based on the current state of the database, which records should be written.
+     */
+    private interface Transaction {
+        ArrayList<String> createRecords(Database database) throws IOException;
+    }
+
+    /**
+     * Holds the name and the points of a highscore entry.
+     */
+    private static class HighscoreEntry {
+        String name;
+        int points;
+
+        HighscoreEntry(String name, int points) {
+            this.name = name;
+            this.points = points;
+        }
+    }
+
+    /**
+     * In-memory representation of the database file.
+     */
+    private static class Database {
+        long appliedSequence;
+        long bytesRead; //only used for the ScoreStoreEvent
+        LinkedHashMap<Integer, HighscoreEntry> highscores = new LinkedHashMap<>();
+        ArrayList<SessionRecord> sessions = new ArrayList<>();
+
+        /**
+         * Applies one record to the database.
+         *
+         * @param fields The record split by the separator.
+         */
+        void apply(String[] fields) {
+            if (fields[0].equals(TYPE_HIGHSCORE) && fields.length == 4) {
+                highscores.put(Integer.parseInt(fields[1]), new HighscoreEntry(fields[2], Integer.parseInt(fields[3])));
+            } else if (fields[0].equals(TYPE_SESSION) && fields.length == 13) {
+                sessions.add(fromRecordFields(fields));
+            }
+        }
+    }
+}
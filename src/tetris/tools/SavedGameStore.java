@@ -0,0 +1,334 @@
+package tetris.tools;
+
+import tetris.puzzles.datamodels.FallingVelocity;
+import tetris.puzzles.datamodels.SavedGame;
+import tetris.puzzles.datamodels.SavedGame.SavedShape;
+import tetris.puzzles.datamodels.SavedGame.SavedTetromino;
+import tetris.puzzles.datamodels.UserPreferences;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class saves an interrupted game (see {@link SavedGame}) into a small binary file, so that the game can be resumed after the application was closed.
+ * <br>The whole game is encoded into one {@link ByteBuffer}, which is written and read by a single {@link FileChannel} call each.
+ * The file starts with a header followed by the payload:
+ * <pre>
+ * int magic | short format version | int payload length | int CRC32 of the payload | payload
+ * </pre>
+ * A file with another magic number or format version, a wrong length or a wrong checksum is ignored, so a damaged file never leads to a broken game.
+ * <br>The game is written into a temporary file first, which is forced to the disk and renamed atomically. Thus, if the application crashes while saving,
+ * the previously saved game is kept, which makes the store usable for autosaving (see {@link AsyncSavedGameWriter}).
+ * <br>The arrays of the tetrominoes and shapes are written as one byte per kachel, as their values are between 0 and 3.
+ */
+public class SavedGameStore {
+
+    public static final String SAVED_GAME_FILE_NAME = "puzzles-savegame.bin";
+
+    static final int MAGIC = 0x505A5347; //"PZSG"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 4 + 2 + 4 + 4;
+    static final int MAX_FILE_LENGTH = 1 << 20; //a saved game has a few kilobytes at most, everything larger is not a saved game
+
+    private final Path savedGamePath;
+    private final Path temporarySavedGamePath;
+
+    /**
+     * Initialises a new store in the temp directory, i. e. the same directory where the highscores are saved.
+     */
+    public SavedGameStore() {
+        this(Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Initialises a new store in the given directory.
+     *
+     * @param directory The directory where the saved game is stored.
+     */
+    public SavedGameStore(Path directory) {
+        this.savedGamePath = directory.resolve(SAVED_GAME_FILE_NAME);
+        this.temporarySavedGamePath = directory.resolve(SAVED_GAME_FILE_NAME + ".tmp");
+    }
+
+    /**
+     * Saves the given game, a previously saved game is replaced atomically.
+     *
+     * @param savedGame The {@link SavedGame} to save.
+     * @return True, if the game was saved successfully.
+     */
+    public boolean save(SavedGame savedGame) {
+        ByteBuffer buffer = encode(savedGame);
+        try {
+            try (FileChannel temporaryChannel = FileChannel.open(temporarySavedGamePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    temporaryChannel.write(buffer);
+                }
+                temporaryChannel.force(true);
+            }
+
+            try {
+                Files.move(temporarySavedGamePath, savedGamePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporarySavedGamePath, savedGamePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Loads the saved game.
+     *
+     * @return The {@link SavedGame} or null if no game was saved or the file is damaged or was written by another format version.
+     */
+    public SavedGame load() {
+        try (FileChannel channel = FileChannel.open(savedGamePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH || size > MAX_FILE_LENGTH) {
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null; //file got shorter while reading
+                }
+            }
+            buffer.flip();
+            return decode(buffer);
+        } catch (NoSuchFileException e) {
+            return null; //no game saved
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether a saved game exists. The file is not checked, so {@link #load()} could still return null.
+     *
+     * @return True, if the file of a saved game exists.
+     */
+    public boolean exists() {
+        return Files.exists(savedGamePath);
+    }
+
+    /**
+     * Deletes the saved game, e. g. after it was resumed so that it cannot be resumed twice.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(savedGamePath);
+            Files.deleteIfExists(temporarySavedGamePath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Encodes the game into a new buffer including the header.
+     *
+     * @param savedGame The {@link SavedGame} to encode.
+     * @return A buffer that is ready to be written.
+     */
+    static ByteBuffer encode(SavedGame savedGame) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + getPayloadLength(savedGame));
+        buffer.position(HEADER_LENGTH);
+
+        UserPreferences userPreferences = savedGame.getUserPreferences();
+        buffer.put((byte) userPreferences.getNumberOfKachelnInStone());
+        buffer.put((byte) userPreferences.getNumberOfNewAppearingStones());
+        buffer.put((byte) userPreferences.getNumberOfShapes());
+        buffer.put((byte) userPreferences.getAmountOfColors());
+        buffer.put((byte) userPreferences.getVelocity().ordinal());
+        buffer.put((byte) (userPreferences.isVelocityIncreasing() ? 1 : 0));
+
+        buffer.putFloat(savedGame.getTimeUntilOneTetrominoGetsToGroundInSek());
+        buffer.putLong(savedGame.getMillisUntilNextCreation());
+        buffer.putLong(savedGame.getMillisUntilNextMovement());
+
+        buffer.putInt(savedGame.getPoints());
+        buffer.putLong(savedGame.getSessionStartTimeMillis());
+        buffer.putLong(savedGame.getPlayedTimeMillis());
+        buffer.putInt(savedGame.getPiecesSpawned());
+        buffer.putInt(savedGame.getShapesCompleted());
+
+        buffer.putShort((short) savedGame.getTetrominoesInGrid().size());
+        for (SavedTetromino tetromino : savedGame.getTetrominoesInGrid()) {
+            putTetromino(buffer, tetromino);
+        }
+
+        buffer.put((byte) savedGame.getParkingSpots().length);
+        for (SavedTetromino tetromino : savedGame.getParkingSpots()) {
+            buffer.put((byte) (tetromino == null ? 0 : 1));
+            if (tetromino != null) {
+                putTetromino(buffer, tetromino);
+            }
+        }
+
+        buffer.put((byte) savedGame.getShapes().size());
+        for (SavedShape shape : savedGame.getShapes()) {
+            putArray(buffer, shape.getInternalShapeArray());
+            putArray(buffer, shape.getOriginalShapeArray());
+            buffer.put((byte) shape.getFittedTetrominoes());
+            buffer.putInt(shape.getFittedColorRgb());
+        }
+
+        int payloadLength = buffer.position() - HEADER_LENGTH;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_LENGTH, payloadLength);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, FORMAT_VERSION);
+        buffer.putInt(6, payloadLength);
+        buffer.putInt(10, (int) crc.getValue());
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes a game from the given buffer including the header.
+     *
+     * @param buffer The buffer holding the content of a saved game file.
+     * @return The {@link SavedGame} or null if the content is not a valid saved game.
+     */
+    static SavedGame decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                return null;
+            }
+            int payloadLength = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (payloadLength != buffer.remaining()) {
+                return null; //file was not written completely
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), payloadLength);
+            if ((int) crc.getValue() != expectedCrc) {
+                return null;
+            }
+
+            SavedGame savedGame = new SavedGame();
+
+            UserPreferences userPreferences = new UserPreferences();
+            userPreferences.setNumberOfKachelnInTetromino(buffer.get());
+            userPreferences.setNumberOfNewAppearingStones(buffer.get());
+            userPreferences.setNumberOfShapes(buffer.get());
+            userPreferences.setAmountOfColors(buffer.get());
+            userPreferences.setVelocity(FallingVelocity.values()[buffer.get()]);
+            userPreferences.setVelocityIncreasing(buffer.get() == 1);
+            savedGame.setUserPreferences(userPreferences);
+
+            savedGame.setTimeUntilOneTetrominoGetsToGroundInSek(buffer.getFloat());
+            savedGame.setMillisUntilNextCreation(buffer.getLong());
+            savedGame.setMillisUntilNextMovement(buffer.getLong());
+
+            savedGame.setPoints(buffer.getInt());
+            savedGame.setSessionStartTimeMillis(buffer.getLong());
+            savedGame.setPlayedTimeMillis(buffer.getLong());
+            savedGame.setPiecesSpawned(buffer.getInt());
+            savedGame.setShapesCompleted(buffer.getInt());
+
+            int tetrominoesInGrid = buffer.getShort();
+            for (int i = 0; i < tetrominoesInGrid; i++) {
+                savedGame.getTetrominoesInGrid().add(getTetromino(buffer));
+            }
+
+            SavedTetromino[] parkingSpots = new SavedTetromino[buffer.get()];
+            for (int i = 0; i < parkingSpots.length; i++) {
+                parkingSpots[i] = (buffer.get() == 1) ? getTetromino(buffer) : null;
+            }
+            savedGame.setParkingSpots(parkingSpots);
+
+            int shapes = buffer.get();
+            for (int i = 0; i < shapes; i++) {
+                int[][] internalShapeArray = getArray(buffer);
+                int[][] originalShapeArray = getArray(buffer);
+                savedGame.getShapes().add(new SavedShape(internalShapeArray, originalShapeArray, buffer.get(), buffer.getInt()));
+            }
+
+            if (parkingSpots.length != userPreferences.getNumberOfParkingSpots() || shapes != userPreferences.getNumberOfShapes()) {
+                return null;
+            }
+            return savedGame;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            //the checksum matched, but the content does not: the file was not written by this store
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static int getPayloadLength(SavedGame savedGame) {
+        int length = 6 + 4 + 8 + 8 + 4 + 8 + 8 + 4 + 4;
+
+        length += 2;
+        for (SavedTetromino tetromino : savedGame.getTetrominoesInGrid()) {
+            length += getTetrominoLength(tetromino);
+        }
+
+        length += 1;
+        for (SavedTetromino tetromino : savedGame.getParkingSpots()) {
+            length += 1 + (tetromino == null ? 0 : getTetrominoLength(tetromino));
+        }
+
+        length += 1;
+        for (SavedShape shape : savedGame.getShapes()) {
+            length += getArrayLength(shape.getInternalShapeArray()) + getArrayLength(shape.getOriginalShapeArray()) + 1 + 4;
+        }
+        return length;
+    }
+
+    private static int getTetrominoLength(SavedTetromino tetromino) {
+        return getArrayLength(tetromino.getInternalArray()) + 4 + 4 + 4;
+    }
+
+    private static int getArrayLength(int[][] array) {
+        return 2 + array.length * (array.length == 0 ? 0 : array[0].length);
+    }
+
+    private static void putTetromino(ByteBuffer buffer, SavedTetromino tetromino) {
+        putArray(buffer, tetromino.getInternalArray());
+        buffer.putInt(tetromino.getLogicalX());
+        buffer.putInt(tetromino.getLogicalY());
+        buffer.putInt(tetromino.getColorRgb());
+    }
+
+    private static SavedTetromino getTetromino(ByteBuffer buffer) {
+        int[][] internalArray = getArray(buffer);
+        return new SavedTetromino(internalArray, buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+
+    private static void putArray(ByteBuffer buffer, int[][] array) {
+        int columns = array.length == 0 ? 0 : array[0].length;
+        buffer.put((byte) array.length);
+        buffer.put((byte) columns);
+        for (int[] row : array) {
+            for (int column = 0; column < columns; column++) {
+                buffer.put((byte) row[column]);
+            }
+        }
+    }
+
+    private static int[][] getArray(ByteBuffer buffer) {
+        int[][] array = new int[buffer.get()][buffer.get()];
+        for (int[] row : array) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = buffer.get();
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,61 @@
+package tetris.tools;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Provides an interface that every storage for highscores and finished game sessions should implement.
+ * <br>Implementations are responsible for the consistency of the stored data, i. e. the check whether new points are a
+ * new highscore and the update of the entry have to be done as one atomic operation.
+ */
+public interface ScoreStore {
+
+    /**
+     * Gets the points for one specific game ID.
+     *
+     * @param gameId The ID of the corresponding game
+     * @return Returns the current points as saved in the highscore or 0 if no entry for the game was set yet.
+     */
+    int getPoints(int gameId);
+
+    /**
+     * Gets player's name for one specific game ID.
+     *
+     * @param gameId The ID of the corresponding game
+     * @return Returns the current player's name as saved in the highscore or "N/A" if no entry for the game was set yet.
+     */
+    String getName(int gameId);
+
+    /**
+     * Saves a new entry to the highscore if and only if the given points are higher than the points currently saved.
+     *
+     * @param gameId    The ID of the corresponding game
+     * @param name      The name of the player to be saved
+     * @param newPoints The points of the player to be saved
+     * @return True, if the highscore entry was updated. False otherwise.
+     */
+    boolean saveToHighscore(int gameId, String name, int newPoints);
+
+    /**
+     * Appends a finished game session to the history of sessions.
+     *
+     * @param sessionRecord The {@link SessionRecord} to be saved.
+     */
+    void addSessionRecord(SessionRecord sessionRecord);
+
+    /**
+     * Returns every saved session of one specific game ID in the order they were saved.
+     *
+     * @param gameId The ID of the corresponding game
+     * @return An ArrayList holding the {@link SessionRecord}s of the game.
+     */
+    ArrayList<SessionRecord> getSessionRecords(int gameId);
+
+    /**
+     * Completely resets the store. Thus, every game will have no highscore and no session history anymore.
+     * <br><b>NOTE:</b> This cannot be undone.
+     *
+     * @throws IOException Thrown if some problems occur while accessing the store
+     */
+    void resetDatabase() throws IOException;
+}
@@ -0,0 +1,34 @@
+package tetris.tools;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event emitted for every access of the files of a {@link JournaledScoreStore}.
+ */
+@Name("tetris.tools.ScoreStoreIO")
+@Label("Score Store I/O")
+@Category({"Tetris Puzzle", "Highscore"})
+@Description("The highscore database was read or written")
+public class ScoreStoreEvent extends Event {
+
+    public static final String READ = "read";
+    public static final String COMMIT = "commit";
+    public static final String RESET = "reset";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Records Written")
+    public int recordsWritten;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+
+    @Label("Successful")
+    public boolean successful;
+}
@@ -0,0 +1,103 @@
+package tetris.tools;
+
+/**
+ * This class holds a data model for one finished game session as it is stored in the {@link ScoreStore}.
+ * Next to the achieved points it contains some statistics of the session and the preferences the game was played with.
+ */
+public class SessionRecord {
+
+    private final int gameId;
+    private final long startTimeMillis;
+    private final long durationMillis;
+    private final int piecesSpawned;
+    private final int shapesCompleted;
+    private final int points;
+
+    private final int numberOfKachelnInStone;
+    private final int numberOfNewAppearingStones;
+    private final int numberOfShapes;
+    private final int amountOfColors;
+    private final String velocity;
+    private final boolean velocityIncreasing;
+
+    /**
+     * Constructs a new SessionRecord.
+     *
+     * @param gameId                     The ID of the game
+     * @param startTimeMillis            The point in time the session was started (as returned by {@link System#currentTimeMillis()})
+     * @param durationMillis             The time the session was actually played, i. e. without the time the game was paused
+     * @param piecesSpawned              The number of tetrominoes that appeared in the game grid
+     * @param shapesCompleted            The number of shapes that were completely filled by two tetrominoes
+     * @param points                     The points the player achieved
+     * @param numberOfKachelnInStone     The number of kacheln in a tetromino used in the session
+     * @param numberOfNewAppearingStones The number of new appearing tetrominoes used in the session
+     * @param numberOfShapes             The number of shapes used in the session
+     * @param amountOfColors             The amount of colors used in the session
+     * @param velocity                   The name of the falling velocity used in the session
+     * @param velocityIncreasing         Whether the velocity was increasing from time to time in the session
+     */
+    public SessionRecord(int gameId, long startTimeMillis, long durationMillis, int piecesSpawned, int shapesCompleted, int points,
+                         int numberOfKachelnInStone, int numberOfNewAppearingStones, int numberOfShapes, int amountOfColors,
+                         String velocity, boolean velocityIncreasing) {
+        this.gameId = gameId;
+        this.startTimeMillis = startTimeMillis;
+        this.durationMillis = durationMillis;
+        this.piecesSpawned = piecesSpawned;
+        this.shapesCompleted = shapesCompleted;
+        this.points = points;
+        this.numberOfKachelnInStone = numberOfKachelnInStone;
+        this.numberOfNewAppearingStones = numberOfNewAppearingStones;
+        this.numberOfShapes = numberOfShapes;
+        this.amountOfColors = amountOfColors;
+        this.velocity = velocity;
+        this.velocityIncreasing = velocityIncreasing;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getPiecesSpawned() {
+        return piecesSpawned;
+    }
+
+    public int getShapesCompleted() {
+        return shapesCompleted;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getNumberOfKachelnInStone() {
+        return numberOfKachelnInStone;
+    }
+
+    public int getNumberOfNewAppearingStones() {
+        return numberOfNewAppearingStones;
+    }
+
+    public int getNumberOfShapes() {
+        return numberOfShapes;
+    }
+
+    public int getAmountOfColors() {
+        return amountOfColors;
+    }
+
+    public String getVelocity() {
+        return velocity;
+    }
+
+    public boolean isVelocityIncreasing() {
+        return velocityIncreasing;
+    }
+}
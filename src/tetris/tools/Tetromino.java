@@ -222,85 +222,118 @@ public class Tetromino implements Comparable <Tetromino>{
 	}
 
 	/**
-	 * Returns whether the kStein has a 1x1 hole.
-	 * @return true if the kStein has a 1x1 hole. False if not.
+	 * Returns whether the kStein has an enclosed region: empty cells of any size and form that cannot be reached from the border of the array
+	 * by moving horizontally or vertically over empty cells. Such a region can never be filled by another tetromino.
+	 * <br>The empty cells are held as bits of long words. Starting with the empty cells on the border, the reachable exterior is flood filled
+	 * by shifting all bits of a word at once: every step spreads the exterior over whole rows of empty cells and one row up and down,
+	 * so it costs a few word operations instead of looking at every cell and its neighbours.
+	 * An array fitting into a single word (e. g. every kStein up to k = 7) is filled in it, larger arrays use one word per row.
+	 * The array must not have more than 64 columns.
+	 * @return true if the kStein has an enclosed region. False if not.
 	 */
-	public boolean hasHole() {
-		for(int i = 1; i < k-1; i++) {
-			for (int j = 1; j < k-1; j++) {
-				if (stein[i][j] == 0) {
-					if (numberNeighbours(i, j) == 4) {
-						return true;
-					}
-				}
-			}
+	public boolean hasEnclosedRegion() {
+		int rows = stein.length;
+		int columns = (rows == 0) ? 0 : stein[0].length;
+		if (rows < 3 || columns < 3) {
+			return false; //every cell is on the border
 		}
-		return false;
+		return (rows * (columns + 1) <= Long.SIZE) ? hasEnclosedRegionInWord(rows, columns) : hasEnclosedRegionInRows(rows, columns);
 	}
-	
+
 	/**
-	 * Returns the number of neighbors a kachel has.
-	 * @param i, the row
-	 * @param j, the column
-	 * @return the number of neighbors
+	 * Flood fills the exterior in a single word. The cell (i, j) is the bit i * (columns + 1) + j,
+	 * so a row is followed by an always empty bit which stops the filling of a row from running into the next row.
 	 */
-	public int numberNeighbours(int i, int j) {
-		return stein[i-1][j] + stein[i+1][j] + stein[i][j-1] + stein[i][j+1];
+	private boolean hasEnclosedRegionInWord(int rows, int columns) {
+		int stride = columns + 1;
+		long empty = 0;
+		long border = 0;
+		for (int i = 0; i < rows; i++) {
+			empty |= getEmptyBits(stein[i], columns) << (i * stride);
+			border |= (i == 0 || i == rows - 1) ? ((1L << columns) - 1) << (i * stride) : (1L | 1L << (columns - 1)) << (i * stride);
+		}
+
+		long exterior = empty & border;
+		long previous;
+		do {
+			previous = exterior;
+			exterior = fillRows(exterior, empty, columns);
+			exterior |= ((exterior << stride) | (exterior >>> stride)) & empty;
+		} while (exterior != previous);
+		return exterior != empty;
 	}
-	
+
 	/**
-	 * Returns whether the kStein has a 2x1 hole.
-	 * @return true if the kStein has a 2x1 hole. False if not.
+	 * Flood fills the exterior with one word per row, the cell (i, j) is the bit j of the row i.
 	 */
-	public boolean hasBigHole() {
-		for(int i = 1; i < k-1; i++) {
-			for (int j = 1; j < k-1; j++) {
-				if (stein[i][j] == 0) {
-					if(numberNeighbours(i, j) == 3) {
-						if(checkNeighbourhole(i, j)) {
-							return true;
-						}
-					}
+	private boolean hasEnclosedRegionInRows(int rows, int columns) {
+		long[] empty = new long[rows];
+		long[] exterior = new long[rows];
+		long borderColumns = 1L | 1L << (columns - 1);
+		for (int i = 0; i < rows; i++) {
+			empty[i] = getEmptyBits(stein[i], columns);
+			exterior[i] = (i == 0 || i == rows - 1) ? empty[i] : empty[i] & borderColumns;
+		}
+
+		boolean isChanged = true;
+		while (isChanged) {
+			isChanged = false;
+			//sweep down and up again, so the fill spreads over every row within one pass
+			for (int step = 0; step < 2 * rows; step++) {
+				int i = (step < rows) ? step : 2 * rows - 1 - step;
+				long grown = exterior[i];
+				if (i > 0) {
+					grown |= exterior[i - 1];
+				}
+				if (i < rows - 1) {
+					grown |= exterior[i + 1];
+				}
+				grown = fillRows(grown & empty[i], empty[i], columns);
+				if (grown != exterior[i]) {
+					exterior[i] = grown;
+					isChanged = true;
 				}
 			}
 		}
+
+		for (int i = 0; i < rows; i++) {
+			if (exterior[i] != empty[i]) {
+				return true;
+			}
+		}
 		return false;
 	}
-	
+
 	/**
-	 * Returns if the neighbour is part of the 2x1 hole
-	 * @param i, the row
-	 * @param j, the column
-	 * @return true, if it is part of the the hole, false if not.
+	 * Returns the empty cells of a row as bits, the bit j is set if the column j is 0.
+	 * The bits are calculated without branching, as empty and filled cells alternate too irregularly to be predicted.
 	 */
-	public boolean checkNeighbourhole(int i, int j) {
-		if (stein[i+1][j] == 0) {
-			if(checkBounds(i+1,j)) {
-				return numberNeighbours(i+1, j) == 3;
-			}
-		} else if (stein[i-1][j] == 0) {
-			if(checkBounds(i-1,j)) {
-				return numberNeighbours(i-1, j) == 3;
-			}
-		} else if (stein[i][j+1] == 0) {
-			if(checkBounds(i,j+1)) {
-				return numberNeighbours(i, j+1) == 3;
-			}
-		} else if (stein[i][j-1] == 0) {
-			if(checkBounds(i,j-1)) {
-				return numberNeighbours(i, j-1) == 3;
-			}
+	private static long getEmptyBits(int[] row, int columns) {
+		long emptyBits = 0;
+		for (int j = 0; j < columns; j++) {
+			//the sign bit of (v | -v) is set for every v except 0
+			emptyBits |= (long) (((row[j] | -row[j]) >>> 31) ^ 1) << j;
 		}
-		return false;
+		return emptyBits;
 	}
-	
+
 	/**
-	 * returns if the neighbour can be a hole
-	 * @param i, the row
-	 * @param j, the column
-	 * @return true, if it can be a hole, false if not.
+	 * Spreads the filled bits to the left and right over the empty bits next to them, until a non empty bit is reached.
+	 * Instead of one bit per step, the distance is doubled every step, so a row of n columns needs log2(n) steps.
+	 * @param filled the filled bits, all of them empty
+	 * @param empty the empty bits
+	 * @param columns the maximum number of bits in one row of empty bits
+	 * @return the filled bits and all empty bits connected to them in a row
 	 */
-	public boolean checkBounds(int i, int j) {
-		return (i < k-1 && i > 0 && j < k-1 && j > 0);
+	private static long fillRows(long filled, long empty, int columns) {
+		//empty bits, whose bits up to the current distance to the left (lower columns) resp. to the right are empty as well
+		long emptyToTheLeft = empty;
+		long emptyToTheRight = empty;
+		for (int distance = 1; distance < columns; distance <<= 1) {
+			filled |= (emptyToTheLeft & (filled << distance)) | (emptyToTheRight & (filled >>> distance));
+			emptyToTheLeft &= emptyToTheLeft << distance;
+			emptyToTheRight &= emptyToTheRight >>> distance;
+		}
+		return filled;
 	}
 }
@@ -204,7 +204,7 @@ public class TetrominoArraylist {
 							
 							// add the new stone to the k-standardembeddings if it is a new standardembedding and if it has no holes in it
 							if (newStandardStone(akt)) {
-								if (!akt.hasHole()) {
+								if (!akt.hasEnclosedRegion()) {
 									addStone(akt);
 								}
 							}
@@ -231,7 +231,7 @@ public class TetrominoArraylist {
 
 							// add the new stone to the k-standardembeddings if it is a new standardembedding and if it has no holes in it
 							if (newStandardStone(akt)) {
-								if (!akt.hasHole()) {
+								if (!akt.hasEnclosedRegion()) {
 									addStone(akt);
 								}
 							}
@@ -264,7 +264,7 @@ public class TetrominoArraylist {
 
 							// add the new stone to the k-standardembeddings if it is a new standardembedding and if it has no holes in it
 							if (newStandardStone(akt)) {
-								if (!akt.hasHole()) {
+								if (!akt.hasEnclosedRegion()) {
 									addStone(akt);
 								}
 							}
@@ -301,7 +301,7 @@ public class TetrominoArraylist {
 
 							// add the new stone to the k-standardembeddings if it is a new standardembedding and if it has no holes in it
 							if (newStandardStone(akt)) {
-								if (!akt.hasHole()) {
+								if (!akt.hasEnclosedRegion()) {
 									addStone(akt);
 								}
 							}